@@ -0,0 +1,214 @@
+package com.enrollment.system.benchmark;
+
+import com.enrollment.system.SpringBootApp;
+import com.enrollment.system.model.SchoolYear;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Semester;
+import com.enrollment.system.model.Student;
+import com.enrollment.system.model.Subject;
+import com.enrollment.system.model.User;
+import com.enrollment.system.repository.SchoolYearRepository;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.repository.SemesterRepository;
+import com.enrollment.system.repository.StudentRepository;
+import com.enrollment.system.repository.SubjectRepository;
+import com.enrollment.system.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Shared JMH state that boots the Spring context against a freshly generated SQLite database.
+ * DataInitializer seeds school years, strands, sections, subjects and semesters as it does on a
+ * normal first run; this class then adds {@code studentCount} students and {@code teacherCount} teachers.
+ *
+ * The database file is written to target/jmh-db/enrollment-{studentCount}.db and recreated per trial.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    @Param({"1000", "5000"})
+    public int studentCount;
+
+    @Param({"20"})
+    public int teacherCount;
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private Path databaseFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path directory = Paths.get("target", "jmh-db");
+        Files.createDirectories(directory);
+        databaseFile = directory.resolve("enrollment-" + studentCount + ".db");
+        deleteDatabaseFiles();
+
+        String url = "jdbc:sqlite:" + databaseFile.toAbsolutePath() +
+                "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=30000&cache_size=-10000&temp_store=MEMORY";
+
+        // Command line arguments take precedence over application.properties
+        context = new SpringApplicationBuilder(SpringBootApp.class)
+                .web(WebApplicationType.NONE)
+                .headless(true)
+                .run("--spring.datasource.url=" + url,
+                     "--spring.jpa.show-sql=false",
+                     "--spring.main.banner-mode=off",
+                     "--enrollment.audit.enabled=false",
+                     "--spring.datasource.hikari.register-mbeans=false",
+                     "--logging.level.com.enrollment.system=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN",
+                     "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        generateTeachers();
+        generateStudents();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+        deleteDatabaseFiles();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(bean(PlatformTransactionManager.class));
+    }
+
+    public SchoolYear currentSchoolYear() {
+        return bean(SchoolYearRepository.class).findByIsCurrentTrue()
+                .orElseThrow(() -> new IllegalStateException("Benchmark database has no current school year"));
+    }
+
+    public List<User> teachers() {
+        return bean(UserRepository.class).findAll().stream()
+                .filter(user -> user.getRole() == User.UserRole.TEACHER)
+                .collect(Collectors.toList());
+    }
+
+    public List<Subject> activeSubjects() {
+        return bean(SubjectRepository.class).findByIsActiveTrue();
+    }
+
+    private void generateTeachers() {
+        UserRepository userRepository = bean(UserRepository.class);
+        PasswordEncoder passwordEncoder = bean(PasswordEncoder.class);
+        // Every teacher shares one hash - BCrypt cost is not what these benchmarks measure
+        String password = passwordEncoder.encode("teacher123");
+
+        List<User> teachers = new ArrayList<>();
+        for (int i = 1; i <= teacherCount; i++) {
+            User teacher = new User();
+            teacher.setUsername("bench.teacher" + i);
+            teacher.setPassword(password);
+            teacher.setFullName("Benchmark Teacher " + i);
+            teacher.setRole(User.UserRole.TEACHER);
+            teacher.setIsActive(true);
+            teachers.add(teacher);
+        }
+        transactionTemplate().executeWithoutResult(status -> userRepository.saveAll(teachers));
+    }
+
+    private void generateStudents() {
+        SchoolYear currentSchoolYear = currentSchoolYear();
+        List<Section> sections = bean(SectionRepository.class).findByIsActiveTrue();
+        if (sections.isEmpty()) {
+            throw new IllegalStateException("Benchmark database has no active sections");
+        }
+
+        // First semester per grade level of the current school year
+        Map<Integer, Semester> semesterByGrade = bean(SemesterRepository.class)
+                .findBySchoolYearId(currentSchoolYear.getId()).stream()
+                .filter(semester -> semester.getSemesterNumber() != null && semester.getSemesterNumber() == 1)
+                .collect(Collectors.toMap(Semester::getGradeLevel, semester -> semester, (a, b) -> a));
+
+        StudentRepository studentRepository = bean(StudentRepository.class);
+        TransactionTemplate transactionTemplate = transactionTemplate();
+        Random random = new Random(42);
+
+        List<Student> chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+        for (int i = 0; i < studentCount; i++) {
+            Section section = sections.get(i % sections.size());
+            Student student = new Student();
+            student.setName("Benchmark Student " + i);
+            student.setBirthdate(LocalDate.of(2008, 1, 1).plusDays(random.nextInt(730)));
+            student.setAge(17);
+            student.setSex(i % 2 == 0 ? "Male" : "Female");
+            student.setAddress("Purok " + (i % 7 + 1) + ", Seguinon");
+            student.setContactNumber("09" + String.format("%09d", i));
+            student.setParentGuardianName("Guardian " + i);
+            student.setParentGuardianContact("09" + String.format("%09d", i + 1));
+            student.setParentGuardianRelationship("Parent");
+            student.setGradeLevel(section.getGradeLevel());
+            student.setStrand(section.getStrand());
+            student.setPreviousSchool("Seguinon National High School");
+            student.setGwa(75.0 + random.nextInt(25));
+            student.setLrn(String.format("1%011d", i));
+            student.setSchoolYear(currentSchoolYear);
+            student.setIsArchived(false);
+
+            if (i % 25 == 24) {
+                // A slice of archived rows so the archive filters have something to skip
+                student.setEnrollmentStatus("Enrolled");
+                student.setIsArchived(true);
+                student.setArchiveReason("TRANSFERRED");
+            } else if (i % 10 == 9) {
+                student.setEnrollmentStatus("Pending");
+            } else {
+                student.setEnrollmentStatus("Enrolled");
+                student.setSection(section);
+                student.setSemester(semesterByGrade.get(section.getGradeLevel()));
+            }
+
+            chunk.add(student);
+            if (chunk.size() == INSERT_CHUNK_SIZE) {
+                List<Student> toSave = chunk;
+                transactionTemplate.executeWithoutResult(status -> studentRepository.saveAll(toSave));
+                chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            List<Student> toSave = chunk;
+            transactionTemplate.executeWithoutResult(status -> studentRepository.saveAll(toSave));
+        }
+    }
+
+    private void deleteDatabaseFiles() {
+        if (databaseFile == null) {
+            return;
+        }
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            File file = new File(databaseFile.toString() + suffix);
+            if (file.exists() && !file.delete()) {
+                System.err.println("⚠ Could not delete benchmark database file: " + file);
+            }
+        }
+    }
+}
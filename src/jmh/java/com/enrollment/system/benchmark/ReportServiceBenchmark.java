@@ -0,0 +1,37 @@
+package com.enrollment.system.benchmark;
+
+import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report queries behind the Enrollment Summary and Student List by Section screens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportServiceBenchmark {
+
+    @Benchmark
+    public ReportService.EnrollmentStatistics getEnrollmentStatistics(BenchmarkDatabase database) {
+        return database.bean(ReportService.class).getEnrollmentStatistics();
+    }
+
+    @Benchmark
+    public Map<Section, List<StudentDto>> getStudentsBySection(BenchmarkDatabase database) {
+        return database.bean(ReportService.class).getStudentsBySection();
+    }
+}
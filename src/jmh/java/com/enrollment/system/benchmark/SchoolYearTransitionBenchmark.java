@@ -0,0 +1,70 @@
+package com.enrollment.system.benchmark;
+
+import com.enrollment.system.model.SchoolYear;
+import com.enrollment.system.repository.SchoolYearRepository;
+import com.enrollment.system.service.SchoolYearService;
+import com.enrollment.system.service.SchoolYearTransitionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Year-end transition preview and the transition itself. The transition mutates the database,
+ * so it runs single-shot and the carried-over rows are removed again before every iteration.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SchoolYearTransitionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Years {
+        Long currentSchoolYearId;
+        Long nextSchoolYearId;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase database) {
+            SchoolYearRepository schoolYearRepository = database.bean(SchoolYearRepository.class);
+            currentSchoolYearId = database.currentSchoolYear().getId();
+            nextSchoolYearId = schoolYearRepository.findByYear("2026-2027")
+                    .map(SchoolYear::getId)
+                    .orElseThrow(() -> new IllegalStateException("Benchmark database has no 2026-2027 school year"));
+        }
+
+        @Setup(Level.Iteration)
+        public void restoreCurrentYear(BenchmarkDatabase database) {
+            database.transactionTemplate().executeWithoutResult(status ->
+                database.bean(JdbcTemplate.class)
+                        .update("DELETE FROM students WHERE school_year_id = ?", nextSchoolYearId));
+            database.bean(SchoolYearService.class).setCurrentSchoolYear(currentSchoolYearId);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public SchoolYearTransitionService.TransitionPreview getTransitionPreview(BenchmarkDatabase database, Years years) {
+        return database.bean(SchoolYearTransitionService.class)
+                .getTransitionPreview(years.nextSchoolYearId, true, true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public SchoolYearTransitionService.TransitionResult transitionToNewSchoolYear(BenchmarkDatabase database, Years years) {
+        return database.bean(SchoolYearTransitionService.class)
+                .transitionToNewSchoolYear(years.nextSchoolYearId, true, true);
+    }
+}
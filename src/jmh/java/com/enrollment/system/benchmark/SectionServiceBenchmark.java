@@ -0,0 +1,56 @@
+package com.enrollment.system.benchmark;
+
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Semester;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.repository.SemesterRepository;
+import com.enrollment.system.service.SectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capacity check that runs before every section assignment in StudentService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectionServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Target {
+        Long sectionId;
+        Long semesterId;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase database) {
+            List<Section> sections = database.bean(SectionRepository.class).findByIsActiveTrue();
+            Section section = sections.get(0);
+            sectionId = section.getId();
+            semesterId = database.bean(SemesterRepository.class)
+                    .findBySchoolYearIdAndGradeLevel(database.currentSchoolYear().getId(), section.getGradeLevel())
+                    .stream()
+                    .map(Semester::getId)
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    @Benchmark
+    public boolean hasAvailableCapacity(BenchmarkDatabase database, Target target) {
+        return database.bean(SectionService.class).hasAvailableCapacity(target.sectionId, target.semesterId);
+    }
+}
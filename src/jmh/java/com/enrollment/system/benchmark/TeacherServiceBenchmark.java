@@ -0,0 +1,111 @@
+package com.enrollment.system.benchmark;
+
+import com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Subject;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.service.TeacherService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a teacher's assignments, alternating between two overlapping sets so every call
+ * deletes and inserts some rows the way the Assign Subjects & Sections screen does.
+ *
+ * The call goes through the same READ_COMMITTED TransactionTemplate and SQLITE_BUSY retry
+ * loop (3 attempts, 100/200ms backoff) as AssignTeacherSubjectsSectionsController, and the
+ * number of retries is reported as a secondary "busyRetries" result. Each save passes the
+ * assignment version returned by the previous one, so the optimistic check never fails.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeacherServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Assignments {
+        Long teacherId;
+        long version;
+        List<AssignmentRecord> first;
+        List<AssignmentRecord> second;
+        boolean useFirst;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase database) {
+            teacherId = database.teachers().get(0).getId();
+            List<Subject> subjects = database.activeSubjects();
+            List<Section> sections = database.bean(SectionRepository.class).findByIsActiveTrue();
+
+            // Eight pairs each (the per-teacher cap), sharing four so the diff is half inserts, half deletes
+            List<AssignmentRecord> pairs = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                pairs.add(new AssignmentRecord(subjects.get(i % subjects.size()), sections.get(i % sections.size())));
+            }
+            first = new ArrayList<>(pairs.subList(0, 8));
+            second = new ArrayList<>(pairs.subList(4, 12));
+            version = database.bean(TeacherService.class).getAssignmentVersion(teacherId);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retries {
+        public long busyRetries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            busyRetries = 0;
+        }
+    }
+
+    private static final int MAX_RETRIES = 3;
+    private static final int BASE_RETRY_DELAY_MS = 100;
+
+    @Benchmark
+    public void saveTeacherAssignments(BenchmarkDatabase database, Assignments assignments, Retries retries)
+            throws InterruptedException {
+        List<AssignmentRecord> records = assignments.useFirst ? assignments.first : assignments.second;
+        assignments.useFirst = !assignments.useFirst;
+
+        TransactionTemplate transactionTemplate = database.transactionTemplate();
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        TeacherService teacherService = database.bean(TeacherService.class);
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            try {
+                // Carry the returned version into the next call, as the screen does after a save
+                Long saved = transactionTemplate.execute(status ->
+                        teacherService.saveTeacherAssignments(assignments.teacherId, records, assignments.version));
+                assignments.version = saved;
+                return;
+            } catch (DataAccessException e) {
+                String message = e.getMessage();
+                boolean busy = message != null && (message.contains("SQLITE_BUSY") || message.contains("database is locked"));
+                if (!busy || attempt == MAX_RETRIES - 1) {
+                    throw e;
+                }
+                retries.busyRetries++;
+                Thread.sleep(BASE_RETRY_DELAY_MS * (1L << attempt));
+            }
+        }
+    }
+}
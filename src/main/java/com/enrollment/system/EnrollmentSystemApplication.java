@@ -14,8 +14,9 @@ public class EnrollmentSystemApplication extends Application {
     
     @Override
     public void init() {
-        // Initialize Spring context
-        applicationContext = new SpringApplicationBuilder(SpringBootApp.class).run();
+        // Initialize Spring context (command line args allow e.g. --spring.profiles.active=sql)
+        applicationContext = new SpringApplicationBuilder(SpringBootApp.class)
+                .run(getParameters().getRaw().toArray(new String[0]));
     }
     
     @Override
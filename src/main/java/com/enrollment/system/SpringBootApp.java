@@ -3,10 +3,12 @@ package com.enrollment.system;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EntityScan("com.enrollment.system.model")
 @EnableJpaRepositories("com.enrollment.system.repository")
+@EnableScheduling
 public class SpringBootApp {
     // Spring Boot application context
     // Note: This is started by EnrollmentSystemApplication
@@ -0,0 +1,44 @@
+package com.enrollment.system.config;
+
+import com.enrollment.system.util.AuditEventListener;
+import com.enrollment.system.util.AuditLog;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers AuditEventListener with Hibernate for committed inserts, updates and deletes.
+ */
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer auditCustomizer(AuditLog auditLog) {
+        AuditEventListener listener = new AuditEventListener(auditLog);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+    }
+}
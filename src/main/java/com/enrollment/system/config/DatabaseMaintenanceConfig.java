@@ -0,0 +1,63 @@
+package com.enrollment.system.config;
+
+import com.enrollment.system.util.DatabaseMaintenance;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes DatabaseMaintenance as the dbmaintenance actuator endpoint on the management port:
+ * GET for the current statistics, POST /actuator/dbmaintenance/{task} with task one of
+ * checkpoint, optimize or integrity-check to run it now.
+ */
+@Configuration
+public class DatabaseMaintenanceConfig {
+
+    @Bean
+    public DatabaseMaintenanceEndpoint databaseMaintenanceEndpoint(DatabaseMaintenance databaseMaintenance) {
+        return new DatabaseMaintenanceEndpoint(databaseMaintenance);
+    }
+
+    @Endpoint(id = "dbmaintenance")
+    public static class DatabaseMaintenanceEndpoint {
+
+        private final DatabaseMaintenance databaseMaintenance;
+
+        public DatabaseMaintenanceEndpoint(DatabaseMaintenance databaseMaintenance) {
+            this.databaseMaintenance = databaseMaintenance;
+        }
+
+        @ReadOperation
+        public DatabaseMaintenance.MaintenanceStatus status() throws SQLException {
+            return databaseMaintenance.getStatus();
+        }
+
+        @WriteOperation
+        public Map<String, Object> run(@Selector String task) throws SQLException {
+            Map<String, Object> result = new HashMap<>();
+            result.put("task", task);
+            switch (task) {
+                case "checkpoint":
+                    result.put("result", databaseMaintenance.checkpoint("TRUNCATE"));
+                    break;
+                case "optimize":
+                    databaseMaintenance.optimize();
+                    result.put("result", "ok");
+                    break;
+                case "integrity-check":
+                    result.put("result", databaseMaintenance.integrityCheck());
+                    break;
+                default:
+                    result.put("error", "Unknown task: " + task + " (checkpoint, optimize or integrity-check)");
+            }
+            return result;
+        }
+    }
+}
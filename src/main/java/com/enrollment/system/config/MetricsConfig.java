@@ -0,0 +1,46 @@
+package com.enrollment.system.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Micrometer wiring for the enrollment system.
+ *
+ * Repository calls are timed by Spring Boot's built-in spring.data.repository.invocations metric,
+ * service classes annotated with @Timed are timed through the TimedAspect below, and controller
+ * background loads go through UiLoadMetrics. Everything is scraped from the local management
+ * port (see application.properties) and also written periodically to the rolling log file.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public LoggingMeterRegistry loggingMeterRegistry(
+            @Value("${enrollment.metrics.log.step:1m}") Duration step) {
+        LoggingRegistryConfig config = new LoggingRegistryConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration step() {
+                return step;
+            }
+        };
+        return new LoggingMeterRegistry(config, Clock.SYSTEM);
+    }
+}
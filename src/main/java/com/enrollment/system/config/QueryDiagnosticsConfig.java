@@ -0,0 +1,56 @@
+package com.enrollment.system.config;
+
+import com.enrollment.system.util.QueryDiagnostics;
+import com.enrollment.system.util.QueryDiagnosticsInspector;
+import com.enrollment.system.util.QueryDiagnosticsListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the statement inspector and session listener behind QueryDiagnostics with Hibernate,
+ * and exposes the report as the querydiagnostics actuator endpoint
+ * (GET to read, DELETE to reset) on the management port.
+ */
+@Configuration
+public class QueryDiagnosticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryDiagnosticsCustomizer(QueryDiagnostics queryDiagnostics) {
+        return properties -> {
+            if (queryDiagnostics.isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryDiagnosticsInspector());
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryDiagnosticsListener.class.getName());
+            }
+        };
+    }
+
+    @Bean
+    public QueryDiagnosticsEndpoint queryDiagnosticsEndpoint(QueryDiagnostics queryDiagnostics) {
+        return new QueryDiagnosticsEndpoint(queryDiagnostics);
+    }
+
+    @Endpoint(id = "querydiagnostics")
+    public static class QueryDiagnosticsEndpoint {
+
+        private final QueryDiagnostics queryDiagnostics;
+
+        public QueryDiagnosticsEndpoint(QueryDiagnostics queryDiagnostics) {
+            this.queryDiagnostics = queryDiagnostics;
+        }
+
+        @ReadOperation
+        public QueryDiagnostics.DiagnosticsReport report() {
+            return queryDiagnostics.getReport();
+        }
+
+        @DeleteOperation
+        public void reset() {
+            queryDiagnostics.reset();
+        }
+    }
+}
@@ -32,6 +32,10 @@ public class SchemaFixListener {
                 // Check and fix the table schema
                 // NOTE: This will only fix if there are actual schema issues - won't drop table if schema is correct
                 databaseSchemaUpdater.ensureTeacherAssignmentsTableExists();
+                databaseSchemaUpdater.ensureTeacherAssignmentsUniqueIndex();
+                databaseSchemaUpdater.ensureStudentSearchIndex();
+                databaseSchemaUpdater.ensureTableChangeCounters();
+                databaseSchemaUpdater.ensureDependencyIndexes();
                 System.out.println("✅ Post-initialization schema check completed");
             } catch (Exception e) {
                 System.err.println("❌ Post-initialization schema fix failed: " + e.getMessage());
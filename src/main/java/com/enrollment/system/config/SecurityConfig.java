@@ -1,5 +1,6 @@
 package com.enrollment.system.config;
 
+import com.enrollment.system.util.SessionManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,6 +9,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -23,17 +25,27 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, SessionManager sessionManager) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                // Actuator runs on the management port, which only listens on localhost
+                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/api/teacher-assignments/**").hasRole("ADMIN")
+                .requestMatchers("/api/sections/balance").hasAnyRole("ADMIN", "REGISTRAR")
+                .requestMatchers("/api/school-years/graduation/**").hasRole("ADMIN")
+                .requestMatchers("/api/backups/**").hasRole("ADMIN")
+                .requestMatchers("/api/audit/**").hasRole("ADMIN")
+                .requestMatchers("/api/students/import/**").hasAnyRole("ADMIN", "REGISTRAR")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-            );
+            )
+            // API clients authenticate with the session token from /api/auth/login
+            .addFilterBefore(new SessionTokenAuthenticationFilter(sessionManager), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
@@ -1,11 +1,13 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.StudentSearchDebouncer;
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.StudentDto;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.model.Strand;
-import com.enrollment.system.model.Student;
 import com.enrollment.system.service.SectionService;
 import com.enrollment.system.service.StrandService;
+import com.enrollment.system.service.StudentSearchService;
 import com.enrollment.system.service.StudentService;
 import com.enrollment.system.service.SchoolYearService;
 import com.enrollment.system.service.SemesterService;
@@ -169,6 +171,12 @@ public class AddStudentController {
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private StudentSearchService studentSearchService;
+    
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private SectionService sectionService;
     
@@ -178,9 +186,6 @@ public class AddStudentController {
     @Autowired(required = false)
     private SchoolYearService schoolYearService;
     
-    @Autowired(required = false)
-    private com.enrollment.system.repository.StudentRepository studentRepository;
-    
     @Autowired(required = false)
     private SemesterService semesterService;
     
@@ -198,6 +203,13 @@ public class AddStudentController {
     private ObservableList<StudentDto> eligibleStudentsList;
     private FilteredList<StudentDto> filteredStudentsList;
     
+    // Search index lookups run in the background; the filter uses the last completed one
+    private StudentSearchDebouncer studentSearch;
+    private String appliedSearchText = "";
+    private java.util.Set<Long> searchMatches = java.util.Collections.emptySet();
+    // More students matched than the index lookup returns; the count says so
+    private boolean searchTruncated;
+    
     @FXML
     public void initialize() {
         // Show choice screen initially, hide form and selection screen
@@ -1059,7 +1071,7 @@ public class AddStudentController {
     }
     
     private void loadEligibleStudentsForReEnrollment() {
-        if (schoolYearService == null || studentRepository == null) {
+        if (schoolYearService == null) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Error");
             alert.setHeaderText(null);
@@ -1085,32 +1097,9 @@ public class AddStudentController {
                     return;
                 }
                 
-                // Get all students from repository with section loaded
-                List<Student> allStudentsEntity = studentRepository.findAllWithSectionByOrderByNameAsc();
-                
-                // Filter eligible students (Grade 11 or Grade 12 from previous school year, not archived)
-                List<StudentDto> eligibleStudents = allStudentsEntity.stream()
-                    .filter(student -> {
-                        if (Boolean.TRUE.equals(student.getIsArchived())) {
-                            return false;
-                        }
-                        if (student.getSchoolYear() == null) {
-                            return false;
-                        }
-                        if (!student.getSchoolYear().getId().equals(previousSchoolYear.getId())) {
-                            return false;
-                        }
-                        Integer gradeLevel = student.getGradeLevel();
-                        return gradeLevel != null && (gradeLevel == 11 || gradeLevel == 12);
-                    })
-                    .map(student -> {
-                        // Ensure section is loaded before converting to DTO
-                        if (student.getSection() != null) {
-                            student.getSection().getName(); // Trigger lazy load
-                        }
-                        return StudentDto.fromStudent(student);
-                    })
-                    .collect(Collectors.toList());
+                // Eligible students (Grade 11 or Grade 12 from previous school year, not archived), sections loaded
+                List<StudentDto> eligibleStudents = uiLoadMetrics.time("AddStudent.ReEnrollment",
+                        () -> studentService.getEligibleStudentsForReEnrollment(previousSchoolYear.getId()));
                 
                 Platform.runLater(() -> {
                     eligibleStudentsList = FXCollections.observableArrayList(eligibleStudents);
@@ -1442,9 +1431,15 @@ public class AddStudentController {
     private void setupSearchAndFilters() {
         // Search field listener
         if (searchField != null) {
-            searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            studentSearch = new StudentSearchDebouncer(studentSearchService, false, (text, ids) -> {
+                appliedSearchText = text;
+                searchMatches = ids.getIds();
+                searchTruncated = ids.isTruncated();
                 applyFilters();
             });
+            searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+                studentSearch.search(newValue);
+            });
         }
         
         // Filter combo box listeners
@@ -1472,33 +1467,32 @@ public class AddStudentController {
             return;
         }
         
+        // Search filter - search across all student information (numbers and letters).
+        // Name, LRN, address, previous school and guardian name are matched by the search index
+        // (word prefixes); name and LRN are also matched anywhere in the loaded rows.
+        String searchText = appliedSearchText;
+        java.util.Set<Long> searchMatches = this.searchMatches;
+        
         filteredStudentsList.setPredicate(student -> {
-            // Search filter - search across all student information (numbers and letters)
-            String searchText = searchField != null ? searchField.getText().toLowerCase() : "";
             if (!searchText.isEmpty()) {
                 boolean matchesSearch = 
+                    searchMatches.contains(student.getId()) ||
                     // Name
                     (student.getName() != null && student.getName().toLowerCase().contains(searchText)) ||
+                    // LRN
+                    (student.getLrn() != null && student.getLrn().toLowerCase().contains(searchText)) ||
                     // Grade level (as string - works for both "11" and "12")
                     (student.getGradeLevel() != null && String.valueOf(student.getGradeLevel()).contains(searchText)) ||
                     // Strand
                     (student.getStrand() != null && student.getStrand().toLowerCase().contains(searchText)) ||
                     // Section name
                     (student.getSectionName() != null && student.getSectionName().toLowerCase().contains(searchText)) ||
-                    // LRN
-                    (student.getLrn() != null && student.getLrn().toLowerCase().contains(searchText)) ||
                     // Contact number
                     (student.getContactNumber() != null && student.getContactNumber().contains(searchText)) ||
-                    // Address
-                    (student.getAddress() != null && student.getAddress().toLowerCase().contains(searchText)) ||
-                    // Previous school
-                    (student.getPreviousSchool() != null && student.getPreviousSchool().toLowerCase().contains(searchText)) ||
                     // GWA (as string - works for numbers like "85.5")
                     (student.getGwa() != null && String.valueOf(student.getGwa()).contains(searchText)) ||
                     // Sex
                     (student.getSex() != null && student.getSex().toLowerCase().contains(searchText)) ||
-                    // Parent/Guardian name
-                    (student.getParentGuardianName() != null && student.getParentGuardianName().toLowerCase().contains(searchText)) ||
                     // Parent/Guardian contact
                     (student.getParentGuardianContact() != null && student.getParentGuardianContact().contains(searchText));
                 if (!matchesSearch) {
@@ -1586,10 +1580,13 @@ public class AddStudentController {
         int filteredCount = filteredStudentsList.size();
         int totalCount = eligibleStudentsList.size();
         
+        String note = searchTruncated
+                ? " (search limited to the best " + StudentSearchService.MAX_MATCHING_IDS + " matches; refine the search)"
+                : "";
         if (filteredCount == totalCount) {
-            resultsCountLabel.setText("Showing " + totalCount + " student(s)");
+            resultsCountLabel.setText("Showing " + totalCount + " student(s)" + note);
         } else {
-            resultsCountLabel.setText("Showing " + filteredCount + " of " + totalCount + " student(s)");
+            resultsCountLabel.setText("Showing " + filteredCount + " of " + totalCount + " student(s)" + note);
         }
     }
     
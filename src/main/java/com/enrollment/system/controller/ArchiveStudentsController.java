@@ -1,7 +1,11 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.service.ChangeDetectionService;
+import com.enrollment.system.service.StudentSearchService;
 import com.enrollment.system.service.StudentService;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -14,6 +18,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.util.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
@@ -70,15 +75,47 @@ public class ArchiveStudentsController implements Initializable {
     @FXML
     private Button refreshButton;
     
+    @FXML
+    private Button previousPageButton;
+    
+    @FXML
+    private Button nextPageButton;
+    
+    @FXML
+    private Label pageLabel;
+    
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private StudentSearchService studentSearchService;
+    
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private ApplicationContext applicationContext;
     
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+    
+    private static final int PAGE_SIZE = 100;
+    
     private ObservableList<StudentDto> studentList;
     private FilteredList<StudentDto> filteredList;
     
+    // Archived students are read one page at a time from students_archive
+    private int currentPage = 0;
+    private int totalPages = 1;
+    private long totalStudents = 0;
+    
+    // Typing restarts this pause; the search page is loaded once typing stops
+    private PauseTransition searchDelay;
+    private String searchedText = "";
+    
+    // Table versions the page was loaded at, so a refresh can skip an unchanged database
+    private java.util.Map<String, Long> loadedVersions;
+    
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Initialize filter combobox
@@ -192,13 +229,31 @@ public class ArchiveStudentsController implements Initializable {
     
     // Public method to refresh data (can be called from outside)
     public void refreshData() {
+        if (!changeDetectionService.hasChanged(loadedVersions, "students_archive")) {
+            return;
+        }
         loadStudents();
     }
     
     private void loadStudents() {
+        loadedVersions = changeDetectionService.getTableVersions();
         try {
-            // Load archived students from service
-            java.util.List<StudentDto> students = studentService.getArchivedStudents();
+            // Load one page of archived students: the search results when searching, else by reason
+            String searchText = searchField != null ? searchField.getText().trim() : "";
+            searchedText = searchText;
+            String reasonFilter = reasonFilterComboBox.getValue();
+            java.util.List<StudentDto> students;
+            if (searchText.isEmpty()) {
+                org.springframework.data.domain.Page<StudentDto> page = uiLoadMetrics.time("ArchiveStudents",
+                        () -> studentService.getArchivedStudents(reasonFilter, currentPage, PAGE_SIZE));
+                students = page.getContent();
+                totalStudents = page.getTotalElements();
+            } else {
+                StudentSearchService.SearchPage page = studentSearchService.search(searchText, true, currentPage, PAGE_SIZE);
+                students = page.getStudents();
+                totalStudents = page.getTotal();
+            }
+            totalPages = Math.max(1, (int) ((totalStudents + PAGE_SIZE - 1) / PAGE_SIZE));
             
             Platform.runLater(() -> {
                 try {
@@ -215,11 +270,12 @@ public class ArchiveStudentsController implements Initializable {
                     // Set table items
                     studentsTable.setItems(sortedList);
                     
-                    // Update count
-                    updateStudentCount();
+                    // Search results are not filtered by reason on the server
+                    applyFilters();
                     
                 } catch (Exception e) {
                     e.printStackTrace();
+                    loadedVersions = null;
                     showError("Error displaying archived students: " + e.getMessage());
                     // Set empty list on error
                     studentList = FXCollections.observableArrayList();
@@ -231,11 +287,14 @@ public class ArchiveStudentsController implements Initializable {
         } catch (Exception e) {
             e.printStackTrace();
             Platform.runLater(() -> {
+                loadedVersions = null;
                 showError("Error loading archived students: " + e.getMessage() + "\n\nNote: The database may need to be updated. Please restart the application.");
                 // Set empty list on error
                 studentList = FXCollections.observableArrayList();
                 filteredList = new FilteredList<>(studentList, p -> true);
                 studentsTable.setItems(new SortedList<>(filteredList));
+                totalStudents = 0;
+                totalPages = 1;
                 updateStudentCount();
             });
         }
@@ -243,46 +302,78 @@ public class ArchiveStudentsController implements Initializable {
     
     @FXML
     private void handleRefresh() {
-        loadStudents();
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
         searchField.clear();
         reasonFilterComboBox.setValue(null);
+        currentPage = 0;
+        loadStudents();
     }
     
     @FXML
     private void handleSearch() {
-        applyFilters();
+        if (searchDelay == null) {
+            searchDelay = new PauseTransition(Duration.millis(250));
+            searchDelay.setOnFinished(event -> {
+                String searchText = searchField.getText().trim();
+                // Keys that do not change the text (arrows, shift) do not reload the page
+                if (searchText.equals(searchedText)) {
+                    return;
+                }
+                currentPage = 0;
+                loadStudents();
+            });
+        }
+        searchDelay.playFromStart();
     }
     
     @FXML
     private void handleFilter() {
-        applyFilters();
+        currentPage = 0;
+        loadStudents();
+    }
+    
+    @FXML
+    private void handlePreviousPage() {
+        if (currentPage > 0) {
+            currentPage--;
+            loadStudents();
+        }
+    }
+    
+    @FXML
+    private void handleNextPage() {
+        if (currentPage + 1 < totalPages) {
+            currentPage++;
+            loadStudents();
+        }
     }
     
     private void applyFilters() {
-        String searchText = searchField.getText().toLowerCase();
+        if (filteredList == null) {
+            return;
+        }
         String reasonFilter = reasonFilterComboBox.getValue();
         
-        filteredList.setPredicate(student -> {
-            // Search filter
-            boolean matchesSearch = searchText.isEmpty() ||
-                    (student.getName() != null && student.getName().toLowerCase().contains(searchText)) ||
-                    (student.getLrn() != null && student.getLrn().toLowerCase().contains(searchText)) ||
-                    (student.getContactNumber() != null && student.getContactNumber().contains(searchText));
-            
-            // Reason filter
-            boolean matchesReason = reasonFilter == null || 
-                    (student.getArchiveReason() != null && student.getArchiveReason().equals(reasonFilter));
-            
-            return matchesSearch && matchesReason;
-        });
+        filteredList.setPredicate(student -> reasonFilter == null ||
+                (student.getArchiveReason() != null && student.getArchiveReason().equals(reasonFilter)));
         
         updateStudentCount();
     }
     
     private void updateStudentCount() {
-        if (filteredList != null && studentCountLabel != null) {
-            int count = filteredList.size();
-            studentCountLabel.setText("Total Archived Students: " + count);
+        if (studentCountLabel != null) {
+            studentCountLabel.setText("Total Archived Students: " + totalStudents);
+        }
+        if (pageLabel != null) {
+            pageLabel.setText("Page " + (currentPage + 1) + " of " + totalPages);
+        }
+        if (previousPageButton != null) {
+            previousPageButton.setDisable(currentPage == 0);
+        }
+        if (nextPageButton != null) {
+            nextPageButton.setDisable(currentPage + 1 >= totalPages);
         }
     }
     
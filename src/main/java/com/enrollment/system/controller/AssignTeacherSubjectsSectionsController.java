@@ -18,7 +18,6 @@ import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
@@ -124,11 +123,13 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
     private ObservableList<String> allStrands;
     private ObservableList<AssignmentRecord> assignments;
     
-    // Debouncing and synchronization for save operations
-    private java.util.Timer saveTimer;
-    private final Object saveLock = new Object();
+    // Debouncing for save operations; a save starts on the FX thread and one runs at a time
+    private javafx.animation.PauseTransition saveDelay;
     private volatile boolean isSaving = false;
     
+    // Version of the assignments shown, sent with each save so changes made elsewhere are not overwritten
+    private volatile Long assignmentVersion;
+    
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Initialize table columns
@@ -632,6 +633,8 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
         }
         
         try {
+            assignmentVersion = teacherService.getAssignmentVersion(teacher.getId());
+            
             // Load ONLY actual assignments from TeacherAssignment table - NO backward compatibility
             java.util.Map<Long, List<Section>> subjectSectionMap = teacherService.getSubjectSectionMap(teacher.getId());
             
@@ -972,7 +975,7 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
         }
         
         // Check maximum 8 total assignments (subject-section pairs) before adding
-        // Always check against database first to get the most current count
+        // Always check the saved assignments first to get the most current count
         long currentTotalAssignmentCount = 0;
         try {
             currentTotalAssignmentCount = teacherService.getTotalAssignmentCount(teacher.getId());
@@ -989,12 +992,7 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
         // Check if this exact assignment already exists in database
         boolean existsInDb = false;
         try {
-            Map<Long, List<Section>> dbAssignments = teacherService.getSubjectSectionMap(teacher.getId());
-            List<Section> sectionsForSubject = dbAssignments.get(selectedSubject.getId());
-            if (sectionsForSubject != null) {
-                existsInDb = sectionsForSubject.stream()
-                    .anyMatch(s -> s.getId().equals(selectedSection.getId()));
-            }
+            existsInDb = teacherService.isAssigned(teacher.getId(), selectedSubject.getId(), selectedSection.getId());
         } catch (Exception e) {
             // If we can't check database, assume it doesn't exist
         }
@@ -1106,128 +1104,54 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
     
     /**
      * Schedules a save operation with debouncing to batch rapid changes.
-     * This prevents multiple concurrent database operations when users add/remove quickly.
+     * Every change restarts a 500ms delay, so quick adds/removes are saved together.
      */
     private void scheduleSave() {
         if (teacher == null) {
             return;
         }
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::scheduleSave);
+            return;
+        }
         
-        // Cancel any pending save timer
-        synchronized (saveLock) {
-            if (saveTimer != null) {
-                saveTimer.cancel();
-                saveTimer = null;
-            }
-            
-            // Create new timer for debounced save (500ms delay)
-            saveTimer = new java.util.Timer(true); // daemon thread
-            saveTimer.schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    synchronized (saveLock) {
-                        saveTimer = null;
-                    }
-                    saveAssignments();
-                }
-            }, 500); // Wait 500ms after last change before saving
+        if (saveDelay == null) {
+            saveDelay = new javafx.animation.PauseTransition(javafx.util.Duration.millis(500));
+            saveDelay.setOnFinished(event -> saveAssignments());
         }
+        saveDelay.playFromStart();
     }
     
     /**
-     * Performs the actual save operation with synchronization to prevent concurrent saves.
+     * Performs the actual save operation; a change made while a save runs is saved after it.
      */
     private void saveAssignments() {
         if (teacher == null) {
             return;
         }
         
-        // Synchronize to prevent concurrent saves
-        synchronized (saveLock) {
-            // Check if already saving
-            if (isSaving) {
-                // If already saving, reschedule for later
-                scheduleSave();
-                return;
-            }
-            
-            isSaving = true;
+        // If already saving, reschedule for later
+        if (isSaving) {
+            scheduleSave();
+            return;
         }
+        isSaving = true;
         
         // Disable assign button to prevent concurrent saves
-        Platform.runLater(() -> {
-            assignButton.setDisable(true);
-            assignButton.setText("Saving...");
-        });
+        assignButton.setDisable(true);
+        assignButton.setText("Saving...");
+        
+        // Capture the list to save and the version it is based on
+        final List<AssignmentRecord> assignmentsToSave = new ArrayList<>(assignments);
+        final Long expectedVersion = assignmentVersion;
+        final Long teacherId = teacher.getId();
         
         // Run database operation in background thread
         new Thread(() -> {
             try {
-                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
-                transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
-                transactionTemplate.setTimeout(15); // Reduced timeout for faster failure detection
-                
-                int maxRetries = 3; // Reduced retries since we have better locking now
-                int baseRetryDelay = 100; // Start with shorter delay
-                Exception lastException = null;
-                
-                // Capture current assignments list to save
-                final List<AssignmentRecord> assignmentsToSave = new ArrayList<>(assignments);
-                
-                for (int attempt = 0; attempt < maxRetries; attempt++) {
-                    try {
-                        transactionTemplate.execute(status -> {
-                            // Validate capacity limit before saving - check total assignments (not unique subjects)
-                            if (assignmentsToSave.size() > 8) {
-                                throw new RuntimeException("A teacher can have a maximum of 8 total assignments (subject-section pairs). Found: " + assignmentsToSave.size());
-                            }
-                            
-                            // Save actual assignments (subject-section pairs) - now uses incremental updates
-                            teacherService.saveTeacherAssignments(teacher.getId(), assignmentsToSave);
-                            
-                            return null;
-                        });
-                        
-                        lastException = null;
-                        break;
-                        
-                    } catch (DataAccessException e) {
-                        lastException = e;
-                        String errorMessage = e.getMessage();
-                        
-                        if (errorMessage != null && (errorMessage.contains("SQLITE_BUSY") || 
-                            errorMessage.contains("database is locked") || 
-                            errorMessage.contains("database locked") ||
-                            errorMessage.contains("SQLITE_BUSY_SNAPSHOT") ||
-                            errorMessage.contains("SQL_BUSY"))) {
-                            
-                            if (attempt < maxRetries - 1) {
-                                try {
-                                    // Exponential backoff: 100ms, 200ms, 400ms
-                                    Thread.sleep(baseRetryDelay * (1 << attempt));
-                                } catch (InterruptedException ie) {
-                                    Thread.currentThread().interrupt();
-                                    Platform.runLater(() -> {
-                                        assignButton.setDisable(false);
-                                        assignButton.setText("Assign");
-                                        showError("Operation was interrupted. Please try again.");
-                                    });
-                                    synchronized (saveLock) {
-                                        isSaving = false;
-                                    }
-                                    return;
-                                }
-                                continue;
-                            }
-                        }
-                        
-                        throw e;
-                    }
-                }
-                
-                if (lastException != null) {
-                    throw lastException;
-                }
+                // Writes only the difference in one short transaction. If the assignments were changed
+                // elsewhere meanwhile, the save is rejected instead of retried (see StaleAssignmentsException)
+                assignmentVersion = teacherService.saveTeacherAssignments(teacherId, assignmentsToSave, expectedVersion);
                 
                 Platform.runLater(() -> {
                     // Reload assignments from database first to ensure sync
@@ -1238,6 +1162,14 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
                     assignButton.setText("Assign");
                 });
                 
+            } catch (TeacherService.StaleAssignmentsException e) {
+                Platform.runLater(() -> {
+                    loadTeacherAssignments();
+                    
+                    assignButton.setDisable(false);
+                    assignButton.setText("Assign");
+                    showError(e.getMessage());
+                });
             } catch (Exception e) {
                 e.printStackTrace();
                 String errorMessage = e.getMessage();
@@ -1269,10 +1201,7 @@ public class AssignTeacherSubjectsSectionsController implements Initializable {
                     showError(detailedError);
                 });
             } finally {
-                // Always release the lock
-                synchronized (saveLock) {
-                    isSaving = false;
-                }
+                isSaving = false;
             }
         }).start();
     }
@@ -0,0 +1,55 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.model.AuditEntry;
+import com.enrollment.system.service.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Audit trail (admin only).
+ *
+ * GET /api/audit?entityType=Student&entityId=42&username=&action=UPDATE&from=2025-06-01T00:00:00&to=&page=0&size=50
+ *     - changes newest first; every filter is optional
+ */
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    @GetMapping
+    public ResponseEntity<?> getAuditTrail(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Page<AuditEntry> entries = auditService.getAuditTrail(entityType, entityId, username, action, from, to, page, size);
+            Map<String, Object> response = new HashMap<>();
+            response.put("items", entries.getContent());
+            response.put("page", entries.getNumber());
+            response.put("size", entries.getSize());
+            response.put("totalElements", entries.getTotalElements());
+            response.put("totalPages", entries.getTotalPages());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.enrollment.system.dto.LoginRequest;
 import com.enrollment.system.dto.LoginResponse;
 import com.enrollment.system.dto.UserDto;
 import com.enrollment.system.service.AuthService;
+import com.enrollment.system.service.ProfilePictureService;
 import com.enrollment.system.service.TeacherService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,12 +27,17 @@ public class AuthController {
     @Autowired
     private TeacherService teacherService;
     
+    @Autowired
+    private ProfilePictureService profilePictureService;
+    
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
         LoginResponse response = authService.login(request);
         
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
+        } else if (response.isBusy()) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(response);
         } else {
             return ResponseEntity.status(401).body(response);
         }
@@ -149,25 +155,9 @@ public class AuthController {
     }
     
     private String saveProfilePicture(Long userId, MultipartFile file) throws Exception {
-        // Create uploads directory if it doesn't exist
-        java.io.File uploadsDir = new java.io.File("uploads/profile-pictures");
-        if (!uploadsDir.exists()) {
-            uploadsDir.mkdirs();
-        }
-        
-        // Generate unique filename: userId_timestamp_originalFilename
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        // Decoded once here; the stored picture and its thumbnails are written to uploads/profile-pictures
+        try (java.io.InputStream input = file.getInputStream()) {
+            return profilePictureService.store(userId, input);
         }
-        String filename = userId + "_" + System.currentTimeMillis() + extension;
-        
-        // Save file
-        java.io.File targetFile = new java.io.File(uploadsDir, filename);
-        file.transferTo(targetFile);
-        
-        // Return relative path
-        return "uploads/profile-pictures/" + filename;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.service.DatabaseBackupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Database backups (admin only).
+ *
+ * GET  /api/backups                   - snapshots, newest first, and the state of the last run
+ * POST /api/backups                   - start a backup in the background (202)
+ * POST /api/backups/{name}/verify     - check a snapshot's checksum and integrity
+ * POST /api/backups/{name}/restore    - replace the database with a snapshot
+ */
+@RestController
+@RequestMapping("/api/backups")
+@CrossOrigin(origins = "*")
+public class BackupController {
+
+    @Autowired
+    private DatabaseBackupService backupService;
+
+    @GetMapping
+    public ResponseEntity<?> listBackups() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("backups", backupService.listBackups());
+            response.put("running", backupService.isRunning());
+            response.put("lastBackup", backupService.getLastBackup());
+            response.put("lastError", backupService.getLastError());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Cannot read the backup directory: " + e.getMessage());
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<?> startBackup() {
+        try {
+            backupService.startBackup();
+            Map<String, Object> response = new HashMap<>();
+            response.put("started", true);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RuntimeException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{name}/verify")
+    public ResponseEntity<?> verifyBackup(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(backupService.verify(name));
+        } catch (RuntimeException | IOException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{name}/restore")
+    public ResponseEntity<?> restoreBackup(@PathVariable String name) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("restored", name);
+            response.put("preRestoreBackup", backupService.restore(name));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException | IOException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
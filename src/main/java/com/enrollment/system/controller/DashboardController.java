@@ -1,7 +1,12 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.UserDto;
 import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.event.DomainEvent;
+import com.enrollment.system.event.DomainEventDispatcher;
+import com.enrollment.system.event.StudentEvent;
+import com.enrollment.system.event.StudentsChangedEvent;
 import com.enrollment.system.service.StudentService;
 import com.enrollment.system.service.AuthService;
 import javafx.application.Platform;
@@ -103,6 +108,9 @@ public class DashboardController {
     @Autowired
     private ApplicationContext applicationContext;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired(required = false)
     private StudentService studentService;
     
@@ -115,6 +123,26 @@ public class DashboardController {
     @Autowired(required = false)
     private AuthService authService;
     
+    @Autowired(required = false)
+    private DomainEventDispatcher domainEventDispatcher;
+    
+    @Autowired(required = false)
+    private com.enrollment.system.util.AuditLog auditLog;
+    
+    @Autowired(required = false)
+    private com.enrollment.system.service.ChangeDetectionService changeDetectionService;
+    
+    // Counts behind the summary cards; kept current from domain events instead of reloading all students
+    private DashboardStats stats;
+    // Table versions the counts match. Domain events only cover this PC, so changes made from other
+    // PCs sharing the database are noticed here and make the next visit reload. Taken again after
+    // applying events, as this PC's own commits move the versions too.
+    private java.util.Map<String, Long> statsVersions;
+    // Events that arrived while the counts were loading (null when no load is running)
+    private List<DomainEvent> eventsDuringLoad;
+    private Label statsTitleLabel;
+    private Runnable domainEventSubscription;
+    
     private UserDto currentUser;
     private String sessionToken;
     private boolean studentManagementExpanded = false;
@@ -241,6 +269,9 @@ public class DashboardController {
     public void setUserSession(UserDto user, String token) {
         this.currentUser = user;
         this.sessionToken = token;
+        if (auditLog != null) {
+            auditLog.setDesktopUser(user != null ? user.getUsername() : null);
+        }
         
         if (userNameLabel != null && user != null) {
             userNameLabel.setText("Welcome, " + user.getFullName());
@@ -275,6 +306,10 @@ public class DashboardController {
             }
         });
         
+        if (domainEventDispatcher != null && domainEventSubscription == null) {
+            domainEventSubscription = domainEventDispatcher.subscribe(events -> Platform.runLater(() -> applyDomainEvents(events)));
+        }
+        
         // Load dashboard statistics after user session is set
         // Use Platform.runLater to ensure UI is ready
         Platform.runLater(() -> {
@@ -316,51 +351,62 @@ public class DashboardController {
             return;
         }
         
+        // Already loaded and no student changed since: events have kept the counts current
+        if (stats != null && changeDetectionService != null
+                && !changeDetectionService.hasChanged(statsVersions, "students", "school_years")) {
+            buildDashboardCards(stats);
+            return;
+        }
+        stats = null;
+        
         // Clear existing content
         dashboardContent.getChildren().clear();
+        if (eventsDuringLoad != null) {
+            // Already loading; that load draws the cards
+            return;
+        }
+        eventsDuringLoad = new java.util.ArrayList<>();
         
         // Load statistics in background thread
         new Thread(() -> {
             try {
-                List<StudentDto> allStudents = studentService.getAllStudents();
-                
-                // Calculate statistics
-                long totalEnrolled = allStudents.stream()
-                    .filter(s -> "Enrolled".equals(s.getEnrollmentStatus()))
-                    .count();
+                java.util.Map<String, Long> versions = changeDetectionService != null
+                        ? changeDetectionService.getTableVersions() : null;
+                List<StudentDto> allStudents = uiLoadMetrics.time("Dashboard", studentService::getAllStudents);
                 
-                long grade11 = allStudents.stream()
-                    .filter(s -> "Enrolled".equals(s.getEnrollmentStatus()) && 
-                                s.getGradeLevel() != null && s.getGradeLevel() == 11)
-                    .count();
-                
-                long grade12 = allStudents.stream()
-                    .filter(s -> "Enrolled".equals(s.getEnrollmentStatus()) && 
-                                s.getGradeLevel() != null && s.getGradeLevel() == 12)
-                    .count();
-                
-                long pending = allStudents.stream()
-                    .filter(s -> "Pending".equals(s.getEnrollmentStatus()))
-                    .count();
-                
-                long male = allStudents.stream()
-                    .filter(s -> "Enrolled".equals(s.getEnrollmentStatus()) && 
-                                "Male".equals(s.getSex()))
-                    .count();
+                // getAllStudents lists the students of the current school year (all students when none is set)
+                Long schoolYearId = null;
+                if (schoolYearService != null) {
+                    try {
+                        schoolYearId = schoolYearService.getCurrentSchoolYearEntity().getId();
+                    } catch (RuntimeException e) {
+                        // No current school year
+                    }
+                }
                 
-                long female = allStudents.stream()
-                    .filter(s -> "Enrolled".equals(s.getEnrollmentStatus()) && 
-                                "Female".equals(s.getSex()))
-                    .count();
+                // Calculate statistics
+                DashboardStats loaded = new DashboardStats(schoolYearId);
+                for (StudentDto student : allStudents) {
+                    loaded.put(student.getId(), student);
+                }
                 
                 // Update UI on JavaFX thread
                 Platform.runLater(() -> {
-                    buildDashboardCards(totalEnrolled, grade11, grade12, pending, male, female);
+                    stats = loaded;
+                    statsVersions = versions;
+                    buildDashboardCards(loaded);
+                    // The load may or may not include them; applying them again does no harm
+                    List<DomainEvent> missed = eventsDuringLoad;
+                    eventsDuringLoad = null;
+                    if (missed != null && !missed.isEmpty()) {
+                        applyDomainEvents(missed);
+                    }
                 });
                 
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> {
+                    eventsDuringLoad = null;
                     Label errorLabel = new Label("Error loading dashboard statistics: " + e.getMessage());
                     errorLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-size: 14px;");
                     dashboardContent.getChildren().add(errorLabel);
@@ -369,13 +415,59 @@ public class DashboardController {
         }).start();
     }
     
-    private void buildDashboardCards(long totalEnrolled, long grade11, long grade12, long pending, long male, long female) {
+    /**
+     * Apply committed changes to the counts and redraw the cards if they are on screen.
+     * Runs on the JavaFX thread.
+     */
+    private void applyDomainEvents(List<DomainEvent> events) {
+        if (stats == null) {
+            if (eventsDuringLoad != null) {
+                eventsDuringLoad.addAll(events);
+            }
+            return;
+        }
+        boolean changed = false;
+        for (DomainEvent event : events) {
+            if (event instanceof StudentsChangedEvent) {
+                // No per-student detail: count again
+                stats = null;
+                if (isShowingStatistics()) {
+                    loadDashboardStatistics();
+                }
+                return;
+            }
+            if (event instanceof StudentEvent studentEvent) {
+                stats.put(studentEvent.getStudentId(), studentEvent.getAfter());
+                changed = true;
+            }
+        }
+        if (changed && changeDetectionService != null) {
+            // The counts now include this PC's commits, which also moved the table versions
+            statsVersions = changeDetectionService.getTableVersions();
+        }
+        if (changed && isShowingStatistics()) {
+            buildDashboardCards(stats);
+        }
+    }
+    
+    private boolean isShowingStatistics() {
+        return dashboardContent != null && statsTitleLabel != null && dashboardContent.getChildren().contains(statsTitleLabel);
+    }
+    
+    private void buildDashboardCards(DashboardStats stats) {
+        long totalEnrolled = stats.totalEnrolled;
+        long grade11 = stats.grade11;
+        long grade12 = stats.grade12;
+        long pending = stats.pending;
+        long male = stats.male;
+        long female = stats.female;
         dashboardContent.getChildren().clear();
         
         // Title
         Label titleLabel = new Label("📊 Enrollment Dashboard Summary");
         titleLabel.setStyle("-fx-font-size: 28px; -fx-font-weight: bold; -fx-text-fill: #2c3e50; -fx-padding: 0 0 20 0;");
         dashboardContent.getChildren().add(titleLabel);
+        statsTitleLabel = titleLabel;
         
         // First row: Main statistics
         HBox firstRow = new HBox(20);
@@ -950,6 +1042,12 @@ public class DashboardController {
                         }
                     }
                     
+                    // The next user loads fresh counts
+                    stats = null;
+                    if (auditLog != null) {
+                        auditLog.setDesktopUser(null);
+                    }
+                    
                     // Close dashboard stage
                     Stage dashboardStage = (Stage) logoutButton.getScene().getWindow();
                     dashboardStage.close();
@@ -1048,4 +1146,64 @@ public class DashboardController {
         if (btnTeacherAccountManagement != null) btnTeacherAccountManagement.setStyle(nestedSubmenuStyle);
         if (btnSchoolYearManagement != null) btnSchoolYearManagement.setStyle(defaultStyle);
     }
+    
+    /**
+     * The dashboard counts. A student adds to them with sign 1 and is taken out with sign -1, so a
+     * change is applied by taking out the old state and adding the new one.
+     */
+    private static class DashboardStats {
+        private final Long schoolYearId;
+        // Every student seen, by id, so a change can be applied whether or not it was already counted
+        private final java.util.Map<Long, StudentDto> students = new java.util.HashMap<>();
+        private long totalEnrolled;
+        private long grade11;
+        private long grade12;
+        private long pending;
+        private long male;
+        private long female;
+        
+        DashboardStats(Long schoolYearId) {
+            this.schoolYearId = schoolYearId;
+        }
+        
+        /**
+         * Count the student as now (null when deleted or archived) in place of what was counted for it.
+         */
+        void put(Long studentId, StudentDto student) {
+            if (studentId == null) {
+                return;
+            }
+            add(students.remove(studentId), -1);
+            if (student != null) {
+                students.put(studentId, student);
+                add(student, 1);
+            }
+        }
+        
+        private void add(StudentDto student, int sign) {
+            if (student == null || Boolean.TRUE.equals(student.getIsArchived())) {
+                return;
+            }
+            if (schoolYearId != null && !schoolYearId.equals(student.getSchoolYearId())) {
+                return;
+            }
+            if ("Pending".equals(student.getEnrollmentStatus())) {
+                pending += sign;
+            }
+            if (!"Enrolled".equals(student.getEnrollmentStatus())) {
+                return;
+            }
+            totalEnrolled += sign;
+            if (student.getGradeLevel() != null && student.getGradeLevel() == 11) {
+                grade11 += sign;
+            } else if (student.getGradeLevel() != null && student.getGradeLevel() == 12) {
+                grade12 += sign;
+            }
+            if ("Male".equals(student.getSex())) {
+                male += sign;
+            } else if ("Female".equals(student.getSex())) {
+                female += sign;
+            }
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.service.DependencyCheckService;
+import com.enrollment.system.service.DependencyCheckService.DependencyReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What would stop a delete, before trying it.
+ *
+ * GET /api/dependencies/{entityType}/{id}   entityType: section, strand or school-year
+ *     - blockers (why the delete would be refused), references (other rows pointing at it)
+ *       and deletable
+ */
+@RestController
+@RequestMapping("/api/dependencies")
+@CrossOrigin(origins = "*")
+public class DependencyController {
+
+    @Autowired
+    private DependencyCheckService dependencyCheckService;
+
+    @GetMapping("/{entityType}/{id}")
+    public ResponseEntity<?> getDependencies(@PathVariable String entityType, @PathVariable Long id) {
+        DependencyReport report;
+        switch (entityType) {
+            case "section":
+                report = dependencyCheckService.checkSection(id);
+                break;
+            case "strand":
+                report = dependencyCheckService.checkStrand(id);
+                break;
+            case "school-year":
+                report = dependencyCheckService.checkSchoolYear(id);
+                break;
+            default:
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Unknown entity type: " + entityType + " (expected section, strand or school-year)");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        if (report == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", entityType + " not found with id: " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok(report);
+    }
+}
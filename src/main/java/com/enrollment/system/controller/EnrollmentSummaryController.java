@@ -1,5 +1,6 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.service.ReportService;
 import com.enrollment.system.service.ReportService.EnrollmentStatistics;
 import javafx.application.Platform;
@@ -54,6 +55,9 @@ public class EnrollmentSummaryController implements Initializable {
     @Autowired
     private ReportService reportService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     private EnrollmentStatistics statistics;
     
     @Override
@@ -68,7 +72,7 @@ public class EnrollmentSummaryController implements Initializable {
     private void loadData() {
         new Thread(() -> {
             try {
-                statistics = reportService.getEnrollmentStatistics();
+                statistics = uiLoadMetrics.time("EnrollmentSummary", reportService::getEnrollmentStatistics);
                 
                 Platform.runLater(() -> {
                     buildSummaryView();
@@ -1,11 +1,10 @@
 package com.enrollment.system.controller;
 
 import com.enrollment.system.dto.StudentDto;
-import com.enrollment.system.model.Student;
-import com.enrollment.system.repository.StudentRepository;
 import com.enrollment.system.service.SchoolYearService;
 import com.enrollment.system.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,7 +12,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/students/re-enroll")
@@ -23,60 +21,45 @@ public class ReEnrollmentController {
     @Autowired
     private StudentService studentService;
     
-    @Autowired
-    private StudentRepository studentRepository;
-    
     @Autowired
     private SchoolYearService schoolYearService;
     
     @GetMapping("/eligible")
-    public ResponseEntity<?> getEligibleStudentsForReEnrollment(@RequestParam(required = false) Long previousSchoolYearId) {
+    public ResponseEntity<?> getEligibleStudentsForReEnrollment(@RequestParam(required = false) Long previousSchoolYearId,
+                                                                @RequestParam(required = false) Integer page,
+                                                                @RequestParam(required = false) Integer size) {
         try {
-            // Get previous school year (the one that ended before current started)
-            com.enrollment.system.model.SchoolYear previousSchoolYear = schoolYearService.getPreviousSchoolYearEntity();
-            
-            // If no previous school year, return empty list
-            if (previousSchoolYear == null) {
-                return ResponseEntity.ok(new java.util.ArrayList<>());
+            // Default to the previous school year (the one that ended before current started)
+            Long schoolYearId = previousSchoolYearId;
+            if (schoolYearId == null) {
+                com.enrollment.system.model.SchoolYear previousSchoolYear = schoolYearService.getPreviousSchoolYearEntity();
+                
+                // If no previous school year, return empty list
+                if (previousSchoolYear == null) {
+                    return ResponseEntity.ok(new java.util.ArrayList<>());
+                }
+                schoolYearId = previousSchoolYear.getId();
             }
             
-            List<Student> allStudents = studentRepository.findAll();
-            
-            // Filter eligible students:
-            // 1. From previous school year
-            // 2. Grade 11 (will be promoted to Grade 12) OR Grade 12 (failed, will remain in Grade 12)
-            // 3. Not archived
-            // 4. Not graduated (archive reason must not be "GRADUATED")
-            List<StudentDto> eligibleStudents = allStudents.stream()
-                .filter(student -> {
-                    if (Boolean.TRUE.equals(student.getIsArchived())) {
-                        // Check if student is graduated - exclude from re-enrollment
-                        String archiveReason = student.getArchiveReason();
-                        if (archiveReason != null && "GRADUATED".equalsIgnoreCase(archiveReason.trim())) {
-                            return false;
-                        }
-                        // Other archived students are also excluded
-                        return false;
-                    }
-                    
-                    // Must have a school year assigned
-                    if (student.getSchoolYear() == null) {
-                        return false;
-                    }
-                    
-                    // Must be from previous school year
-                    if (!student.getSchoolYear().getId().equals(previousSchoolYear.getId())) {
-                        return false;
-                    }
-                    
-                    // Must be Grade 11 or Grade 12
-                    Integer gradeLevel = student.getGradeLevel();
-                    return gradeLevel != null && (gradeLevel == 11 || gradeLevel == 12);
-                })
-                .map(StudentDto::fromStudent)
-                .collect(Collectors.toList());
+            // Eligible: from that school year, Grade 11 (promoted to 12) or Grade 12 (repeating),
+            // not archived - which also excludes graduates
+            if (page == null && size == null) {
+                return ResponseEntity.ok(studentService.getEligibleStudentsForReEnrollment(schoolYearId));
+            }
             
-            return ResponseEntity.ok(eligibleStudents);
+            int pageNumber = page != null ? page : 0;
+            int pageSize = size != null ? size : 50;
+            if (pageNumber < 0 || pageSize < 1 || pageSize > 500) {
+                throw new IllegalArgumentException("page must be >= 0 and size between 1 and 500");
+            }
+            Page<StudentDto> result = studentService.getEligibleStudentsForReEnrollment(schoolYearId, pageNumber, pageSize);
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", result.getContent());
+            response.put("page", result.getNumber());
+            response.put("size", result.getSize());
+            response.put("totalElements", result.getTotalElements());
+            response.put("totalPages", result.getTotalPages());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -93,21 +76,20 @@ public class ReEnrollmentController {
             Long newSectionId = request.get("newSectionId") != null ? 
                 Long.valueOf(request.get("newSectionId").toString()) : null;
             
-            Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
+            StudentDto studentDto = studentService.getStudentById(studentId);
+            if (studentDto == null) {
+                throw new RuntimeException("Student not found with id: " + studentId);
+            }
             
             // Check if student is graduated - prevent re-enrollment
-            String archiveReason = student.getArchiveReason();
+            String archiveReason = studentDto.getArchiveReason();
             if (archiveReason != null && "GRADUATED".equalsIgnoreCase(archiveReason.trim())) {
-                throw new RuntimeException("Graduated students cannot be re-enrolled. Student \"" + student.getName() + "\" has already graduated.");
+                throw new RuntimeException("Graduated students cannot be re-enrolled. Student \"" + studentDto.getName() + "\" has already graduated.");
             }
             
             // Get current school year
             com.enrollment.system.model.SchoolYear currentSchoolYear = schoolYearService.getCurrentSchoolYearEntity();
             
-            // Update student
-            StudentDto studentDto = StudentDto.fromStudent(student);
-            
             // Update grade level if provided
             if (newGradeLevel != null) {
                 studentDto.setGradeLevel(newGradeLevel);
@@ -139,57 +121,29 @@ public class ReEnrollmentController {
     public ResponseEntity<?> batchReEnrollStudents(@RequestBody Map<String, Object> request) {
         try {
             @SuppressWarnings("unchecked")
-            List<Long> studentIds = (List<Long>) request.get("studentIds");
+            List<Object> studentIds = (List<Object>) request.get("studentIds");
+            if (studentIds == null || studentIds.isEmpty()) {
+                throw new IllegalArgumentException("studentIds is required");
+            }
             Integer newGradeLevel = request.get("newGradeLevel") != null ? 
                 Integer.valueOf(request.get("newGradeLevel").toString()) : null;
             Long newSectionId = request.get("newSectionId") != null ? 
                 Long.valueOf(request.get("newSectionId").toString()) : null;
             
-            com.enrollment.system.model.SchoolYear currentSchoolYear = schoolYearService.getCurrentSchoolYearEntity();
-            
-            int successCount = 0;
-            int failCount = 0;
-            List<String> errors = new java.util.ArrayList<>();
-            
-            for (Long studentId : studentIds) {
-                try {
-                    Student student = studentRepository.findById(studentId)
-                        .orElseThrow(() -> new RuntimeException("Student not found"));
-                    
-                    // Check if student is graduated - prevent re-enrollment
-                    String archiveReason = student.getArchiveReason();
-                    if (archiveReason != null && "GRADUATED".equalsIgnoreCase(archiveReason.trim())) {
-                        failCount++;
-                        errors.add("Student " + studentId + " (\"" + student.getName() + "\"): Graduated students cannot be re-enrolled.");
-                        continue;
-                    }
-                    
-                    StudentDto studentDto = StudentDto.fromStudent(student);
-                    
-                    if (newGradeLevel != null) {
-                        studentDto.setGradeLevel(newGradeLevel);
-                    }
-                    
-                    if (newSectionId != null) {
-                        studentDto.setSectionId(newSectionId);
-                    }
-                    
-                    studentDto.setEnrollmentStatus("Enrolled");
-                    studentDto.setSchoolYearId(currentSchoolYear.getId());
-                    
-                    studentService.updateStudent(studentId, studentDto);
-                    successCount++;
-                } catch (Exception e) {
-                    failCount++;
-                    errors.add("Student " + studentId + ": " + e.getMessage());
-                }
+            List<Long> ids = new java.util.ArrayList<>();
+            for (Object id : studentIds) {
+                ids.add(Long.valueOf(id.toString()));
             }
             
+            // One transaction: students loaded together, section capacity checked once
+            StudentService.ReEnrollmentResult result = studentService.reEnrollStudents(ids, newGradeLevel, newSectionId);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("successCount", successCount);
-            response.put("failCount", failCount);
-            response.put("errors", errors);
+            response.put("successCount", result.getSuccessCount());
+            response.put("failCount", result.getFailCount());
+            response.put("errors", result.getErrors());
+            response.put("results", result.getOutcomes());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.StudentDto;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.service.SchoolYearService;
@@ -19,7 +20,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
@@ -69,6 +69,9 @@ public class ReEnrollmentControllerUI implements Initializable {
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private SchoolYearService schoolYearService;
     
@@ -141,9 +144,6 @@ public class ReEnrollmentControllerUI implements Initializable {
         }
     }
     
-    @Autowired
-    private com.enrollment.system.repository.StudentRepository studentRepository;
-    
     private void loadEligibleStudents() {
         new Thread(() -> {
             try {
@@ -163,35 +163,10 @@ public class ReEnrollmentControllerUI implements Initializable {
                     return;
                 }
                 
-                // Get all students from repository
-                List<com.enrollment.system.model.Student> allStudentsEntity = studentRepository.findAll();
-                
-                // Filter eligible students:
-                // 1. From previous school year
-                // 2. Grade 11 (will be promoted to Grade 12) OR Grade 12 (failed, will remain in Grade 12)
-                // 3. Not archived
-                List<StudentDto> eligibleStudents = allStudentsEntity.stream()
-                    .filter(student -> {
-                        if (Boolean.TRUE.equals(student.getIsArchived())) {
-                            return false;
-                        }
-                        
-                        // Must have a school year assigned
-                        if (student.getSchoolYear() == null) {
-                            return false;
-                        }
-                        
-                        // Must be from previous school year
-                        if (!student.getSchoolYear().getId().equals(previousSchoolYear.getId())) {
-                            return false;
-                        }
-                        
-                        // Must be Grade 11 or Grade 12
-                        Integer gradeLevel = student.getGradeLevel();
-                        return gradeLevel != null && (gradeLevel == 11 || gradeLevel == 12);
-                    })
-                    .map(StudentDto::fromStudent)
-                    .collect(Collectors.toList());
+                // Eligible students: from the previous school year, Grade 11 (will be promoted to Grade 12)
+                // or Grade 12 (failed, will remain in Grade 12), not archived
+                List<StudentDto> eligibleStudents = uiLoadMetrics.time("ReEnrollment",
+                        () -> studentService.getEligibleStudentsForReEnrollment(previousSchoolYear.getId()));
                 
                 Platform.runLater(() -> {
                     try {
@@ -286,50 +261,22 @@ public class ReEnrollmentControllerUI implements Initializable {
                 
                 new Thread(() -> {
                     try {
-                        final int[] successCount = {0};
-                        final int[] failCount = {0};
-                        final List<String> errors = new ArrayList<>();
+                        // Grade 11 students are promoted to Grade 12 and Grade 12 students repeat Grade 12;
+                        // the list only holds Grade 11 and 12 students, so everyone goes to Grade 12
+                        Integer targetGrade = selectedStudents.stream()
+                            .allMatch(s -> s.getGradeLevel() != null && (s.getGradeLevel() == 11 || s.getGradeLevel() == 12))
+                            ? Integer.valueOf(12) : finalGradeLevel;
+                        List<Long> studentIds = selectedStudents.stream()
+                            .map(StudentDto::getId)
+                            .collect(Collectors.toList());
                         
-                        for (StudentDto student : selectedStudents) {
-                            try {
-                                // Determine new grade level:
-                                // Grade 11 → Grade 12 (promotion)
-                                // Grade 12 → Grade 12 (repeating)
-                                Integer studentCurrentGrade = student.getGradeLevel();
-                                Integer targetGrade = finalGradeLevel;
-                                
-                                // If student is Grade 11, promote to 12
-                                if (studentCurrentGrade != null && studentCurrentGrade == 11) {
-                                    targetGrade = 12;
-                                }
-                                // If student is Grade 12, keep at 12
-                                else if (studentCurrentGrade != null && studentCurrentGrade == 12) {
-                                    targetGrade = 12;
-                                }
-                                
-                                // Update student
-                                student.setGradeLevel(targetGrade);
-                                if (finalSection != null) {
-                                    student.setSectionId(finalSection.getId());
-                                }
-                                student.setEnrollmentStatus("Enrolled");
-                                
-                                // Set current school year
-                                com.enrollment.system.model.SchoolYear currentSchoolYear = 
-                                    schoolYearService.getCurrentSchoolYearEntity();
-                                student.setSchoolYearId(currentSchoolYear.getId());
-                                
-                                studentService.updateStudent(student.getId(), student);
-                                successCount[0]++;
-                            } catch (Exception e) {
-                                failCount[0]++;
-                                errors.add(student.getName() + ": " + e.getMessage());
-                            }
-                        }
+                        // One transaction for the whole selection
+                        StudentService.ReEnrollmentResult result = studentService.reEnrollStudents(
+                            studentIds, targetGrade, finalSection != null ? finalSection.getId() : null);
                         
-                        final int finalSuccessCount = successCount[0];
-                        final int finalFailCount = failCount[0];
-                        final List<String> finalErrors = new ArrayList<>(errors);
+                        final int finalSuccessCount = result.getSuccessCount();
+                        final int finalFailCount = result.getFailCount();
+                        final List<String> finalErrors = result.getErrors();
                         
                         Platform.runLater(() -> {
                             String message = String.format(
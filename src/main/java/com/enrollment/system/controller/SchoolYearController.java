@@ -99,9 +99,10 @@ public class SchoolYearController {
             Long newSchoolYearId = Long.valueOf(request.get("newSchoolYearId").toString());
             boolean carryOverEnrolled = Boolean.parseBoolean(request.getOrDefault("carryOverEnrolled", true).toString());
             boolean carryOverPending = Boolean.parseBoolean(request.getOrDefault("carryOverPending", true).toString());
+            boolean archiveGraduates = Boolean.parseBoolean(request.getOrDefault("archiveGraduates", false).toString());
             
             SchoolYearTransitionService.TransitionResult result = 
-                transitionService.transitionToNewSchoolYear(newSchoolYearId, carryOverEnrolled, carryOverPending);
+                transitionService.transitionToNewSchoolYear(newSchoolYearId, carryOverEnrolled, carryOverPending, archiveGraduates);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -109,6 +110,10 @@ public class SchoolYearController {
             response.put("pendingCarriedOver", result.getPendingCarriedOver());
             response.put("skipped", result.getSkipped());
             response.put("totalCarriedOver", result.getTotalCarriedOver());
+            if (archiveGraduates) {
+                response.put("graduatesArchived", result.getGraduatesArchived());
+                response.put("archiveBatchId", result.getArchiveBatchId());
+            }
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -140,5 +145,63 @@ public class SchoolYearController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
+    
+    @GetMapping("/graduation/preview")
+    public ResponseEntity<?> previewGraduation(
+            @RequestParam(required = false) Long schoolYearId,
+            @RequestParam(defaultValue = "12") Integer gradeLevel,
+            @RequestParam(defaultValue = "Enrolled") String status,
+            @RequestParam(required = false) String strand) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", transitionService.previewCohortArchive(schoolYearId, gradeLevel, status, strand));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    @PostMapping("/graduation")
+    public ResponseEntity<?> archiveGraduates(
+            @RequestParam(required = false) Long schoolYearId,
+            @RequestParam(defaultValue = "12") Integer gradeLevel,
+            @RequestParam(defaultValue = "Enrolled") String status,
+            @RequestParam(required = false) String strand,
+            @RequestParam(defaultValue = "GRADUATED") String reason,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("dryRun", dryRun);
+            if (dryRun) {
+                response.put("count", transitionService.previewCohortArchive(schoolYearId, gradeLevel, status, strand));
+                return ResponseEntity.ok(response);
+            }
+            SchoolYearTransitionService.CohortArchiveResult result =
+                transitionService.archiveCohort(schoolYearId, gradeLevel, status, strand, reason);
+            response.put("count", result.getArchivedCount());
+            response.put("batchId", result.getBatchId());
+            response.put("archivedAt", result.getArchivedAt());
+            response.put("undoUntil", result.getUndoUntil());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    @PostMapping("/graduation/{batchId}/undo")
+    public ResponseEntity<?> undoGraduation(@PathVariable String batchId) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("restored", transitionService.undoCohortArchive(batchId));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
 }
-
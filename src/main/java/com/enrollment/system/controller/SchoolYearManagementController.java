@@ -1,5 +1,6 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.SchoolYearDto;
 import com.enrollment.system.service.SchoolYearService;
 import javafx.application.Platform;
@@ -48,6 +49,9 @@ public class SchoolYearManagementController implements Initializable {
     @Autowired
     private SchoolYearService schoolYearService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     private ObservableList<SchoolYearDto> schoolYearList;
     private FilteredList<SchoolYearDto> filteredList;
     
@@ -107,7 +111,7 @@ public class SchoolYearManagementController implements Initializable {
     private void loadSchoolYears() {
         new Thread(() -> {
             try {
-                java.util.List<SchoolYearDto> schoolYears = schoolYearService.getAllSchoolYears();
+                java.util.List<SchoolYearDto> schoolYears = uiLoadMetrics.time("SchoolYearManagement", schoolYearService::getAllSchoolYears);
                 
                 Platform.runLater(() -> {
                     try {
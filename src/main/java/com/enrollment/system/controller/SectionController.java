@@ -0,0 +1,48 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.service.SectionBalancingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Section balancing.
+ *
+ * POST /api/sections/balance?semesterId=3&strand=STEM&balanceSex=true&balanceGwa=true&dryRun=true
+ *
+ * Places the pending and unsectioned students of the semester's grade level and the strand into its
+ * active sections up to capacity. dryRun (the default) returns the planned placements and the
+ * per-section before/after counts without saving; dryRun=false enrolls everyone placed in one batch.
+ * Administrators and registrars only.
+ */
+@RestController
+@RequestMapping("/api/sections")
+@CrossOrigin(origins = "*")
+public class SectionController {
+    
+    @Autowired
+    private SectionBalancingService sectionBalancingService;
+    
+    @PostMapping("/balance")
+    public ResponseEntity<?> balance(
+            @RequestParam Long semesterId,
+            @RequestParam String strand,
+            @RequestParam(defaultValue = "true") boolean balanceSex,
+            @RequestParam(defaultValue = "true") boolean balanceGwa,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        try {
+            SectionBalancingService.BalancingPlan plan = dryRun
+                    ? sectionBalancingService.preview(semesterId, strand, balanceSex, balanceGwa)
+                    : sectionBalancingService.apply(semesterId, strand, balanceSex, balanceGwa);
+            return ResponseEntity.ok(plan);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.model.Strand;
+import com.enrollment.system.service.ChangeDetectionService;
 import com.enrollment.system.service.SectionService;
 import com.enrollment.system.service.StrandService;
 import javafx.application.Platform;
@@ -115,12 +117,22 @@ public class SectionsManagementController implements Initializable {
     @Autowired
     private SectionService sectionService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private StrandService strandService;
     
     @Autowired
     private PlatformTransactionManager transactionManager;
     
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+    
+    // Table versions each list was loaded at; a refresh reloads only the lists whose table changed
+    private java.util.Map<String, Long> strandVersions;
+    private java.util.Map<String, Long> sectionVersions;
+    
     private ObservableList<Strand> strandList;
     private FilteredList<Strand> filteredStrandList;
     
@@ -439,11 +451,16 @@ public class SectionsManagementController implements Initializable {
     }
     
     public void refreshData() {
-        loadStrands();
-        loadSections();
+        if (changeDetectionService.hasChanged(strandVersions, "strands")) {
+            loadStrands();
+        }
+        if (changeDetectionService.hasChanged(sectionVersions, "sections")) {
+            loadSections();
+        }
     }
     
     private void loadStrands() {
+        strandVersions = changeDetectionService.getTableVersions();
         // Run database operation in background thread
         new Thread(() -> {
             try {
@@ -478,12 +495,14 @@ public class SectionsManagementController implements Initializable {
                         }
                     } catch (Exception e) {
                         e.printStackTrace();
+                        strandVersions = null;
                         showError("Error updating strands UI: " + e.getMessage());
                     }
                 });
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> {
+                    strandVersions = null;
                     showError("Error loading strands: " + e.getMessage());
                 });
             }
@@ -491,11 +510,12 @@ public class SectionsManagementController implements Initializable {
     }
     
     private void loadSections() {
+        sectionVersions = changeDetectionService.getTableVersions();
         // Run database operation in background thread
         new Thread(() -> {
             try {
                 // Load all sections (both active and inactive) for management - this is a blocking DB call
-                java.util.List<Section> sections = sectionService.getAllSections();
+                java.util.List<Section> sections = uiLoadMetrics.time("SectionsManagement", sectionService::getAllSections);
                 
                 // Update UI on JavaFX thread
                 Platform.runLater(() -> {
@@ -510,12 +530,14 @@ public class SectionsManagementController implements Initializable {
                         applySectionFilters();
                     } catch (Exception e) {
                         e.printStackTrace();
+                        sectionVersions = null;
                         showError("Error updating sections UI: " + e.getMessage());
                     }
                 });
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> {
+                    sectionVersions = null;
                     showError("Error loading sections: " + e.getMessage());
                 });
             }
@@ -524,8 +546,7 @@ public class SectionsManagementController implements Initializable {
     
     @FXML
     private void handleRefresh() {
-        loadStrands();
-        loadSections();
+        refreshData();
     }
     
     @FXML
@@ -539,21 +560,10 @@ public class SectionsManagementController implements Initializable {
     
     private void handleDeleteStrand(Strand strand) {
         // Check if strand has active students - do this check FIRST before showing confirmation
-        boolean hasStudents = false;
-        int studentCount = 0;
+        long studentCount = 0;
         try {
-            hasStudents = strandService.hasActiveStudents(strand.getName());
-            if (hasStudents) {
-                // Get the actual count for better error message
-                try {
-                    java.util.List<com.enrollment.system.model.Student> students = 
-                        strandService.getEnrolledStudentsByStrand(strand.getName());
-                    studentCount = students.size();
-                } catch (Exception e) {
-                    // If we can't get count, just use the boolean check
-                    studentCount = 1;
-                }
-            }
+            // One count query gives both the check and the number for the message
+            studentCount = strandService.countEnrolledStudents(strand.getName());
         } catch (Exception e) {
             e.printStackTrace();
             showError("Error checking strand enrollment: " + e.getMessage());
@@ -561,7 +571,7 @@ public class SectionsManagementController implements Initializable {
         }
         
         // If students exist, show error immediately and don't proceed
-        if (hasStudents) {
+        if (studentCount > 0) {
             showError("Cannot deactivate strand " + strand.getName() + 
                     " because it has " + studentCount + " enrolled student(s). " +
                     "Please reassign or archive these students first.");
@@ -0,0 +1,277 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.model.Student;
+import com.enrollment.system.service.StudentImportService;
+import com.enrollment.system.service.StudentSearchService;
+import com.enrollment.system.service.StudentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Student resource for remote clients and sync tools.
+ *
+ * GET /api/students?limit=100&cursor=...&fields=id,name,sectionName&gradeLevel=11&strand=STEM
+ *     &status=Enrolled&sectionId=..&schoolYearId=..&archived=false&q=dela
+ *
+ * Pages are keyset-based (ordered by id; nextCursor is opaque and null on the last page), the
+ * response is written straight to the output stream, and ETag / Last-Modified are derived from
+ * the student table's latest updated_at and row count so unchanged data answers 304 Not Modified.
+ *
+ * GET /api/students/search?q=dela cruz&archived=false&page=0&size=20
+ *
+ * Full-text search over name, LRN, address, guardian name and previous school, best match first.
+ *
+ * POST /api/students/import (multipart: file=.xlsx|.csv, schoolYearId, semesterNumber=1, dryRun=false)
+ * GET  /api/students/import/{importId}/errors
+ *
+ * Bulk import of new students (admin and registrar); rejected rows are listed in a CSV error report.
+ */
+@RestController
+@RequestMapping("/api/students")
+@CrossOrigin(origins = "*")
+public class StudentController {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 500;
+    private static final String CURSOR_PREFIX = "id:";
+
+    // Selectable fields, named as in StudentDto
+    private static final Map<String, Function<Student, Object>> FIELDS = new LinkedHashMap<>();
+    static {
+        FIELDS.put("id", Student::getId);
+        FIELDS.put("name", Student::getName);
+        FIELDS.put("lrn", Student::getLrn);
+        FIELDS.put("birthdate", Student::getBirthdate);
+        FIELDS.put("age", Student::getAge);
+        FIELDS.put("sex", Student::getSex);
+        FIELDS.put("address", Student::getAddress);
+        FIELDS.put("contactNumber", Student::getContactNumber);
+        FIELDS.put("parentGuardianName", Student::getParentGuardianName);
+        FIELDS.put("parentGuardianContact", Student::getParentGuardianContact);
+        FIELDS.put("parentGuardianRelationship", Student::getParentGuardianRelationship);
+        FIELDS.put("gradeLevel", Student::getGradeLevel);
+        FIELDS.put("strand", Student::getStrand);
+        FIELDS.put("sectionId", s -> s.getSection() != null ? s.getSection().getId() : null);
+        FIELDS.put("sectionName", s -> s.getSection() != null ? s.getSection().getName() : null);
+        FIELDS.put("schoolYearId", s -> s.getSchoolYear() != null ? s.getSchoolYear().getId() : null);
+        FIELDS.put("schoolYear", s -> s.getSchoolYear() != null ? s.getSchoolYear().getYear() : null);
+        FIELDS.put("semesterId", s -> s.getSemester() != null ? s.getSemester().getId() : null);
+        FIELDS.put("previousSchool", Student::getPreviousSchool);
+        FIELDS.put("gwa", Student::getGwa);
+        FIELDS.put("enrollmentStatus", Student::getEnrollmentStatus);
+        FIELDS.put("isArchived", Student::getIsArchived);
+        FIELDS.put("archiveReason", Student::getArchiveReason);
+        FIELDS.put("archivedAt", Student::getArchivedAt);
+        FIELDS.put("reEnrollmentReason", Student::getReEnrollmentReason);
+        FIELDS.put("createdAt", Student::getCreatedAt);
+        FIELDS.put("updatedAt", Student::getUpdatedAt);
+    }
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentSearchService studentSearchService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getStudents(
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer gradeLevel,
+            @RequestParam(required = false) String strand,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long sectionId,
+            @RequestParam(required = false) Long schoolYearId,
+            @RequestParam(required = false) Boolean archived,
+            @RequestParam(required = false) String q,
+            WebRequest webRequest) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return badRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<String> selectedFields;
+        Long afterId;
+        try {
+            selectedFields = parseFields(fields);
+            afterId = decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        // Conditional GET - the query string is part of the ETag since it selects the representation
+        StudentService.StudentListVersion version = studentService.getStudentListVersion();
+        long lastModified = version.getLastModified() != null
+                ? version.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        String query = webRequest.getParameterMap().entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + String.join(",", entry.getValue()))
+                .sorted()
+                .collect(Collectors.joining("&"));
+        String eTag = "W/\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(version.getCount()) +
+                "-" + Long.toHexString(version.getArchivedCount()) + "-" + Integer.toHexString(query.hashCode()) + "\"";
+        // checkNotModified also writes the ETag and Last-Modified headers to the response
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        // One extra row tells whether there is a next page
+        List<Student> rows = studentService.getStudentPage(afterId, limit + 1, gradeLevel, strand, status,
+                sectionId, schoolYearId, archived, q);
+        boolean hasMore = rows.size() > limit;
+        List<Student> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("items");
+                for (Student student : page) {
+                    generator.writeStartObject();
+                    for (String field : selectedFields) {
+                        generator.writeFieldName(field);
+                        generator.writeObject(FIELDS.get(field).apply(student));
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeNumberField("count", page.size());
+                generator.writeStringField("nextCursor", nextCursor);
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchStudents(
+            @RequestParam String q,
+            @RequestParam(required = false) Boolean archived,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_LIMIT) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "page must be 0 or more and size between 1 and " + MAX_LIMIT);
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok(studentSearchService.search(q, archived, page, size));
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importStudents(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long schoolYearId,
+            @RequestParam(defaultValue = "1") int semesterNumber,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        Map<String, String> error = new HashMap<>();
+        if (file.isEmpty()) {
+            error.put("error", "The uploaded file is empty");
+            return ResponseEntity.badRequest().body(error);
+        }
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(studentImportService.importStudents(input, file.getOriginalFilename(), schoolYearId, semesterNumber, dryRun));
+        } catch (RuntimeException | IOException e) {
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/import/{importId}/errors")
+    public ResponseEntity<?> getImportErrorReport(@PathVariable String importId) {
+        Path report = studentImportService.getErrorReport(importId);
+        if (report == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "No error report for import " + importId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + importId + ".csv\"")
+                .body(new FileSystemResource(report));
+    }
+
+    private List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new ArrayList<>(FIELDS.keySet());
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || selected.contains(name)) {
+                continue;
+            }
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ". Available fields: " + String.join(", ", FIELDS.keySet()));
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return selected;
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Errors use the same {"error": "..."} body as the other controllers
+    private ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, error));
+    }
+}
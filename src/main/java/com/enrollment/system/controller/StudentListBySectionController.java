@@ -1,5 +1,6 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.StudentDto;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.service.ReportService;
@@ -102,6 +103,9 @@ public class StudentListBySectionController implements Initializable {
     @Autowired
     private ReportService reportService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     private Map<Section, List<StudentDto>> studentsBySection;
     private ObservableList<StudentDto> currentStudents;
     
@@ -188,7 +192,7 @@ public class StudentListBySectionController implements Initializable {
     private void loadData() {
         new Thread(() -> {
             try {
-                studentsBySection = reportService.getStudentsBySection();
+                studentsBySection = uiLoadMetrics.time("StudentListBySection", reportService::getStudentsBySection);
                 
                 Platform.runLater(() -> {
                     List<Section> sections = new ArrayList<>(studentsBySection.keySet());
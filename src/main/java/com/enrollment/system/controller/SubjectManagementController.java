@@ -1,5 +1,6 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.model.Subject;
 import com.enrollment.system.service.SubjectService;
 import javafx.application.Platform;
@@ -66,6 +67,9 @@ public class SubjectManagementController implements Initializable {
     @Autowired
     private SubjectService subjectService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     private ObservableList<Subject> subjectList;
     private FilteredList<Subject> filteredSubjectList;
     private SortedList<Subject> sortedSubjectList;
@@ -145,7 +149,7 @@ public class SubjectManagementController implements Initializable {
         new Thread(() -> {
             try {
                 // Only get active subjects
-                java.util.List<Subject> allSubjects = subjectService.getAllSubjects();
+                java.util.List<Subject> allSubjects = uiLoadMetrics.time("SubjectManagement", subjectService::getAllSubjects);
                 java.util.List<Subject> activeSubjects = allSubjects.stream()
                     .filter(s -> s.getIsActive() != null && s.getIsActive())
                     .collect(java.util.stream.Collectors.toList());
@@ -0,0 +1,71 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.service.StudentSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Delta sync for other machines running the system (e.g. a reporting copy of the student list).
+ *
+ * GET /api/sync/students?since=2024-06-01T08:00:00&afterId=0&limit=500
+ *
+ * Omit since for a full sync. Apply "students" as upserts and "deleted" as removals, then pass
+ * nextSince / nextAfterId back on the next call; keep calling while hasMore is true.
+ * since also accepts epoch milliseconds.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    @Autowired
+    private StudentSyncService studentSyncService;
+    
+    @GetMapping("/students")
+    public ResponseEntity<?> getStudentChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return error(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        LocalDateTime sinceTime = null;
+        if (since != null && !since.isBlank()) {
+            try {
+                sinceTime = parseSince(since.trim());
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return error(HttpStatus.BAD_REQUEST, "Invalid since: " + since + " (expected ISO date-time or epoch milliseconds)");
+            }
+            if (sinceTime.isBefore(studentSyncService.getEarliestSince())) {
+                return error(HttpStatus.GONE, "since is older than the deletion history kept on the server; run a full sync without since");
+            }
+        }
+        
+        return ResponseEntity.ok(studentSyncService.getChangesSince(sinceTime, afterId, limit));
+    }
+    
+    private static LocalDateTime parseSince(String since) {
+        if (since.chars().allMatch(Character::isDigit)) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(since)), ZoneId.systemDefault());
+        }
+        return LocalDateTime.parse(since);
+    }
+    
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -1,6 +1,8 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.UserDto;
+import com.enrollment.system.service.ChangeDetectionService;
 import com.enrollment.system.service.TeacherService;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -65,9 +67,18 @@ public class TeacherAccountManagementController implements Initializable {
     @Autowired
     private TeacherService teacherService;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private ApplicationContext applicationContext;
     
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+    
+    // Table versions the list was loaded at, so a refresh can skip an unchanged database
+    private java.util.Map<String, Long> loadedVersions;
+    
     private ObservableList<UserDto> teacherList;
     private FilteredList<UserDto> filteredList;
     
@@ -183,10 +194,14 @@ public class TeacherAccountManagementController implements Initializable {
     }
     
     public void refreshData() {
+        if (!changeDetectionService.hasChanged(loadedVersions, "users")) {
+            return;
+        }
         loadTeachers();
     }
     
     private void loadTeachers() {
+        loadedVersions = changeDetectionService.getTableVersions();
         if (teachersTable != null) {
             Label loadingPlaceholder = new Label("Loading teachers...");
             loadingPlaceholder.setStyle("-fx-font-size: 14px; -fx-text-fill: #7f8c8d; -fx-padding: 20;");
@@ -195,7 +210,7 @@ public class TeacherAccountManagementController implements Initializable {
         
         Platform.runLater(() -> {
             try {
-                java.util.List<UserDto> teachers = teacherService.getAllTeachers();
+                java.util.List<UserDto> teachers = uiLoadMetrics.time("TeacherAccountManagement", teacherService::getAllTeachers);
                 
                 teacherList = FXCollections.observableArrayList(teachers);
                 filteredList = new FilteredList<>(teacherList, p -> true);
@@ -214,6 +229,7 @@ public class TeacherAccountManagementController implements Initializable {
                 
             } catch (Exception e) {
                 e.printStackTrace();
+                loadedVersions = null;
                 showError("Error loading teachers: " + e.getMessage());
                 teacherList = FXCollections.observableArrayList();
                 filteredList = new FilteredList<>(teacherList, p -> true);
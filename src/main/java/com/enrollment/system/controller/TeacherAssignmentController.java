@@ -0,0 +1,45 @@
+package com.enrollment.system.controller;
+
+import com.enrollment.system.service.TeacherAssignmentSolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Automatic teacher assignment.
+ *
+ * POST /api/teacher-assignments/auto-assign?semesterId=3&keepExisting=true&dryRun=true
+ *
+ * semesterId limits the run to that semester's grade level (omit for all grades). With keepExisting
+ * (the default) current assignments stay and only pairs nobody teaches are filled; keepExisting=false
+ * replaces all assignments. dryRun returns the plan without saving it. Administrators only.
+ */
+@RestController
+@RequestMapping("/api/teacher-assignments")
+@CrossOrigin(origins = "*")
+public class TeacherAssignmentController {
+    
+    @Autowired
+    private TeacherAssignmentSolver teacherAssignmentSolver;
+    
+    @PostMapping("/auto-assign")
+    public ResponseEntity<?> autoAssign(
+            @RequestParam(required = false) Long semesterId,
+            @RequestParam(defaultValue = "true") boolean keepExisting,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            TeacherAssignmentSolver.SolverResult result = dryRun
+                    ? teacherAssignmentSolver.preview(semesterId, keepExisting)
+                    : teacherAssignmentSolver.solveAndApply(semesterId, keepExisting);
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.UserDto;
-import com.enrollment.system.service.TeacherService;
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import com.enrollment.system.event.DomainEventDispatcher;
+import com.enrollment.system.service.ChangeDetectionService;
+import com.enrollment.system.service.ReportService;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -63,20 +67,80 @@ public class TeacherAssignmentReportController implements Initializable {
     private TableColumn<AssignmentInfo, Integer> gradeColumn;
     
     @Autowired
-    private TeacherService teacherService;
+    private ReportService reportService;
     
     @Autowired
-    private com.enrollment.system.repository.TeacherAssignmentRepository teacherAssignmentRepository;
+    private UiLoadMetrics uiLoadMetrics;
+    
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+    
+    @Autowired
+    private DomainEventDispatcher domainEventDispatcher;
     
     private ObservableList<UserDto> allTeachers;
+    // Assignments of every teacher, loaded together with the teacher list
+    private Map<Long, List<ReportService.TeacherAssignmentInfo>> assignmentsByTeacher = new HashMap<>();
+    // Table versions the loaded report was read at; null when unknown
+    private Map<String, Long> loadedVersions;
+    private Runnable domainEventSubscription;
     private UserDto selectedTeacher;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupTableColumns();
+        setupTeachersList();
+        if (domainEventSubscription == null) {
+            // Assignment changes made while the report is open reload it
+            domainEventSubscription = domainEventDispatcher.subscribe(events -> {
+                if (events.stream().anyMatch(event -> event instanceof AssignmentsChangedEvent)) {
+                    Platform.runLater(this::refreshData);
+                }
+            });
+        }
+        loadTeachers();
+    }
+    
+    /**
+     * Reload the report if teachers, their assignments, or the subjects and sections it names
+     * have changed since it was loaded. Nothing to do while the window is closed: opening it loads
+     * the report again.
+     */
+    public void refreshData() {
+        if (teachersListView.getScene() == null || teachersListView.getScene().getWindow() == null
+                || !teachersListView.getScene().getWindow().isShowing()) {
+            return;
+        }
+        if (!changeDetectionService.hasChanged(loadedVersions, "teacher_assignments", "users", "subjects", "sections")) {
+            return;
+        }
         loadTeachers();
     }
     
+    private void setupTeachersList() {
+        // Set cell factory to display full name
+        teachersListView.setCellFactory(param -> new ListCell<UserDto>() {
+            @Override
+            protected void updateItem(UserDto item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    setText(item.getFullName());
+                    setStyle("-fx-padding: 8px; -fx-font-size: 13px;");
+                }
+            }
+        });
+        
+        // Add selection listener
+        teachersListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) {
+                handleTeacherSelection(newVal);
+            }
+        });
+    }
+    
     private void setupTableColumns() {
         subjectNameColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getSubjectName()));
@@ -89,41 +153,40 @@ public class TeacherAssignmentReportController implements Initializable {
     }
     
     private void loadTeachers() {
+        loadedVersions = changeDetectionService.getTableVersions();
         new Thread(() -> {
             try {
-                List<UserDto> teachers = teacherService.getAllTeachers();
+                List<ReportService.TeacherAssignmentReport> reports =
+                        uiLoadMetrics.time("TeacherAssignmentReport", reportService::getTeacherAssignments);
+                List<UserDto> teachers = new ArrayList<>();
+                Map<Long, List<ReportService.TeacherAssignmentInfo>> assignments = new HashMap<>();
+                for (ReportService.TeacherAssignmentReport report : reports) {
+                    teachers.add(report.teacher);
+                    assignments.put(report.teacher.getId(), report.assignments);
+                }
                 
                 Platform.runLater(() -> {
+                    Long selectedId = selectedTeacher != null ? selectedTeacher.getId() : null;
+                    assignmentsByTeacher = assignments;
                     allTeachers = FXCollections.observableArrayList(teachers);
                     teachersListView.setItems(allTeachers);
                     
-                    // Set cell factory to display full name
-                    teachersListView.setCellFactory(param -> new ListCell<UserDto>() {
-                        @Override
-                        protected void updateItem(UserDto item, boolean empty) {
-                            super.updateItem(item, empty);
-                            if (empty || item == null) {
-                                setText(null);
-                                setStyle("");
-                            } else {
-                                setText(item.getFullName());
-                                setStyle("-fx-padding: 8px; -fx-font-size: 13px;");
-                            }
-                        }
-                    });
-                    
-                    // Add selection listener
-                    teachersListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                        if (newVal != null) {
-                            handleTeacherSelection(newVal);
-                        }
-                    });
+                    // Keep showing the teacher that was selected before a reload
+                    UserDto reselected = selectedId == null ? null : teachers.stream()
+                            .filter(teacher -> selectedId.equals(teacher.getId()))
+                            .findFirst().orElse(null);
+                    if (reselected != null) {
+                        teachersListView.getSelectionModel().select(reselected);
+                    } else {
+                        handleTeacherSelection(null);
+                    }
                     
                     updateSummary();
                 });
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> {
+                    loadedVersions = null;
                     Alert alert = new Alert(Alert.AlertType.ERROR);
                     alert.setTitle("Error");
                     alert.setHeaderText("Failed to load teachers");
@@ -147,44 +210,28 @@ public class TeacherAssignmentReportController implements Initializable {
         // Update selected teacher label
         selectedTeacherLabel.setText(selectedTeacher.getFullName());
         
-        // Load assignments directly from TeacherAssignment table
-        new Thread(() -> {
-            try {
-                List<com.enrollment.system.model.TeacherAssignment> assignments = 
-                        teacherAssignmentRepository.findByTeacherId(selectedTeacher.getId());
+        List<ReportService.TeacherAssignmentInfo> assignments = getAssignments(selectedTeacher);
+        ObservableList<AssignmentInfo> tableData = FXCollections.observableArrayList();
+        
+        if (assignments.isEmpty()) {
+            previewLabel.setText("Teacher: " + selectedTeacher.getFullName() + " - No assignments found");
+        } else {
+            for (ReportService.TeacherAssignmentInfo assignment : assignments) {
+                String subjectName = assignment.subjectName != null ? assignment.subjectName : "N/A";
+                String sectionName = assignment.sectionName != null ? assignment.sectionName : "N/A";
+                String strand = assignment.strand != null ? assignment.strand : "N/A";
                 
-                Platform.runLater(() -> {
-                    ObservableList<AssignmentInfo> tableData = FXCollections.observableArrayList();
-                    
-                    if (assignments == null || assignments.isEmpty()) {
-                        previewLabel.setText("Teacher: " + selectedTeacher.getFullName() + " - No assignments found");
-                    } else {
-                        for (com.enrollment.system.model.TeacherAssignment assignment : assignments) {
-                            String subjectName = assignment.getSubject() != null ? assignment.getSubject().getName() : "N/A";
-                            String sectionName = assignment.getSection() != null ? assignment.getSection().getName() : "N/A";
-                            String strand = assignment.getSection() != null && assignment.getSection().getStrand() != null 
-                                    ? assignment.getSection().getStrand() : "N/A";
-                            Integer grade = assignment.getSection() != null ? assignment.getSection().getGradeLevel() : null;
-                            
-                            tableData.add(new AssignmentInfo(subjectName, sectionName, strand, grade));
-                        }
-                        previewLabel.setText("Teacher: " + selectedTeacher.getFullName() + " - " + assignments.size() + " assignment(s)");
-                    }
-                    
-                    subjectsTable.setItems(tableData);
-                    subjectsTable.setVisible(true);
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                Platform.runLater(() -> {
-                    Alert alert = new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("Error");
-                    alert.setHeaderText("Failed to load teacher assignments");
-                    alert.setContentText("Error: " + e.getMessage());
-                    alert.showAndWait();
-                });
+                tableData.add(new AssignmentInfo(subjectName, sectionName, strand, assignment.gradeLevel));
             }
-        }).start();
+            previewLabel.setText("Teacher: " + selectedTeacher.getFullName() + " - " + assignments.size() + " assignment(s)");
+        }
+        
+        subjectsTable.setItems(tableData);
+        subjectsTable.setVisible(true);
+    }
+    
+    private List<ReportService.TeacherAssignmentInfo> getAssignments(UserDto teacher) {
+        return assignmentsByTeacher.getOrDefault(teacher.getId(), Collections.emptyList());
     }
     
     @FXML
@@ -398,8 +445,7 @@ public class TeacherAssignmentReportController implements Initializable {
         }
         
         // Get all teacher assignments (subject-section pairs)
-        List<com.enrollment.system.model.TeacherAssignment> assignments = 
-                teacherAssignmentRepository.findByTeacherId(selectedTeacher.getId());
+        List<ReportService.TeacherAssignmentInfo> assignments = getAssignments(selectedTeacher);
         
         try (PDDocument document = new PDDocument()) {
             PDPage page = new PDPage(PDRectangle.A4);
@@ -533,7 +579,7 @@ public class TeacherAssignmentReportController implements Initializable {
                     int rowNum = 0;
                     float rowHeight = lineHeight + (cellPadding * 2);
                     
-                    for (com.enrollment.system.model.TeacherAssignment assignment : assignments) {
+                    for (ReportService.TeacherAssignmentInfo assignment : assignments) {
                         // Check if we need a new page
                         if (yPosition < margin + 60) {
                             // Draw bottom border of current table
@@ -633,7 +679,7 @@ public class TeacherAssignmentReportController implements Initializable {
                         float cellX = tableStartX + cellPadding;
                         
                         // Subject Name
-                        String subjectName = assignment.getSubject() != null ? assignment.getSubject().getName() : "N/A";
+                        String subjectName = assignment.subjectName != null ? assignment.subjectName : "N/A";
                         contentStream.beginText();
                         contentStream.newLineAtOffset(cellX, yPosition - cellPadding - 13);
                         contentStream.showText(subjectName);
@@ -641,7 +687,7 @@ public class TeacherAssignmentReportController implements Initializable {
                         cellX += columnWidths[0];
                         
                         // Section
-                        String sectionName = assignment.getSection() != null ? assignment.getSection().getName() : "N/A";
+                        String sectionName = assignment.sectionName != null ? assignment.sectionName : "N/A";
                         contentStream.beginText();
                         contentStream.newLineAtOffset(cellX, yPosition - cellPadding - 13);
                         contentStream.showText(sectionName);
@@ -649,8 +695,7 @@ public class TeacherAssignmentReportController implements Initializable {
                         cellX += columnWidths[1];
                         
                         // Grade Level
-                        String gradeLevel = assignment.getSection() != null && assignment.getSection().getGradeLevel() != null 
-                                ? assignment.getSection().getGradeLevel().toString() : "N/A";
+                        String gradeLevel = assignment.gradeLevel != null ? assignment.gradeLevel.toString() : "N/A";
                         contentStream.beginText();
                         contentStream.newLineAtOffset(cellX, yPosition - cellPadding - 13);
                         contentStream.showText(gradeLevel);
@@ -658,8 +703,7 @@ public class TeacherAssignmentReportController implements Initializable {
                         cellX += columnWidths[2];
                         
                         // Strand
-                        String strand = assignment.getSection() != null && assignment.getSection().getStrand() != null 
-                                ? assignment.getSection().getStrand() : "N/A";
+                        String strand = assignment.strand != null ? assignment.strand : "N/A";
                         contentStream.beginText();
                         contentStream.newLineAtOffset(cellX, yPosition - cellPadding - 13);
                         contentStream.showText(strand);
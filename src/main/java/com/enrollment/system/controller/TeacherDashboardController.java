@@ -1,8 +1,17 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.service.ProfilePictureService;
+import com.enrollment.system.util.ProfileImageCache;
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.UserDto;
 import com.enrollment.system.dto.StudentDto;
 import com.enrollment.system.dto.SchoolYearDto;
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import com.enrollment.system.event.DomainEvent;
+import com.enrollment.system.event.DomainEventDispatcher;
+import com.enrollment.system.event.SectionCapacityChangedEvent;
+import com.enrollment.system.event.StudentEvent;
+import com.enrollment.system.event.StudentsChangedEvent;
 import com.enrollment.system.model.Subject;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.service.AuthService;
@@ -40,8 +49,6 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
@@ -119,9 +126,18 @@ public class TeacherDashboardController {
     @Autowired
     private ApplicationContext applicationContext;
     
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired(required = false)
     private AuthService authService;
     
+    @Autowired
+    private ProfilePictureService profilePictureService;
+    
+    @Autowired
+    private ProfileImageCache profileImageCache;
+    
     @Autowired(required = false)
     private TeacherService teacherService;
     
@@ -137,6 +153,26 @@ public class TeacherDashboardController {
     @Autowired(required = false)
     private com.enrollment.system.repository.TeacherAssignmentRepository teacherAssignmentRepository;
     
+    @Autowired(required = false)
+    private DomainEventDispatcher domainEventDispatcher;
+    
+    @Autowired(required = false)
+    private com.enrollment.system.util.AuditLog auditLog;
+    
+    @Autowired(required = false)
+    private com.enrollment.system.service.ChangeDetectionService changeDetectionService;
+    
+    // Data behind the home page; student changes are applied to it from domain events
+    private TeacherHome home;
+    // Table versions the home page data matches. Domain events only cover this PC, so changes made
+    // from other PCs sharing the database are noticed here and make the next visit reload. Taken
+    // again after applying events, as this PC's own commits move the versions too.
+    private java.util.Map<String, Long> homeVersions;
+    // Events that arrived while the home page was loading (null when no load is running)
+    private List<DomainEvent> eventsDuringLoad;
+    private HBox homeHeader;
+    private Runnable domainEventSubscription;
+    
     private UserDto currentUser;
     private String sessionToken;
     private Stage loginStage;
@@ -193,6 +229,14 @@ public class TeacherDashboardController {
     public void setUserSession(UserDto user, String token) {
         this.currentUser = user;
         this.sessionToken = token;
+        if (auditLog != null) {
+            auditLog.setDesktopUser(user != null ? user.getUsername() : null);
+        }
+        this.home = null;
+        
+        if (domainEventDispatcher != null && domainEventSubscription == null) {
+            domainEventSubscription = domainEventDispatcher.subscribe(events -> Platform.runLater(() -> applyDomainEvents(events)));
+        }
         
         // Update user info in header (without "Welcome")
         Platform.runLater(() -> {
@@ -276,9 +320,10 @@ public class TeacherDashboardController {
             boolean pictureLoaded = false;
             if (currentUser.getProfilePicture() != null && !currentUser.getProfilePicture().isEmpty()) {
                 try {
-                    File imageFile = new File(currentUser.getProfilePicture());
-                    if (imageFile.exists()) {
-                        Image image = new Image(imageFile.toURI().toString(), 40, 40, true, true, true);
+                    String thumbnail = profilePictureService.thumbnailPath(currentUser.getProfilePicture(),
+                            ProfilePictureService.HEADER_THUMBNAIL_SIZE);
+                    Image image = profileImageCache.get(thumbnail, 40);
+                    if (image != null) {
                         profileImageView.setImage(image);
                         profileImageView.setVisible(true);
                         profileInitialsLabel.setVisible(false);
@@ -436,11 +481,27 @@ public class TeacherDashboardController {
             return;
         }
         
+        // Already loaded and nothing it shows changed since: events have kept it current
+        if (home != null && changeDetectionService != null && !changeDetectionService.hasChanged(homeVersions,
+                "students", "teacher_assignments", "sections", "subjects", "school_years")) {
+            buildDashboardSummary(currentUser.getFullName(), home.schoolYearText, home.subjects, home.sections,
+                new java.util.ArrayList<>(home.students.values()));
+            return;
+        }
+        home = null;
+        if (eventsDuringLoad != null) {
+            // Already loading; that load draws the page
+            return;
+        }
+        eventsDuringLoad = new java.util.ArrayList<>();
+        
         // Load data in background thread
         new Thread(() -> {
             try {
+                java.util.Map<String, Long> versions = changeDetectionService != null
+                        ? changeDetectionService.getTableVersions() : null;
                 // Get actual assignments from TeacherAssignment table (NEW SYSTEM)
-                java.util.Map<Long, List<Section>> subjectSectionMap = teacherService.getSubjectSectionMap(currentUser.getId());
+                java.util.Map<Long, List<Section>> subjectSectionMap = uiLoadMetrics.time("TeacherDashboard.Home", () -> teacherService.getSubjectSectionMap(currentUser.getId()));
                 
                 // Extract unique subjects from assignments
                 java.util.Set<Long> subjectIds = subjectSectionMap.keySet();
@@ -481,9 +542,11 @@ public class TeacherDashboardController {
                 
                 // Get current school year
                 String schoolYearText = "N/A";
+                Long schoolYearId = null;
                 try {
                     SchoolYearDto currentSchoolYear = schoolYearService.getCurrentSchoolYear();
                     schoolYearText = currentSchoolYear.getYear();
+                    schoolYearId = currentSchoolYear.getId();
                 } catch (Exception e) {
                     // No current school year set - keep default "N/A"
                 }
@@ -504,18 +567,32 @@ public class TeacherDashboardController {
                     .filter(student -> "Enrolled".equals(student.getEnrollmentStatus()))
                     .collect(Collectors.toList());
                 
+                TeacherHome loaded = new TeacherHome(schoolYearText, schoolYearId, teacherSubjects, teacherSections);
+                for (StudentDto student : teacherStudents) {
+                    loaded.students.put(student.getId(), student);
+                }
+                
                 // Update UI on JavaFX thread
                 final List<Subject> finalTeacherSubjects = teacherSubjects;
                 final List<StudentDto> finalTeacherStudents = teacherStudents;
                 final String finalTeacherName = currentUser.getFullName();
                 Platform.runLater(() -> {
+                    home = loaded;
+                    homeVersions = versions;
                     buildDashboardSummary(finalTeacherName, finalSchoolYearText, 
                         finalTeacherSubjects, finalTeacherSections, finalTeacherStudents);
+                    // The load may or may not include them; applying them again does no harm
+                    List<DomainEvent> missed = eventsDuringLoad;
+                    eventsDuringLoad = null;
+                    if (missed != null && !missed.isEmpty()) {
+                        applyDomainEvents(missed);
+                    }
                 });
                 
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> {
+                    eventsDuringLoad = null;
                     Label errorLabel = new Label("Error loading dashboard data: " + e.getMessage());
                     errorLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-size: 14px; -fx-padding: 20;");
                     dashboardContent.getChildren().add(errorLabel);
@@ -524,6 +601,50 @@ public class TeacherDashboardController {
         }).start();
     }
     
+    /**
+     * Apply committed changes to the home page data and redraw it if it is on screen. Student
+     * changes are applied in place; assignment, section and bulk changes reload it.
+     * Runs on the JavaFX thread.
+     */
+    private void applyDomainEvents(List<DomainEvent> events) {
+        if (home == null) {
+            if (eventsDuringLoad != null) {
+                eventsDuringLoad.addAll(events);
+            }
+            return;
+        }
+        if (currentUser == null) {
+            return;
+        }
+        boolean changed = false;
+        for (DomainEvent event : events) {
+            if (event instanceof StudentsChangedEvent
+                    || (event instanceof AssignmentsChangedEvent assignments && assignments.affects(currentUser.getId()))
+                    || (event instanceof SectionCapacityChangedEvent section && home.sectionIds.contains(section.getSectionId()))) {
+                home = null;
+                break;
+            }
+            if (event instanceof StudentEvent studentEvent) {
+                home.apply(studentEvent);
+                changed = true;
+            }
+        }
+        if (home != null && changed && changeDetectionService != null) {
+            // The data now includes this PC's commits, which also moved the table versions
+            homeVersions = changeDetectionService.getTableVersions();
+        }
+        boolean showingHome = homeHeader != null && dashboardContent != null && dashboardContent.getChildren().contains(homeHeader);
+        if (!showingHome) {
+            return;
+        }
+        if (home == null) {
+            loadDashboardContent();
+        } else if (changed) {
+            buildDashboardSummary(currentUser.getFullName(), home.schoolYearText, home.subjects, home.sections,
+                new java.util.ArrayList<>(home.students.values()));
+        }
+    }
+    
     private void buildDashboardSummary(String teacherName, String schoolYear, 
                                       List<Subject> subjects, List<Section> sections, 
                                       List<StudentDto> students) {
@@ -545,6 +666,7 @@ public class TeacherDashboardController {
         header.getChildren().add(headerBox);
         
         dashboardContent.getChildren().add(header);
+        homeHeader = header;
         
         // Summary Cards Row
         HBox summaryPanel = new HBox(20);
@@ -963,7 +1085,7 @@ public class TeacherDashboardController {
         new Thread(() -> {
             try {
                 // Get actual assignments from TeacherAssignment table
-                java.util.Map<Long, List<Section>> subjectSectionMap = teacherService.getSubjectSectionMap(currentUser.getId());
+                java.util.Map<Long, List<Section>> subjectSectionMap = uiLoadMetrics.time("TeacherDashboard.Subjects", () -> teacherService.getSubjectSectionMap(currentUser.getId()));
                 
                 // Extract unique subjects from assignments
                 java.util.Set<Long> subjectIds = subjectSectionMap.keySet();
@@ -1760,7 +1882,7 @@ public class TeacherDashboardController {
         new Thread(() -> {
             try {
                 // Get actual assignments from TeacherAssignment table - extract unique sections
-                java.util.Map<Long, List<Section>> subjectSectionMap = teacherService.getSubjectSectionMap(currentUser.getId());
+                java.util.Map<Long, List<Section>> subjectSectionMap = uiLoadMetrics.time("TeacherDashboard.Students", () -> teacherService.getSubjectSectionMap(currentUser.getId()));
                 
                 // Extract unique sections from assignments (use IDs to avoid HashSet issues)
                 java.util.Set<Long> uniqueSectionIds = new java.util.HashSet<>();
@@ -1835,7 +1957,7 @@ public class TeacherDashboardController {
         new Thread(() -> {
             try {
                 // Get actual assignments from TeacherAssignment table - extract unique sections
-                java.util.Map<Long, List<Section>> subjectSectionMap = teacherService.getSubjectSectionMap(currentUser.getId());
+                java.util.Map<Long, List<Section>> subjectSectionMap = uiLoadMetrics.time("TeacherDashboard.Sections", () -> teacherService.getSubjectSectionMap(currentUser.getId()));
                 
                 // Extract unique sections from assignments (use IDs to avoid HashSet issues)
                 java.util.Set<Long> uniqueSectionIds = new java.util.HashSet<>();
@@ -2717,9 +2839,10 @@ public class TeacherDashboardController {
         boolean hasPicture = false;
         if (currentUser.getProfilePicture() != null && !currentUser.getProfilePicture().isEmpty()) {
             try {
-                File imageFile = new File(currentUser.getProfilePicture());
-                if (imageFile.exists()) {
-                    Image image = new Image(imageFile.toURI().toString(), 140, 140, true, true, true);
+                String thumbnail = profilePictureService.thumbnailPath(currentUser.getProfilePicture(),
+                        ProfilePictureService.SETTINGS_THUMBNAIL_SIZE);
+                Image image = profileImageCache.get(thumbnail, 140);
+                if (image != null) {
                     accountSettingsProfileImageView.setImage(image);
                     accountSettingsProfileImageView.setVisible(true);
                     accountSettingsInitialsLabel.setVisible(false);
@@ -2913,33 +3036,9 @@ public class TeacherDashboardController {
                 
                 // Handle profile picture upload if a new one was selected
                 if (selectedProfilePictureFile != null) {
-                    // Create uploads directory if it doesn't exist
-                    File uploadsDir = new File("uploads/profile-pictures");
-                    if (!uploadsDir.exists()) {
-                        uploadsDir.mkdirs();
-                    }
-                    
-                    // Generate unique filename
-                    String originalFilename = selectedProfilePictureFile.getName();
-                    String extension = "";
-                    if (originalFilename.contains(".")) {
-                        extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                    }
-                    String filename = currentUser.getId() + "_" + System.currentTimeMillis() + extension;
-                    
-                    // Copy file to uploads directory
-                    File targetFile = new File(uploadsDir, filename);
-                    Files.copy(selectedProfilePictureFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                    
-                    // Delete old profile picture if exists
-                    if (currentUser.getProfilePicture() != null && !currentUser.getProfilePicture().isEmpty()) {
-                        File oldFile = new File(currentUser.getProfilePicture());
-                        if (oldFile.exists()) {
-                            oldFile.delete();
-                        }
-                    }
-                    
-                    profilePicturePath = "uploads/profile-pictures/" + filename;
+                    // Stores a normalized copy plus thumbnails; the old picture is removed by
+                    // TeacherService once the profile update is committed
+                    profilePicturePath = profilePictureService.store(currentUser.getId(), selectedProfilePictureFile.toPath());
                 }
                 
                 // Update teacher profile using service
@@ -3138,6 +3237,11 @@ public class TeacherDashboardController {
                         }
                     }
                     
+                    home = null;
+                    if (auditLog != null) {
+                        auditLog.setDesktopUser(null);
+                    }
+                    
                     Stage dashboardStage = (Stage) logoutButton.getScene().getWindow();
                     dashboardStage.close();
                     
@@ -3185,6 +3289,40 @@ public class TeacherDashboardController {
             alert.showAndWait();
         }
     }
+    
+    /**
+     * The teacher's subjects, sections and the enrolled students in those sections.
+     */
+    private static class TeacherHome {
+        private final String schoolYearText;
+        private final Long schoolYearId;
+        private final List<Subject> subjects;
+        private final List<Section> sections;
+        private final java.util.Set<Long> sectionIds = new java.util.HashSet<>();
+        private final java.util.Map<Long, StudentDto> students = new java.util.LinkedHashMap<>();
+        
+        TeacherHome(String schoolYearText, Long schoolYearId, List<Subject> subjects, List<Section> sections) {
+            this.schoolYearText = schoolYearText;
+            this.schoolYearId = schoolYearId;
+            this.subjects = subjects;
+            this.sections = sections;
+            for (Section section : sections) {
+                sectionIds.add(section.getId());
+            }
+        }
+        
+        // Same rule as the initial load: enrolled, this school year, in one of the teacher's sections
+        void apply(StudentEvent event) {
+            StudentDto after = event.getAfter();
+            boolean belongs = after != null
+                && "Enrolled".equals(after.getEnrollmentStatus())
+                && after.getSectionId() != null && sectionIds.contains(after.getSectionId())
+                && (schoolYearId == null || schoolYearId.equals(after.getSchoolYearId()));
+            if (belongs) {
+                students.put(event.getStudentId(), after);
+            } else {
+                students.remove(event.getStudentId());
+            }
+        }
+    }
 }
-
-
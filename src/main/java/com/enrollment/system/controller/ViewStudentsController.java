@@ -1,7 +1,12 @@
 package com.enrollment.system.controller;
 
+import com.enrollment.system.util.StudentSearchDebouncer;
+import com.enrollment.system.util.UiLoadMetrics;
 import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.service.ChangeDetectionService;
 import com.enrollment.system.service.StudentService;
+import com.enrollment.system.service.StudentImportService;
+import com.enrollment.system.service.StudentSearchService;
 import com.enrollment.system.service.SemesterService;
 import com.enrollment.system.dto.SemesterDto;
 import javafx.application.Platform;
@@ -19,11 +24,17 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
+import java.io.File;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -103,18 +114,43 @@ public class ViewStudentsController implements Initializable {
     @FXML
     private Button refreshButton;
     
+    @FXML
+    private Button importButton;
+    
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private StudentSearchService studentSearchService;
+    
+    @Autowired
+    private StudentImportService studentImportService;
+    
+    @Autowired
+    private UiLoadMetrics uiLoadMetrics;
+    
     @Autowired
     private ApplicationContext applicationContext;
     
     @Autowired(required = false)
     private SemesterService semesterService;
     
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+    
+    // Table versions the list was loaded at, so a refresh can skip an unchanged database
+    private Map<String, Long> loadedVersions;
+    
     private ObservableList<StudentDto> studentList;
     private FilteredList<StudentDto> filteredList;
     
+    // Search index lookups run in the background; the filter uses the last completed one
+    private StudentSearchDebouncer studentSearch;
+    private String appliedSearchText = "";
+    private java.util.Set<Long> searchMatches = java.util.Collections.emptySet();
+    // More students matched than the index lookup returns; the count says so
+    private boolean searchTruncated;
+    
     // Semester mapping: displayName -> semesterId (for filtering)
     private Map<String, Long> semesterFilterMap = new HashMap<>();
     // Additional mapping: displayName -> list of all semester IDs (for same display name across grade levels)
@@ -122,6 +158,13 @@ public class ViewStudentsController implements Initializable {
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        studentSearch = new StudentSearchDebouncer(studentSearchService, false, (text, ids) -> {
+            appliedSearchText = text;
+            searchMatches = ids.getIds();
+            searchTruncated = ids.isTruncated();
+            applyFilters();
+        });
+        
         // Initialize filter comboboxes
         gradeFilterComboBox.getItems().addAll(null, 11, 12);
         strandFilterComboBox.getItems().addAll(null, "ABM", "HUMSS", "STEM", "GAS", "TVL");
@@ -275,10 +318,19 @@ public class ViewStudentsController implements Initializable {
     
     // Public method to refresh data (can be called from outside)
     public void refreshData() {
+        // The rows show section and semester data, and both the list and the semester filter are
+        // scoped to the current school year
+        if (!changeDetectionService.hasChanged(loadedVersions, "students", "sections", "school_years", "semesters")) {
+            return;
+        }
+        if (changeDetectionService.hasChanged(loadedVersions, "school_years", "semesters")) {
+            loadSemestersForFilter();
+        }
         loadStudents();
     }
     
     private void loadStudents() {
+        loadedVersions = changeDetectionService.getTableVersions();
         // Show loading placeholder while loading
         if (studentsTable != null) {
             Label loadingPlaceholder = new Label("Loading students...");
@@ -289,7 +341,7 @@ public class ViewStudentsController implements Initializable {
         Platform.runLater(() -> {
             try {
                 // Load students from service
-                java.util.List<StudentDto> students = studentService.getAllStudents();
+                java.util.List<StudentDto> students = uiLoadMetrics.time("ViewStudents", studentService::getAllStudents);
                 
                 // Create observable list
                 studentList = FXCollections.observableArrayList(students);
@@ -320,6 +372,7 @@ public class ViewStudentsController implements Initializable {
                 
             } catch (Exception e) {
                 e.printStackTrace();
+                loadedVersions = null;
                 showError("Error loading students: " + e.getMessage());
                 // Set empty list on error
                 studentList = FXCollections.observableArrayList();
@@ -336,11 +389,130 @@ public class ViewStudentsController implements Initializable {
         });
     }
     
+    @FXML
+    private void handleImport() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Students");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Excel or CSV Files", "*.xlsx", "*.csv"),
+                new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"),
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        Stage stage = (Stage) importButton.getScene().getWindow();
+        File file = fileChooser.showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        
+        ChoiceDialog<String> semesterDialog = new ChoiceDialog<>("1st Semester", "1st Semester", "2nd Semester");
+        semesterDialog.setTitle("Import Students");
+        semesterDialog.setHeaderText("Students with a section will be enrolled in:");
+        semesterDialog.setContentText("Semester:");
+        String semester = semesterDialog.showAndWait().orElse(null);
+        if (semester == null) {
+            return;
+        }
+        int semesterNumber = semester.startsWith("2") ? 2 : 1;
+        
+        // Check the whole file first so nothing is imported before the user has seen the errors
+        runImport(file, semesterNumber, true);
+    }
+    
+    private void runImport(File file, int semesterNumber, boolean dryRun) {
+        importButton.setDisable(true);
+        new Thread(() -> {
+            try (InputStream input = Files.newInputStream(file.toPath())) {
+                StudentImportService.ImportResult result = studentImportService.importStudents(
+                        input, file.getName(), null, semesterNumber, dryRun);
+                Platform.runLater(() -> {
+                    importButton.setDisable(false);
+                    if (dryRun) {
+                        confirmImport(file, semesterNumber, result);
+                    } else {
+                        showImportResult(result);
+                        loadStudents();
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    importButton.setDisable(false);
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("Import Failed");
+                    alert.setHeaderText("Could not import " + file.getName());
+                    alert.setContentText(e.getMessage());
+                    alert.showAndWait();
+                });
+            }
+        }).start();
+    }
+    
+    private void confirmImport(File file, int semesterNumber, StudentImportService.ImportResult check) {
+        ButtonType importType = new ButtonType("Import " + check.getImported() + " Student(s)", ButtonBar.ButtonData.OK_DONE);
+        ButtonType reportType = new ButtonType("Save Error Report...", ButtonBar.ButtonData.OTHER);
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Import Students");
+        alert.setHeaderText(file.getName() + ": " + check.getTotalRows() + " row(s) checked");
+        alert.setContentText(check.getImported() + " row(s) are valid.\n" + check.getFailed() + " row(s) have errors and will be skipped.");
+        alert.getButtonTypes().setAll(importType, ButtonType.CANCEL);
+        if (check.isErrorReportAvailable()) {
+            alert.getButtonTypes().add(1, reportType);
+        }
+        if (check.getImported() == 0) {
+            alert.getDialogPane().lookupButton(importType).setDisable(true);
+        }
+        ButtonType choice = alert.showAndWait().orElse(ButtonType.CANCEL);
+        if (choice == reportType) {
+            saveErrorReport(check);
+        } else if (choice == importType) {
+            runImport(file, semesterNumber, false);
+        }
+    }
+    
+    private void showImportResult(StudentImportService.ImportResult result) {
+        ButtonType reportType = new ButtonType("Save Error Report...", ButtonBar.ButtonData.OTHER);
+        Alert alert = new Alert(result.getFailed() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setTitle("Import Complete");
+        alert.setHeaderText(result.getImported() + " student(s) imported");
+        alert.setContentText(result.getFailed() == 0
+                ? "All " + result.getTotalRows() + " row(s) were imported."
+                : result.getFailed() + " row(s) were skipped because of errors.");
+        alert.getButtonTypes().setAll(ButtonType.OK);
+        if (result.isErrorReportAvailable()) {
+            alert.getButtonTypes().add(0, reportType);
+        }
+        if (alert.showAndWait().orElse(ButtonType.OK) == reportType) {
+            saveErrorReport(result);
+        }
+    }
+    
+    private void saveErrorReport(StudentImportService.ImportResult result) {
+        Path report = studentImportService.getErrorReport(result.getImportId());
+        if (report == null) {
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Error Report");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        fileChooser.setInitialFileName("Import_Errors.csv");
+        File target = fileChooser.showSaveDialog(importButton.getScene().getWindow());
+        if (target != null) {
+            try {
+                Files.copy(report, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception e) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Error");
+                alert.setHeaderText("Could not save the error report");
+                alert.setContentText(e.getMessage());
+                alert.showAndWait();
+            }
+        }
+    }
+    
     @FXML
     private void handleRefresh() {
         loadStudents();
         loadSemestersForFilter(); // Reload semesters in case current school year changed
         searchField.clear();
+        studentSearch.search("");
         gradeFilterComboBox.setValue(null);
         strandFilterComboBox.setValue(null);
         enrollmentStatusFilterComboBox.setValue(null);
@@ -350,7 +522,7 @@ public class ViewStudentsController implements Initializable {
     
     @FXML
     private void handleSearch() {
-        applyFilters();
+        studentSearch.search(searchField.getText());
     }
     
     @FXML
@@ -363,7 +535,7 @@ public class ViewStudentsController implements Initializable {
             return;
         }
         
-        String searchText = searchField != null ? searchField.getText().trim().toLowerCase() : "";
+        final String searchText = appliedSearchText;
         Integer gradeFilter = gradeFilterComboBox != null ? gradeFilterComboBox.getValue() : null;
         String strandFilter = strandFilterComboBox != null ? strandFilterComboBox.getValue() : null;
         String enrollmentStatusFilter = enrollmentStatusFilterComboBox != null ? enrollmentStatusFilterComboBox.getValue() : null;
@@ -384,6 +556,10 @@ public class ViewStudentsController implements Initializable {
         // Create final variable for use in lambda
         final String finalSemesterFilter = semesterFilter;
         
+        // Name, LRN, address, guardian and previous school are matched by the search index (word
+        // prefixes); name and LRN are also matched anywhere in the loaded rows
+        final java.util.Set<Long> searchMatches = this.searchMatches;
+        
         filteredList.setPredicate(student -> {
             if (student == null) {
                 return false;
@@ -392,9 +568,9 @@ public class ViewStudentsController implements Initializable {
             // Search filter - must match if search text is provided
             boolean matchesSearch = true;
             if (!searchText.isEmpty()) {
-                matchesSearch = false;
+                matchesSearch = searchMatches.contains(student.getId());
                 // Check name
-                if (student.getName() != null && student.getName().toLowerCase().contains(searchText)) {
+                if (!matchesSearch && student.getName() != null && student.getName().toLowerCase().contains(searchText)) {
                     matchesSearch = true;
                 }
                 // Check LRN
@@ -608,10 +784,16 @@ public class ViewStudentsController implements Initializable {
     private void updateStudentCount() {
         if (filteredList != null && studentCountLabel != null) {
             int count = filteredList.size();
-            studentCountLabel.setText("Total Students: " + count);
+            studentCountLabel.setText("Total Students: " + count + truncatedSearchNote());
         }
     }
     
+    private String truncatedSearchNote() {
+        return searchTruncated
+                ? " (search limited to the best " + StudentSearchService.MAX_MATCHING_IDS + " matches; refine the search)"
+                : "";
+    }
+    
     private void handleEdit(StudentDto student) {
         try {
             // Load Edit Student FXML
@@ -6,6 +6,7 @@ public class LoginResponse {
     private String message;
     private UserDto user;
     private String sessionToken;
+    private boolean busy;
     
     // Constructors
     public LoginResponse() {
@@ -27,6 +28,13 @@ public class LoginResponse {
         return new LoginResponse(false, message, null, null);
     }
     
+    // Login could not be processed right now (server overloaded) - the client may retry
+    public static LoginResponse busy(String message) {
+        LoginResponse response = new LoginResponse(false, message, null, null);
+        response.setBusy(true);
+        return response;
+    }
+    
     // Getters and Setters
     public boolean isSuccess() {
         return success;
@@ -59,4 +67,12 @@ public class LoginResponse {
     public void setSessionToken(String sessionToken) {
         this.sessionToken = sessionToken;
     }
-}
\ No newline at end of file
+    
+    public boolean isBusy() {
+        return busy;
+    }
+    
+    public void setBusy(boolean busy) {
+        this.busy = busy;
+    }
+}
@@ -0,0 +1,65 @@
+package com.enrollment.system.dto;
+
+/**
+ * One row of the teacher assignment report: a teacher and one of their subject-section
+ * assignments. Teachers without assignments appear once with the assignment fields null.
+ */
+public class TeacherAssignmentReportRow {
+
+    private final Long teacherId;
+    private final String fullName;
+    private final String username;
+    private final Boolean isActive;
+    private final String subjectName;
+    private final String sectionName;
+    private final String strand;
+    private final Integer gradeLevel;
+
+    public TeacherAssignmentReportRow(Long teacherId, String fullName, String username, Boolean isActive,
+                                      String subjectName, String sectionName, String strand, Integer gradeLevel) {
+        this.teacherId = teacherId;
+        this.fullName = fullName;
+        this.username = username;
+        this.isActive = isActive;
+        this.subjectName = subjectName;
+        this.sectionName = sectionName;
+        this.strand = strand;
+        this.gradeLevel = gradeLevel;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public String getStrand() {
+        return strand;
+    }
+
+    public Integer getGradeLevel() {
+        return gradeLevel;
+    }
+
+    public boolean hasAssignment() {
+        return subjectName != null || sectionName != null;
+    }
+}
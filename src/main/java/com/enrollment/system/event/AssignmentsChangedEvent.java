@@ -0,0 +1,69 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.repository.TeacherAssignmentRepositoryCustom.AssignmentDelta;
+import com.enrollment.system.repository.TeacherAssignmentRepositoryCustom.SubjectSection;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Teacher subject-section assignments changed.
+ *
+ * Changes written with SQL carry the added and removed pairs per teacher, so they can be audited;
+ * changes made through Hibernate (and coalesced events) carry only the teacher ids.
+ */
+public class AssignmentsChangedEvent extends DomainEvent {
+
+    private final Set<Long> teacherIds;
+    private final Map<Long, List<SubjectSection>> added;
+    private final Map<Long, List<SubjectSection>> removed;
+
+    /**
+     * @param teacherIds teachers whose assignments changed; empty when every teacher's may have
+     */
+    public AssignmentsChangedEvent(Set<Long> teacherIds) {
+        this(teacherIds, Map.of(), Map.of());
+    }
+
+    /**
+     * @param added pairs inserted, by teacher id
+     * @param removed pairs deleted, by teacher id
+     */
+    public AssignmentsChangedEvent(Set<Long> teacherIds, Map<Long, List<SubjectSection>> added,
+                                   Map<Long, List<SubjectSection>> removed) {
+        this.teacherIds = Collections.unmodifiableSet(teacherIds);
+        this.added = Collections.unmodifiableMap(added);
+        this.removed = Collections.unmodifiableMap(removed);
+    }
+
+    public static AssignmentsChangedEvent forTeacher(Long teacherId) {
+        return new AssignmentsChangedEvent(Set.of(teacherId));
+    }
+
+    public static AssignmentsChangedEvent forTeacher(Long teacherId, AssignmentDelta delta) {
+        return new AssignmentsChangedEvent(Set.of(teacherId), Map.of(teacherId, delta.getAddedPairs()),
+                Map.of(teacherId, delta.getRemovedPairs()));
+    }
+
+    public static AssignmentsChangedEvent forAllTeachers() {
+        return new AssignmentsChangedEvent(Set.of());
+    }
+
+    public Set<Long> getTeacherIds() {
+        return teacherIds;
+    }
+
+    public Map<Long, List<SubjectSection>> getAdded() {
+        return added;
+    }
+
+    public Map<Long, List<SubjectSection>> getRemoved() {
+        return removed;
+    }
+
+    public boolean affects(Long teacherId) {
+        return teacherIds.isEmpty() || teacherIds.contains(teacherId);
+    }
+}
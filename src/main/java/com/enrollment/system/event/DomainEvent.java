@@ -0,0 +1,17 @@
+package com.enrollment.system.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something that changed in the data, published by a service with Spring's
+ * ApplicationEventPublisher. DomainEventDispatcher passes it on to views only once the
+ * transaction that published it has committed; after a rollback it is dropped.
+ */
+public abstract class DomainEvent {
+
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
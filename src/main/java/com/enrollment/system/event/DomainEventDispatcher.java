@@ -0,0 +1,152 @@
+package com.enrollment.system.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands committed domain events to the views that subscribed to them.
+ *
+ * Events arrive after the publishing transaction commits (or straight away when published outside
+ * one). They are held for a short window and delivered together on the "domain-events" thread, so
+ * a burst such as a batch re-enrollment reaches a view as one list. Within a window, changes to
+ * the same student or section collapse into one event carrying the first "before" and the last
+ * "after"; a student added and removed again disappears. A window with more than
+ * enrollment.events.max-student-events student events is delivered as one StudentsChangedEvent,
+ * as reloading is cheaper than applying that many deltas.
+ *
+ * Subscribers are called on the dispatcher thread and must hand UI work to Platform.runLater.
+ */
+@Component
+public class DomainEventDispatcher {
+
+    @Value("${enrollment.events.coalesce-ms:150}")
+    private long coalesceMs;
+
+    @Value("${enrollment.events.max-student-events:500}")
+    private int maxStudentEvents;
+
+    private final List<Consumer<List<DomainEvent>>> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "domain-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<DomainEvent> pending = new ArrayList<>();
+
+    /**
+     * Register a subscriber; run the returned Runnable to unsubscribe.
+     */
+    public Runnable subscribe(Consumer<List<DomainEvent>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        synchronized (this) {
+            pending.add(event);
+            if (pending.size() > 1) {
+                return;
+            }
+        }
+        // First event of a new window
+        try {
+            executor.schedule(this::dispatch, coalesceMs, TimeUnit.MILLISECONDS);
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void dispatch() {
+        List<DomainEvent> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        List<DomainEvent> events = coalesce(batch, maxStudentEvents);
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<DomainEvent>> subscriber : subscribers) {
+            try {
+                subscriber.accept(events);
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Warning: Domain event subscriber failed: " + e.getMessage());
+            }
+        }
+    }
+
+    static List<DomainEvent> coalesce(List<DomainEvent> batch, int maxStudentEvents) {
+        StudentsChangedEvent bulk = null;
+        int bulkCount = 0;
+        Map<Long, StudentEvent> students = new LinkedHashMap<>();
+        Map<Long, SectionCapacityChangedEvent> sections = new LinkedHashMap<>();
+        Set<Long> teacherIds = new LinkedHashSet<>();
+        boolean assignmentsChanged = false;
+        boolean allTeachers = false;
+
+        for (DomainEvent event : batch) {
+            if (event instanceof StudentsChangedEvent studentsChanged) {
+                bulk = studentsChanged;
+                bulkCount += studentsChanged.getCount();
+            } else if (event instanceof StudentEvent studentEvent) {
+                StudentEvent earlier = students.remove(studentEvent.getStudentId());
+                if (earlier instanceof StudentEnrolledEvent && studentEvent instanceof StudentUpdatedEvent
+                        && studentEvent.getAfter() != null) {
+                    // Enrolled, then edited: still an enrollment
+                    studentEvent = new StudentEnrolledEvent(earlier.getBefore(), studentEvent.getAfter());
+                } else if (earlier != null) {
+                    studentEvent.setBefore(earlier.getBefore());
+                }
+                // Added and removed again within the window: nothing for views to do
+                if (studentEvent.getBefore() != null || studentEvent.getAfter() != null) {
+                    students.put(studentEvent.getStudentId(), studentEvent);
+                }
+            } else if (event instanceof SectionCapacityChangedEvent sectionEvent) {
+                SectionCapacityChangedEvent earlier = sections.remove(sectionEvent.getSectionId());
+                if (earlier != null) {
+                    sectionEvent.setPreviousCapacity(earlier.getPreviousCapacity());
+                }
+                sections.put(sectionEvent.getSectionId(), sectionEvent);
+            } else if (event instanceof AssignmentsChangedEvent assignmentsEvent) {
+                assignmentsChanged = true;
+                allTeachers |= assignmentsEvent.getTeacherIds().isEmpty();
+                teacherIds.addAll(assignmentsEvent.getTeacherIds());
+            }
+        }
+
+        List<DomainEvent> events = new ArrayList<>();
+        if (bulk != null || students.size() > maxStudentEvents) {
+            // A reload covers the individual student changes as well
+            String reason = bulk != null ? bulk.getReason() : "many changes";
+            events.add(new StudentsChangedEvent(reason, bulkCount + students.size()));
+        } else {
+            events.addAll(students.values());
+        }
+        events.addAll(sections.values());
+        if (assignmentsChanged) {
+            events.add(allTeachers ? AssignmentsChangedEvent.forAllTeachers() : new AssignmentsChangedEvent(teacherIds));
+        }
+        return events;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
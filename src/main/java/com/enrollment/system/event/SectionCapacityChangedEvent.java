@@ -0,0 +1,51 @@
+package com.enrollment.system.event;
+
+/**
+ * A section was added, edited, deactivated, activated or deleted, so the seats it offers may have
+ * changed. An inactive or deleted section offers no seats.
+ */
+public class SectionCapacityChangedEvent extends DomainEvent {
+
+    private final Long sectionId;
+    private final String sectionName;
+    private Integer previousCapacity;
+    private final Integer capacity;
+    private final boolean active;
+
+    /**
+     * @param previousCapacity seats before the change (null for a new section)
+     * @param capacity         seats after the change (null for a deleted section)
+     */
+    public SectionCapacityChangedEvent(Long sectionId, String sectionName, Integer previousCapacity,
+                                       Integer capacity, boolean active) {
+        this.sectionId = sectionId;
+        this.sectionName = sectionName;
+        this.previousCapacity = previousCapacity;
+        this.capacity = capacity;
+        this.active = active;
+    }
+
+    public Long getSectionId() {
+        return sectionId;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public Integer getPreviousCapacity() {
+        return previousCapacity;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    void setPreviousCapacity(Integer previousCapacity) {
+        this.previousCapacity = previousCapacity;
+    }
+}
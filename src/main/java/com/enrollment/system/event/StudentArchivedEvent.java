@@ -0,0 +1,20 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.dto.StudentDto;
+
+/**
+ * A student was moved to the archive; after is always null.
+ */
+public class StudentArchivedEvent extends StudentEvent {
+
+    private final String archiveReason;
+
+    public StudentArchivedEvent(StudentDto before, String archiveReason) {
+        super(before, null);
+        this.archiveReason = archiveReason;
+    }
+
+    public String getArchiveReason() {
+        return archiveReason;
+    }
+}
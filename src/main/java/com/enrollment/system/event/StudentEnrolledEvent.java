@@ -0,0 +1,13 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.dto.StudentDto;
+
+/**
+ * A student was enrolled: added as Enrolled, changed to Enrolled, re-enrolled or moved to another section.
+ */
+public class StudentEnrolledEvent extends StudentEvent {
+
+    public StudentEnrolledEvent(StudentDto before, StudentDto after) {
+        super(before, after);
+    }
+}
@@ -0,0 +1,45 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.dto.StudentDto;
+
+/**
+ * A change to one student, with the student as it was before and after it. Views apply the
+ * difference to the counts and lists they hold instead of loading all students again.
+ */
+public abstract class StudentEvent extends DomainEvent {
+
+    private final Long studentId;
+    private StudentDto before;
+    private final StudentDto after;
+
+    protected StudentEvent(StudentDto before, StudentDto after) {
+        this.studentId = after != null ? after.getId() : before.getId();
+        this.before = before;
+        this.after = after;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    /**
+     * The active student before the change, or null if the student was not among the active students
+     * (new, or restored from the archive).
+     */
+    public StudentDto getBefore() {
+        return before;
+    }
+
+    /**
+     * The active student after the change, or null if the student left the active students
+     * (archived or deleted).
+     */
+    public StudentDto getAfter() {
+        return after;
+    }
+
+    // Used when several changes to one student are coalesced into the last of them
+    void setBefore(StudentDto before) {
+        this.before = before;
+    }
+}
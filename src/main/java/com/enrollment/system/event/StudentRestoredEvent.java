@@ -0,0 +1,13 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.dto.StudentDto;
+
+/**
+ * A student was moved back from the archive; before is always null.
+ */
+public class StudentRestoredEvent extends StudentEvent {
+
+    public StudentRestoredEvent(StudentDto after) {
+        super(null, after);
+    }
+}
@@ -0,0 +1,14 @@
+package com.enrollment.system.event;
+
+import com.enrollment.system.dto.StudentDto;
+
+/**
+ * Any other change to a student: added as Pending (before is null), edited or deleted
+ * (after is null).
+ */
+public class StudentUpdatedEvent extends StudentEvent {
+
+    public StudentUpdatedEvent(StudentDto before, StudentDto after) {
+        super(before, after);
+    }
+}
@@ -0,0 +1,40 @@
+package com.enrollment.system.event;
+
+/**
+ * Many students changed at once (import, graduation, section balancing, school year switch,
+ * database restore) without a per-student record of what changed. Views reload their data.
+ */
+public class StudentsChangedEvent extends DomainEvent {
+
+    private final String reason;
+    private final int count;
+    private final String batchId;
+
+    /**
+     * @param count number of students changed, or 0 if not known
+     */
+    public StudentsChangedEvent(String reason, int count) {
+        this(reason, count, null);
+    }
+
+    /**
+     * @param batchId archive batch the students were moved in or out of, or null
+     */
+    public StudentsChangedEvent(String reason, int count, String batchId) {
+        this.reason = reason;
+        this.count = count;
+        this.batchId = batchId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+}
@@ -0,0 +1,100 @@
+package com.enrollment.system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One recorded change: who changed which entity, when, and the values involved. Rows are only
+ * ever appended, by AuditLog's writer (plain JDBC, so the id is assigned there); JPA reads them.
+ */
+@Entity
+@Table(name = "audit_log",
+       indexes = {
+           @Index(name = "idx_audit_log_entity", columnList = "entity_type, entity_id"),
+           @Index(name = "idx_audit_log_occurred_at", columnList = "occurred_at"),
+           @Index(name = "idx_audit_log_username", columnList = "username")
+       })
+public class AuditEntry {
+
+    @Id
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "username", length = 50)
+    private String username;
+
+    // INSERT, UPDATE, DELETE; ARCHIVE, RESTORE and BULK for changes made with SQL
+    @Column(name = "action", nullable = false, length = 10)
+    private String action;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    // JSON: {"field": value} for inserts and deletes, {"field": [old, new]} for updates
+    @Column(name = "changes", columnDefinition = "TEXT")
+    private String changes;
+
+    public AuditEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getChanges() {
+        return changes;
+    }
+
+    public void setChanges(String changes) {
+        this.changes = changes;
+    }
+}
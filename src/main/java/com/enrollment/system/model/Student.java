@@ -5,7 +5,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students",
+       indexes = {
+           @Index(name = "idx_students_updated_at", columnList = "updated_at"),
+           @Index(name = "idx_students_school_year_grade", columnList = "school_year_id, is_archived, grade_level"),
+           @Index(name = "idx_students_section_status", columnList = "section_id, enrollment_status")
+       })
 public class Student {
     
     @Id
@@ -0,0 +1,69 @@
+package com.enrollment.system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when a student row is hard-deleted, so sync clients can remove
+ * their copy. Student ids are never reused, so the student id is the key.
+ */
+@Entity
+@Table(name = "student_tombstones",
+       indexes = @Index(name = "idx_student_tombstones_deleted_at", columnList = "deleted_at"))
+public class StudentTombstone {
+    
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @Column(name = "lrn", length = 20)
+    private String lrn;
+    
+    @Column(name = "name", length = 100)
+    private String name;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public StudentTombstone() {
+    }
+    
+    public StudentTombstone(Student student, LocalDateTime deletedAt) {
+        this.studentId = student.getId();
+        this.lrn = student.getLrn();
+        this.name = student.getName();
+        this.deletedAt = deletedAt;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getLrn() {
+        return lrn;
+    }
+    
+    public void setLrn(String lrn) {
+        this.lrn = lrn;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
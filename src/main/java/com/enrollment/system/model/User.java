@@ -44,6 +44,11 @@ public class User {
     @Column(name = "profile_picture", length = 500)
     private String profilePicture; // Path to profile picture file
     
+    // Bumped by UserRepository.incrementAssignmentVersion on every change to this teacher's assignments.
+    // Never written by entity saves, so saving a User loaded earlier cannot roll it back.
+    @Column(name = "assignment_version", insertable = false, updatable = false)
+    private Long assignmentVersion;
+    
     // Teacher assignments (only for TEACHER role)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
@@ -185,6 +190,10 @@ public class User {
         this.profilePicture = profilePicture;
     }
     
+    public Long getAssignmentVersion() {
+        return assignmentVersion;
+    }
+    
     // JPA Lifecycle callbacks
     @PrePersist
     protected void onCreate() {
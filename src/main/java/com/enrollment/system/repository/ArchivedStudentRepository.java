@@ -0,0 +1,78 @@
+package com.enrollment.system.repository;
+
+import com.enrollment.system.model.ArchivedStudent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedStudentRepository extends JpaRepository<ArchivedStudent, Long> {
+    
+    // One page of the archive, optionally for one archive reason (null = all)
+    @Query(value = "SELECT a FROM ArchivedStudent a LEFT JOIN FETCH a.section LEFT JOIN FETCH a.schoolYear LEFT JOIN FETCH a.semester " +
+                   "WHERE (:reason IS NULL OR a.archiveReason = :reason)",
+           countQuery = "SELECT COUNT(a) FROM ArchivedStudent a WHERE (:reason IS NULL OR a.archiveReason = :reason)")
+    Page<ArchivedStudent> findPage(@Param("reason") String reason, Pageable pageable);
+    
+    @Query("SELECT a FROM ArchivedStudent a LEFT JOIN FETCH a.section LEFT JOIN FETCH a.schoolYear LEFT JOIN FETCH a.semester WHERE a.id IN :ids")
+    List<ArchivedStudent> findAllWithSectionByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset page for the REST API, with the same optional filters as StudentRepository.findPageAfterId
+    @Query("SELECT a FROM ArchivedStudent a LEFT JOIN FETCH a.section LEFT JOIN FETCH a.schoolYear LEFT JOIN FETCH a.semester " +
+           "WHERE a.id > :afterId " +
+           "AND (:gradeLevel IS NULL OR a.gradeLevel = :gradeLevel) " +
+           "AND (:strand IS NULL OR a.strand = :strand) " +
+           "AND (:enrollmentStatus IS NULL OR a.enrollmentStatus = :enrollmentStatus) " +
+           "AND (:sectionId IS NULL OR a.section.id = :sectionId) " +
+           "AND (:schoolYearId IS NULL OR a.schoolYear.id = :schoolYearId) " +
+           "AND (:namePattern IS NULL OR LOWER(a.name) LIKE :namePattern) " +
+           "ORDER BY a.id ASC")
+    List<ArchivedStudent> findPageAfterId(@Param("afterId") Long afterId,
+                                          @Param("gradeLevel") Integer gradeLevel,
+                                          @Param("strand") String strand,
+                                          @Param("enrollmentStatus") String enrollmentStatus,
+                                          @Param("sectionId") Long sectionId,
+                                          @Param("schoolYearId") Long schoolYearId,
+                                          @Param("namePattern") String namePattern,
+                                          Pageable pageable);
+    
+    boolean existsByLrn(String lrn);
+    
+    long countBySchoolYearId(Long schoolYearId);
+    
+    @Query("SELECT COUNT(a) > 0 FROM ArchivedStudent a WHERE a.lrn = :lrn AND a.id != :excludeId")
+    boolean existsByLrnExcludingId(@Param("lrn") String lrn, @Param("excludeId") Long excludeId);
+    
+    @Query("SELECT COUNT(a) > 0 FROM ArchivedStudent a WHERE LOWER(TRIM(a.name)) = LOWER(TRIM(:name)) AND a.id != :excludeId")
+    boolean existsByNameIgnoreCaseExcludingId(@Param("name") String name, @Param("excludeId") Long excludeId);
+    
+    @Query("SELECT MAX(COALESCE(a.updatedAt, a.archivedAt)) FROM ArchivedStudent a")
+    LocalDateTime findLastModified();
+    
+    // Which of the given lower-case names are taken (bulk form of existsByNameIgnoreCaseExcludingId, for imports)
+    @Query("SELECT LOWER(TRIM(a.name)) FROM ArchivedStudent a WHERE LOWER(TRIM(a.name)) IN :names")
+    List<String> findExistingLowerCaseNames(@Param("names") Collection<String> names);
+    
+    @Query("SELECT a.lrn FROM ArchivedStudent a WHERE a.lrn IN :lrns")
+    List<String> findExistingLrns(@Param("lrns") Collection<String> lrns);
+    
+    // When a bulk archive batch was archived (null when nothing of it is left in the archive)
+    @Query("SELECT MIN(a.archivedAt) FROM ArchivedStudent a WHERE a.archiveBatchId = :batchId")
+    LocalDateTime findBatchArchivedAt(@Param("batchId") String batchId);
+    
+    // Names in the batch that an active student has taken since it was archived
+    @Query("SELECT a.name FROM ArchivedStudent a WHERE a.archiveBatchId = :batchId " +
+           "AND EXISTS (SELECT 1 FROM Student s WHERE LOWER(TRIM(s.name)) = LOWER(TRIM(a.name)))")
+    List<String> findBatchNameConflicts(@Param("batchId") String batchId);
+    
+    // LRNs in the batch that an active student has taken since it was archived
+    @Query("SELECT a.lrn FROM ArchivedStudent a WHERE a.archiveBatchId = :batchId " +
+           "AND EXISTS (SELECT 1 FROM Student s WHERE s.lrn = a.lrn)")
+    List<String> findBatchLrnConflicts(@Param("batchId") String batchId);
+}
@@ -0,0 +1,38 @@
+package com.enrollment.system.repository;
+
+import com.enrollment.system.model.AuditEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    // Newest first; every filter is optional (null = any)
+    @Query(value = "SELECT a FROM AuditEntry a " +
+                   "WHERE (:entityType IS NULL OR a.entityType = :entityType) " +
+                   "AND (:entityId IS NULL OR a.entityId = :entityId) " +
+                   "AND (:username IS NULL OR a.username = :username) " +
+                   "AND (:action IS NULL OR a.action = :action) " +
+                   "AND (:from IS NULL OR a.occurredAt >= :from) " +
+                   "AND (:to IS NULL OR a.occurredAt < :to) " +
+                   "ORDER BY a.id DESC",
+           countQuery = "SELECT COUNT(a) FROM AuditEntry a " +
+                   "WHERE (:entityType IS NULL OR a.entityType = :entityType) " +
+                   "AND (:entityId IS NULL OR a.entityId = :entityId) " +
+                   "AND (:username IS NULL OR a.username = :username) " +
+                   "AND (:action IS NULL OR a.action = :action) " +
+                   "AND (:from IS NULL OR a.occurredAt >= :from) " +
+                   "AND (:to IS NULL OR a.occurredAt < :to)")
+    Page<AuditEntry> findPage(@Param("entityType") String entityType,
+                              @Param("entityId") Long entityId,
+                              @Param("username") String username,
+                              @Param("action") String action,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              Pageable pageable);
+}
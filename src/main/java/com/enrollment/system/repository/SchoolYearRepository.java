@@ -4,6 +4,7 @@ import com.enrollment.system.model.SchoolYear;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface SchoolYearRepository extends JpaRepository<SchoolYear, Long> {
     
     List<SchoolYear> findAllByOrderByStartDateDesc();
     
+    // Latest school year that ended before the given date (LIMIT 1)
+    Optional<SchoolYear> findFirstByEndDateBeforeOrderByStartDateDesc(LocalDate date);
+    
     boolean existsByYear(String year);
     
     @Query("SELECT sy FROM SchoolYear sy WHERE sy.isCurrent = true")
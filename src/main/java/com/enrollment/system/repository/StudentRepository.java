@@ -1,14 +1,20 @@
 package com.enrollment.system.repository;
 
 import com.enrollment.system.model.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
     
     List<Student> findAllByOrderByNameAsc();
     
@@ -19,6 +25,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     boolean existsByLrn(String lrn);
     
+    @Query("SELECT COUNT(s) > 0 FROM Student s WHERE s.lrn = :lrn AND s.id != :excludeId")
+    boolean existsByLrnExcludingId(@Param("lrn") String lrn, @Param("excludeId") Long excludeId);
+    
     List<Student> findByGradeLevel(Integer gradeLevel);
     
     List<Student> findByStrand(String strand);
@@ -31,6 +40,18 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT COUNT(s) FROM Student s WHERE s.section.id = :sectionId AND s.semester.id = :semesterId AND s.enrollmentStatus = 'Enrolled' AND (s.isArchived IS NULL OR s.isArchived = false)")
     long countBySectionIdAndSemesterIdAndEnrolled(Long sectionId, Long semesterId);
     
+    // Strand names are compared upper-cased and trimmed, matching idx_students_strand_upper
+    // (DatabaseSchemaUpdater.ensureDependencyIndexes); pass the strand already normalized
+    @Query(value = "SELECT COUNT(*) FROM students WHERE UPPER(TRIM(strand)) = :strand AND enrollment_status = 'Enrolled' " +
+                   "AND (is_archived IS NULL OR is_archived = 0)", nativeQuery = true)
+    long countEnrolledByNormalizedStrand(@Param("strand") String strand);
+    
+    @Query(value = "SELECT * FROM students WHERE UPPER(TRIM(strand)) = :strand AND enrollment_status = 'Enrolled' " +
+                   "AND (is_archived IS NULL OR is_archived = 0)", nativeQuery = true)
+    List<Student> findEnrolledByNormalizedStrand(@Param("strand") String strand);
+    
+    long countBySchoolYearId(Long schoolYearId);
+    
     @Query("SELECT COUNT(s) FROM Student s WHERE s.section.id = :sectionId AND s.semester.id = :semesterId AND s.enrollmentStatus = 'Enrolled' AND (s.isArchived IS NULL OR s.isArchived = false) AND s.gradeLevel = :gradeLevel AND s.strand = :strand")
     long countBySectionIdAndSemesterIdAndGradeLevelAndStrandAndEnrolled(Long sectionId, Long semesterId, Integer gradeLevel, String strand);
     
@@ -43,4 +64,80 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     @Query("SELECT COUNT(s) > 0 FROM Student s WHERE LOWER(TRIM(s.name)) = LOWER(TRIM(:name)) AND s.id != :excludeId")
     boolean existsByNameIgnoreCaseExcludingId(String name, Long excludeId);
+    
+    // Which of the given lower-case names are taken (bulk form of existsByNameIgnoreCase, for imports)
+    @Query("SELECT LOWER(TRIM(s.name)) FROM Student s WHERE LOWER(TRIM(s.name)) IN :names")
+    List<String> findExistingLowerCaseNames(@Param("names") Collection<String> names);
+    
+    @Query("SELECT s.lrn FROM Student s WHERE s.lrn IN :lrns")
+    List<String> findExistingLrns(@Param("lrns") Collection<String> lrns);
+    
+    // Keyset page for the REST API: rows after the given id, every filter is optional (null = any)
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.section LEFT JOIN FETCH s.schoolYear LEFT JOIN FETCH s.semester " +
+           "WHERE s.id > :afterId " +
+           "AND (:gradeLevel IS NULL OR s.gradeLevel = :gradeLevel) " +
+           "AND (:strand IS NULL OR s.strand = :strand) " +
+           "AND (:enrollmentStatus IS NULL OR s.enrollmentStatus = :enrollmentStatus) " +
+           "AND (:sectionId IS NULL OR s.section.id = :sectionId) " +
+           "AND (:schoolYearId IS NULL OR s.schoolYear.id = :schoolYearId) " +
+           "AND (:archived IS NULL OR COALESCE(s.isArchived, false) = :archived) " +
+           "AND (:namePattern IS NULL OR LOWER(s.name) LIKE :namePattern) " +
+           "ORDER BY s.id ASC")
+    List<Student> findPageAfterId(@Param("afterId") Long afterId,
+                                  @Param("gradeLevel") Integer gradeLevel,
+                                  @Param("strand") String strand,
+                                  @Param("enrollmentStatus") String enrollmentStatus,
+                                  @Param("sectionId") Long sectionId,
+                                  @Param("schoolYearId") Long schoolYearId,
+                                  @Param("archived") Boolean archived,
+                                  @Param("namePattern") String namePattern,
+                                  Pageable pageable);
+    
+    @Query("SELECT MAX(COALESCE(s.updatedAt, s.createdAt)) FROM Student s")
+    LocalDateTime findLastModified();
+    
+    // Sync feed: rows changed after the (updatedAt, id) watermark up to upTo, oldest first (uses idx_students_updated_at)
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.section LEFT JOIN FETCH s.schoolYear LEFT JOIN FETCH s.semester " +
+           "WHERE s.updatedAt <= :upTo " +
+           "AND (s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId)) " +
+           "ORDER BY s.updatedAt ASC, s.id ASC")
+    List<Student> findChangedSince(@Param("since") LocalDateTime since,
+                                   @Param("afterId") Long afterId,
+                                   @Param("upTo") LocalDateTime upTo,
+                                   Pageable pageable);
+    
+    // Rows written before updated_at was maintained get their creation time, so the sync feed sees them
+    @Modifying
+    @Query("UPDATE Student s SET s.updatedAt = s.createdAt WHERE s.updatedAt IS NULL")
+    int backfillMissingUpdatedAt();
+    
+    // Students of a school year who can re-enroll: Grade 11 or 12 and not archived (graduates are archived).
+    // Served by idx_students_school_year_grade
+    @Query(value = "SELECT s FROM Student s LEFT JOIN FETCH s.section LEFT JOIN FETCH s.schoolYear LEFT JOIN FETCH s.semester " +
+                   "WHERE s.schoolYear.id = :schoolYearId AND (s.isArchived IS NULL OR s.isArchived = false) " +
+                   "AND s.gradeLevel IN (11, 12) ORDER BY s.name ASC, s.id ASC",
+           countQuery = "SELECT COUNT(s) FROM Student s WHERE s.schoolYear.id = :schoolYearId " +
+                        "AND (s.isArchived IS NULL OR s.isArchived = false) AND s.gradeLevel IN (11, 12)")
+    Page<Student> findEligibleForReEnrollment(@Param("schoolYearId") Long schoolYearId, Pageable pageable);
+    
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.section LEFT JOIN FETCH s.schoolYear LEFT JOIN FETCH s.semester WHERE s.id IN :ids")
+    List<Student> findAllWithSectionByIdIn(@Param("ids") java.util.Collection<Long> ids);
+    
+    // Students waiting for a section: pending, or without a section, in the school year (or not yet in any)
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.section LEFT JOIN s.schoolYear sy " +
+           "WHERE (s.isArchived IS NULL OR s.isArchived = false) AND s.gradeLevel = :gradeLevel AND s.strand = :strand " +
+           "AND (sy.id = :schoolYearId OR sy IS NULL) " +
+           "AND (s.section IS NULL OR s.enrollmentStatus IS NULL OR s.enrollmentStatus <> 'Enrolled') " +
+           "ORDER BY s.name ASC, s.id ASC")
+    List<Student> findSectionBalancingCandidates(@Param("schoolYearId") Long schoolYearId,
+                                                 @Param("gradeLevel") Integer gradeLevel,
+                                                 @Param("strand") String strand);
+    
+    // (sectionId, sex, gwa) of every student holding a seat, counted like countBySectionIdAndSemesterIdAndGradeLevelAndStrandAndEnrolled
+    @Query("SELECT s.section.id, s.sex, s.gwa FROM Student s WHERE s.semester.id = :semesterId " +
+           "AND s.enrollmentStatus = 'Enrolled' AND (s.isArchived IS NULL OR s.isArchived = false) " +
+           "AND s.gradeLevel = :gradeLevel AND s.strand = :strand AND s.section IS NOT NULL")
+    List<Object[]> findSeatHolders(@Param("semesterId") Long semesterId,
+                                   @Param("gradeLevel") Integer gradeLevel,
+                                   @Param("strand") String strand);
 }
@@ -0,0 +1,83 @@
+package com.enrollment.system.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves student rows between students and students_archive. Each move is an INSERT ... SELECT
+ * into the other table followed by a DELETE, so it is atomic within the caller's transaction and
+ * the row keeps its id.
+ */
+public interface StudentRepositoryCustom {
+    
+    /**
+     * Move an active student into the archive. False when there is no such student.
+     */
+    boolean moveToArchive(Long studentId, String archiveReason, LocalDateTime archivedAt);
+    
+    /**
+     * Move an archived student back into students, with updated_at set to restoredAt so the
+     * sync feed picks the row up again. False when the student is not in the archive.
+     *
+     * @throws IllegalStateException if an active student has the same name or LRN
+     */
+    boolean restoreFromArchive(Long studentId, LocalDateTime restoredAt);
+    
+    /**
+     * Move rows still flagged is_archived in students (archived before the archive table existed).
+     */
+    int moveFlaggedRowsToArchive(LocalDateTime defaultArchivedAt);
+    
+    /**
+     * Number of active students in the cohort.
+     */
+    int countCohort(Cohort cohort);
+    
+    /**
+     * Move every active student in the cohort into the archive in three set-based statements:
+     * tombstones for the sync feed, INSERT ... SELECT into students_archive tagged with batchId,
+     * and DELETE from students.
+     *
+     * @return number of students archived
+     */
+    int moveCohortToArchive(Cohort cohort, String archiveReason, LocalDateTime archivedAt, String batchId);
+    
+    /**
+     * Move the students still in the archive under batchId back into students and drop their tombstones.
+     *
+     * @return number of students restored
+     */
+    int restoreArchiveBatch(String batchId, LocalDateTime restoredAt);
+    
+    /**
+     * Students of one school year and grade level with one enrollment status, optionally in one strand
+     */
+    class Cohort {
+        private final Long schoolYearId;
+        private final Integer gradeLevel;
+        private final String enrollmentStatus;
+        private final String strand;
+        
+        public Cohort(Long schoolYearId, Integer gradeLevel, String enrollmentStatus, String strand) {
+            this.schoolYearId = schoolYearId;
+            this.gradeLevel = gradeLevel;
+            this.enrollmentStatus = enrollmentStatus;
+            this.strand = strand;
+        }
+        
+        public Long getSchoolYearId() {
+            return schoolYearId;
+        }
+        
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+        
+        public String getEnrollmentStatus() {
+            return enrollmentStatus;
+        }
+        
+        public String getStrand() {
+            return strand;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.enrollment.system.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+    
+    // Columns shared by students and students_archive (everything except the archive flag, reason and date)
+    private static final String COMMON_COLUMNS =
+            "id, name, birthdate, age, sex, address, contact_number, parent_guardian_name, parent_guardian_contact, " +
+            "parent_guardian_relationship, grade_level, strand, section_id, school_year_id, semester_id, " +
+            "previous_school, gwa, lrn, enrollment_status, created_at, updated_at, re_enrollment_reason";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public boolean moveToArchive(Long studentId, String archiveReason, LocalDateTime archivedAt) {
+        int copied = jdbcTemplate.update(
+                "INSERT INTO students_archive (" + COMMON_COLUMNS + ", archive_reason, archived_at) " +
+                "SELECT " + COMMON_COLUMNS + ", ?, ? FROM students WHERE id = ?",
+                archiveReason, Timestamp.valueOf(archivedAt), studentId);
+        if (copied == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM students WHERE id = ?", studentId);
+        return true;
+    }
+    
+    @Override
+    public boolean restoreFromArchive(Long studentId, LocalDateTime restoredAt) {
+        // Names and LRNs are unique among students; an active student may have taken one since the archive
+        Integer conflicts = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM students_archive a JOIN students s ON s.id != a.id " +
+                "AND (LOWER(TRIM(s.name)) = LOWER(TRIM(a.name)) OR (TRIM(a.lrn) <> '' AND s.lrn = a.lrn)) " +
+                "WHERE a.id = ?", Integer.class, studentId);
+        if (conflicts != null && conflicts > 0) {
+            throw new IllegalStateException("Archived student " + studentId + " has the name or LRN of an active student");
+        }
+        String restoredColumns = COMMON_COLUMNS.replace("updated_at", "?");
+        int copied = jdbcTemplate.update(
+                "INSERT INTO students (" + COMMON_COLUMNS + ", is_archived, archive_reason, archived_at) " +
+                "SELECT " + restoredColumns + ", 0, NULL, NULL FROM students_archive WHERE id = ?",
+                Timestamp.valueOf(restoredAt), studentId);
+        if (copied == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM students_archive WHERE id = ?", studentId);
+        return true;
+    }
+    
+    @Override
+    public int moveFlaggedRowsToArchive(LocalDateTime defaultArchivedAt) {
+        int moved = jdbcTemplate.update(
+                "INSERT INTO students_archive (" + COMMON_COLUMNS + ", archive_reason, archived_at) " +
+                "SELECT " + COMMON_COLUMNS + ", archive_reason, COALESCE(archived_at, ?) FROM students WHERE is_archived = 1",
+                Timestamp.valueOf(defaultArchivedAt));
+        if (moved > 0) {
+            jdbcTemplate.update("DELETE FROM students WHERE is_archived = 1");
+        }
+        return moved;
+    }
+    
+    @Override
+    public int countCohort(Cohort cohort) {
+        List<Object> args = new ArrayList<>();
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM students WHERE " + cohortCondition(cohort, args), Integer.class, args.toArray());
+        return count != null ? count : 0;
+    }
+    
+    @Override
+    public int moveCohortToArchive(Cohort cohort, String archiveReason, LocalDateTime archivedAt, String batchId) {
+        Timestamp at = Timestamp.valueOf(archivedAt);
+        
+        // The cohort condition is evaluated three times inside one transaction, so all three see the same rows
+        List<Object> args = new ArrayList<>();
+        args.add(at);
+        String condition = cohortCondition(cohort, args);
+        jdbcTemplate.update(
+                "INSERT OR REPLACE INTO student_tombstones (student_id, lrn, name, deleted_at) " +
+                "SELECT id, lrn, name, ? FROM students WHERE " + condition, args.toArray());
+        
+        args = new ArrayList<>(List.of(archiveReason, at, batchId));
+        int moved = jdbcTemplate.update(
+                "INSERT INTO students_archive (" + COMMON_COLUMNS + ", archive_reason, archived_at, archive_batch_id) " +
+                "SELECT " + COMMON_COLUMNS + ", ?, ?, ? FROM students WHERE " + cohortCondition(cohort, args),
+                args.toArray());
+        
+        args = new ArrayList<>();
+        jdbcTemplate.update("DELETE FROM students WHERE " + cohortCondition(cohort, args), args.toArray());
+        return moved;
+    }
+    
+    @Override
+    public int restoreArchiveBatch(String batchId, LocalDateTime restoredAt) {
+        jdbcTemplate.update(
+                "DELETE FROM student_tombstones WHERE student_id IN " +
+                "(SELECT id FROM students_archive WHERE archive_batch_id = ?)", batchId);
+        String restoredColumns = COMMON_COLUMNS.replace("updated_at", "?");
+        int restored = jdbcTemplate.update(
+                "INSERT INTO students (" + COMMON_COLUMNS + ", is_archived, archive_reason, archived_at) " +
+                "SELECT " + restoredColumns + ", 0, NULL, NULL FROM students_archive WHERE archive_batch_id = ?",
+                Timestamp.valueOf(restoredAt), batchId);
+        jdbcTemplate.update("DELETE FROM students_archive WHERE archive_batch_id = ?", batchId);
+        return restored;
+    }
+    
+    private static String cohortCondition(Cohort cohort, List<Object> args) {
+        StringBuilder condition = new StringBuilder(
+                "school_year_id = ? AND grade_level = ? AND enrollment_status = ? " +
+                "AND (is_archived IS NULL OR is_archived = 0)");
+        args.add(cohort.getSchoolYearId());
+        args.add(cohort.getGradeLevel());
+        args.add(cohort.getEnrollmentStatus());
+        if (cohort.getStrand() != null) {
+            condition.append(" AND strand = ?");
+            args.add(cohort.getStrand());
+        }
+        return condition.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.enrollment.system.repository;
+
+import com.enrollment.system.model.StudentTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StudentTombstoneRepository extends JpaRepository<StudentTombstone, Long> {
+    
+    @Query("SELECT t FROM StudentTombstone t WHERE t.deletedAt > :since AND t.deletedAt <= :upTo ORDER BY t.deletedAt ASC, t.studentId ASC")
+    List<StudentTombstone> findDeletedBetween(@Param("since") LocalDateTime since, @Param("upTo") LocalDateTime upTo);
+    
+    // One tombstone per student row, written in the same statement set as the bulk delete
+    @Modifying
+    @Query("INSERT INTO StudentTombstone (studentId, lrn, name, deletedAt) SELECT s.id, s.lrn, s.name, :deletedAt FROM Student s")
+    int insertForAllStudents(@Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Archived rows leave the students table too; same tombstone for the rows about to be moved to the archive
+    @Modifying
+    @Query("INSERT INTO StudentTombstone (studentId, lrn, name, deletedAt) SELECT s.id, s.lrn, s.name, :deletedAt FROM Student s WHERE s.isArchived = true")
+    int insertForFlaggedArchivedStudents(@Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Archived students got a tombstone when they were archived; this covers those purged since
+    @Modifying
+    @Query("INSERT INTO StudentTombstone (studentId, lrn, name, deletedAt) SELECT a.id, a.lrn, a.name, :deletedAt FROM ArchivedStudent a " +
+           "WHERE NOT EXISTS (SELECT t.studentId FROM StudentTombstone t WHERE t.studentId = a.id)")
+    int insertForArchivedStudentsWithoutTombstone(@Param("deletedAt") LocalDateTime deletedAt);
+    
+    @Modifying
+    @Query("DELETE FROM StudentTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,6 +1,8 @@
 package com.enrollment.system.repository;
 
+import com.enrollment.system.dto.TeacherAssignmentReportRow;
 import com.enrollment.system.model.TeacherAssignment;
+import com.enrollment.system.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeacherAssignmentRepository extends JpaRepository<TeacherAssignment, Long> {
+public interface TeacherAssignmentRepository extends JpaRepository<TeacherAssignment, Long>, TeacherAssignmentRepositoryCustom {
     
     @Query("SELECT ta FROM TeacherAssignment ta " +
            "LEFT JOIN FETCH ta.subject " +
@@ -41,6 +43,26 @@ public interface TeacherAssignmentRepository extends JpaRepository<TeacherAssign
     
     void deleteByTeacherIdAndSubjectIdAndSectionId(Long teacherId, Long subjectId, Long sectionId);
     
+    /**
+     * (teacherId, subjectId, sectionId) of every assignment, used to build TeacherAssignmentIndex.
+     */
+    @Query("SELECT ta.teacher.id, ta.subject.id, ta.section.id FROM TeacherAssignment ta")
+    List<Object[]> findAllAssignmentIds();
+    
+    /**
+     * Every teacher with their assignments in one query, ordered by teacher name.
+     * Teachers without assignments are included with null assignment columns.
+     */
+    @Query("SELECT new com.enrollment.system.dto.TeacherAssignmentReportRow(" +
+           "t.id, t.fullName, t.username, t.isActive, sub.name, sec.name, sec.strand, sec.gradeLevel) " +
+           "FROM User t " +
+           "LEFT JOIN TeacherAssignment ta ON ta.teacher = t " +
+           "LEFT JOIN ta.subject sub " +
+           "LEFT JOIN ta.section sec " +
+           "WHERE t.role = :role " +
+           "ORDER BY t.fullName, t.id, ta.id")
+    List<TeacherAssignmentReportRow> findTeacherAssignmentReportRows(@Param("role") User.UserRole role);
+    
     @Query("SELECT COUNT(DISTINCT ta.subject.id) FROM TeacherAssignment ta WHERE ta.teacher.id = :teacherId")
     long countDistinctSubjectsByTeacherId(@Param("teacherId") Long teacherId);
     
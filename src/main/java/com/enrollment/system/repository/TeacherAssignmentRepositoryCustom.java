@@ -0,0 +1,112 @@
+package com.enrollment.system.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set-based writes for teacher assignments. The desired assignments of a teacher are passed as
+ * (subject, section) pairs and compared with the table in SQL, so saving touches only the rows
+ * that actually change.
+ */
+public interface TeacherAssignmentRepositoryCustom {
+    
+    /**
+     * Name of a teacher other than teacherId who already holds one of the pairs, or null.
+     */
+    String findConflictingTeacherName(Long teacherId, List<SubjectSection> pairs);
+    
+    /**
+     * Number of pairs whose subject or section does not exist.
+     */
+    int countPairsWithMissingReferences(List<SubjectSection> pairs);
+    
+    /**
+     * Make the teacher's assignments equal to the given pairs: one DELETE ... WHERE id IN for the
+     * rows no longer wanted and one batch of INSERT OR IGNORE for the new ones.
+     */
+    AssignmentDelta replaceAssignments(Long teacherId, List<SubjectSection> pairs);
+    
+    /**
+     * Insert assignments for several teachers as a single batch of INSERT OR IGNORE.
+     *
+     * @return number of rows inserted
+     */
+    int insertAssignments(Map<Long, List<SubjectSection>> pairsByTeacher);
+    
+    /**
+     * Delete the assignments of every section with the given grade level, or all assignments when
+     * gradeLevel is null.
+     *
+     * @return the deleted pairs by teacher id
+     */
+    Map<Long, List<SubjectSection>> deleteAssignmentsForGradeLevel(Integer gradeLevel);
+    
+    class SubjectSection {
+        private final Long subjectId;
+        private final Long sectionId;
+        
+        public SubjectSection(Long subjectId, Long sectionId) {
+            this.subjectId = subjectId;
+            this.sectionId = sectionId;
+        }
+        
+        public Long getSubjectId() {
+            return subjectId;
+        }
+        
+        public Long getSectionId() {
+            return sectionId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubjectSection)) {
+                return false;
+            }
+            SubjectSection other = (SubjectSection) o;
+            return subjectId.equals(other.subjectId) && sectionId.equals(other.sectionId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(subjectId, sectionId);
+        }
+    }
+    
+    /**
+     * The pairs replaceAssignments deleted and inserted.
+     */
+    class AssignmentDelta {
+        private final List<SubjectSection> removedPairs;
+        private final List<SubjectSection> addedPairs;
+        
+        public AssignmentDelta(List<SubjectSection> removedPairs, List<SubjectSection> addedPairs) {
+            this.removedPairs = removedPairs;
+            this.addedPairs = addedPairs;
+        }
+        
+        public List<SubjectSection> getRemovedPairs() {
+            return removedPairs;
+        }
+        
+        public List<SubjectSection> getAddedPairs() {
+            return addedPairs;
+        }
+        
+        public int getRemoved() {
+            return removedPairs.size();
+        }
+        
+        public int getAdded() {
+            return addedPairs.size();
+        }
+        
+        public boolean isEmpty() {
+            return removedPairs.isEmpty() && addedPairs.isEmpty();
+        }
+    }
+}
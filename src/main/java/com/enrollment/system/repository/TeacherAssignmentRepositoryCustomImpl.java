@@ -0,0 +1,176 @@
+package com.enrollment.system.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TeacherAssignmentRepositoryCustomImpl implements TeacherAssignmentRepositoryCustom {
+    
+    // Hibernate's pooled table generator hands out blocks of this size from teacher_assignments_seq
+    private static final int ID_ALLOCATION_SIZE = 50;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public String findConflictingTeacherName(Long teacherId, List<SubjectSection> pairs) {
+        if (pairs.isEmpty()) {
+            return null;
+        }
+        List<Object> args = pairArguments(pairs);
+        args.add(teacherId);
+        List<String> names = jdbcTemplate.queryForList(
+                desiredPairs(pairs.size()) +
+                "SELECT u.full_name FROM desired d " +
+                "JOIN teacher_assignments ta ON ta.subject_id = d.subject_id AND ta.section_id = d.section_id " +
+                "LEFT JOIN users u ON u.id = ta.teacher_id " +
+                "WHERE ta.teacher_id <> ? LIMIT 1",
+                String.class, args.toArray());
+        if (names.isEmpty()) {
+            return null;
+        }
+        return names.get(0) != null ? names.get(0) : "Unknown Teacher";
+    }
+    
+    @Override
+    public int countPairsWithMissingReferences(List<SubjectSection> pairs) {
+        if (pairs.isEmpty()) {
+            return 0;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                desiredPairs(pairs.size()) +
+                "SELECT COUNT(*) FROM desired d " +
+                "WHERE NOT EXISTS (SELECT 1 FROM subjects s WHERE s.id = d.subject_id) " +
+                "OR NOT EXISTS (SELECT 1 FROM sections s WHERE s.id = d.section_id)",
+                Integer.class, pairArguments(pairs).toArray());
+        return count != null ? count : 0;
+    }
+    
+    @Override
+    public AssignmentDelta replaceAssignments(Long teacherId, List<SubjectSection> pairs) {
+        List<Long> staleIds = new ArrayList<>();
+        List<SubjectSection> stale = new ArrayList<>();
+        List<SubjectSection> missing;
+        org.springframework.jdbc.core.RowCallbackHandler collectStale = rs -> {
+            staleIds.add(rs.getLong(1));
+            stale.add(new SubjectSection(rs.getLong(2), rs.getLong(3)));
+        };
+        if (pairs.isEmpty()) {
+            jdbcTemplate.query("SELECT id, subject_id, section_id FROM teacher_assignments WHERE teacher_id = ?",
+                    collectStale, teacherId);
+            missing = Collections.emptyList();
+        } else {
+            List<Object> args = pairArguments(pairs);
+            args.add(teacherId);
+            jdbcTemplate.query(
+                    desiredPairs(pairs.size()) +
+                    "SELECT ta.id, ta.subject_id, ta.section_id FROM teacher_assignments ta WHERE ta.teacher_id = ? AND NOT EXISTS " +
+                    "(SELECT 1 FROM desired d WHERE d.subject_id = ta.subject_id AND d.section_id = ta.section_id)",
+                    collectStale, args.toArray());
+            missing = jdbcTemplate.query(
+                    desiredPairs(pairs.size()) +
+                    "SELECT d.subject_id, d.section_id FROM desired d WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM teacher_assignments ta WHERE ta.teacher_id = ? " +
+                    "AND ta.subject_id = d.subject_id AND ta.section_id = d.section_id)",
+                    (rs, rowNum) -> new SubjectSection(rs.getLong(1), rs.getLong(2)), args.toArray());
+        }
+        
+        if (!staleIds.isEmpty()) {
+            String placeholders = staleIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+            jdbcTemplate.update("DELETE FROM teacher_assignments WHERE id IN (" + placeholders + ")",
+                    staleIds.toArray());
+        }
+        
+        insertRows(Collections.singletonMap(teacherId, missing));
+        return new AssignmentDelta(stale, missing);
+    }
+    
+    @Override
+    public int insertAssignments(Map<Long, List<SubjectSection>> pairsByTeacher) {
+        return insertRows(pairsByTeacher);
+    }
+    
+    @Override
+    public Map<Long, List<SubjectSection>> deleteAssignmentsForGradeLevel(Integer gradeLevel) {
+        String where = gradeLevel != null
+                ? " WHERE section_id IN (SELECT id FROM sections WHERE grade_level = ?)"
+                : "";
+        Object[] args = gradeLevel != null ? new Object[] {gradeLevel} : new Object[0];
+        Map<Long, List<SubjectSection>> deleted = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT teacher_id, subject_id, section_id FROM teacher_assignments" + where,
+                rs -> {
+                    deleted.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>())
+                            .add(new SubjectSection(rs.getLong(2), rs.getLong(3)));
+                }, args);
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM teacher_assignments" + where, args);
+        }
+        return deleted;
+    }
+    
+    private int insertRows(Map<Long, List<SubjectSection>> pairsByTeacher) {
+        int count = pairsByTeacher.values().stream().mapToInt(List::size).sum();
+        if (count == 0) {
+            return 0;
+        }
+        long nextId = allocateIds(count);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, List<SubjectSection>> entry : pairsByTeacher.entrySet()) {
+            for (SubjectSection pair : entry.getValue()) {
+                rows.add(new Object[] {nextId++, entry.getKey(), pair.getSubjectId(), pair.getSectionId(), now, now});
+            }
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT OR IGNORE INTO teacher_assignments (id, teacher_id, subject_id, section_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        int inserted = 0;
+        for (int rowCount : counts) {
+            inserted += Math.max(rowCount, 0);
+        }
+        return inserted;
+    }
+    
+    /**
+     * Reserve count consecutive ids without using Hibernate's separate-transaction id lookup.
+     * The ids start after every block Hibernate may already hold (its current block ends at
+     * next_val - ID_ALLOCATION_SIZE) and next_val is moved past them, so entity inserts that still
+     * use the generator never collide with these rows.
+     */
+    private long allocateIds(int count) {
+        List<Long> stored = jdbcTemplate.queryForList("SELECT next_val FROM teacher_assignments_seq", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM teacher_assignments", Long.class);
+        long nextVal = stored.isEmpty() || stored.get(0) == null ? 1L : stored.get(0);
+        
+        long firstId = Math.max(1L, Math.max(nextVal - ID_ALLOCATION_SIZE + 1, maxId != null ? maxId + 1 : 1L));
+        long newNextVal = Math.max(nextVal, firstId + count - 1 + ID_ALLOCATION_SIZE);
+        if (stored.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO teacher_assignments_seq (next_val) VALUES (?)", newNextVal);
+        } else {
+            jdbcTemplate.update("UPDATE teacher_assignments_seq SET next_val = ?", newNextVal);
+        }
+        return firstId;
+    }
+    
+    private static String desiredPairs(int size) {
+        return "WITH desired(subject_id, section_id) AS (VALUES " +
+                String.join(", ", Collections.nCopies(size, "(?, ?)")) + ") ";
+    }
+    
+    private static List<Object> pairArguments(List<SubjectSection> pairs) {
+        List<Object> args = new ArrayList<>();
+        for (SubjectSection pair : pairs) {
+            args.add(pair.getSubjectId());
+            args.add(pair.getSectionId());
+        }
+        return args;
+    }
+}
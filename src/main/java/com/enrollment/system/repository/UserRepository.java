@@ -2,7 +2,12 @@ package com.enrollment.system.repository;
 
 import com.enrollment.system.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +20,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :userId")
+    int updateLastLogin(@Param("userId") Long userId, @Param("lastLogin") LocalDateTime lastLogin);
+    
+    @Query("SELECT u.profilePicture FROM User u WHERE u.profilePicture IS NOT NULL AND u.profilePicture <> ''")
+    List<String> findAllProfilePicturePaths();
+    
+    @Query("SELECT COALESCE(u.assignmentVersion, 0) FROM User u WHERE u.id = :teacherId")
+    Optional<Long> findAssignmentVersion(@Param("teacherId") Long teacherId);
+    
+    // Compare-and-set: updates nothing when the version is no longer the expected one
+    @Modifying
+    @Query("UPDATE User u SET u.assignmentVersion = COALESCE(u.assignmentVersion, 0) + 1 " +
+           "WHERE u.id = :teacherId AND COALESCE(u.assignmentVersion, 0) = :expectedVersion")
+    int incrementAssignmentVersion(@Param("teacherId") Long teacherId, @Param("expectedVersion") long expectedVersion);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.assignmentVersion = COALESCE(u.assignmentVersion, 0) + 1 WHERE u.id = :teacherId")
+    int incrementAssignmentVersion(@Param("teacherId") Long teacherId);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.assignmentVersion = COALESCE(u.assignmentVersion, 0) + 1")
+    int incrementAllAssignmentVersions();
+    
+    @Modifying
+    @Query("UPDATE User u SET u.assignmentVersion = COALESCE(u.assignmentVersion, 0) + 1 WHERE u.id IN :teacherIds")
+    int incrementAssignmentVersions(@Param("teacherIds") java.util.Collection<Long> teacherIds);
+    
+    // Active users of a role with their preferred subjects (users.subjects) loaded
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.subjects " +
+           "WHERE u.role = :role AND (u.isActive IS NULL OR u.isActive = true) ORDER BY u.id")
+    List<User> findActiveByRoleWithSubjects(@Param("role") User.UserRole role);
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.model.AuditEntry;
+import com.enrollment.system.repository.AuditEntryRepository;
+import com.enrollment.system.util.AuditLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Read side of the audit trail written by AuditLog.
+ */
+@Service
+public class AuditService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private AuditEntryRepository auditEntryRepository;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    /**
+     * One page of the audit trail, newest first. Null filters match everything; from is inclusive
+     * and to exclusive. Entries still queued are written first, so the page includes changes made
+     * moments ago.
+     */
+    public Page<AuditEntry> getAuditTrail(String entityType, Long entityId, String username, String action,
+                                          LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("page must be 0 or more and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        try {
+            auditLog.flush();
+        } catch (SQLException e) {
+            // The writer retries; show what has been written so far
+            System.err.println("⚠ Could not write queued audit entries: " + e.getMessage());
+        }
+        return auditEntryRepository.findPage(emptyToNull(entityType), entityId, emptyToNull(username),
+                emptyToNull(action), from, to, PageRequest.of(page, size));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
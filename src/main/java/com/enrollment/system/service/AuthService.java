@@ -5,7 +5,10 @@ import com.enrollment.system.dto.LoginResponse;
 import com.enrollment.system.dto.UserDto;
 import com.enrollment.system.model.User;
 import com.enrollment.system.repository.UserRepository;
+import com.enrollment.system.util.LastLoginRecorder;
+import com.enrollment.system.util.PasswordVerifier;
 import com.enrollment.system.util.SessionManager;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 
 @Service
+@Timed("enrollment.service")
 public class AuthService {
     
     @Autowired
@@ -24,7 +28,13 @@ public class AuthService {
     @Autowired
     private SessionManager sessionManager;
     
-    @Transactional
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+    
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+    
+    // Not @Transactional: the BCrypt check must not hold a database connection while it waits
     public LoginResponse login(LoginRequest request) {
         try {
             // Find user by username
@@ -40,14 +50,14 @@ public class AuthService {
                 return LoginResponse.failure("Account is disabled. Please contact administrator.");
             }
             
-            // Verify password
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            // Verify password (bounded verification pool, recently verified credentials are cached)
+            if (!passwordVerifier.matches(user.getUsername(), request.getPassword(), user.getPassword())) {
                 return LoginResponse.failure("Invalid username or password");
             }
             
-            // Update last login
+            // Update last login (written in batches by LastLoginRecorder)
             user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            lastLoginRecorder.record(user.getId(), user.getLastLogin());
             
             // Create session
             UserDto userDto = UserDto.fromUser(user);
@@ -55,6 +65,9 @@ public class AuthService {
             
             return LoginResponse.success(userDto, sessionToken);
             
+        } catch (PasswordVerifier.ServerBusyException e) {
+            System.err.println("⚠ Login rejected, verification pool is busy: " + e.getMessage());
+            return LoginResponse.busy(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return LoginResponse.failure("An error occurred during login. Please try again.");
@@ -117,6 +130,7 @@ public class AuthService {
             }
             
             // Encode and set new password
+            passwordVerifier.evict(user.getPassword());
             user.setPassword(passwordEncoder.encode(newPassword));
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
@@ -0,0 +1,142 @@
+package com.enrollment.system.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells views whether the tables they show changed since they last loaded them, so a refresh can
+ * skip the reload or reload only what changed, including changes made from other PCs sharing the
+ * database file.
+ *
+ * Each tracked table has a counter in table_versions, bumped by triggers on every insert, update
+ * and delete (see DatabaseSchemaUpdater.ensureTableChangeCounters). The counters are read on a
+ * connection of their own, and only after PRAGMA data_version on that connection shows another
+ * connection has committed, so a check while nothing changed costs one pragma.
+ *
+ * A view keeps the map from getTableVersions() taken before it loaded, and on refresh asks
+ * hasChanged(thatMap, its tables). Without the counters (not SQLite, or not created yet) every
+ * check reports a change, which is the old reload-always behaviour.
+ */
+@Service
+public class ChangeDetectionService {
+
+    public static final List<String> TRACKED_TABLES = List.of("students", "students_archive", "sections", "strands",
+            "semesters", "school_years", "subjects", "teacher_assignments", "users");
+
+    @Value("${spring.datasource.url}")
+    private String databaseUrl;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Connection connection;
+    private long dataVersion = -1;
+    private Map<String, Long> versions;
+
+    /**
+     * Current counter of every tracked table, or null when change tracking is unavailable.
+     */
+    public synchronized Map<String, Long> getTableVersions() {
+        if (!databaseUrl.startsWith("jdbc:sqlite:")) {
+            return null;
+        }
+        try {
+            if (connection == null) {
+                // Auto-commit, so every query sees the latest committed data
+                connection = DriverManager.getConnection(databaseUrl);
+            }
+            long current;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+                rs.next();
+                current = rs.getLong(1);
+            }
+            if (versions == null || current != dataVersion) {
+                Map<String, Long> read = new HashMap<>();
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT table_name, version FROM table_versions")) {
+                    while (rs.next()) {
+                        read.put(rs.getString(1), rs.getLong(2));
+                    }
+                }
+                versions = Collections.unmodifiableMap(read);
+                dataVersion = current;
+            }
+            return versions;
+        } catch (SQLException e) {
+            // table_versions missing or the connection broke; reopen on the next check
+            closeConnection();
+            return null;
+        }
+    }
+
+    /**
+     * Whether any of the given tables changed since seen was taken. True when seen is null or
+     * change tracking is unavailable.
+     */
+    public boolean hasChanged(Map<String, Long> seen, String... tables) {
+        if (seen == null) {
+            return true;
+        }
+        Map<String, Long> current = getTableVersions();
+        if (current == null) {
+            return true;
+        }
+        for (String table : tables) {
+            Long version = current.get(table);
+            if (version == null || !version.equals(seen.get(table))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Highest counter in the database, 0 when there are none; read before a restore.
+     */
+    @Transactional(readOnly = true)
+    public long getHighestVersion() {
+        try {
+            Long highest = jdbcTemplate.queryForObject("SELECT MAX(version) FROM table_versions", Long.class);
+            return highest != null ? highest : 0L;
+        } catch (RuntimeException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Move every counter past highest. Used after a restore, whose counters come from the snapshot
+     * and could otherwise match what a view loaded before it.
+     */
+    @Transactional
+    public void advanceVersionsPast(long highest) {
+        jdbcTemplate.update("UPDATE table_versions SET version = version + ?", highest + 1);
+    }
+
+    @PreDestroy
+    public synchronized void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // Closing anyway
+            }
+            connection = null;
+            versions = null;
+        }
+    }
+}
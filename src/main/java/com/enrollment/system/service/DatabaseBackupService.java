@@ -0,0 +1,581 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import com.enrollment.system.event.StudentsChangedEvent;
+import com.enrollment.system.util.DatabaseSchemaUpdater;
+import com.enrollment.system.util.TeacherAssignmentIndex;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Online backups of the SQLite database while the application keeps running.
+ *
+ * A backup copies the database with SQLite's online backup API, a few hundred pages per step,
+ * inside one read transaction: the copy is a consistent snapshot and, in WAL mode, a reader never
+ * blocks writers. The copy is integrity-checked, gzip-compressed into the backup directory as
+ * enrollment-{yyyyMMdd-HHmmss}.db.gz with a sha256sum-style .sha256 file next to it, and only the
+ * newest snapshots are kept.
+ *
+ * Backups and restores run one at a time on their own thread; a second request while one is
+ * running is rejected rather than queued. A restore first checks the snapshot (checksum and
+ * integrity check), takes a "pre-restore" backup of the current data and then copies the snapshot
+ * over the live database, which blocks writers until it is done.
+ *
+ * The application keeps running on the restored data, so a restore also resets what it holds in
+ * memory about the old data: the Hibernate id counters (*_seq tables) are moved back past the ids
+ * already handed out, the second-level cache is emptied and the TeacherAssignmentIndex reloads.
+ */
+@Service
+public class DatabaseBackupService {
+
+    private static final String PREFIX = "enrollment-";
+    private static final String SUFFIX = ".db.gz";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final Pattern BACKUP_NAME = Pattern.compile("enrollment-\\d{8}-\\d{6}(-[a-z0-9-]+)?\\.db\\.gz");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // While another connection holds a lock: retry every BUSY_SLEEP_MS, at most BUSY_RETRIES times
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final int BUSY_RETRIES = 300;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+
+    @Autowired
+    private DatabaseSchemaUpdater databaseSchemaUpdater;
+
+    @Autowired
+    private jakarta.persistence.EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TeacherAssignmentIndex teacherAssignmentIndex;
+
+    @Value("${enrollment.backup.directory:backups}")
+    private String backupDirectory;
+
+    @Value("${enrollment.backup.keep:14}")
+    private int keep;
+
+    @Value("${enrollment.backup.pages-per-step:256}")
+    private int pagesPerStep;
+
+    @Value("${enrollment.backup.step-pause-ms:10}")
+    private long stepPauseMs;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "database-backup");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private volatile BackupInfo lastBackup;
+    private volatile String lastError;
+
+    @Scheduled(cron = "${enrollment.backup.cron:0 0 2 * * *}")
+    public void scheduledBackup() {
+        try {
+            startBackup();
+        } catch (RuntimeException e) {
+            System.err.println("⚠ Scheduled database backup skipped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start a backup on the backup thread.
+     *
+     * @throws RuntimeException if a backup or restore is already running
+     */
+    public Future<BackupInfo> startBackup() {
+        try {
+            return executor.submit(() -> {
+                try {
+                    BackupInfo info = backup(null);
+                    lastBackup = info;
+                    lastError = null;
+                    return info;
+                } catch (Exception e) {
+                    lastError = e.getMessage();
+                    System.err.println("❌ Database backup failed: " + e.getMessage());
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("A database backup or restore is already running");
+        }
+    }
+
+    public boolean isRunning() {
+        return executor.getActiveCount() > 0;
+    }
+
+    public BackupInfo getLastBackup() {
+        return lastBackup;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Snapshots in the backup directory, newest first.
+     */
+    public List<BackupInfo> listBackups() throws IOException {
+        List<BackupInfo> backups = new ArrayList<>();
+        Path directory = Paths.get(backupDirectory);
+        if (!Files.isDirectory(directory)) {
+            return backups;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (BACKUP_NAME.matcher(file.getFileName().toString()).matches()) {
+                    backups.add(describe(file));
+                }
+            }
+        }
+        backups.sort((a, b) -> b.getFileName().compareTo(a.getFileName()));
+        return backups;
+    }
+
+    /**
+     * Check a snapshot without restoring it: its checksum matches and the database inside passes
+     * SQLite's integrity check.
+     */
+    public VerifyResult verify(String fileName) throws IOException {
+        Path snapshot = resolve(fileName);
+        Path extracted = Files.createTempFile(Paths.get(backupDirectory), ".verify-", ".db");
+        try {
+            return verify(snapshot, extracted);
+        } finally {
+            deleteWithSidecars(extracted);
+        }
+    }
+
+    /**
+     * Replace the live database with a snapshot. The snapshot is verified first and the current
+     * data is backed up as a "pre-restore" snapshot, so a restore can itself be undone.
+     *
+     * @return the pre-restore backup
+     * @throws RuntimeException if the snapshot fails verification, or a backup or restore is running
+     */
+    public BackupInfo restore(String fileName) throws IOException {
+        Path snapshot = resolve(fileName);
+        Future<BackupInfo> result;
+        try {
+            result = executor.submit(() -> restoreSnapshot(snapshot));
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("A database backup or restore is already running");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the restore to finish");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new RuntimeException("Restore failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BackupInfo restoreSnapshot(Path snapshot) throws Exception {
+        Path extracted = Files.createTempFile(Paths.get(backupDirectory), ".restore-", ".db");
+        try {
+            VerifyResult check = verify(snapshot, extracted);
+            if (!check.isValid()) {
+                throw new RuntimeException("Backup " + snapshot.getFileName() + " failed verification: " + check.getMessage());
+            }
+            BackupInfo preRestore = backup("pre-restore");
+            long highestVersion = changeDetectionService.getHighestVersion();
+
+            long started = System.currentTimeMillis();
+            try (Connection connection = dataSource.getConnection()) {
+                // Auto-commit ends the transaction the pool's connection keeps open, which would block the restore
+                connection.setAutoCommit(true);
+                Map<String, Long> idSequences = readIdSequences(connection);
+                DB db = connection.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.restore("main", extracted.toAbsolutePath().toString(), null, BUSY_SLEEP_MS, BUSY_RETRIES, -1);
+                if (rc != 0) {
+                    throw new RuntimeException("SQLite restore failed with code " + rc);
+                }
+                advanceIdSequences(connection, idSequences);
+            }
+            // Older snapshots may lack the change counters; restored ones must not match what views already show
+            databaseSchemaUpdater.ensureTableChangeCounters();
+            changeDetectionService.advanceVersionsPast(highestVersion);
+            // Nothing cached from the old data may be served or written back
+            entityManagerFactory.getCache().evictAll();
+            teacherAssignmentIndex.invalidate();
+            System.out.println("✅ Database restored from " + snapshot.getFileName() + " in " +
+                    (System.currentTimeMillis() - started) + " ms (previous data saved as " + preRestore.getFileName() + ")");
+            eventPublisher.publishEvent(new StudentsChangedEvent("database restored", 0));
+            eventPublisher.publishEvent(AssignmentsChangedEvent.forAllTeachers());
+            return preRestore;
+        } finally {
+            deleteWithSidecars(extracted);
+        }
+    }
+
+    // next_val of every Hibernate id table (students_seq, ...)
+    private static Map<String, Long> readIdSequences(Connection connection) throws SQLException {
+        Map<String, Long> sequences = new LinkedHashMap<>();
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE '%\\_seq' ESCAPE '\\'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        for (String table : tables) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT MAX(next_val) FROM \"" + table + "\"")) {
+                if (rs.next() && rs.getObject(1) != null) {
+                    sequences.put(table, rs.getLong(1));
+                }
+            }
+        }
+        return sequences;
+    }
+
+    /**
+     * Hibernate keeps the id block it last took from each *_seq table in memory and keeps using it.
+     * The snapshot's counters are older than those blocks, so without this the next blocks it takes
+     * would overlap ids it has already handed out since the restore. Counters never move backwards.
+     */
+    private static void advanceIdSequences(Connection connection, Map<String, Long> before) throws SQLException {
+        for (Map.Entry<String, Long> entry : before.entrySet()) {
+            String table = "\"" + entry.getKey() + "\"";
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (next_val BIGINT)");
+                statement.execute("INSERT INTO " + table + " (next_val) SELECT " + entry.getValue() +
+                        " WHERE NOT EXISTS (SELECT 1 FROM " + table + ")");
+                statement.execute("UPDATE " + table + " SET next_val = " + entry.getValue() +
+                        " WHERE next_val < " + entry.getValue());
+            }
+        }
+    }
+
+    private BackupInfo backup(String label) throws Exception {
+        Path directory = Paths.get(backupDirectory);
+        Files.createDirectories(directory);
+        String fileName = nextFileName(directory, label);
+        Path copy = directory.resolve("." + fileName + ".tmp");
+        long started = System.currentTimeMillis();
+        try {
+            copyDatabase(copy);
+            String problem = integrityProblem(copy, true);
+            if (problem != null) {
+                throw new RuntimeException("Backup copy failed the integrity check: " + problem);
+            }
+            BackupInfo info = compress(copy, directory.resolve(fileName));
+            rotate();
+            System.out.println("✓ Database backup " + fileName + " written in " +
+                    (System.currentTimeMillis() - started) + " ms (" + info.getSizeBytes() / 1024 + " KB)");
+            return info;
+        } finally {
+            deleteWithSidecars(copy);
+        }
+    }
+
+    // Paged online backup of the live database into target
+    private void copyDatabase(Path target) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // Start the read transaction every backup step reads from, so all steps see one snapshot
+                // and the backup does not restart when another connection writes
+                statement.executeQuery("SELECT COUNT(*) FROM sqlite_master").close();
+                DB db = connection.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.backup("main", target.toAbsolutePath().toString(), (remaining, pageCount) -> pause(),
+                        BUSY_SLEEP_MS, BUSY_RETRIES, pagesPerStep);
+                if (rc != 0) {
+                    throw new SQLException("SQLite backup failed with code " + rc);
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // Between steps, to spread the I/O of a large backup
+    private void pause() {
+        if (stepPauseMs > 0) {
+            try {
+                Thread.sleep(stepPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Null when the database file passes PRAGMA integrity_check, otherwise the first problem reported.
+     *
+     * @param selfContained switch the file to rollback journal mode, so the copy does not need -wal/-shm files
+     */
+    private static String integrityProblem(Path database, boolean selfContained) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.toAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            try (ResultSet result = statement.executeQuery("PRAGMA integrity_check")) {
+                String first = result.next() ? result.getString(1) : "no result";
+                if (!"ok".equalsIgnoreCase(first)) {
+                    return first;
+                }
+            }
+            if (selfContained) {
+                statement.execute("PRAGMA journal_mode=DELETE");
+            }
+            return null;
+        }
+    }
+
+    private static BackupInfo compress(Path database, Path target) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(database);
+             OutputStream out = new GZIPOutputStream(new DigestOutputStream(Files.newOutputStream(part), digest), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        Files.writeString(target.resolveSibling(target.getFileName() + CHECKSUM_SUFFIX),
+                checksum + "  " + target.getFileName() + "\n", StandardCharsets.US_ASCII);
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        return describe(target);
+    }
+
+    private VerifyResult verify(Path snapshot, Path extracted) throws IOException {
+        VerifyResult result = new VerifyResult();
+        result.setFileName(snapshot.getFileName().toString());
+        String expected = readChecksum(snapshot);
+        if (expected == null) {
+            result.setMessage("Checksum file is missing");
+            return result;
+        }
+
+        MessageDigest digest = sha256();
+        try (InputStream in = new GZIPInputStream(new DigestInputStream(Files.newInputStream(snapshot), digest), 64 * 1024);
+             OutputStream out = Files.newOutputStream(extracted)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            result.setMessage("Cannot decompress: " + e.getMessage());
+            return result;
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equalsIgnoreCase(expected)) {
+            result.setMessage("Checksum mismatch (expected " + expected + ", got " + actual + ")");
+            return result;
+        }
+
+        try {
+            String problem = integrityProblem(extracted, false);
+            if (problem != null) {
+                result.setMessage("Integrity check failed: " + problem);
+                return result;
+            }
+        } catch (SQLException e) {
+            result.setMessage("Not a readable SQLite database: " + e.getMessage());
+            return result;
+        }
+        result.setValid(true);
+        result.setMessage("ok");
+        return result;
+    }
+
+    private void rotate() throws IOException {
+        List<BackupInfo> backups = listBackups();
+        for (int i = Math.max(keep, 1); i < backups.size(); i++) {
+            Path old = Paths.get(backupDirectory, backups.get(i).getFileName());
+            Files.deleteIfExists(old);
+            Files.deleteIfExists(old.resolveSibling(old.getFileName() + CHECKSUM_SUFFIX));
+        }
+    }
+
+    private static String nextFileName(Path directory, String label) {
+        String base = PREFIX + LocalDateTime.now().format(TIMESTAMP) + (label != null ? "-" + label : "");
+        String fileName = base + SUFFIX;
+        for (int n = 2; Files.exists(directory.resolve(fileName)); n++) {
+            fileName = base + "-" + n + SUFFIX;
+        }
+        return fileName;
+    }
+
+    // Only names this service wrote, so a request cannot point outside the backup directory
+    private Path resolve(String fileName) {
+        if (fileName == null || !BACKUP_NAME.matcher(fileName).matches()) {
+            throw new RuntimeException("Invalid backup name: " + fileName);
+        }
+        Path file = Paths.get(backupDirectory, fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Backup not found: " + fileName);
+        }
+        return file;
+    }
+
+    private static String readChecksum(Path snapshot) throws IOException {
+        Path checksumFile = snapshot.resolveSibling(snapshot.getFileName() + CHECKSUM_SUFFIX);
+        if (!Files.isRegularFile(checksumFile)) {
+            return null;
+        }
+        String content = Files.readString(checksumFile, StandardCharsets.US_ASCII).trim();
+        return content.isEmpty() ? null : content.split("\\s+")[0];
+    }
+
+    private static BackupInfo describe(Path file) throws IOException {
+        BackupInfo info = new BackupInfo();
+        info.setFileName(file.getFileName().toString());
+        info.setSizeBytes(Files.size(file));
+        info.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Files.getLastModifiedTime(file).toMillis()), ZoneId.systemDefault()));
+        info.setSha256(readChecksum(file));
+        return info;
+    }
+
+    private static void deleteWithSidecars(Path database) {
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            try {
+                Files.deleteIfExists(database.resolveSibling(database.getFileName() + suffix));
+            } catch (IOException e) {
+                System.err.println("⚠ Warning: Could not delete " + database + suffix + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A compressed snapshot in the backup directory
+     */
+    public static class BackupInfo {
+        private String fileName;
+        private long sizeBytes;
+        private LocalDateTime createdAt;
+        private String sha256;
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public void setSizeBytes(long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+    }
+
+    public static class VerifyResult {
+        private String fileName;
+        private boolean valid;
+        private String message;
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        public void setValid(boolean valid) {
+            this.valid = valid;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.enrollment.system.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that refers to a section, strand or school year, gathered in one query per entity so
+ * a screen or API client can show why a delete would fail (and what else it touches) before
+ * trying it.
+ *
+ * Blockers are the conditions the delete guards in SectionService, StrandService and
+ * SchoolYearService refuse on, with the same counts; references are rows that do not block the
+ * delete but point at the entity. The student, archive and assignment counts are served by indexes
+ * (see the entity @Index declarations and DatabaseSchemaUpdater.ensureDependencyIndexes); sections
+ * and subjects are small enough to scan.
+ */
+@Service
+public class DependencyCheckService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Dependencies of a section, or null if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public DependencyReport checkSection(Long sectionId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT s.name AS name, " +
+                "(SELECT COUNT(*) FROM students st WHERE st.section_id = s.id AND st.enrollment_status = 'Enrolled' " +
+                "  AND (st.is_archived IS NULL OR st.is_archived = 0)) AS enrolled, " +
+                "(SELECT COUNT(*) FROM students st WHERE st.section_id = s.id) AS students, " +
+                "(SELECT COUNT(*) FROM students_archive a WHERE a.section_id = s.id) AS archived, " +
+                "(SELECT COUNT(*) FROM teacher_assignments ta WHERE ta.section_id = s.id) AS assignments " +
+                "FROM sections s WHERE s.id = ?", sectionId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        long enrolled = count(row, "enrolled");
+
+        DependencyReport report = new DependencyReport("section", sectionId, (String) row.get("name"));
+        report.addBlocker("enrolledStudents", enrolled,
+                "Section has " + enrolled + " enrolled student(s). Please reassign or archive these students first.");
+        report.addReference("otherStudents", count(row, "students") - enrolled,
+                "Student record(s) that are not enrolled still point at this section");
+        report.addReference("archivedStudents", count(row, "archived"),
+                "Archived student(s) from this section");
+        report.addReference("teacherAssignments", count(row, "assignments"),
+                "Teacher assignment(s) for this section");
+        return report;
+    }
+
+    /**
+     * Dependencies of a strand, or null if it does not exist. Students and sections are matched by
+     * strand name ignoring case and surrounding spaces, as StrandService does.
+     */
+    @Transactional(readOnly = true)
+    public DependencyReport checkStrand(Long strandId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT s.name AS name, " +
+                "(SELECT COUNT(*) FROM students st WHERE UPPER(TRIM(st.strand)) = UPPER(TRIM(s.name)) " +
+                "  AND st.enrollment_status = 'Enrolled' AND (st.is_archived IS NULL OR st.is_archived = 0)) AS enrolled, " +
+                "(SELECT COUNT(*) FROM students st WHERE UPPER(TRIM(st.strand)) = UPPER(TRIM(s.name))) AS students, " +
+                "(SELECT COUNT(*) FROM sections sec WHERE UPPER(TRIM(sec.strand)) = UPPER(TRIM(s.name))) AS sections, " +
+                "(SELECT COUNT(*) FROM subjects sub WHERE UPPER(TRIM(sub.strand)) = UPPER(TRIM(s.name))) AS subjects " +
+                "FROM strands s WHERE s.id = ?", strandId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        long enrolled = count(row, "enrolled");
+
+        DependencyReport report = new DependencyReport("strand", strandId, (String) row.get("name"));
+        report.addBlocker("enrolledStudents", enrolled,
+                "Strand has " + enrolled + " enrolled student(s). Please reassign or archive these students first.");
+        report.addReference("otherStudents", count(row, "students") - enrolled,
+                "Student record(s) that are not enrolled still use this strand");
+        report.addReference("sections", count(row, "sections"),
+                "Section(s) in this strand");
+        report.addReference("subjects", count(row, "subjects"),
+                "Subject(s) in this strand");
+        return report;
+    }
+
+    /**
+     * Dependencies of a school year, or null if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public DependencyReport checkSchoolYear(Long schoolYearId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT y.year AS name, y.is_current AS is_current, " +
+                "(SELECT COUNT(*) FROM students st WHERE st.school_year_id = y.id) AS students, " +
+                "(SELECT COUNT(*) FROM semesters se WHERE se.school_year_id = y.id) AS semesters, " +
+                "(SELECT COUNT(*) FROM students_archive a WHERE a.school_year_id = y.id) AS archived " +
+                "FROM school_years y WHERE y.id = ?", schoolYearId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        long students = count(row, "students");
+        long archived = count(row, "archived");
+
+        DependencyReport report = new DependencyReport("school-year", schoolYearId, (String) row.get("name"));
+        report.addBlocker("current", count(row, "is_current") != 0 ? 1 : 0,
+                "This is the current school year. Please set another school year as current first.");
+        // SchoolYearService allows deleting a year with fewer than 2 students, archived ones included
+        boolean tooMany = students + archived >= 2;
+        report.addBlocker("students", tooMany ? students : 0,
+                "School year has " + students + " student(s). School years can only be deleted if they have less than 2 students.");
+        report.addBlocker("archivedStudents", tooMany ? archived : 0,
+                "School year has " + archived + " archived student(s). Archived students count towards the limit of fewer than 2 students.");
+        if (!tooMany) {
+            report.addReference("students", students, "Student(s) in this school year");
+            report.addReference("archivedStudents", archived, "Archived student(s) from this school year");
+        }
+        report.addReference("semesters", count(row, "semesters"),
+                "Semester(s) of this school year; deleted along with it");
+        return report;
+    }
+
+    private static long count(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * What refers to one entity. Only non-zero counts are listed.
+     */
+    public static class DependencyReport {
+        private String entityType;
+        private Long entityId;
+        private String name;
+        private List<Dependency> blockers = new ArrayList<>();
+        private List<Dependency> references = new ArrayList<>();
+
+        public DependencyReport() {
+        }
+
+        public DependencyReport(String entityType, Long entityId, String name) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.name = name;
+        }
+
+        void addBlocker(String type, long count, String message) {
+            if (count > 0) {
+                blockers.add(new Dependency(type, count, message));
+            }
+        }
+
+        void addReference(String type, long count, String message) {
+            if (count > 0) {
+                references.add(new Dependency(type, count, message));
+            }
+        }
+
+        public boolean isDeletable() {
+            return blockers.isEmpty();
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public void setEntityType(String entityType) {
+            this.entityType = entityType;
+        }
+
+        public Long getEntityId() {
+            return entityId;
+        }
+
+        public void setEntityId(Long entityId) {
+            this.entityId = entityId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Dependency> getBlockers() {
+            return blockers;
+        }
+
+        public void setBlockers(List<Dependency> blockers) {
+            this.blockers = blockers;
+        }
+
+        public List<Dependency> getReferences() {
+            return references;
+        }
+
+        public void setReferences(List<Dependency> references) {
+            this.references = references;
+        }
+    }
+
+    public static class Dependency {
+        private String type;
+        private long count;
+        private String message;
+
+        public Dependency() {
+        }
+
+        public Dependency(String type, long count, String message) {
+            this.type = type;
+            this.count = count;
+            this.message = message;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores uploaded profile pictures and their thumbnails.
+ *
+ * An upload is decoded once, center-cropped to a square and written as a PNG of at most
+ * STORED_SIZE pixels, together with fixed-size thumbnails for the places the picture is shown
+ * (the 40px dashboard header and the 140px account settings circle, both at 2x for HiDPI screens).
+ * The stored path stays uploads/profile-pictures/{userId}_{millis}.png; thumbnails sit next to it
+ * as {userId}_{millis}_{size}.png.
+ */
+@Service
+public class ProfilePictureService {
+
+    public static final String UPLOAD_DIRECTORY = "uploads/profile-pictures";
+
+    public static final int HEADER_THUMBNAIL_SIZE = 80;
+    public static final int SETTINGS_THUMBNAIL_SIZE = 280;
+    private static final int[] THUMBNAIL_SIZES = {HEADER_THUMBNAIL_SIZE, SETTINGS_THUMBNAIL_SIZE};
+    private static final int STORED_SIZE = 512;
+
+    // Files younger than this are never treated as orphans (an upload may not be committed yet)
+    private static final long ORPHAN_GRACE_PERIOD_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Decode an uploaded image and write the stored picture plus its thumbnails.
+     *
+     * @return the relative path to save in User.profilePicture
+     */
+    public String store(Long userId, InputStream input) throws IOException {
+        BufferedImage source = ImageIO.read(input);
+        if (source == null) {
+            throw new IllegalArgumentException("Unsupported or invalid image file");
+        }
+
+        File directory = new File(UPLOAD_DIRECTORY);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        String baseName = userId + "_" + System.currentTimeMillis();
+        BufferedImage square = cropToSquare(source);
+        ImageIO.write(scale(square, Math.min(STORED_SIZE, square.getWidth())), "png",
+                new File(directory, baseName + ".png"));
+        for (int size : THUMBNAIL_SIZES) {
+            ImageIO.write(scale(square, size), "png", new File(directory, baseName + "_" + size + ".png"));
+        }
+
+        return UPLOAD_DIRECTORY + "/" + baseName + ".png";
+    }
+
+    public String store(Long userId, Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return store(userId, input);
+        }
+    }
+
+    /**
+     * Path of the thumbnail of the given size for a stored picture. Pictures uploaded before
+     * thumbnails existed get theirs generated on first use; if that fails the original is returned.
+     */
+    public String thumbnailPath(String picturePath, int size) {
+        if (picturePath == null || picturePath.isEmpty()) {
+            return null;
+        }
+        File thumbnail = thumbnailFile(picturePath, size);
+        if (thumbnail.exists()) {
+            return thumbnail.getPath();
+        }
+
+        File original = new File(picturePath);
+        if (!original.exists()) {
+            return null;
+        }
+        try {
+            BufferedImage source = ImageIO.read(original);
+            if (source != null) {
+                ImageIO.write(scale(cropToSquare(source), size), "png", thumbnail);
+                return thumbnail.getPath();
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ Warning: Could not create thumbnail for " + picturePath + ": " + e.getMessage());
+        }
+        return picturePath;
+    }
+
+    /**
+     * Delete a picture that has been replaced, together with its thumbnails.
+     */
+    public void deletePicture(String picturePath) {
+        if (picturePath == null || picturePath.isEmpty()) {
+            return;
+        }
+        deleteQuietly(new File(picturePath));
+        for (int size : THUMBNAIL_SIZES) {
+            deleteQuietly(thumbnailFile(picturePath, size));
+        }
+    }
+
+    /**
+     * Remove files in the upload directory that no user references any more
+     * (pictures replaced while the old file could not be deleted, abandoned uploads).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${enrollment.profile-pictures.cleanup-cron:0 30 3 * * *}")
+    public void cleanupOrphans() {
+        File directory = new File(UPLOAD_DIRECTORY);
+        File[] files = directory.listFiles(File::isFile);
+        if (files == null || files.length == 0) {
+            return;
+        }
+
+        Set<String> referenced = new HashSet<>();
+        List<String> picturePaths = userRepository.findAllProfilePicturePaths();
+        for (String picturePath : picturePaths) {
+            referenced.add(new File(picturePath).getName());
+            for (int size : THUMBNAIL_SIZES) {
+                referenced.add(thumbnailFile(picturePath, size).getName());
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - ORPHAN_GRACE_PERIOD_MS;
+        int deleted = 0;
+        for (File file : files) {
+            if (!referenced.contains(file.getName()) && file.lastModified() < cutoff && file.delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            System.out.println("✓ Removed " + deleted + " orphaned profile picture file(s)");
+        }
+    }
+
+    private File thumbnailFile(String picturePath, int size) {
+        String fileName = Paths.get(picturePath).getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        File parent = new File(picturePath).getParentFile();
+        return new File(parent, baseName + "_" + size + ".png");
+    }
+
+    private void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            System.err.println("⚠ Warning: Could not delete " + file.getPath() + " (will be retried by orphan cleanup)");
+        }
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        return source.getSubimage(x, y, side, side);
+    }
+
+    /**
+     * Scale a square image down in halving steps, which keeps bilinear filtering sharp for large reductions.
+     */
+    private static BufferedImage scale(BufferedImage square, int size) {
+        BufferedImage current = square;
+        int currentSize = square.getWidth();
+        do {
+            currentSize = Math.max(size, currentSize / 2);
+            if (currentSize >= current.getWidth() && current != square) {
+                break;
+            }
+            BufferedImage next = new BufferedImage(currentSize, currentSize, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, currentSize, currentSize, null);
+            graphics.dispose();
+            current = next;
+        } while (currentSize > size);
+        return current;
+    }
+}
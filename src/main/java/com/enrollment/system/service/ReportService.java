@@ -1,8 +1,11 @@
 package com.enrollment.system.service;
 
 import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.dto.TeacherAssignmentReportRow;
+import com.enrollment.system.dto.UserDto;
 import com.enrollment.system.model.*;
 import com.enrollment.system.repository.*;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,6 +14,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("enrollment.service")
 public class ReportService {
     
     @Autowired
@@ -45,10 +49,6 @@ public class ReportService {
         // Filter students
         List<Student> filteredStudents = allStudents.stream()
                 .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
                     // Filter by current school year if available
                     if (finalCurrentSchoolYear != null) {
                         try {
@@ -97,44 +97,37 @@ public class ReportService {
     }
     
     /**
-     * Get teacher assignments grouped by teacher for Teacher Assignment Report
+     * Get teacher assignments grouped by teacher for Teacher Assignment Report.
+     * Loaded with a single query, teachers ordered by name; teachers without assignments are included.
      */
     @Transactional(readOnly = true)
-    public Map<User, List<TeacherAssignmentInfo>> getTeacherAssignments() {
-        List<TeacherAssignment> allAssignments = teacherAssignmentRepository.findAll();
-        
-        // Group by teacher
-        Map<User, List<TeacherAssignmentInfo>> assignmentsByTeacher = new LinkedHashMap<>();
+    public List<TeacherAssignmentReport> getTeacherAssignments() {
+        List<TeacherAssignmentReportRow> rows =
+                teacherAssignmentRepository.findTeacherAssignmentReportRows(User.UserRole.TEACHER);
         
-        for (TeacherAssignment assignment : allAssignments) {
-            try {
-                User teacher = assignment.getTeacher();
-                Subject subject = assignment.getSubject();
-                Section section = assignment.getSection();
-                
-                if (teacher != null && subject != null && section != null) {
-                    TeacherAssignmentInfo info = new TeacherAssignmentInfo(
-                            subject.getName(),
-                            section.getName(),
-                            section.getStrand(),
-                            section.getGradeLevel()
-                    );
-                    
-                    assignmentsByTeacher.computeIfAbsent(teacher, k -> new ArrayList<>())
-                            .add(info);
-                }
-            } catch (Exception e) {
-                // Skip if entities cannot be loaded
+        // Rows arrive grouped by teacher
+        Map<Long, TeacherAssignmentReport> reportsByTeacher = new LinkedHashMap<>();
+        for (TeacherAssignmentReportRow row : rows) {
+            TeacherAssignmentReport report = reportsByTeacher.computeIfAbsent(row.getTeacherId(), id -> {
+                UserDto teacher = new UserDto();
+                teacher.setId(row.getTeacherId());
+                teacher.setFullName(row.getFullName());
+                teacher.setUsername(row.getUsername());
+                teacher.setIsActive(row.getIsActive());
+                teacher.setRole(User.UserRole.TEACHER.name());
+                return new TeacherAssignmentReport(teacher);
+            });
+            if (row.hasAssignment()) {
+                report.assignments.add(new TeacherAssignmentInfo(
+                        row.getSubjectName(),
+                        row.getSectionName(),
+                        row.getStrand(),
+                        row.getGradeLevel()
+                ));
             }
         }
         
-        // Sort teachers by name
-        Map<User, List<TeacherAssignmentInfo>> sortedMap = new LinkedHashMap<>();
-        assignmentsByTeacher.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey(Comparator.comparing(User::getFullName)))
-                .forEachOrdered(entry -> sortedMap.put(entry.getKey(), entry.getValue()));
-        
-        return sortedMap;
+        return new ArrayList<>(reportsByTeacher.values());
     }
     
     /**
@@ -156,10 +149,6 @@ public class ReportService {
         // Filter students
         List<Student> filteredStudents = allStudents.stream()
                 .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
                     // Filter by current school year if available
                     if (finalCurrentSchoolYear != null) {
                         try {
@@ -245,6 +234,18 @@ public class ReportService {
         }
     }
     
+    /**
+     * Inner class for one teacher and their assignments in the Teacher Assignment Report
+     */
+    public static class TeacherAssignmentReport {
+        public UserDto teacher;
+        public List<TeacherAssignmentInfo> assignments = new ArrayList<>();
+        
+        public TeacherAssignmentReport(UserDto teacher) {
+            this.teacher = teacher;
+        }
+    }
+    
     /**
      * Inner class for enrollment statistics
      */
@@ -1,10 +1,13 @@
 package com.enrollment.system.service;
 
 import com.enrollment.system.dto.SchoolYearDto;
+import com.enrollment.system.event.StudentsChangedEvent;
 import com.enrollment.system.model.SchoolYear;
 import com.enrollment.system.repository.SchoolYearRepository;
 import com.enrollment.system.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
@@ -12,6 +15,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("enrollment.service")
 public class SchoolYearService {
     
     @Autowired
@@ -20,12 +24,18 @@ public class SchoolYearService {
     @Autowired(required = false)
     private StudentRepository studentRepository;
     
+    @Autowired(required = false)
+    private com.enrollment.system.repository.ArchivedStudentRepository archivedStudentRepository;
+    
     @Autowired(required = false)
     private com.enrollment.system.service.SemesterService semesterService;
     
     @Autowired(required = false)
     private com.enrollment.system.repository.SemesterRepository semesterRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional(readOnly = true)
     public SchoolYearDto getCurrentSchoolYear() {
         SchoolYear current = schoolYearRepository.findByIsCurrentTrue()
@@ -100,6 +110,8 @@ public class SchoolYearService {
         
         schoolYear.setIsCurrent(true);
         SchoolYear saved = schoolYearRepository.save(schoolYear);
+        // Views count the students of the current school year
+        eventPublisher.publishEvent(new StudentsChangedEvent("current school year changed", 0));
         return SchoolYearDto.fromSchoolYear(saved);
     }
     
@@ -161,19 +173,9 @@ public class SchoolYearService {
     public SchoolYear getPreviousSchoolYearEntity() {
         SchoolYear currentSchoolYear = getCurrentSchoolYearEntity();
         
-        // Get all school years ordered by start date descending
-        List<SchoolYear> allSchoolYears = schoolYearRepository.findAllByOrderByStartDateDesc();
-        
-        // Find the school year that ended just before the current one started
-        for (SchoolYear sy : allSchoolYears) {
-            if (sy.getEndDate().isBefore(currentSchoolYear.getStartDate()) || 
-                sy.getEndDate().isEqual(currentSchoolYear.getStartDate().minusDays(1))) {
-                return sy;
-            }
-        }
-        
-        // If no previous school year found, return null
-        return null;
+        // The most recent school year that ended before the current one started, or null if none
+        return schoolYearRepository.findFirstByEndDateBeforeOrderByStartDateDesc(currentSchoolYear.getStartDate())
+                .orElse(null);
     }
     
     @Transactional
@@ -186,20 +188,17 @@ public class SchoolYearService {
             throw new RuntimeException("Cannot delete the current school year. Please set another school year as current first.");
         }
         
-        // Check student count - can only delete if less than 2 students
+        // Check student count - can only delete if less than 2 students, archived ones included
         if (studentRepository != null) {
-            long studentCount = studentRepository.findAll().stream()
-                    .filter(student -> {
-                        if (student.getSchoolYear() == null) {
-                            return false;
-                        }
-                        return student.getSchoolYear().getId().equals(schoolYearId);
-                    })
-                    .count();
+            long studentCount = studentRepository.countBySchoolYearId(schoolYearId);
+            long archivedCount = archivedStudentRepository != null
+                    ? archivedStudentRepository.countBySchoolYearId(schoolYearId) : 0;
             
-            if (studentCount >= 2) {
+            if (studentCount + archivedCount >= 2) {
                 throw new RuntimeException("Cannot delete school year " + schoolYear.getYear() + 
-                        ". It has " + studentCount + " student(s). School years can only be deleted if they have less than 2 students.");
+                        ". It has " + (studentCount + archivedCount) + " student(s)" +
+                        (archivedCount > 0 ? " (" + archivedCount + " archived)" : "") +
+                        ". School years can only be deleted if they have less than 2 students.");
             }
         }
         
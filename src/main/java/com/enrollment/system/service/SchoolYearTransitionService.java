@@ -1,15 +1,26 @@
 package com.enrollment.system.service;
 
+import com.enrollment.system.event.StudentsChangedEvent;
 import com.enrollment.system.model.SchoolYear;
 import com.enrollment.system.model.Student;
+import com.enrollment.system.repository.ArchivedStudentRepository;
 import com.enrollment.system.repository.StudentRepository;
+import com.enrollment.system.repository.StudentRepositoryCustom.Cohort;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@Timed("enrollment.service")
 public class SchoolYearTransitionService {
     
     @Autowired
@@ -21,8 +32,34 @@ public class SchoolYearTransitionService {
     @Autowired
     private com.enrollment.system.repository.SchoolYearRepository schoolYearRepository;
     
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+    
+    @Autowired
+    private com.enrollment.system.util.DatabaseMaintenance databaseMaintenance;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // How long a bulk archive can still be undone
+    @Value("${enrollment.archive.undo-window-hours:24}")
+    private long undoWindowHours;
+    
     @Transactional
     public TransitionResult transitionToNewSchoolYear(Long newSchoolYearId, boolean carryOverEnrolled, boolean carryOverPending) {
+        return transitionToNewSchoolYear(newSchoolYearId, carryOverEnrolled, carryOverPending, false);
+    }
+    
+    /**
+     * @param archiveGraduates archive the current year's enrolled Grade 12 students as GRADUATED
+     *                         (one undoable batch) before carrying the other students over
+     */
+    @Transactional
+    public TransitionResult transitionToNewSchoolYear(Long newSchoolYearId, boolean carryOverEnrolled, boolean carryOverPending,
+                                                      boolean archiveGraduates) {
         // Get the new school year entity
         SchoolYear newSchoolYearEntity = schoolYearRepository.findById(newSchoolYearId)
                 .orElseThrow(() -> new RuntimeException("School year not found with id: " + newSchoolYearId));
@@ -36,6 +73,11 @@ public class SchoolYearTransitionService {
             currentSchoolYear = null;
         }
         
+        CohortArchiveResult graduates = null;
+        if (archiveGraduates && currentSchoolYear != null) {
+            graduates = archiveCohort(currentSchoolYear.getId(), 12, "Enrolled", null, "GRADUATED");
+        }
+        
         // Get students to carry over
         List<Student> studentsToCarryOver = new ArrayList<>();
         
@@ -49,11 +91,6 @@ public class SchoolYearTransitionService {
                     continue;
                 }
                 
-                // Skip archived students
-                if (Boolean.TRUE.equals(student.getIsArchived())) {
-                    continue;
-                }
-                
                 String status = student.getEnrollmentStatus();
                 if (status == null) {
                     status = "";
@@ -142,6 +179,8 @@ public class SchoolYearTransitionService {
         // Save all new students
         if (!newStudents.isEmpty()) {
             studentRepository.saveAll(newStudents);
+            databaseMaintenance.recordBulkChange(newStudents.size());
+            eventPublisher.publishEvent(new StudentsChangedEvent("school year transition", newStudents.size()));
         }
         
         // Set new school year as current
@@ -152,10 +191,110 @@ public class SchoolYearTransitionService {
         result.setPendingCarriedOver(pendingCount);
         result.setSkipped(skippedCount);
         result.setTotalCarriedOver(enrolledCount + pendingCount);
+        if (graduates != null) {
+            result.setGraduatesArchived(graduates.getArchivedCount());
+            result.setArchiveBatchId(graduates.getBatchId());
+        }
         
         return result;
     }
     
+    /**
+     * Number of students a bulk archive with the same criteria would archive.
+     * A null school year means the current one.
+     */
+    @Transactional(readOnly = true)
+    public int previewCohortArchive(Long schoolYearId, Integer gradeLevel, String enrollmentStatus, String strand) {
+        return studentRepository.countCohort(toCohort(schoolYearId, gradeLevel, enrollmentStatus, strand));
+    }
+    
+    /**
+     * Archive every active student of a school year and grade level with the given enrollment status
+     * (optionally one strand) in a few set-based statements instead of one archiveStudent call each.
+     * The students share a batch id that undoCohortArchive accepts until the undo window closes.
+     */
+    @Transactional
+    public CohortArchiveResult archiveCohort(Long schoolYearId, Integer gradeLevel, String enrollmentStatus, String strand,
+                                             String archiveReason) {
+        if (archiveReason == null || archiveReason.trim().isEmpty()) {
+            throw new RuntimeException("Archive reason is required");
+        }
+        Cohort cohort = toCohort(schoolYearId, gradeLevel, enrollmentStatus, strand);
+        
+        // The move runs as plain SQL: write pending changes first and drop entities that are about to move
+        entityManager.flush();
+        entityManager.clear();
+        
+        LocalDateTime archivedAt = LocalDateTime.now();
+        String batchId = UUID.randomUUID().toString();
+        int archived = studentRepository.moveCohortToArchive(cohort, archiveReason.trim().toUpperCase(), archivedAt, batchId);
+        databaseMaintenance.recordBulkChange(archived);
+        eventPublisher.publishEvent(new StudentsChangedEvent("cohort archived", archived, batchId));
+        
+        CohortArchiveResult result = new CohortArchiveResult();
+        result.setArchivedCount(archived);
+        if (archived > 0) {
+            result.setBatchId(batchId);
+            result.setArchivedAt(archivedAt);
+            result.setUndoUntil(archivedAt.plusHours(undoWindowHours));
+        }
+        System.out.println("✓ Archived " + archived + " students of grade " + cohort.getGradeLevel() + " (" +
+                cohort.getEnrollmentStatus() + ") as " + archiveReason.trim().toUpperCase() +
+                (archived > 0 ? ", batch " + batchId : ""));
+        return result;
+    }
+    
+    /**
+     * Restore the students of a bulk archive that are still in the archive.
+     *
+     * @return number of students restored
+     */
+    @Transactional
+    public int undoCohortArchive(String batchId) {
+        LocalDateTime archivedAt = archivedStudentRepository.findBatchArchivedAt(batchId);
+        if (archivedAt == null) {
+            throw new RuntimeException("Archive batch not found: " + batchId);
+        }
+        if (archivedAt.plusHours(undoWindowHours).isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Archive batch " + batchId + " can no longer be undone; the undo window of " +
+                    undoWindowHours + " hours has passed");
+        }
+        // Names and LRNs are unique among active students; restore nothing rather than part of the batch
+        List<String> conflicts = archivedStudentRepository.findBatchNameConflicts(batchId);
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Cannot undo archive batch: students with these names already exist: " +
+                    String.join(", ", conflicts));
+        }
+        List<String> lrnConflicts = archivedStudentRepository.findBatchLrnConflicts(batchId);
+        if (!lrnConflicts.isEmpty()) {
+            throw new RuntimeException("Cannot undo archive batch: students with these LRNs already exist: " +
+                    String.join(", ", lrnConflicts));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        int restored = studentRepository.restoreArchiveBatch(batchId, LocalDateTime.now());
+        databaseMaintenance.recordBulkChange(restored);
+        eventPublisher.publishEvent(new StudentsChangedEvent("cohort archive undone", restored, batchId));
+        System.out.println("✓ Restored " + restored + " students from archive batch " + batchId);
+        return restored;
+    }
+    
+    private Cohort toCohort(Long schoolYearId, Integer gradeLevel, String enrollmentStatus, String strand) {
+        if (schoolYearId == null) {
+            schoolYearId = schoolYearService.getCurrentSchoolYearEntity().getId();
+        } else if (!schoolYearRepository.existsById(schoolYearId)) {
+            throw new RuntimeException("School year not found with id: " + schoolYearId);
+        }
+        if (gradeLevel == null) {
+            throw new RuntimeException("Grade level is required");
+        }
+        if (enrollmentStatus == null || enrollmentStatus.trim().isEmpty()) {
+            throw new RuntimeException("Enrollment status is required");
+        }
+        String strandFilter = strand != null && !strand.trim().isEmpty() ? strand.trim() : null;
+        return new Cohort(schoolYearId, gradeLevel, enrollmentStatus.trim(), strandFilter);
+    }
+    
     @Transactional(readOnly = true)
     public TransitionPreview getTransitionPreview(Long newSchoolYearId, boolean carryOverEnrolled, boolean carryOverPending) {
         SchoolYear currentSchoolYear;
@@ -178,10 +317,6 @@ public class SchoolYearTransitionService {
                     continue;
                 }
                 
-                if (Boolean.TRUE.equals(student.getIsArchived())) {
-                    continue;
-                }
-                
                 String status = student.getEnrollmentStatus();
                 if (status == null) {
                     status = "";
@@ -224,6 +359,8 @@ public class SchoolYearTransitionService {
         private int pendingCarriedOver;
         private int skipped;
         private int totalCarriedOver;
+        private int graduatesArchived;
+        private String archiveBatchId;
         
         // Getters and Setters
         public int getEnrolledCarriedOver() {
@@ -257,6 +394,61 @@ public class SchoolYearTransitionService {
         public void setTotalCarriedOver(int totalCarriedOver) {
             this.totalCarriedOver = totalCarriedOver;
         }
+        
+        public int getGraduatesArchived() {
+            return graduatesArchived;
+        }
+        
+        public void setGraduatesArchived(int graduatesArchived) {
+            this.graduatesArchived = graduatesArchived;
+        }
+        
+        public String getArchiveBatchId() {
+            return archiveBatchId;
+        }
+        
+        public void setArchiveBatchId(String archiveBatchId) {
+            this.archiveBatchId = archiveBatchId;
+        }
+    }
+    
+    public static class CohortArchiveResult {
+        private int archivedCount;
+        private String batchId;
+        private LocalDateTime archivedAt;
+        private LocalDateTime undoUntil;
+        
+        public int getArchivedCount() {
+            return archivedCount;
+        }
+        
+        public void setArchivedCount(int archivedCount) {
+            this.archivedCount = archivedCount;
+        }
+        
+        public String getBatchId() {
+            return batchId;
+        }
+        
+        public void setBatchId(String batchId) {
+            this.batchId = batchId;
+        }
+        
+        public LocalDateTime getArchivedAt() {
+            return archivedAt;
+        }
+        
+        public void setArchivedAt(LocalDateTime archivedAt) {
+            this.archivedAt = archivedAt;
+        }
+        
+        public LocalDateTime getUndoUntil() {
+            return undoUntil;
+        }
+        
+        public void setUndoUntil(LocalDateTime undoUntil) {
+            this.undoUntil = undoUntil;
+        }
     }
     
     public static class TransitionPreview {
@@ -0,0 +1,525 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.event.StudentsChangedEvent;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Semester;
+import com.enrollment.system.model.Student;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.repository.SemesterRepository;
+import com.enrollment.system.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places students who are waiting for a section (pending, or enrolled without one) into the active
+ * sections of a semester's grade level and a strand, up to each section's capacity.
+ *
+ * The plan is computed in memory: seats already taken are counted with one query, then students are
+ * handed out one by one to the section where they fit best - the emptiest section relative to its
+ * capacity, optionally also keeping each section's male/female split and GWA bands close to those of
+ * the whole group. A pending student who already picked one of the sections keeps it while it has room.
+ * preview() returns the plan as a diff; apply() recomputes it and writes all placements as one
+ * JDBC batch.
+ */
+@Service
+@Timed("enrollment.service")
+public class SectionBalancingService {
+
+    private static final int UPDATE_BATCH_SIZE = 50;
+
+    // DepEd descriptors for the general weighted average
+    private static final String[] GWA_BANDS = {
+            "Outstanding (90-100)", "Very Satisfactory (85-89)", "Satisfactory (80-84)",
+            "Fairly Satisfactory (75-79)", "Did Not Meet Expectations (below 75)", "No GWA"};
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private jakarta.persistence.EntityManager entityManager;
+
+    @Autowired
+    private com.enrollment.system.util.DatabaseMaintenance databaseMaintenance;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public BalancingPlan preview(Long semesterId, String strand, boolean balanceSex, boolean balanceGwa) {
+        return plan(semesterId, strand, balanceSex, balanceGwa).plan;
+    }
+
+    /**
+     * Compute the plan again and enroll every placed student in their planned section.
+     */
+    @Transactional
+    public BalancingPlan apply(Long semesterId, String strand, boolean balanceSex, boolean balanceGwa) {
+        PlanWithStudents planned = plan(semesterId, strand, balanceSex, balanceGwa);
+
+        List<Student> toSave = new ArrayList<>();
+        for (PlannedPlacement placement : planned.plan.getPlacements()) {
+            Student student = planned.studentsById.get(placement.getStudentId());
+            student.setSection(planned.sectionsById.get(placement.getToSectionId()));
+            student.setSemester(planned.semester);
+            student.setSchoolYear(planned.semester.getSchoolYear());
+            student.setEnrollmentStatus("Enrolled");
+            toSave.add(student);
+        }
+
+        // JDBC batching is off globally; turn it on for this session so the updates go out together
+        entityManager.unwrap(org.hibernate.Session.class).setJdbcBatchSize(UPDATE_BATCH_SIZE);
+        studentRepository.saveAll(toSave);
+        databaseMaintenance.recordBulkChange(toSave.size());
+        eventPublisher.publishEvent(new StudentsChangedEvent("section balancing", toSave.size()));
+        planned.plan.setApplied(true);
+        System.out.println("✓ Section balancing placed " + toSave.size() + " student(s) in " + strand +
+                " Grade " + planned.semester.getGradeLevel() + ", " + planned.plan.getUnplaced().size() + " left without a seat");
+        return planned.plan;
+    }
+
+    private PlanWithStudents plan(Long semesterId, String strand, boolean balanceSex, boolean balanceGwa) {
+        if (semesterId == null) {
+            throw new RuntimeException("Semester is required for section balancing.");
+        }
+        if (strand == null || strand.isBlank()) {
+            throw new RuntimeException("Strand is required for section balancing.");
+        }
+        Semester semester = semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new RuntimeException("Semester not found with id: " + semesterId));
+        if (semester.getSchoolYear() == null) {
+            throw new RuntimeException("Semester " + semester.getName() + " does not belong to a school year.");
+        }
+        Integer gradeLevel = semester.getGradeLevel();
+
+        PlanWithStudents result = new PlanWithStudents();
+        result.semester = semester;
+        BalancingPlan plan = result.plan;
+        plan.setSemesterId(semesterId);
+        plan.setGradeLevel(gradeLevel);
+        plan.setStrand(strand);
+
+        // Sections and the seats already taken in them
+        Map<Long, SectionLoad> loads = new LinkedHashMap<>();
+        List<Section> sections = new ArrayList<>(sectionRepository.findByStrandAndGradeLevelAndIsActiveTrue(strand, gradeLevel));
+        sections.sort(Comparator.comparing(Section::getName, Comparator.nullsLast(String::compareToIgnoreCase)));
+        for (Section section : sections) {
+            if (section.getCapacity() == null) {
+                plan.getWarnings().add("Section " + section.getName() +
+                        " does not have a capacity set and was skipped.");
+                continue;
+            }
+            loads.put(section.getId(), new SectionLoad(section));
+            result.sectionsById.put(section.getId(), section);
+        }
+        Shares shares = new Shares();
+        for (Object[] row : studentRepository.findSeatHolders(semesterId, gradeLevel, strand)) {
+            SectionLoad load = loads.get((Long) row[0]);
+            int sex = sexOf((String) row[1]);
+            int band = gwaBand((Double) row[2]);
+            shares.count(sex, band);
+            if (load != null) {
+                load.add(sex, band);
+            }
+        }
+        for (SectionLoad load : loads.values()) {
+            load.before = load.count;
+        }
+
+        List<Student> candidates = studentRepository.findSectionBalancingCandidates(
+                semester.getSchoolYear().getId(), gradeLevel, strand);
+        for (Student student : candidates) {
+            result.studentsById.put(student.getId(), student);
+            shares.count(sexOf(student.getSex()), gwaBand(student.getGwa()));
+        }
+        shares.normalize();
+
+        // Students keeping a section they already picked go first, then stratum by stratum so each band
+        // and sex is spread across the sections
+        List<Student> ordered = new ArrayList<>(candidates);
+        ordered.sort(Comparator
+                .comparing((Student s) -> s.getSection() == null || !loads.containsKey(s.getSection().getId()))
+                .thenComparingInt(s -> balanceGwa ? gwaBand(s.getGwa()) : 0)
+                .thenComparingInt(s -> balanceSex ? sexOf(s.getSex()) : 0));
+
+        for (Student student : ordered) {
+            int sex = sexOf(student.getSex());
+            int band = gwaBand(student.getGwa());
+
+            SectionLoad best = null;
+            SectionLoad current = student.getSection() != null ? loads.get(student.getSection().getId()) : null;
+            if (current != null && current.hasRoom()) {
+                best = current;
+            } else {
+                double bestCost = Double.MAX_VALUE;
+                for (SectionLoad load : loads.values()) {
+                    if (!load.hasRoom()) {
+                        continue;
+                    }
+                    double cost = load.cost(sex, band, shares, balanceSex, balanceGwa);
+                    if (cost < bestCost) {
+                        best = load;
+                        bestCost = cost;
+                    }
+                }
+            }
+
+            PlannedPlacement placement = new PlannedPlacement(student, best != null ? best.section : null);
+            if (best == null) {
+                plan.getUnplaced().add(placement);
+            } else {
+                best.add(sex, band);
+                plan.getPlacements().add(placement);
+            }
+        }
+
+        for (SectionLoad load : loads.values()) {
+            plan.getSections().add(load.summary());
+        }
+        return result;
+    }
+
+    private static int gwaBand(Double gwa) {
+        if (gwa == null) {
+            return 5;
+        }
+        if (gwa >= 90) {
+            return 0;
+        }
+        if (gwa >= 85) {
+            return 1;
+        }
+        if (gwa >= 80) {
+            return 2;
+        }
+        if (gwa >= 75) {
+            return 3;
+        }
+        return 4;
+    }
+
+    // 0 = male, 1 = female, 2 = not recorded
+    private static int sexOf(String sex) {
+        if (sex == null || sex.isBlank()) {
+            return 2;
+        }
+        char first = Character.toUpperCase(sex.trim().charAt(0));
+        return first == 'M' ? 0 : first == 'F' ? 1 : 2;
+    }
+
+    private static class PlanWithStudents {
+        final BalancingPlan plan = new BalancingPlan();
+        final Map<Long, Student> studentsById = new HashMap<>();
+        final Map<Long, Section> sectionsById = new HashMap<>();
+        Semester semester;
+    }
+
+    // Fraction of the whole group (seat holders and candidates) of each sex and GWA band
+    private static class Shares {
+        final double[] sex = new double[3];
+        final double[] band = new double[GWA_BANDS.length];
+        int total;
+
+        void count(int sexIndex, int bandIndex) {
+            sex[sexIndex]++;
+            band[bandIndex]++;
+            total++;
+        }
+
+        void normalize() {
+            for (int i = 0; i < sex.length; i++) {
+                sex[i] = total > 0 ? sex[i] / total : 0;
+            }
+            for (int i = 0; i < band.length; i++) {
+                band[i] = total > 0 ? band[i] / total : 0;
+            }
+        }
+    }
+
+    private static class SectionLoad {
+        final Section section;
+        final int capacity;
+        final int[] sexCounts = new int[3];
+        final int[] bandCounts = new int[GWA_BANDS.length];
+        int count;
+        int before;
+
+        SectionLoad(Section section) {
+            this.section = section;
+            this.capacity = section.getCapacity();
+        }
+
+        boolean hasRoom() {
+            return count < capacity;
+        }
+
+        void add(int sex, int band) {
+            count++;
+            sexCounts[sex]++;
+            bandCounts[band]++;
+        }
+
+        // Lower is better; every term is relative to the capacity so sections of different sizes compare fairly
+        double cost(int sex, int band, Shares shares, boolean balanceSex, boolean balanceGwa) {
+            double cost = (count + 1) / (double) capacity;
+            if (balanceSex) {
+                cost += Math.abs(sexCounts[sex] + 1 - shares.sex[sex] * (count + 1)) / capacity;
+            }
+            if (balanceGwa) {
+                cost += Math.abs(bandCounts[band] + 1 - shares.band[band] * (count + 1)) / capacity;
+            }
+            return cost;
+        }
+
+        SectionSummary summary() {
+            SectionSummary summary = new SectionSummary();
+            summary.setSectionId(section.getId());
+            summary.setSectionName(section.getName());
+            summary.setCapacity(capacity);
+            summary.setBefore(before);
+            summary.setAfter(count);
+            summary.setMale(sexCounts[0]);
+            summary.setFemale(sexCounts[1]);
+            for (int band = 0; band < GWA_BANDS.length; band++) {
+                if (bandCounts[band] > 0) {
+                    summary.getGwaBands().put(GWA_BANDS[band], bandCounts[band]);
+                }
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Planned section placements for one semester and strand
+     */
+    public static class BalancingPlan {
+        private Long semesterId;
+        private Integer gradeLevel;
+        private String strand;
+        private List<PlannedPlacement> placements = new ArrayList<>();
+        private List<PlannedPlacement> unplaced = new ArrayList<>();
+        private List<SectionSummary> sections = new ArrayList<>();
+        private List<String> warnings = new ArrayList<>();
+        private boolean applied;
+
+        public Long getSemesterId() {
+            return semesterId;
+        }
+
+        public void setSemesterId(Long semesterId) {
+            this.semesterId = semesterId;
+        }
+
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+
+        public void setGradeLevel(Integer gradeLevel) {
+            this.gradeLevel = gradeLevel;
+        }
+
+        public String getStrand() {
+            return strand;
+        }
+
+        public void setStrand(String strand) {
+            this.strand = strand;
+        }
+
+        public List<PlannedPlacement> getPlacements() {
+            return placements;
+        }
+
+        public void setPlacements(List<PlannedPlacement> placements) {
+            this.placements = placements;
+        }
+
+        public List<PlannedPlacement> getUnplaced() {
+            return unplaced;
+        }
+
+        public void setUnplaced(List<PlannedPlacement> unplaced) {
+            this.unplaced = unplaced;
+        }
+
+        public List<SectionSummary> getSections() {
+            return sections;
+        }
+
+        public void setSections(List<SectionSummary> sections) {
+            this.sections = sections;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+
+        public void setWarnings(List<String> warnings) {
+            this.warnings = warnings;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+
+        public void setApplied(boolean applied) {
+            this.applied = applied;
+        }
+    }
+
+    /**
+     * One student's current section and status next to the planned section (null when no seat was left)
+     */
+    public static class PlannedPlacement {
+        private final Long studentId;
+        private final String studentName;
+        private final String sex;
+        private final Double gwa;
+        private final String fromStatus;
+        private final Long fromSectionId;
+        private final String fromSectionName;
+        private final Long toSectionId;
+        private final String toSectionName;
+
+        PlannedPlacement(Student student, Section to) {
+            this.studentId = student.getId();
+            this.studentName = student.getName();
+            this.sex = student.getSex();
+            this.gwa = student.getGwa();
+            this.fromStatus = student.getEnrollmentStatus();
+            this.fromSectionId = student.getSection() != null ? student.getSection().getId() : null;
+            this.fromSectionName = student.getSection() != null ? student.getSection().getName() : null;
+            this.toSectionId = to != null ? to.getId() : null;
+            this.toSectionName = to != null ? to.getName() : null;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public String getStudentName() {
+            return studentName;
+        }
+
+        public String getSex() {
+            return sex;
+        }
+
+        public Double getGwa() {
+            return gwa;
+        }
+
+        public String getFromStatus() {
+            return fromStatus;
+        }
+
+        public Long getFromSectionId() {
+            return fromSectionId;
+        }
+
+        public String getFromSectionName() {
+            return fromSectionName;
+        }
+
+        public Long getToSectionId() {
+            return toSectionId;
+        }
+
+        public String getToSectionName() {
+            return toSectionName;
+        }
+    }
+
+    /**
+     * Seats of one section before and after the plan
+     */
+    public static class SectionSummary {
+        private Long sectionId;
+        private String sectionName;
+        private int capacity;
+        private int before;
+        private int after;
+        private int male;
+        private int female;
+        private Map<String, Integer> gwaBands = new LinkedHashMap<>();
+
+        public Long getSectionId() {
+            return sectionId;
+        }
+
+        public void setSectionId(Long sectionId) {
+            this.sectionId = sectionId;
+        }
+
+        public String getSectionName() {
+            return sectionName;
+        }
+
+        public void setSectionName(String sectionName) {
+            this.sectionName = sectionName;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBefore() {
+            return before;
+        }
+
+        public void setBefore(int before) {
+            this.before = before;
+        }
+
+        public int getAfter() {
+            return after;
+        }
+
+        public void setAfter(int after) {
+            this.after = after;
+        }
+
+        public int getMale() {
+            return male;
+        }
+
+        public void setMale(int male) {
+            this.male = male;
+        }
+
+        public int getFemale() {
+            return female;
+        }
+
+        public void setFemale(int female) {
+            this.female = female;
+        }
+
+        public Map<String, Integer> getGwaBands() {
+            return gwaBands;
+        }
+
+        public void setGwaBands(Map<String, Integer> gwaBands) {
+            this.gwaBands = gwaBands;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.enrollment.system.service;
 
+import com.enrollment.system.event.SectionCapacityChangedEvent;
 import com.enrollment.system.model.Section;
-import com.enrollment.system.model.Student;
 import com.enrollment.system.repository.SectionRepository;
 import com.enrollment.system.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("enrollment.service")
 public class SectionService {
     
     @Autowired
@@ -20,6 +23,9 @@ public class SectionService {
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Section> getAllSections() {
         return sectionRepository.findAll();
     }
@@ -50,7 +56,12 @@ public class SectionService {
     
     @Transactional
     public Section saveSection(Section section) {
-        return sectionRepository.save(section);
+        Integer previousCapacity = section.getId() != null
+                ? sectionRepository.findById(section.getId()).map(Section::getCapacity).orElse(null)
+                : null;
+        Section saved = sectionRepository.save(section);
+        publishCapacityChange(saved, previousCapacity);
+        return saved;
     }
     
     @Transactional
@@ -69,7 +80,9 @@ public class SectionService {
         if (capacity != null) {
             section.setCapacity(capacity);
         }
-        return sectionRepository.save(section);
+        Section saved = sectionRepository.save(section);
+        publishCapacityChange(saved, null);
+        return saved;
     }
     
     @Transactional
@@ -77,32 +90,19 @@ public class SectionService {
         Section section = sectionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Section not found with id: " + id));
         
-        // Check if there are enrolled students in this section
-        List<Student> enrolledStudents = studentRepository.findAll().stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    if (!"Enrolled".equals(student.getEnrollmentStatus())) {
-                        return false;
-                    }
-                    if (student.getSection() == null) {
-                        return false;
-                    }
-                    return student.getSection().getId().equals(id);
-                })
-                .toList();
+        // Check if there are enrolled students in this section (counted on idx_students_section_status)
+        long enrolledStudents = studentRepository.countBySectionIdAndEnrolled(id);
         
-        if (!enrolledStudents.isEmpty()) {
+        if (enrolledStudents > 0) {
             throw new IllegalStateException("Cannot delete section " + section.getName() + 
-                    " because it has " + enrolledStudents.size() + " enrolled student(s). " +
+                    " because it has " + enrolledStudents + " enrolled student(s). " +
                     "Please reassign or archive these students first.");
         }
         
         // Soft delete by setting isActive to false
         section.setIsActive(false);
         sectionRepository.save(section);
+        publishCapacityChange(section, section.getCapacity());
     }
     
     @Transactional
@@ -116,6 +116,7 @@ public class SectionService {
             throw new IllegalArgumentException("Section " + name + " already exists for " + strand + " Grade " + gradeLevel);
         }
         
+        Integer previousCapacity = section.getCapacity();
         section.setName(name);
         section.setStrand(strand);
         section.setGradeLevel(gradeLevel);
@@ -123,7 +124,9 @@ public class SectionService {
             section.setCapacity(capacity);
         }
         
-        return sectionRepository.save(section);
+        Section saved = sectionRepository.save(section);
+        publishCapacityChange(saved, previousCapacity);
+        return saved;
     }
     
     @Transactional
@@ -132,6 +135,7 @@ public class SectionService {
                 .orElseThrow(() -> new IllegalArgumentException("Section not found with id: " + id));
         section.setIsActive(true);
         sectionRepository.save(section);
+        publishCapacityChange(section, section.getCapacity());
     }
     
     @Transactional
@@ -139,31 +143,25 @@ public class SectionService {
         Section section = sectionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Section not found with id: " + id));
         
-        // Check if there are enrolled students in this section
-        List<Student> enrolledStudents = studentRepository.findAll().stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    if (!"Enrolled".equals(student.getEnrollmentStatus())) {
-                        return false;
-                    }
-                    if (student.getSection() == null) {
-                        return false;
-                    }
-                    return student.getSection().getId().equals(id);
-                })
-                .toList();
+        // Check if there are enrolled students in this section (counted on idx_students_section_status)
+        long enrolledStudents = studentRepository.countBySectionIdAndEnrolled(id);
         
-        if (!enrolledStudents.isEmpty()) {
+        if (enrolledStudents > 0) {
             throw new IllegalStateException("Cannot delete permanently section " + section.getName() + 
-                    " because it has " + enrolledStudents.size() + " enrolled student(s). " +
+                    " because it has " + enrolledStudents + " enrolled student(s). " +
                     "Please reassign or archive these students first.");
         }
         
         // Permanent delete - actually remove from database
         sectionRepository.delete(section);
+        eventPublisher.publishEvent(new SectionCapacityChangedEvent(section.getId(), section.getName(),
+                section.getCapacity(), null, false));
+    }
+    
+    // Views get the change once the transaction commits
+    private void publishCapacityChange(Section section, Integer previousCapacity) {
+        eventPublisher.publishEvent(new SectionCapacityChangedEvent(section.getId(), section.getName(),
+                previousCapacity, section.getCapacity(), !Boolean.FALSE.equals(section.getIsActive())));
     }
     
     /**
@@ -69,36 +69,17 @@ public class StrandService {
         Strand strand = strandRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Strand not found with id: " + id));
         
-        // Check if there are enrolled students in this strand - use the same normalization logic
         String strandName = strand.getName();
         if (strandName == null || strandName.trim().isEmpty()) {
             throw new IllegalArgumentException("Strand name is null or empty");
         }
-        String normalizedStrandName = strandName.toUpperCase().replaceAll("\\s+", " ").trim();
         
-        List<Student> enrolledStudents = studentRepository.findAll().stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    String enrollmentStatus = student.getEnrollmentStatus();
-                    if (enrollmentStatus == null || !"Enrolled".equals(enrollmentStatus.trim())) {
-                        return false;
-                    }
-                    String studentStrand = student.getStrand();
-                    if (studentStrand == null || studentStrand.trim().isEmpty()) {
-                        return false;
-                    }
-                    // Normalize and compare
-                    String normalizedStudentStrand = studentStrand.toUpperCase().replaceAll("\\s+", " ").trim();
-                    return normalizedStudentStrand.equals(normalizedStrandName);
-                })
-                .toList();
+        // Check if there are enrolled students in this strand
+        long enrolledStudents = countEnrolledStudents(strandName);
         
-        if (!enrolledStudents.isEmpty()) {
+        if (enrolledStudents > 0) {
             throw new IllegalStateException("Cannot delete strand " + strand.getName() + 
-                    " because it has " + enrolledStudents.size() + " enrolled student(s). " +
+                    " because it has " + enrolledStudents + " enrolled student(s). " +
                     "Please reassign or archive these students first.");
         }
         
@@ -109,60 +90,37 @@ public class StrandService {
     
     @Transactional(readOnly = true)
     public boolean hasActiveStudents(String strandName) {
-        if (strandName == null || strandName.trim().isEmpty()) {
-            return false;
+        return countEnrolledStudents(strandName) > 0;
+    }
+    
+    /**
+     * Number of enrolled, non-archived students whose strand matches strandName ignoring case and
+     * surrounding spaces. Counted on the idx_students_strand_upper expression index.
+     */
+    @Transactional(readOnly = true)
+    public long countEnrolledStudents(String strandName) {
+        String normalizedStrandName = normalize(strandName);
+        if (normalizedStrandName == null) {
+            return 0;
         }
-        String trimmedStrandName = strandName.trim();
-        // Normalize the strand name for comparison (remove extra spaces, convert to uppercase for comparison)
-        String normalizedStrandName = trimmedStrandName.toUpperCase().replaceAll("\\s+", " ").trim();
-        
-        return studentRepository.findAll().stream()
-                .anyMatch(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    String enrollmentStatus = student.getEnrollmentStatus();
-                    if (enrollmentStatus == null || !"Enrolled".equals(enrollmentStatus.trim())) {
-                        return false;
-                    }
-                    String studentStrand = student.getStrand();
-                    if (studentStrand == null || studentStrand.trim().isEmpty()) {
-                        return false;
-                    }
-                    // Normalize student strand for comparison
-                    String normalizedStudentStrand = studentStrand.toUpperCase().replaceAll("\\s+", " ").trim();
-                    // Use normalized comparison
-                    return normalizedStudentStrand.equals(normalizedStrandName);
-                });
+        return studentRepository.countEnrolledByNormalizedStrand(normalizedStrandName);
     }
     
     @Transactional(readOnly = true)
     public java.util.List<Student> getEnrolledStudentsByStrand(String strandName) {
-        if (strandName == null || strandName.trim().isEmpty()) {
+        String normalizedStrandName = normalize(strandName);
+        if (normalizedStrandName == null) {
             return java.util.Collections.emptyList();
         }
-        String trimmedStrandName = strandName.trim();
-        String normalizedStrandName = trimmedStrandName.toUpperCase().replaceAll("\\s+", " ").trim();
-        
-        return studentRepository.findAll().stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    String enrollmentStatus = student.getEnrollmentStatus();
-                    if (enrollmentStatus == null || !"Enrolled".equals(enrollmentStatus.trim())) {
-                        return false;
-                    }
-                    String studentStrand = student.getStrand();
-                    if (studentStrand == null || studentStrand.trim().isEmpty()) {
-                        return false;
-                    }
-                    String normalizedStudentStrand = studentStrand.toUpperCase().replaceAll("\\s+", " ").trim();
-                    return normalizedStudentStrand.equals(normalizedStrandName);
-                })
-                .collect(java.util.stream.Collectors.toList());
+        return studentRepository.findEnrolledByNormalizedStrand(normalizedStrandName);
+    }
+    
+    // Same form as UPPER(TRIM(strand)) in the student queries
+    private static String normalize(String strandName) {
+        if (strandName == null || strandName.trim().isEmpty()) {
+            return null;
+        }
+        return strandName.trim().toUpperCase();
     }
     
     @Transactional
@@ -178,36 +136,17 @@ public class StrandService {
         Strand strand = strandRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Strand not found with id: " + id));
         
-        // Check if there are enrolled students in this strand - use the same normalization logic
         String strandName = strand.getName();
         if (strandName == null || strandName.trim().isEmpty()) {
             throw new IllegalArgumentException("Strand name is null or empty");
         }
-        String normalizedStrandName = strandName.toUpperCase().replaceAll("\\s+", " ").trim();
         
-        List<Student> enrolledStudents = studentRepository.findAll().stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    if (archived != null && archived) {
-                        return false;
-                    }
-                    String enrollmentStatus = student.getEnrollmentStatus();
-                    if (enrollmentStatus == null || !"Enrolled".equals(enrollmentStatus.trim())) {
-                        return false;
-                    }
-                    String studentStrand = student.getStrand();
-                    if (studentStrand == null || studentStrand.trim().isEmpty()) {
-                        return false;
-                    }
-                    // Normalize and compare
-                    String normalizedStudentStrand = studentStrand.toUpperCase().replaceAll("\\s+", " ").trim();
-                    return normalizedStudentStrand.equals(normalizedStrandName);
-                })
-                .toList();
+        // Check if there are enrolled students in this strand
+        long enrolledStudents = countEnrolledStudents(strandName);
         
-        if (!enrolledStudents.isEmpty()) {
+        if (enrolledStudents > 0) {
             throw new IllegalStateException("Cannot delete permanently strand " + strand.getName() + 
-                    " because it has " + enrolledStudents.size() + " enrolled student(s). " +
+                    " because it has " + enrolledStudents + " enrolled student(s). " +
                     "Please reassign or archive these students first.");
         }
         
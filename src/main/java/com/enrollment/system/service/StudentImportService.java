@@ -0,0 +1,1022 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.event.StudentsChangedEvent;
+import com.enrollment.system.model.SchoolYear;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Semester;
+import com.enrollment.system.model.Strand;
+import com.enrollment.system.model.Student;
+import com.enrollment.system.repository.SchoolYearRepository;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.repository.SemesterRepository;
+import com.enrollment.system.repository.StrandRepository;
+import com.enrollment.system.repository.StudentRepository;
+import com.enrollment.system.util.DatabaseMaintenance;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of new students from an Excel (.xlsx) or CSV file, e.g. the LIS / SF1 lists
+ * junior high schools send.
+ *
+ * The file is read as a stream (POI's SAX-based sheet reader for Excel), so memory stays flat
+ * however many rows it has. The first row that names at least a name and an LRN column is the
+ * header; title rows above it are skipped. Rows are processed in batches:
+ *
+ *  1. every row of the batch is parsed and checked on its own, in parallel (contact number
+ *     format, strand, and the StudentValidator field and section rules saveStudent applies);
+ *  2. names and LRNs of the batch are checked against active and archived students through
+ *     StudentValidator, one query per table, and against the rows accepted earlier in the file;
+ *  3. section capacity is counted down in file order, starting from the enrolled count per
+ *     section and semester that saveStudent checks;
+ *  4. the accepted rows are inserted in one transaction with JDBC batching.
+ *
+ * Rejected rows go to a CSV error report (row number, LRN, name, reasons) that can be downloaded
+ * afterwards. A dry run does everything except the inserts.
+ */
+@Service
+@Timed("enrollment.service")
+public class StudentImportService {
+
+    private static final int INSERT_BATCH_SIZE = 50;
+    // Title rows allowed above the header row (SF1 forms have a few)
+    private static final int MAX_ROWS_BEFORE_HEADER = 20;
+    private static final long REPORT_RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+
+    private static final Pattern PHONE_NUMBER = Pattern.compile("09\\d{9}");
+    private static final Pattern GRADE_LEVEL = Pattern.compile("\\D*(11|12)\\D*");
+    private static final Pattern IMPORT_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("M-d-yyyy"),
+            DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH));
+
+    /**
+     * Columns the importer understands, with the header names (lower case, letters and digits only)
+     * that map to them. A header that only starts with a prefix alias also matches, so
+     * "BIRTH DATE (mm/dd/yyyy)" is a birthdate and "NAME (Last Name, First Name, Middle Name)" a name.
+     */
+    enum Column {
+        LRN(List.of("lrn", "learnerreferencenumber", "learnerreferenceno"), List.of("lrn")),
+        NAME(List.of("name", "fullname", "studentname", "learnername", "learnersname"), List.of("name", "learnersname")),
+        LAST_NAME(List.of("lastname", "surname", "familyname"), List.of()),
+        FIRST_NAME(List.of("firstname", "givenname"), List.of()),
+        MIDDLE_NAME(List.of("middlename"), List.of()),
+        NAME_EXTENSION(List.of("nameextension", "extensionname", "extension", "suffix"), List.of()),
+        SEX(List.of("sex", "gender"), List.of("sex")),
+        BIRTHDATE(List.of("birthdate", "dateofbirth", "birthday"), List.of("birthdate", "dateofbirth")),
+        AGE(List.of("age"), List.of()),
+        ADDRESS(List.of("address", "completeaddress", "homeaddress"), List.of("address")),
+        CONTACT_NUMBER(List.of("contactnumber", "contactno", "mobilenumber", "mobileno", "cellphonenumber"), List.of()),
+        PARENT_GUARDIAN_NAME(List.of("parentguardianname", "guardianname", "parentname", "nameofparentguardian", "guardian"), List.of()),
+        PARENT_GUARDIAN_CONTACT(List.of("parentguardiancontact", "parentguardiancontactnumber", "guardiancontact", "guardiancontactnumber", "parentcontact", "parentcontactnumber"), List.of()),
+        PARENT_GUARDIAN_RELATIONSHIP(List.of("relationship", "parentguardianrelationship", "relationshiptolearner"), List.of()),
+        GRADE_LEVEL(List.of("gradelevel", "grade"), List.of()),
+        STRAND(List.of("strand", "track", "trackstrand"), List.of()),
+        SECTION(List.of("section"), List.of()),
+        PREVIOUS_SCHOOL(List.of("previousschool", "lastschoolattended", "schoollastattended", "juniorhighschool"), List.of()),
+        GWA(List.of("gwa", "generalaverage", "generalweightedaverage", "finalgrade"), List.of()),
+        ENROLLMENT_STATUS(List.of("enrollmentstatus", "status"), List.of());
+
+        private final List<String> aliases;
+        private final List<String> prefixes;
+
+        Column(List<String> aliases, List<String> prefixes) {
+            this.aliases = aliases;
+            this.prefixes = prefixes;
+        }
+
+        static Column forHeader(String header) {
+            String key = header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            if (key.isEmpty()) {
+                return null;
+            }
+            for (Column column : values()) {
+                if (column.aliases.contains(key)) {
+                    return column;
+                }
+            }
+            for (Column column : values()) {
+                for (String prefix : column.prefixes) {
+                    if (key.startsWith(prefix)) {
+                        return column;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentValidator studentValidator;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private StrandRepository strandRepository;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private SchoolYearRepository schoolYearRepository;
+
+    @Autowired
+    private SchoolYearService schoolYearService;
+
+    @Autowired
+    private SectionService sectionService;
+
+    @Autowired
+    private DatabaseMaintenance databaseMaintenance;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${enrollment.import.batch-size:200}")
+    private int batchSize;
+
+    @Value("${enrollment.import.report-directory:imports}")
+    private String reportDirectory;
+
+    private final ReentrantLock importLock = new ReentrantLock();
+
+    /**
+     * Import the students in an .xlsx or .csv file.
+     *
+     * @param schoolYearId   school year of the new students; null for the current one
+     * @param semesterNumber semester (1 or 2) that enrolled students are enrolled in
+     * @param dryRun         validate only, insert nothing
+     * @throws RuntimeException for an unsupported file, a file without a recognizable header, or
+     *                          when another import is running
+     */
+    public ImportResult importStudents(InputStream input, String fileName, Long schoolYearId, int semesterNumber,
+                                       boolean dryRun) throws IOException {
+        String lowerName = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        boolean excel = lowerName.endsWith(".xlsx");
+        if (!excel && !lowerName.endsWith(".csv")) {
+            throw new RuntimeException("Unsupported file type. Please use an Excel workbook (.xlsx) or a CSV file (.csv).");
+        }
+        if (semesterNumber != 1 && semesterNumber != 2) {
+            throw new RuntimeException("Semester must be 1 or 2.");
+        }
+        if (!importLock.tryLock()) {
+            throw new RuntimeException("Another student import is running. Please wait for it to finish.");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            ImportContext context = loadContext(schoolYearId, semesterNumber);
+            ImportResult result = new ImportResult();
+            result.setImportId(UUID.randomUUID().toString());
+            result.setFileName(fileName);
+            result.setDryRun(dryRun);
+
+            Path directory = Paths.get(reportDirectory);
+            Files.createDirectories(directory);
+            deleteOldReports(directory);
+            Path report = directory.resolve(result.getImportId() + "-errors.csv");
+            try (BufferedWriter reportWriter = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                reportWriter.write("﻿Row,LRN,Name,Errors\r\n");
+                RowCollector collector = new RowCollector(context, result, reportWriter, dryRun);
+                if (excel) {
+                    readWorkbook(input, collector);
+                } else {
+                    readCsv(input, collector);
+                }
+                collector.finish();
+            } catch (RuntimeException | IOException e) {
+                Files.deleteIfExists(report);
+                throw e;
+            }
+            if (result.getFailed() > 0) {
+                result.setErrorReportAvailable(true);
+            } else {
+                Files.deleteIfExists(report);
+            }
+            if (!dryRun && result.getImported() > 0) {
+                databaseMaintenance.recordBulkChange(result.getImported());
+                eventPublisher.publishEvent(new StudentsChangedEvent("import", result.getImported()));
+            }
+            result.setDurationMs(System.currentTimeMillis() - started);
+            System.out.println("✓ Student import of " + fileName + (dryRun ? " (dry run)" : "") + ": " + result.getTotalRows() +
+                    " row(s), " + result.getImported() + " valid" + (dryRun ? "" : " and imported") + ", " +
+                    result.getFailed() + " rejected in " + result.getDurationMs() + " ms");
+            return result;
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    /**
+     * The CSV error report of an import, or null when there is none (no rejected rows, or expired).
+     */
+    public Path getErrorReport(String importId) {
+        if (importId == null || !IMPORT_ID.matcher(importId).matches()) {
+            return null;
+        }
+        Path report = Paths.get(reportDirectory, importId + "-errors.csv");
+        return Files.isRegularFile(report) ? report : null;
+    }
+
+    // ---- Reading -----------------------------------------------------------------------------
+
+    private void readWorkbook(InputStream input, RowCollector collector) throws IOException {
+        // OPCPackage needs random access to the zip; a temporary copy avoids holding it in memory
+        Path copy = Files.createTempFile("student-import-", ".xlsx");
+        try {
+            Files.copy(input, copy, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage workbook = OPCPackage.open(copy.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(workbook);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new RuntimeException("The workbook has no sheets.");
+                }
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(workbook);
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                            new SheetRowHandler(collector), new ImportDataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read the Excel file: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static void readCsv(InputStream input, RowCollector collector) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '﻿') {
+            reader.reset();
+        }
+        // Excel saves CSV with semicolons in locales that use a decimal comma
+        reader.mark(64 * 1024);
+        String firstLine = reader.readLine();
+        reader.reset();
+        char delimiter = firstLine != null && count(firstLine, ';') > count(firstLine, ',') ? ';' : ',';
+
+        CsvReader csv = new CsvReader(reader, delimiter);
+        List<String> cells;
+        int rowNumber = 0;
+        while ((cells = csv.next()) != null) {
+            collector.row(++rowNumber, cells);
+        }
+    }
+
+    private static int count(String text, char c) {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Receives the rows of the file one at a time: finds the header, then fills batches and
+     * processes each as soon as it is full.
+     */
+    private class RowCollector {
+        private final ImportContext context;
+        private final ImportResult result;
+        private final BufferedWriter reportWriter;
+        private final boolean dryRun;
+        private Map<Integer, Column> columns;
+        private int rowsBeforeHeader;
+        private List<ImportRow> batch = new ArrayList<>();
+        // Lower-case names and LRNs of the rows accepted so far -> their row number
+        private final Map<String, Integer> acceptedNames = new HashMap<>();
+        private final Map<String, Integer> acceptedLrns = new HashMap<>();
+
+        RowCollector(ImportContext context, ImportResult result, BufferedWriter reportWriter, boolean dryRun) {
+            this.context = context;
+            this.result = result;
+            this.reportWriter = reportWriter;
+            this.dryRun = dryRun;
+        }
+
+        void row(int rowNumber, List<String> cells) throws IOException {
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return;
+            }
+            if (columns == null) {
+                findHeader(cells);
+                return;
+            }
+            Map<Column, String> values = new EnumMap<>(Column.class);
+            for (Map.Entry<Integer, Column> column : columns.entrySet()) {
+                String value = column.getKey() < cells.size() ? cells.get(column.getKey()) : null;
+                if (value != null && !value.isBlank()) {
+                    values.putIfAbsent(column.getValue(), value.trim());
+                }
+            }
+            batch.add(new ImportRow(rowNumber, values));
+            if (batch.size() >= batchSize) {
+                processBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        void finish() throws IOException {
+            if (columns == null) {
+                throw new RuntimeException("No header row found. The first rows must include column headers such as Name, LRN, Grade Level and Strand.");
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        private void findHeader(List<String> cells) {
+            Map<Integer, Column> found = new LinkedHashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                Column column = cells.get(i) != null ? Column.forHeader(cells.get(i)) : null;
+                if (column != null && !found.containsValue(column)) {
+                    found.put(i, column);
+                }
+            }
+            boolean hasName = found.containsValue(Column.NAME)
+                    || (found.containsValue(Column.LAST_NAME) && found.containsValue(Column.FIRST_NAME));
+            if (hasName && found.containsValue(Column.LRN)) {
+                List<String> missing = new ArrayList<>();
+                if (!found.containsValue(Column.GRADE_LEVEL)) {
+                    missing.add("Grade Level");
+                }
+                if (!found.containsValue(Column.STRAND)) {
+                    missing.add("Strand");
+                }
+                if (!missing.isEmpty()) {
+                    throw new RuntimeException("Missing column(s): " + String.join(", ", missing));
+                }
+                columns = found;
+            } else if (++rowsBeforeHeader > MAX_ROWS_BEFORE_HEADER) {
+                throw new RuntimeException("No header row found in the first " + MAX_ROWS_BEFORE_HEADER +
+                        " rows. The header must include at least Name (or Last Name and First Name) and LRN columns.");
+            }
+        }
+
+        private void processBatch(List<ImportRow> rows) throws IOException {
+            result.setTotalRows(result.getTotalRows() + rows.size());
+
+            // 1. Row-by-row checks, independent of each other
+            rows.parallelStream().forEach(row -> parseRow(row, context));
+
+            // 2. One query per table for names and LRNs already on record, active or archived
+            Set<String> names = rows.stream().filter(ImportRow::isValid)
+                    .map(row -> row.student.getName()).collect(Collectors.toSet());
+            Set<String> lrns = rows.stream().filter(ImportRow::isValid)
+                    .map(row -> row.student.getLrn()).collect(Collectors.toSet());
+            Map<String, String> takenNames = studentValidator.findNameConflicts(names);
+            Map<String, String> takenLrns = studentValidator.findLrnConflicts(lrns);
+
+            // 3. In file order: duplicates within the file and section capacity
+            List<ImportRow> accepted = new ArrayList<>();
+            for (ImportRow row : rows) {
+                if (!row.isValid()) {
+                    continue;
+                }
+                StudentDto student = row.student;
+                String lowerName = student.getName().toLowerCase();
+                if (takenNames.containsKey(lowerName)) {
+                    row.errors.add(takenNames.get(lowerName));
+                } else if (acceptedNames.containsKey(lowerName)) {
+                    row.errors.add("Same name as row " + acceptedNames.get(lowerName) + ".");
+                }
+                if (takenLrns.containsKey(student.getLrn())) {
+                    row.errors.add(takenLrns.get(student.getLrn()));
+                } else if (acceptedLrns.containsKey(student.getLrn())) {
+                    row.errors.add("Same LRN as row " + acceptedLrns.get(student.getLrn()) + ".");
+                }
+                if (row.isValid() && student.getSectionId() != null) {
+                    takeSeat(row);
+                }
+                if (row.isValid()) {
+                    acceptedNames.put(lowerName, row.rowNumber);
+                    acceptedLrns.put(student.getLrn(), row.rowNumber);
+                    accepted.add(row);
+                }
+            }
+
+            // 4. Insert
+            if (!dryRun && !accepted.isEmpty()) {
+                try {
+                    insert(accepted, context);
+                } catch (RuntimeException e) {
+                    Throwable cause = e;
+                    while (cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    String message = cause.getMessage();
+                    for (ImportRow row : accepted) {
+                        row.errors.add("Could not be saved: " + message);
+                        if (row.student.getSectionId() != null) {
+                            context.remainingSeats.merge(row.student.getSectionId(), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+
+            for (ImportRow row : rows) {
+                if (row.isValid()) {
+                    result.setImported(result.getImported() + 1);
+                } else {
+                    result.setFailed(result.getFailed() + 1);
+                    writeError(row);
+                }
+            }
+        }
+
+        private void takeSeat(ImportRow row) {
+            Long sectionId = row.student.getSectionId();
+            Integer remaining = context.remainingSeats.get(sectionId);
+            if (remaining == null) {
+                Section section = context.sectionsById.get(sectionId);
+                if (section.getCapacity() == null) {
+                    row.errors.add("Section " + section.getName() + " does not have a capacity set. Please set a capacity for this section before enrolling students.");
+                    return;
+                }
+                long enrolled = sectionService.getCurrentStudentCount(sectionId, row.student.getSemesterId(),
+                        section.getGradeLevel(), section.getStrand());
+                remaining = (int) Math.max(0, section.getCapacity() - enrolled);
+            }
+            if (remaining <= 0) {
+                row.errors.add("This section is full. Maximum capacity reached.");
+            } else {
+                remaining--;
+            }
+            context.remainingSeats.put(sectionId, remaining);
+        }
+
+        private void writeError(ImportRow row) throws IOException {
+            reportWriter.write(row.rowNumber + "," + csv(row.values.get(Column.LRN)) + "," +
+                    csv(row.student != null && row.student.getName() != null ? row.student.getName() : row.values.get(Column.NAME)) + "," +
+                    csv(String.join(" ", row.errors)) + "\r\n");
+        }
+    }
+
+    // ---- Validation --------------------------------------------------------------------------
+
+    /**
+     * Checks a row on its own and fills row.student. Safe to run for several rows at once: it only
+     * reads the context.
+     */
+    private static void parseRow(ImportRow row, ImportContext context) {
+        Map<Column, String> values = row.values;
+        List<String> errors = row.errors;
+        StudentDto student = new StudentDto();
+        row.student = student;
+
+        String name = composeName(values);
+        student.setName(name);
+
+        String lrn = values.get(Column.LRN);
+        if (lrn != null) {
+            lrn = lrn.replaceAll("[\\s-]", "");
+        }
+        addError(errors, StudentValidator.checkLrn(lrn));
+        student.setLrn(lrn);
+
+        String sex = values.get(Column.SEX);
+        if (sex != null) {
+            switch (sex.toLowerCase(Locale.ROOT)) {
+                case "m", "male" -> student.setSex("Male");
+                case "f", "female" -> student.setSex("Female");
+                default -> errors.add("Sex must be Male or Female (M/F).");
+            }
+        }
+
+        String birthdate = values.get(Column.BIRTHDATE);
+        if (birthdate != null) {
+            LocalDate date = parseDate(birthdate);
+            if (date == null) {
+                errors.add("Birthdate \"" + birthdate + "\" is not a date (use YYYY-MM-DD or MM/DD/YYYY).");
+            } else {
+                student.setBirthdate(date);
+                student.setAge(Period.between(date, LocalDate.now()).getYears());
+            }
+        } else if (values.get(Column.AGE) != null) {
+            try {
+                student.setAge(Integer.parseInt(values.get(Column.AGE)));
+            } catch (NumberFormatException e) {
+                errors.add("Age must be a whole number.");
+            }
+        }
+
+        student.setAddress(values.get(Column.ADDRESS));
+        student.setContactNumber(phoneNumber(values.get(Column.CONTACT_NUMBER), "Contact Number", errors));
+        student.setParentGuardianName(values.get(Column.PARENT_GUARDIAN_NAME));
+        student.setParentGuardianContact(phoneNumber(values.get(Column.PARENT_GUARDIAN_CONTACT), "Parent/Guardian Contact Number", errors));
+        student.setParentGuardianRelationship(values.get(Column.PARENT_GUARDIAN_RELATIONSHIP));
+        student.setPreviousSchool(values.get(Column.PREVIOUS_SCHOOL));
+        addError(errors, StudentValidator.checkName(name, student.getParentGuardianName()));
+
+        String gwa = values.get(Column.GWA);
+        if (gwa != null) {
+            try {
+                student.setGwa(Double.parseDouble(gwa));
+                addError(errors, StudentValidator.checkGwa(student.getGwa()));
+            } catch (NumberFormatException e) {
+                errors.add("GWA must be a valid number.");
+            }
+        }
+
+        String grade = values.get(Column.GRADE_LEVEL);
+        if (grade != null && !GRADE_LEVEL.matcher(grade).matches()) {
+            errors.add("Grade Level must be 11 or 12.");
+        } else {
+            if (grade != null) {
+                student.setGradeLevel(Integer.valueOf(grade.replaceAll("\\D", "")));
+            }
+            addError(errors, StudentValidator.checkGradeLevel(student.getGradeLevel()));
+        }
+
+        String strandName = values.get(Column.STRAND);
+        if (strandName == null) {
+            errors.add("Strand is required.");
+        } else {
+            Strand strand = context.strandsByName.get(strandName.toLowerCase(Locale.ROOT));
+            if (strand == null) {
+                errors.add("Strand \"" + strandName + "\" does not exist.");
+            } else if (Boolean.FALSE.equals(strand.getIsActive())) {
+                errors.add("Strand " + strand.getName() + " is not active.");
+            } else {
+                student.setStrand(strand.getName());
+            }
+        }
+
+        String sectionName = values.get(Column.SECTION);
+        String status = values.get(Column.ENROLLMENT_STATUS);
+        if (status == null) {
+            student.setEnrollmentStatus(sectionName != null ? "Enrolled" : "Pending");
+        } else if (status.equalsIgnoreCase("enrolled")) {
+            student.setEnrollmentStatus("Enrolled");
+        } else if (status.equalsIgnoreCase("pending")) {
+            student.setEnrollmentStatus("Pending");
+        } else {
+            errors.add("Enrollment Status must be Enrolled or Pending.");
+        }
+
+        if (sectionName != null) {
+            assignSection(student, sectionName, context, errors);
+        } else {
+            addError(errors, StudentValidator.checkSection(student, null));
+        }
+        student.setSchoolYearId(context.schoolYear.getId());
+    }
+
+    private static void assignSection(StudentDto student, String sectionName, ImportContext context, List<String> errors) {
+        List<Section> named = context.sectionsByName.getOrDefault(sectionName.toLowerCase(Locale.ROOT), List.of());
+        if (named.isEmpty()) {
+            errors.add("Section \"" + sectionName + "\" does not exist.");
+            return;
+        }
+        // Section names repeat across grades and strands; any other than the student's fails the check below
+        Section section = named.stream()
+                .filter(s -> Objects.equals(student.getGradeLevel(), s.getGradeLevel())
+                        && student.getStrand() != null && student.getStrand().equalsIgnoreCase(s.getStrand()))
+                .findFirst().orElse(named.get(0));
+        String sectionError = StudentValidator.checkSection(student, section);
+        if (sectionError != null) {
+            errors.add(sectionError);
+            return;
+        }
+        Semester semester = context.semestersByGrade.get(student.getGradeLevel());
+        if (semester == null) {
+            errors.add("Semester " + context.semesterNumber + " for Grade " + student.getGradeLevel() +
+                    " does not exist in school year " + context.schoolYear.getYear() + ".");
+            return;
+        }
+        student.setSectionId(section.getId());
+        student.setSemesterId(semester.getId());
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (error != null) {
+            errors.add(error);
+        }
+    }
+
+    // "Dela Cruz, Juan Santos" or separate name columns -> "Juan Santos Dela Cruz"
+    private static String composeName(Map<Column, String> values) {
+        String name;
+        if (values.get(Column.LAST_NAME) != null && values.get(Column.FIRST_NAME) != null) {
+            name = String.join(" ", values.get(Column.FIRST_NAME),
+                    values.getOrDefault(Column.MIDDLE_NAME, ""),
+                    values.get(Column.LAST_NAME),
+                    values.getOrDefault(Column.NAME_EXTENSION, ""));
+        } else {
+            name = values.get(Column.NAME);
+            if (name != null && name.contains(",")) {
+                String[] parts = name.split(",", 2);
+                name = parts[1] + " " + parts[0];
+            }
+        }
+        if (name == null) {
+            return null;
+        }
+        name = name.replace(',', ' ').trim().replaceAll("\\s+", " ");
+        return name.isEmpty() ? null : name;
+    }
+
+    // Spreadsheets often drop the leading zero of 09XXXXXXXXX
+    private static String phoneNumber(String value, String label, List<String> errors) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replaceAll("[\\s()-]", "");
+        if (digits.startsWith("+63")) {
+            digits = "0" + digits.substring(3);
+        } else if (digits.length() == 10 && digits.startsWith("9")) {
+            digits = "0" + digits;
+        }
+        if (!PHONE_NUMBER.matcher(digits).matches()) {
+            errors.add(label + " must follow Philippine format (09XXXXXXXXX - 11 digits starting with 09).");
+            return value;
+        }
+        return digits;
+    }
+
+    private static LocalDate parseDate(String value) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    // ---- Writing -----------------------------------------------------------------------------
+
+    private void insert(List<ImportRow> rows, ImportContext context) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // JDBC batching is off globally; turn it on for this session so the inserts go out together
+            entityManager.unwrap(org.hibernate.Session.class).setJdbcBatchSize(INSERT_BATCH_SIZE);
+            SchoolYear schoolYear = entityManager.getReference(SchoolYear.class, context.schoolYear.getId());
+            List<Student> students = new ArrayList<>(rows.size());
+            for (ImportRow row : rows) {
+                StudentDto dto = row.student;
+                Student student = new Student();
+                student.setName(dto.getName());
+                student.setLrn(dto.getLrn());
+                student.setBirthdate(dto.getBirthdate());
+                student.setAge(dto.getAge());
+                student.setSex(dto.getSex());
+                student.setAddress(dto.getAddress());
+                student.setContactNumber(dto.getContactNumber());
+                student.setParentGuardianName(dto.getParentGuardianName());
+                student.setParentGuardianContact(dto.getParentGuardianContact());
+                student.setParentGuardianRelationship(dto.getParentGuardianRelationship());
+                student.setGradeLevel(dto.getGradeLevel());
+                student.setStrand(dto.getStrand());
+                student.setPreviousSchool(dto.getPreviousSchool());
+                student.setGwa(dto.getGwa());
+                student.setEnrollmentStatus(dto.getEnrollmentStatus());
+                student.setIsArchived(false);
+                student.setSchoolYear(schoolYear);
+                if (dto.getSectionId() != null) {
+                    student.setSection(entityManager.getReference(Section.class, dto.getSectionId()));
+                    student.setSemester(entityManager.getReference(Semester.class, dto.getSemesterId()));
+                }
+                students.add(student);
+            }
+            studentRepository.saveAll(students);
+        });
+    }
+
+    private ImportContext loadContext(Long schoolYearId, int semesterNumber) {
+        ImportContext context = new ImportContext();
+        context.schoolYear = schoolYearId != null
+                ? schoolYearRepository.findById(schoolYearId)
+                        .orElseThrow(() -> new RuntimeException("School year not found with id: " + schoolYearId))
+                : schoolYearService.getCurrentSchoolYearEntity();
+        context.semesterNumber = semesterNumber;
+        for (Strand strand : strandRepository.findAll()) {
+            context.strandsByName.put(strand.getName().toLowerCase(Locale.ROOT), strand);
+        }
+        for (Section section : sectionRepository.findAll()) {
+            context.sectionsById.put(section.getId(), section);
+            context.sectionsByName.computeIfAbsent(section.getName().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(section);
+        }
+        for (int grade = 11; grade <= 12; grade++) {
+            semesterRepository.findBySchoolYearIdAndGradeLevelAndSemesterNumber(context.schoolYear.getId(), grade, semesterNumber)
+                    .ifPresent(semester -> context.semestersByGrade.put(semester.getGradeLevel(), semester));
+        }
+        return context;
+    }
+
+    private void deleteOldReports(Path directory) {
+        long cutoff = System.currentTimeMillis() - REPORT_RETENTION_MS;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(directory, "*-errors.csv")) {
+            for (Path report : reports) {
+                if (Files.getLastModifiedTime(report).toMillis() < cutoff) {
+                    Files.deleteIfExists(report);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ Warning: Could not clean up old import error reports: " + e.getMessage());
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // ---- Helper classes ----------------------------------------------------------------------
+
+    // Lookup data shared by all rows; read-only while rows are checked in parallel
+    private static class ImportContext {
+        private SchoolYear schoolYear;
+        private int semesterNumber;
+        private final Map<String, Strand> strandsByName = new HashMap<>();
+        private final Map<String, List<Section>> sectionsByName = new HashMap<>();
+        private final Map<Long, Section> sectionsById = new HashMap<>();
+        private final Map<Integer, Semester> semestersByGrade = new HashMap<>();
+        // Seats left per section, filled on first use and counted down as rows are accepted
+        private final Map<Long, Integer> remainingSeats = new HashMap<>();
+    }
+
+    private static class ImportRow {
+        private final int rowNumber;
+        private final Map<Column, String> values;
+        private final List<String> errors = new ArrayList<>();
+        private StudentDto student;
+
+        ImportRow(int rowNumber, Map<Column, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+
+    // Adapts POI's streaming sheet callbacks to whole rows
+    private static class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowCollector collector;
+        private final List<String> cells = new ArrayList<>();
+
+        SheetRowHandler(RowCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            try {
+                collector.row(rowNum + 1, cells);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write the error report: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+
+    /**
+     * Formats numeric cells for import rather than display: whole numbers in full (a 12-digit LRN
+     * would otherwise come out as 1.23457E+11) and dates as YYYY-MM-DD.
+     */
+    private static class ImportDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return String.valueOf((long) value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    /**
+     * Minimal streaming CSV reader (RFC 4180: quoted fields, doubled quotes, line breaks inside quotes).
+     */
+    private static class CsvReader {
+        private final Reader reader;
+        private final char delimiter;
+        private boolean done;
+
+        CsvReader(Reader reader, char delimiter) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+
+        // The next record, or null at the end of the input
+        List<String> next() throws IOException {
+            if (done) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            done = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    public static class ImportResult {
+        private String importId;
+        private String fileName;
+        private boolean dryRun;
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private boolean errorReportAvailable;
+        private long durationMs;
+
+        public String getImportId() {
+            return importId;
+        }
+
+        public void setImportId(String importId) {
+            this.importId = importId;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public void setDryRun(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        public int getTotalRows() {
+            return totalRows;
+        }
+
+        public void setTotalRows(int totalRows) {
+            this.totalRows = totalRows;
+        }
+
+        /**
+         * Rows that passed validation; in a dry run these would be imported.
+         */
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public void setFailed(int failed) {
+            this.failed = failed;
+        }
+
+        public boolean isErrorReportAvailable() {
+            return errorReportAvailable;
+        }
+
+        public void setErrorReportAvailable(boolean errorReportAvailable) {
+            this.errorReportAvailable = errorReportAvailable;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public void setDurationMs(long durationMs) {
+            this.durationMs = durationMs;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.model.Student;
+import com.enrollment.system.repository.ArchivedStudentRepository;
+import com.enrollment.system.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Student search backed by the FTS5 full-text indexes students_fts and students_archive_fts (see
+ * DatabaseSchemaUpdater.ensureStudentSearchIndex), which cover name, LRN, address, parent/guardian
+ * name and previous school of active and archived students.
+ *
+ * Every word typed is matched as a prefix ("dela cru" finds "Juan Dela Cruz") and all words must match.
+ * Results are ranked with bm25, weighted so name and LRN hits come before address or school hits.
+ * Without the indexes (not SQLite, or FTS5 unavailable) the same searches run as LIKE queries on name and LRN.
+ * If an index query fails (e.g. a restored backup without the indexes) that search falls back to LIKE
+ * and the indexes are looked for again on the next one.
+ */
+@Service
+@Timed("enrollment.service")
+public class StudentSearchService {
+
+    private static final int MAX_TERMS = 8;
+    private static final int MAX_PAGE_SIZE = 500;
+    // findMatchingIds returns at most this many ids, best matches first
+    public static final int MAX_MATCHING_IDS = 2000;
+
+    // bm25 column weights, in index column order: name, lrn, address, parent_guardian_name, previous_school
+    private static final String WEIGHTS = "10.0, 10.0, 1.0, 2.0, 1.0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+
+    private volatile boolean ftsAvailable;
+
+    /**
+     * One page of matching students, best match first.
+     *
+     * @param archived true for archived students only, false for active only, null for both
+     */
+    @Transactional(readOnly = true)
+    public SearchPage search(String text, Boolean archived, int page, int size) {
+        SearchPage result = new SearchPage();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        result.setPage(Math.max(page, 0));
+        result.setSize(pageSize);
+
+        String match = toMatchExpression(text);
+        if (match == null) {
+            return result;
+        }
+        List<Map<String, Object>> rows = withFallback(fts -> {
+            List<Object> args = new ArrayList<>();
+            String matches = matchesQuery(fts, match, text, archived, args);
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + matches + ")", Long.class, args.toArray());
+            result.setTotal(total != null ? total : 0);
+
+            args.add(pageSize);
+            args.add(result.getPage() * pageSize);
+            return jdbcTemplate.queryForList(
+                    "SELECT id, archived FROM (" + matches + ") ORDER BY score, name LIMIT ? OFFSET ?", args.toArray());
+        });
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        List<Long> activeIds = new ArrayList<>();
+        List<Long> archivedIds = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            (((Number) row.get("archived")).intValue() == 1 ? archivedIds : activeIds).add(id);
+        }
+        Map<Long, Student> byId = new HashMap<>();
+        if (!activeIds.isEmpty()) {
+            studentRepository.findAllWithSectionByIdIn(activeIds).forEach(student -> byId.put(student.getId(), student));
+        }
+        if (!archivedIds.isEmpty()) {
+            archivedStudentRepository.findAllWithSectionByIdIn(archivedIds).forEach(student -> byId.put(student.getId(), student.toStudent()));
+        }
+        List<StudentDto> students = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            Student student = byId.get(((Number) row.get("id")).longValue());
+            if (student != null) {
+                students.add(StudentDto.fromStudent(student));
+            }
+        }
+        result.setStudents(students);
+        return result;
+    }
+
+    /**
+     * Ids of the matching students, best match first and at most MAX_MATCHING_IDS of them, and
+     * whether there were more. Used by the student screens to filter the list they already show;
+     * empty when the text has nothing to search for.
+     */
+    @Transactional(readOnly = true)
+    public MatchingIds findMatchingIds(String text, Boolean archived) {
+        String match = toMatchExpression(text);
+        if (match == null) {
+            return MatchingIds.NONE;
+        }
+        List<Long> ids = withFallback(fts -> {
+            List<Object> args = new ArrayList<>();
+            String matches = matchesQuery(fts, match, text, archived, args);
+            // One more than kept tells whether the list was cut off
+            args.add(MAX_MATCHING_IDS + 1);
+            return jdbcTemplate.queryForList(
+                    "SELECT id FROM (" + matches + ") ORDER BY score, name LIMIT ?", Long.class, args.toArray());
+        });
+        boolean truncated = ids.size() > MAX_MATCHING_IDS;
+        return new MatchingIds(new LinkedHashSet<>(truncated ? ids.subList(0, MAX_MATCHING_IDS) : ids), truncated);
+    }
+
+    // Runs query with the indexes when they are there, and with LIKE if that fails
+    private <T> T withFallback(Function<Boolean, T> query) {
+        boolean fts = isFtsAvailable();
+        if (!fts) {
+            return query.apply(false);
+        }
+        try {
+            return query.apply(true);
+        } catch (DataAccessException e) {
+            System.err.println("⚠ Student search index query failed, using LIKE: " + e.getMessage());
+            ftsAvailable = false;
+            return query.apply(false);
+        }
+    }
+
+    // (id, archived, score, name) of every match in the searched tables; lower score is better
+    private String matchesQuery(boolean fts, String match, String text, Boolean archived, List<Object> args) {
+        List<String> parts = new ArrayList<>();
+        if (!Boolean.TRUE.equals(archived)) {
+            parts.add(fts ? ftsPart("students", "students_fts", 0, match, args) : likePart("students", 0, text, args));
+        }
+        if (!Boolean.FALSE.equals(archived)) {
+            parts.add(fts ? ftsPart("students_archive", "students_archive_fts", 1, match, args) : likePart("students_archive", 1, text, args));
+        }
+        return String.join(" UNION ALL ", parts);
+    }
+
+    private static String ftsPart(String table, String ftsTable, int archived, String match, List<Object> args) {
+        args.add(match);
+        return "SELECT t.id AS id, " + archived + " AS archived, bm25(" + ftsTable + ", " + WEIGHTS + ") AS score, t.name AS name " +
+               "FROM " + ftsTable + " JOIN " + table + " t ON t.id = " + ftsTable + ".rowid WHERE " + ftsTable + " MATCH ?";
+    }
+
+    private static String likePart(String table, int archived, String text, List<Object> args) {
+        String pattern = "%" + text.trim().toLowerCase() + "%";
+        args.add(pattern);
+        args.add(pattern);
+        return "SELECT t.id AS id, " + archived + " AS archived, 0 AS score, t.name AS name " +
+               "FROM " + table + " t WHERE (LOWER(t.name) LIKE ? OR t.lrn LIKE ?)";
+    }
+
+    private boolean isFtsAvailable() {
+        if (!ftsAvailable) {
+            // Checked until found: the indexes are created once the application is ready, and a
+            // failed index query clears the flag
+            try {
+                Integer tables = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' " +
+                        "AND name IN ('students_fts', 'students_archive_fts')", Integer.class);
+                ftsAvailable = tables != null && tables == 2;
+            } catch (Exception e) {
+                ftsAvailable = false;
+            }
+        }
+        return ftsAvailable;
+    }
+
+    /**
+     * Turns what the user typed into an FTS5 query: each word quoted (so punctuation and FTS operators
+     * are taken literally) and matched as a prefix. Null when there is no word to search for.
+     */
+    private static String toMatchExpression(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add("\"" + word + "\"*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    /**
+     * Result of findMatchingIds: the ids kept, and whether more students matched than were kept
+     */
+    public static class MatchingIds {
+        public static final MatchingIds NONE = new MatchingIds(Collections.emptySet(), false);
+
+        private final Set<Long> ids;
+        private final boolean truncated;
+
+        public MatchingIds(Set<Long> ids, boolean truncated) {
+            this.ids = ids;
+            this.truncated = truncated;
+        }
+
+        public Set<Long> getIds() {
+            return ids;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * A page of search results with the total number of matches
+     */
+    public static class SearchPage {
+        private List<StudentDto> students = new ArrayList<>();
+        private int page;
+        private int size;
+        private long total;
+
+        public List<StudentDto> getStudents() {
+            return students;
+        }
+
+        public void setStudents(List<StudentDto> students) {
+            this.students = students;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+    }
+}
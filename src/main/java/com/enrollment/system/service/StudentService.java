@@ -1,12 +1,23 @@
 package com.enrollment.system.service;
 
 import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.event.StudentArchivedEvent;
+import com.enrollment.system.event.StudentEnrolledEvent;
+import com.enrollment.system.event.StudentRestoredEvent;
+import com.enrollment.system.event.StudentUpdatedEvent;
+import com.enrollment.system.event.StudentsChangedEvent;
+import com.enrollment.system.model.ArchivedStudent;
 import com.enrollment.system.model.Section;
 import com.enrollment.system.model.SchoolYear;
 import com.enrollment.system.model.Student;
+import com.enrollment.system.model.StudentTombstone;
+import com.enrollment.system.repository.ArchivedStudentRepository;
 import com.enrollment.system.repository.SectionRepository;
 import com.enrollment.system.repository.StudentRepository;
+import com.enrollment.system.repository.StudentTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
@@ -16,6 +27,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("enrollment.service")
 public class StudentService {
     
     @Autowired
@@ -27,6 +39,9 @@ public class StudentService {
     @Autowired
     private com.enrollment.system.service.SectionService sectionService;
     
+    @Autowired
+    private com.enrollment.system.util.DatabaseMaintenance databaseMaintenance;
+    
     @Autowired(required = false)
     private com.enrollment.system.service.SchoolYearService schoolYearService;
     
@@ -36,22 +51,39 @@ public class StudentService {
     @Autowired(required = false)
     private com.enrollment.system.repository.SemesterRepository semesterRepository;
     
+    @Autowired
+    private StudentTombstoneRepository studentTombstoneRepository;
+    
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+    
+    @Autowired
+    private StudentValidator studentValidator;
+    
+    @Autowired
+    private jakarta.persistence.EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private static final int RE_ENROLLMENT_BATCH_SIZE = 50;
+    
     @Transactional
     public StudentDto saveStudent(StudentDto studentDto) {
-        // Validate unique name
-        String studentName = studentDto.getName() != null ? studentDto.getName().trim() : null;
-        if (studentName != null && !studentName.isEmpty()) {
-            if (studentRepository.existsByNameIgnoreCase(studentName)) {
-                throw new RuntimeException("A student with the name \"" + studentName + "\" already exists. Student names must be unique.");
-            }
-            
-            // Validate: Student name cannot match parent name without suffix
-            String parentName = studentDto.getParentGuardianName() != null ? studentDto.getParentGuardianName().trim() : null;
-            if (parentName != null && !parentName.isEmpty()) {
-                if (namesMatchWithoutSuffix(studentName, parentName)) {
-                    throw new RuntimeException("Student name cannot be the same as parent/guardian name. If they share the same name, the student must have a suffix (e.g., Jr., Sr., II, III, IV). Example: \"Arnel Caparoso Jr.\"");
-                }
-            }
+        // Same rules as the file import: fields first, then uniqueness among active and archived students
+        List<String> fieldErrors = StudentValidator.checkFields(studentDto);
+        if (!fieldErrors.isEmpty()) {
+            throw new RuntimeException(fieldErrors.get(0));
+        }
+        String studentName = studentDto.getName().trim();
+        String nameConflict = studentValidator.findNameConflict(studentName, null);
+        if (nameConflict != null) {
+            throw new RuntimeException(nameConflict);
+        }
+        String lrn = studentDto.getLrn().trim();
+        String lrnConflict = studentValidator.findLrnConflict(lrn, null);
+        if (lrnConflict != null) {
+            throw new RuntimeException(lrnConflict);
         }
         
         Student student = new Student();
@@ -75,7 +107,7 @@ public class StudentService {
         student.setStrand(studentDto.getStrand());
         student.setPreviousSchool(studentDto.getPreviousSchool());
         student.setGwa(studentDto.getGwa());
-        student.setLrn(studentDto.getLrn());
+        student.setLrn(lrn);
         student.setEnrollmentStatus(studentDto.getEnrollmentStatus());
         student.setReEnrollmentReason(studentDto.getReEnrollmentReason());
         
@@ -123,32 +155,23 @@ public class StudentService {
         }
         
         // Handle section assignment with validation (after semester is assigned for capacity check)
+        Section section = null;
         if (studentDto.getSectionId() != null) {
-            // Validate: Only enrolled students can be assigned to a section
-            if (!"Enrolled".equals(studentDto.getEnrollmentStatus())) {
-                throw new RuntimeException("Sections can only be assigned to enrolled students. Please change the enrollment status to 'Enrolled' or remove the section assignment.");
-            }
-            Section section = sectionRepository.findById(studentDto.getSectionId())
+            section = sectionRepository.findById(studentDto.getSectionId())
                     .orElseThrow(() -> new RuntimeException("Section not found with id: " + studentDto.getSectionId()));
-            
-            // Validate that student's grade level and strand match the section
-            if (studentDto.getGradeLevel() != null && section.getGradeLevel() != null && 
-                !studentDto.getGradeLevel().equals(section.getGradeLevel())) {
-                throw new RuntimeException("Student grade level (" + studentDto.getGradeLevel() + 
-                    ") does not match section grade level (" + section.getGradeLevel() + ").");
-            }
-            if (studentDto.getStrand() != null && section.getStrand() != null && 
-                !studentDto.getStrand().equals(section.getStrand())) {
-                throw new RuntimeException("Student strand (" + studentDto.getStrand() + 
-                    ") does not match section strand (" + section.getStrand() + ").");
-            }
-            
+        }
+        // Enrolled students need a section, others may not have one; it must be active and match grade and strand
+        String sectionError = StudentValidator.checkSection(studentDto, section);
+        if (sectionError != null) {
+            throw new RuntimeException(sectionError);
+        }
+        if (section != null) {
             // Check section capacity (with semester if available)
             // IMPORTANT: Semester must be provided for enrolled students to check capacity correctly
             Long semesterId = assignedSemester != null ? assignedSemester.getId() : null;
             
             // For enrolled students, semester is required for proper capacity checking
-            if ("Enrolled".equals(studentDto.getEnrollmentStatus()) && semesterId == null) {
+            if (semesterId == null) {
                 throw new RuntimeException("Semester is required for enrolled students to check section capacity. Please select a School Year & Semester.");
             }
             
@@ -159,18 +182,13 @@ public class StudentService {
                 // Return error message as specified in requirements
                 throw new RuntimeException("This section is full. Maximum capacity reached.");
             }
-            
-            student.setSection(section);
-        } else {
-            // Validate: Enrolled students must have a section
-            if ("Enrolled".equals(studentDto.getEnrollmentStatus())) {
-                throw new RuntimeException("Enrolled students must be assigned to a section.");
-            }
-            student.setSection(null);
         }
+        student.setSection(section);
         
         Student savedStudent = studentRepository.save(student);
-        return StudentDto.fromStudent(savedStudent);
+        StudentDto saved = StudentDto.fromStudent(savedStudent);
+        publishStudentChange(null, saved);
+        return saved;
     }
     
     @Transactional(readOnly = true)
@@ -195,10 +213,6 @@ public class StudentService {
             return studentRepository.findAllWithSectionByOrderByNameAsc()
                     .stream()
                     .filter(student -> {
-                        Boolean archived = student.getIsArchived();
-                        if (archived != null && archived) {
-                            return false;
-                        }
                         // If current school year is set, only show students from current year
                         // Otherwise show all (backward compatibility)
                         if (finalCurrentSchoolYear != null) {
@@ -222,16 +236,92 @@ public class StudentService {
         }
     }
     
+    /**
+     * One page of archived students (from students_archive), ordered by name.
+     *
+     * @param archiveReason only students archived for this reason, or null for all
+     */
     @Transactional(readOnly = true)
-    public List<StudentDto> getArchivedStudents() {
-        return studentRepository.findAllWithSectionByOrderByNameAsc()
-                .stream()
-                .filter(student -> {
-                    Boolean archived = student.getIsArchived();
-                    return archived != null && archived;
-                })
+    public org.springframework.data.domain.Page<StudentDto> getArchivedStudents(String archiveReason, int page, int size) {
+        org.springframework.data.domain.Sort order = org.springframework.data.domain.Sort.by("name", "id");
+        return archivedStudentRepository.findPage(archiveReason,
+                org.springframework.data.domain.PageRequest.of(page, size, order))
+                .map(archived -> StudentDto.fromStudent(archived.toStudent()));
+    }
+    
+    /**
+     * One page of students for the REST API, ordered by id. Only rows with an id greater than afterId
+     * are returned, so paging stays cheap however deep the client goes. Null filters match everything.
+     */
+    @Transactional(readOnly = true)
+    public List<Student> getStudentPage(Long afterId, int limit, Integer gradeLevel, String strand,
+                                        String enrollmentStatus, Long sectionId, Long schoolYearId,
+                                        Boolean archived, String nameContains) {
+        String namePattern = null;
+        if (nameContains != null && !nameContains.trim().isEmpty()) {
+            namePattern = "%" + nameContains.trim().toLowerCase() + "%";
+        }
+        long after = afterId != null ? afterId : 0L;
+        org.springframework.data.domain.Pageable firstRows = org.springframework.data.domain.PageRequest.of(0, limit);
+        List<Student> active = Boolean.TRUE.equals(archived) ? List.of()
+                : studentRepository.findPageAfterId(after, gradeLevel, strand, enrollmentStatus, sectionId,
+                        schoolYearId, archived, namePattern, firstRows);
+        List<Student> fromArchive = Boolean.FALSE.equals(archived) ? List.of()
+                : archivedStudentRepository.findPageAfterId(after, gradeLevel, strand, enrollmentStatus, sectionId,
+                        schoolYearId, namePattern, firstRows)
+                        .stream().map(ArchivedStudent::toStudent).collect(Collectors.toList());
+        if (fromArchive.isEmpty()) {
+            return active;
+        }
+        if (active.isEmpty()) {
+            return fromArchive;
+        }
+        // Both tables: ids never overlap, so merging the two id-ordered pages keeps the keyset order
+        List<Student> merged = new java.util.ArrayList<>(active);
+        merged.addAll(fromArchive);
+        merged.sort(java.util.Comparator.comparing(Student::getId));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+    
+    /**
+     * One page of the students from the given school year who are eligible for re-enrollment
+     * (Grade 11 or 12, not archived), ordered by name.
+     */
+    @Transactional(readOnly = true)
+    public org.springframework.data.domain.Page<StudentDto> getEligibleStudentsForReEnrollment(Long schoolYearId, int page, int size) {
+        return studentRepository.findEligibleForReEnrollment(schoolYearId,
+                org.springframework.data.domain.PageRequest.of(page, size))
+                .map(StudentDto::fromStudent);
+    }
+    
+    /**
+     * All students from the given school year who are eligible for re-enrollment.
+     */
+    @Transactional(readOnly = true)
+    public List<StudentDto> getEligibleStudentsForReEnrollment(Long schoolYearId) {
+        return studentRepository.findEligibleForReEnrollment(schoolYearId,
+                org.springframework.data.domain.Pageable.unpaged())
                 .map(StudentDto::fromStudent)
-                .collect(Collectors.toList());
+                .getContent();
+    }
+    
+    /**
+     * Version of the student and archive tables used for conditional GETs: the latest modification
+     * time plus the row count of each (so deletions, which leave no updated_at behind, and moves
+     * between the two tables still change it).
+     */
+    @Transactional(readOnly = true)
+    public StudentListVersion getStudentListVersion() {
+        StudentListVersion version = new StudentListVersion();
+        LocalDateTime lastModified = studentRepository.findLastModified();
+        LocalDateTime archiveLastModified = archivedStudentRepository.findLastModified();
+        if (lastModified == null || (archiveLastModified != null && archiveLastModified.isAfter(lastModified))) {
+            lastModified = archiveLastModified;
+        }
+        version.setLastModified(lastModified);
+        version.setCount(studentRepository.count());
+        version.setArchivedCount(archivedStudentRepository.count());
+        return version;
     }
     
     @Transactional(readOnly = true)
@@ -249,8 +339,20 @@ public class StudentService {
     
     @Transactional
     public StudentDto updateStudent(Long id, StudentDto studentDto) {
+        // Re-enrolling a student from the archive moves them back to the active students first
+        if ("Enrolled".equals(studentDto.getEnrollmentStatus()) && !studentRepository.existsById(id)) {
+            archivedStudentRepository.findById(id).ifPresent(archived -> {
+                String archiveReason = archived.getArchiveReason();
+                if (archiveReason != null && "GRADUATED".equalsIgnoreCase(archiveReason.trim())) {
+                    throw new RuntimeException("Graduated students cannot be re-enrolled. Student \"" + archived.getName() + "\" has already graduated.");
+                }
+                restoreStudent(id);
+            });
+        }
+        
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        StudentDto before = StudentDto.fromStudent(student);
         
         // Validate unique name if name is being changed
         String newName = studentDto.getName() != null ? studentDto.getName().trim() : null;
@@ -260,7 +362,7 @@ public class StudentService {
             // Check if name is being changed
             if (!newName.equalsIgnoreCase(currentName != null ? currentName.trim() : "")) {
                 // Check if another student already has this name
-                if (studentRepository.existsByNameIgnoreCaseExcludingId(newName, id)) {
+                if (isNameTaken(newName, id)) {
                     throw new RuntimeException("A student with the name \"" + newName + "\" already exists. Student names must be unique.");
                 }
             }
@@ -402,12 +504,8 @@ public class StudentService {
             // Check if LRN is being changed
             if (!newLrn.equals(currentLrn)) {
                 // Check if another student already has this LRN
-                if (studentRepository.existsByLrn(newLrn)) {
-                    // Check if it's the same student (shouldn't happen, but just in case)
-                    java.util.Optional<Student> existingStudent = studentRepository.findByLrn(newLrn);
-                    if (existingStudent.isPresent() && !existingStudent.get().getId().equals(id)) {
-                        throw new RuntimeException("LRN " + newLrn + " already exists for another student.");
-                    }
+                if (isLrnTaken(newLrn, id)) {
+                    throw new RuntimeException("LRN " + newLrn + " already exists for another student.");
                 }
                 student.setLrn(newLrn);
             }
@@ -417,25 +515,154 @@ public class StudentService {
             student.setLrn(null);
         }
         
-        // Unarchive student if they are being re-enrolled (from archive)
-        // This happens when a student is being re-enrolled from the archive list
-        // If the student was archived and is being updated to "Enrolled" status, unarchive them
-        // BUT: Do not allow graduated students to be re-enrolled
-        Boolean wasArchived = student.getIsArchived();
-        if (wasArchived != null && wasArchived && "Enrolled".equals(studentDto.getEnrollmentStatus())) {
-            // Check if student is graduated - prevent re-enrollment
+        Student updatedStudent = studentRepository.save(student);
+        StudentDto updated = StudentDto.fromStudent(updatedStudent);
+        publishStudentChange(before, updated);
+        return updated;
+    }
+    
+    /**
+     * Re-enroll many students into the current school year in one transaction.
+     *
+     * All students are loaded with one IN query and the target sections' capacity is counted once
+     * per section and semester; seats are then handed out in the order the ids were given, so the
+     * outcome matches re-enrolling the students one at a time. A student that cannot be re-enrolled
+     * (not found, graduated, section mismatch, section full) is reported in the result and skipped;
+     * the others are written together when the transaction commits.
+     *
+     * @param newGradeLevel grade level to set, or null to keep each student's current grade
+     * @param newSectionId section to assign, or null to keep each student's current section
+     */
+    @Transactional
+    public ReEnrollmentResult reEnrollStudents(List<Long> studentIds, Integer newGradeLevel, Long newSectionId) {
+        SchoolYear currentSchoolYear = schoolYearService.getCurrentSchoolYearEntity();
+        
+        java.util.Map<Long, Student> studentsById = new java.util.HashMap<>();
+        for (Student student : studentRepository.findAllWithSectionByIdIn(new java.util.LinkedHashSet<>(studentIds))) {
+            studentsById.put(student.getId(), student);
+        }
+        
+        Section requestedSection = null;
+        if (newSectionId != null) {
+            requestedSection = sectionRepository.findById(newSectionId)
+                    .orElseThrow(() -> new RuntimeException("Section not found with id: " + newSectionId));
+        }
+        
+        // First pass: validate each student and work out which section/semester seat it needs
+        java.util.Map<String, java.util.Optional<com.enrollment.system.model.Semester>> semestersByKey = new java.util.HashMap<>();
+        List<PlannedReEnrollment> planned = new java.util.ArrayList<>();
+        ReEnrollmentResult result = new ReEnrollmentResult();
+        for (Long studentId : new java.util.LinkedHashSet<>(studentIds)) {
+            Student student = studentsById.get(studentId);
+            if (student == null) {
+                result.addFailure(studentId, null, "Student not found with id: " + studentId);
+                continue;
+            }
+            
             String archiveReason = student.getArchiveReason();
             if (archiveReason != null && "GRADUATED".equalsIgnoreCase(archiveReason.trim())) {
-                throw new RuntimeException("Graduated students cannot be re-enrolled. Student \"" + student.getName() + "\" has already graduated.");
+                result.addFailure(studentId, student.getName(), "Graduated students cannot be re-enrolled.");
+                continue;
+            }
+            
+            Integer gradeLevel = newGradeLevel != null ? newGradeLevel : student.getGradeLevel();
+            Section section = requestedSection != null ? requestedSection : student.getSection();
+            if (section == null) {
+                result.addFailure(studentId, student.getName(), "Enrolled students must be assigned to a section.");
+                continue;
+            }
+            if (gradeLevel != null && section.getGradeLevel() != null && !gradeLevel.equals(section.getGradeLevel())) {
+                result.addFailure(studentId, student.getName(), "Student grade level (" + gradeLevel +
+                        ") does not match section grade level (" + section.getGradeLevel() + ").");
+                continue;
+            }
+            if (student.getStrand() != null && section.getStrand() != null && !student.getStrand().equals(section.getStrand())) {
+                result.addFailure(studentId, student.getName(), "Student strand (" + student.getStrand() +
+                        ") does not match section strand (" + section.getStrand() + ").");
+                continue;
+            }
+            
+            // A semester from another school year or grade is replaced by the current year's semester
+            // with the same number (1st semester when there was none)
+            com.enrollment.system.model.Semester semester = resolveReEnrollmentSemester(student.getSemester(),
+                    currentSchoolYear, gradeLevel, semestersByKey);
+            if (semester == null) {
+                result.addFailure(studentId, student.getName(), "No semester is set up for Grade " + gradeLevel +
+                        " in school year " + currentSchoolYear.getYear() + ".");
+                continue;
+            }
+            
+            // Same rule as updateStudent: a seat is needed when the section changes or the student was not enrolled
+            boolean isSectionChanging = student.getSection() == null || !student.getSection().getId().equals(section.getId());
+            boolean isEnrollmentStatusChanging = !"Enrolled".equals(student.getEnrollmentStatus());
+            boolean needsSeat = isSectionChanging || isEnrollmentStatusChanging;
+            if (needsSeat && section.getCapacity() == null) {
+                result.addFailure(studentId, student.getName(), "Section " + section.getName() +
+                        " does not have a capacity set. Please set a capacity for this section before enrolling students.");
+                continue;
             }
-            // Unarchive the student - they're being re-enrolled and moved back to active students
-            student.setIsArchived(false);
-            student.setArchiveReason(null);
-            student.setArchivedAt(null);
+            planned.add(new PlannedReEnrollment(student, gradeLevel, section, semester, needsSeat));
         }
         
-        Student updatedStudent = studentRepository.save(student);
-        return StudentDto.fromStudent(updatedStudent);
+        // Count each target section once, before anything is modified (a count query would flush pending updates)
+        java.util.Map<String, Long> remainingSeats = new java.util.HashMap<>();
+        for (PlannedReEnrollment plan : planned) {
+            if (plan.needsSeat) {
+                remainingSeats.computeIfAbsent(plan.seatKey(), key -> plan.section.getCapacity() -
+                        studentRepository.countBySectionIdAndSemesterIdAndEnrolled(plan.section.getId(), plan.semesterId()));
+            }
+        }
+        
+        // Second pass: hand out seats in request order and apply the changes
+        List<Student> toSave = new java.util.ArrayList<>();
+        for (PlannedReEnrollment plan : planned) {
+            Student student = plan.student;
+            if (plan.needsSeat) {
+                long remaining = remainingSeats.get(plan.seatKey());
+                if (remaining <= 0) {
+                    result.addFailure(student.getId(), student.getName(), "This section is full. Maximum capacity reached.");
+                    continue;
+                }
+                remainingSeats.put(plan.seatKey(), remaining - 1);
+            }
+            
+            StudentDto before = StudentDto.fromStudent(student);
+            student.setGradeLevel(plan.gradeLevel);
+            student.setSection(plan.section);
+            student.setSemester(plan.semester);
+            student.setSchoolYear(currentSchoolYear);
+            student.setEnrollmentStatus("Enrolled");
+            toSave.add(student);
+            result.addSuccess(student.getId(), student.getName());
+            eventPublisher.publishEvent(new StudentEnrolledEvent(before, StudentDto.fromStudent(student)));
+        }
+        
+        // JDBC batching is off globally; turn it on for this session so the updates go out together
+        entityManager.unwrap(org.hibernate.Session.class).setJdbcBatchSize(RE_ENROLLMENT_BATCH_SIZE);
+        studentRepository.saveAll(toSave);
+        return result;
+    }
+    
+    /**
+     * The current school year's semester for a re-enrolled student: the one they have if it already
+     * belongs to this year and grade, otherwise the one with the same semester number (1st when they
+     * had none). Null when the current year has no such semester. Lookups are cached in found.
+     */
+    private com.enrollment.system.model.Semester resolveReEnrollmentSemester(com.enrollment.system.model.Semester semester,
+            SchoolYear currentSchoolYear, Integer gradeLevel,
+            java.util.Map<String, java.util.Optional<com.enrollment.system.model.Semester>> found) {
+        if (semester != null && semester.getSchoolYear() != null &&
+            semester.getSchoolYear().getId().equals(currentSchoolYear.getId()) &&
+            (gradeLevel == null || gradeLevel.equals(semester.getGradeLevel()))) {
+            return semester;
+        }
+        if (gradeLevel == null) {
+            return null;
+        }
+        Integer semesterNumber = semester != null && semester.getSemesterNumber() != null ? semester.getSemesterNumber() : 1;
+        return found.computeIfAbsent(gradeLevel + ":" + semesterNumber, key ->
+                semesterRepository.findBySchoolYearIdAndGradeLevelAndSemesterNumber(
+                        currentSchoolYear.getId(), gradeLevel, semesterNumber)).orElse(null);
     }
     
     /**
@@ -451,6 +678,7 @@ public class StudentService {
     public StudentDto updateStudentForTeacher(Long id, String name, String contactNumber, String sex, String lrn) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        StudentDto before = StudentDto.fromStudent(student);
         
         // Validate and update name
         String newName = name != null ? name.trim() : null;
@@ -460,7 +688,7 @@ public class StudentService {
             // Check if name is being changed
             if (!newName.equalsIgnoreCase(currentName != null ? currentName.trim() : "")) {
                 // Check if another student already has this name
-                if (studentRepository.existsByNameIgnoreCaseExcludingId(newName, id)) {
+                if (isNameTaken(newName, id)) {
                     throw new RuntimeException("A student with the name \"" + newName + "\" already exists. Student names must be unique.");
                 }
             }
@@ -496,11 +724,8 @@ public class StudentService {
             // Check if LRN is being changed
             if (!newLrn.equals(currentLrn)) {
                 // Check if another student already has this LRN
-                if (studentRepository.existsByLrn(newLrn)) {
-                    java.util.Optional<Student> existingStudent = studentRepository.findByLrn(newLrn);
-                    if (existingStudent.isPresent() && !existingStudent.get().getId().equals(id)) {
-                        throw new RuntimeException("LRN " + newLrn + " already exists for another student.");
-                    }
+                if (isLrnTaken(newLrn, id)) {
+                    throw new RuntimeException("LRN " + newLrn + " already exists for another student.");
                 }
                 student.setLrn(newLrn);
             }
@@ -513,51 +738,122 @@ public class StudentService {
         // Note: Grade Level, Strand, Section are NOT updated - they remain unchanged
         
         Student updatedStudent = studentRepository.save(student);
-        return StudentDto.fromStudent(updatedStudent);
+        StudentDto updated = StudentDto.fromStudent(updatedStudent);
+        eventPublisher.publishEvent(new StudentUpdatedEvent(before, updated));
+        return updated;
+    }
+    
+    /**
+     * Whether another student, active or archived, has this name (ignoring case and surrounding
+     * spaces). Archived students count so they can always be restored.
+     */
+    private boolean isNameTaken(String name, Long excludeId) {
+        return studentValidator.findNameConflict(name, excludeId) != null;
     }
     
+    /**
+     * Whether another student, active or archived, has this LRN.
+     */
+    private boolean isLrnTaken(String lrn, Long excludeId) {
+        return studentValidator.findLrnConflict(lrn, excludeId) != null;
+    }
+    
+    /**
+     * Moves the student from students into students_archive.
+     */
     @Transactional
     public void archiveStudent(Long id, String archiveReason) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        LocalDateTime now = LocalDateTime.now();
+        StudentDto before = StudentDto.fromStudent(student);
         
-        student.setIsArchived(true);
-        student.setArchiveReason(archiveReason);
-        student.setArchivedAt(LocalDateTime.now());
-        
-        studentRepository.save(student);
+        // The row leaves the students table, so sync clients get a tombstone as for a delete
+        studentTombstoneRepository.save(new StudentTombstone(student, now));
+        entityManager.flush();
+        entityManager.detach(student);
+        studentRepository.moveToArchive(id, archiveReason, now);
+        eventPublisher.publishEvent(new StudentArchivedEvent(before, archiveReason));
     }
     
+    /**
+     * Moves an archived student back from students_archive into students.
+     */
     @Transactional
     public void restoreStudent(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
-        
-        student.setIsArchived(false);
-        student.setArchiveReason(null);
-        student.setArchivedAt(null);
-        
-        studentRepository.save(student);
+        ArchivedStudent archived = archivedStudentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Archived student not found with id: " + id));
+        // Names and LRNs are unique, and an active student may have taken one since the archive
+        if (archived.getName() != null && studentRepository.existsByNameIgnoreCaseExcludingId(archived.getName().trim(), id)) {
+            throw new RuntimeException("A student with the name \"" + archived.getName() + "\" already exists. Student names must be unique.");
+        }
+        String archivedLrn = archived.getLrn() != null ? archived.getLrn().trim() : "";
+        if (!archivedLrn.isEmpty() && studentRepository.existsByLrnExcludingId(archivedLrn, id)) {
+            throw new RuntimeException("LRN " + archivedLrn + " already exists for another student.");
+        }
+        StudentDto restored = StudentDto.fromStudent(archived.toStudent());
+        restored.setIsArchived(false);
+        restored.setArchiveReason(null);
+        restored.setArchivedAt(null);
+        entityManager.detach(archived);
+        studentRepository.restoreFromArchive(id, LocalDateTime.now());
+        // Back in the sync feed as a changed row
+        if (studentTombstoneRepository.existsById(id)) {
+            studentTombstoneRepository.deleteById(id);
+        }
+        eventPublisher.publishEvent(new StudentRestoredEvent(restored));
+    }
+    
+    /**
+     * Students archived before students_archive existed are still flagged in students; move them
+     * over once at startup.
+     */
+    @org.springframework.context.event.EventListener(org.springframework.boot.context.event.ApplicationReadyEvent.class)
+    @Transactional
+    public void moveFlaggedArchivedStudents() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            studentTombstoneRepository.insertForFlaggedArchivedStudents(now);
+            int moved = studentRepository.moveFlaggedRowsToArchive(now);
+            if (moved > 0) {
+                databaseMaintenance.recordBulkChange(moved);
+                eventPublisher.publishEvent(new StudentsChangedEvent("archived students moved", moved));
+                System.out.println("✓ Moved " + moved + " archived student(s) to students_archive");
+            }
+        } catch (Exception e) {
+            // Roll back the tombstones too; the rows stay flagged and are moved on the next start
+            org.springframework.transaction.interceptor.TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            System.err.println("⚠ Warning: Could not move archived students to students_archive: " + e.getMessage());
+        }
     }
     
     @Transactional
     public void deleteStudent(Long id) {
-        if (!studentRepository.existsById(id)) {
-            throw new RuntimeException("Student not found with id: " + id);
-        }
-        studentRepository.deleteById(id);
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
+        StudentDto before = StudentDto.fromStudent(student);
+        // Leave a tombstone so sync clients remove their copy too
+        studentTombstoneRepository.save(new StudentTombstone(student, LocalDateTime.now()));
+        studentRepository.delete(student);
+        eventPublisher.publishEvent(new StudentUpdatedEvent(before, null));
     }
     
     /**
-     * Clears all students from the database.
+     * Clears all students from the database, archived ones included.
      * This removes all student records from all grades, sections, and school years.
      */
     @Transactional
     public void clearAllStudents() {
         long count = studentRepository.count();
-        if (count > 0) {
+        long archivedCount = archivedStudentRepository.count();
+        if (count + archivedCount > 0) {
+            LocalDateTime now = LocalDateTime.now();
+            studentTombstoneRepository.insertForAllStudents(now);
+            studentTombstoneRepository.insertForArchivedStudentsWithoutTombstone(now);
             studentRepository.deleteAll();
-            System.out.println("✓ Cleared all " + count + " students from the database.");
+            archivedStudentRepository.deleteAllInBatch();
+            eventPublisher.publishEvent(new StudentsChangedEvent("all students cleared", (int) (count + archivedCount)));
+            System.out.println("✓ Cleared all " + count + " students and " + archivedCount + " archived students from the database.");
         } else {
             System.out.println("✓ No students found to clear.");
         }
@@ -654,6 +950,7 @@ public class StudentService {
             }
         }
         
+        eventPublisher.publishEvent(new StudentsChangedEvent("names updated", updatedCount));
         System.out.println("✓ Updated " + updatedCount + " students with unique full names.");
         if (updatedCount > 10) {
             System.out.println("  ... and " + (updatedCount - 10) + " more students updated.");
@@ -714,6 +1011,9 @@ public class StudentService {
             }
         }
         
+        if (fixedCount > 0) {
+            eventPublisher.publishEvent(new StudentsChangedEvent("duplicate names fixed", fixedCount));
+        }
         System.out.println("✓ Fixed " + fixedCount + " duplicate student names using name variations.");
     }
     
@@ -733,14 +1033,14 @@ public class StudentService {
             
             // Check if unique, if not try different suffixes
             int attempts = 0;
-            while (studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId) && attempts < nameSuffixes.length * 2) {
+            while (isNameTaken(newName, studentId) && attempts < nameSuffixes.length * 2) {
                 suffixIndex = (suffixIndex + 1) % nameSuffixes.length;
                 newName = baseName + " " + nameSuffixes[suffixIndex];
                 attempts++;
             }
             
             // If still not unique, try adding a different last name
-            if (studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId)) {
+            if (isNameTaken(newName, studentId)) {
                 int lastNameIndex = (index - 1) % alternativeLastNames.length;
                 newName = baseName + " " + alternativeLastNames[lastNameIndex];
             }
@@ -759,7 +1059,7 @@ public class StudentService {
             // Make sure it's different from current middle name
             if (!newMiddleName.equalsIgnoreCase(middleName)) {
                 String newName = firstName + " " + newMiddleName + " " + lastName;
-                if (!studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId)) {
+                if (!isNameTaken(newName, studentId)) {
                     return newName;
                 }
             }
@@ -776,7 +1076,7 @@ public class StudentService {
             } else {
                 newName = firstName + " " + newLastName;
             }
-            if (!studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId)) {
+            if (!isNameTaken(newName, studentId)) {
                 return newName;
             }
         }
@@ -788,7 +1088,7 @@ public class StudentService {
         
         // Check if unique, if not try different suffixes
         int attempts = 0;
-        while (studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId) && attempts < nameSuffixes.length * 2) {
+        while (isNameTaken(newName, studentId) && attempts < nameSuffixes.length * 2) {
             suffixIndex = (suffixIndex + 1) % nameSuffixes.length;
             suffix = nameSuffixes[suffixIndex];
             newName = originalName + " " + suffix;
@@ -796,7 +1096,7 @@ public class StudentService {
         }
         
         // Strategy 4: If still not unique, combine last name change with suffix
-        if (studentRepository.existsByNameIgnoreCaseExcludingId(newName, studentId)) {
+        if (isNameTaken(newName, studentId)) {
             lastNameIndex = ((index - 1) * 7 + 1) % alternativeLastNames.length;
             newLastName = alternativeLastNames[lastNameIndex];
             if (parts.length >= 3) {
@@ -809,11 +1109,22 @@ public class StudentService {
         return newName;
     }
     
+    /**
+     * Publish a change to one student; views get it once the transaction commits. It counts as an
+     * enrollment when the student ends up Enrolled and was not enrolled in that section before.
+     */
+    private void publishStudentChange(StudentDto before, StudentDto after) {
+        boolean enrolled = after != null && "Enrolled".equals(after.getEnrollmentStatus()) &&
+                (before == null || !"Enrolled".equals(before.getEnrollmentStatus()) ||
+                 !java.util.Objects.equals(before.getSectionId(), after.getSectionId()));
+        eventPublisher.publishEvent(enrolled ? new StudentEnrolledEvent(before, after) : new StudentUpdatedEvent(before, after));
+    }
+    
     /**
      * Checks if two names match when ignoring common suffixes (Jr., Sr., II, III, IV, etc.)
      * Returns true if the names are the same after removing suffixes, false otherwise.
      */
-    private boolean namesMatchWithoutSuffix(String name1, String name2) {
+    static boolean namesMatchWithoutSuffix(String name1, String name2) {
         if (name1 == null || name2 == null) {
             return false;
         }
@@ -834,7 +1145,7 @@ public class StudentService {
      * Removes common name suffixes from a name string.
      * Suffixes: jr, sr, ii, iii, iv, v, junior, senior, 2nd, 3rd, 4th, etc.
      */
-    private String removeSuffixes(String name) {
+    private static String removeSuffixes(String name) {
         if (name == null || name.isEmpty()) {
             return name;
         }
@@ -874,4 +1185,128 @@ public class StudentService {
         }
         return Period.between(birthdate, LocalDate.now()).getYears();
     }
+    
+    public static class StudentListVersion {
+        private LocalDateTime lastModified;
+        private long count;
+        private long archivedCount;
+        
+        public LocalDateTime getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(LocalDateTime lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public void setCount(long count) {
+            this.count = count;
+        }
+        
+        public long getArchivedCount() {
+            return archivedCount;
+        }
+        
+        public void setArchivedCount(long archivedCount) {
+            this.archivedCount = archivedCount;
+        }
+    }
+    
+    private static final class PlannedReEnrollment {
+        private final Student student;
+        private final Integer gradeLevel;
+        private final Section section;
+        private final com.enrollment.system.model.Semester semester;
+        private final boolean needsSeat;
+        
+        PlannedReEnrollment(Student student, Integer gradeLevel, Section section,
+                            com.enrollment.system.model.Semester semester, boolean needsSeat) {
+            this.student = student;
+            this.gradeLevel = gradeLevel;
+            this.section = section;
+            this.semester = semester;
+            this.needsSeat = needsSeat;
+        }
+        
+        Long semesterId() {
+            return semester != null ? semester.getId() : null;
+        }
+        
+        String seatKey() {
+            return section.getId() + ":" + semesterId();
+        }
+    }
+    
+    public static class ReEnrollmentResult {
+        private final List<ReEnrollmentOutcome> outcomes = new java.util.ArrayList<>();
+        private int successCount;
+        private int failCount;
+        
+        void addSuccess(Long studentId, String studentName) {
+            outcomes.add(new ReEnrollmentOutcome(studentId, studentName, true, null));
+            successCount++;
+        }
+        
+        void addFailure(Long studentId, String studentName, String message) {
+            outcomes.add(new ReEnrollmentOutcome(studentId, studentName, false, message));
+            failCount++;
+        }
+        
+        public List<ReEnrollmentOutcome> getOutcomes() {
+            return outcomes;
+        }
+        
+        public int getSuccessCount() {
+            return successCount;
+        }
+        
+        public int getFailCount() {
+            return failCount;
+        }
+        
+        /**
+         * One line per failed student, e.g. "Juan Dela Cruz: This section is full. Maximum capacity reached."
+         */
+        public List<String> getErrors() {
+            return outcomes.stream()
+                    .filter(outcome -> !outcome.isSuccess())
+                    .map(outcome -> (outcome.getStudentName() != null ? outcome.getStudentName() : "Student " + outcome.getStudentId())
+                            + ": " + outcome.getMessage())
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    public static class ReEnrollmentOutcome {
+        private final Long studentId;
+        private final String studentName;
+        private final boolean success;
+        private final String message;
+        
+        public ReEnrollmentOutcome(Long studentId, String studentName, boolean success, String message) {
+            this.studentId = studentId;
+            this.studentName = studentName;
+            this.success = success;
+            this.message = message;
+        }
+        
+        public Long getStudentId() {
+            return studentId;
+        }
+        
+        public String getStudentName() {
+            return studentName;
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.model.Student;
+import com.enrollment.system.model.StudentTombstone;
+import com.enrollment.system.repository.StudentRepository;
+import com.enrollment.system.repository.StudentTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental change feed for machines that keep a copy of the student list.
+ *
+ * A client remembers the watermark (since, afterId) returned by the last batch and asks for
+ * everything after it: inserted, updated and archived rows come from students.updated_at, hard
+ * deletes from student_tombstones. Rows are only returned up to a short commit lag behind the
+ * current time, so a transaction that stamped updated_at but had not committed yet when the batch
+ * was read is still picked up by the next request.
+ */
+@Service
+@Timed("enrollment.service")
+public class StudentSyncService {
+    
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private StudentTombstoneRepository studentTombstoneRepository;
+    
+    @Value("${enrollment.sync.commit-lag-ms:2000}")
+    private long commitLagMs;
+    
+    @Value("${enrollment.sync.tombstone-retention-days:180}")
+    private int tombstoneRetentionDays;
+    
+    /**
+     * Changes after the given watermark. A null since means a full sync from the beginning.
+     */
+    @Transactional(readOnly = true)
+    public SyncBatch getChangesSince(LocalDateTime since, Long afterId, int limit) {
+        LocalDateTime from = since != null ? since : BEGINNING;
+        long fromId = afterId != null ? afterId : 0L;
+        LocalDateTime upTo = LocalDateTime.now().minus(commitLagMs, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.MILLIS);
+        
+        // One extra row tells whether another batch follows
+        List<Student> rows = studentRepository.findChangedSince(from, fromId, upTo, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<Student> changed = hasMore ? rows.subList(0, limit) : rows;
+        
+        SyncBatch batch = new SyncBatch();
+        batch.setHasMore(hasMore);
+        if (hasMore) {
+            // Resume inside the same timestamp; deletes are only sent up to the rows sent so far
+            Student last = changed.get(changed.size() - 1);
+            batch.setNextSince(last.getUpdatedAt());
+            batch.setNextAfterId(last.getId());
+        } else {
+            batch.setNextSince(upTo.isAfter(from) ? upTo : from);
+            batch.setNextAfterId(0L);
+        }
+        batch.setStudents(changed.stream().map(StudentDto::fromStudent).collect(Collectors.toList()));
+        batch.setDeleted(since != null
+                ? studentTombstoneRepository.findDeletedBetween(from, batch.getNextSince())
+                : new ArrayList<>());
+        return batch;
+    }
+    
+    /**
+     * Oldest watermark that can still be served; tombstones before it have been purged, so a
+     * client that is further behind would miss deletions and has to start over with a full sync.
+     */
+    public LocalDateTime getEarliestSince() {
+        return LocalDateTime.now().minusDays(tombstoneRetentionDays);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillUpdatedAt() {
+        int updated = studentRepository.backfillMissingUpdatedAt();
+        if (updated > 0) {
+            System.out.println("✓ Set updated_at on " + updated + " student(s) for the sync feed");
+        }
+    }
+    
+    @Scheduled(cron = "${enrollment.sync.tombstone-purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purgeOldTombstones() {
+        int deleted = studentTombstoneRepository.deleteOlderThan(getEarliestSince());
+        if (deleted > 0) {
+            System.out.println("✓ Purged " + deleted + " student tombstone(s) older than " + tombstoneRetentionDays + " days");
+        }
+    }
+    
+    public static class SyncBatch {
+        private List<StudentDto> students;
+        private List<StudentTombstone> deleted;
+        private LocalDateTime nextSince;
+        private Long nextAfterId;
+        private boolean hasMore;
+        
+        public List<StudentDto> getStudents() {
+            return students;
+        }
+        
+        public void setStudents(List<StudentDto> students) {
+            this.students = students;
+        }
+        
+        public List<StudentTombstone> getDeleted() {
+            return deleted;
+        }
+        
+        public void setDeleted(List<StudentTombstone> deleted) {
+            this.deleted = deleted;
+        }
+        
+        public LocalDateTime getNextSince() {
+            return nextSince;
+        }
+        
+        public void setNextSince(LocalDateTime nextSince) {
+            this.nextSince = nextSince;
+        }
+        
+        public Long getNextAfterId() {
+            return nextAfterId;
+        }
+        
+        public void setNextAfterId(Long nextAfterId) {
+            this.nextAfterId = nextAfterId;
+        }
+        
+        public boolean isHasMore() {
+            return hasMore;
+        }
+        
+        public void setHasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+        }
+    }
+}
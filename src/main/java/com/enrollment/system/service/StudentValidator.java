@@ -0,0 +1,222 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.dto.StudentDto;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.repository.ArchivedStudentRepository;
+import com.enrollment.system.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The rules a new student must pass, shared by StudentService (one student from the form) and
+ * StudentImportService (many rows from a file) so both accept and reject the same students with
+ * the same messages.
+ *
+ * The field and section checks are static and only look at the values given, so the importer can
+ * run them for many rows in parallel. Names and LRNs must be unique across active and archived
+ * students, so an archived student can always be restored; those checks query both tables.
+ * Every check returns the problem as a message, or null (or an empty collection) when there is none.
+ */
+@Service
+public class StudentValidator {
+
+    public static final int MAX_NAME_LENGTH = 100;
+
+    private static final Pattern LRN = Pattern.compile("\\d{12}");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+
+    /**
+     * Problems with the student's own fields: name, LRN, grade level and GWA.
+     */
+    public static List<String> checkFields(StudentDto student) {
+        List<String> errors = new ArrayList<>();
+        addIfPresent(errors, checkName(student.getName(), student.getParentGuardianName()));
+        addIfPresent(errors, checkLrn(student.getLrn()));
+        addIfPresent(errors, checkGradeLevel(student.getGradeLevel()));
+        addIfPresent(errors, checkGwa(student.getGwa()));
+        return errors;
+    }
+
+    public static String checkName(String name, String parentGuardianName) {
+        String trimmed = name != null ? name.trim() : "";
+        if (trimmed.isEmpty()) {
+            return "Name is required.";
+        }
+        if (trimmed.length() > MAX_NAME_LENGTH) {
+            return "Name is longer than " + MAX_NAME_LENGTH + " characters.";
+        }
+        if (parentGuardianName != null && !parentGuardianName.trim().isEmpty()
+                && StudentService.namesMatchWithoutSuffix(trimmed, parentGuardianName.trim())) {
+            return "Student name cannot be the same as parent/guardian name. If they share the same name, the student must have a suffix (e.g., Jr., Sr., II, III, IV). Example: \"Arnel Caparoso Jr.\"";
+        }
+        return null;
+    }
+
+    public static String checkLrn(String lrn) {
+        if (lrn == null || lrn.trim().isEmpty()) {
+            return "LRN is required.";
+        }
+        if (!LRN.matcher(lrn.trim()).matches()) {
+            return "LRN must be exactly 12 digits.";
+        }
+        return null;
+    }
+
+    public static String checkGradeLevel(Integer gradeLevel) {
+        if (gradeLevel == null) {
+            return "Grade Level is required.";
+        }
+        if (gradeLevel != 11 && gradeLevel != 12) {
+            return "Grade Level must be 11 or 12.";
+        }
+        return null;
+    }
+
+    public static String checkGwa(Double gwa) {
+        if (gwa != null && (gwa < 75.0 || gwa > 100.0)) {
+            return "GWA must be between 75.00 and 100.00.";
+        }
+        return null;
+    }
+
+    /**
+     * Whether the student may be placed in section (null for no section): enrolled students need a
+     * section, others may not have one, and the section must be active and match the student's
+     * grade level and strand. Capacity is left to the caller.
+     */
+    public static String checkSection(StudentDto student, Section section) {
+        boolean enrolled = "Enrolled".equals(student.getEnrollmentStatus());
+        if (section == null) {
+            return enrolled ? "Enrolled students must be assigned to a section." : null;
+        }
+        if (!enrolled) {
+            return "Sections can only be assigned to enrolled students. Please change the enrollment status to 'Enrolled' or remove the section assignment.";
+        }
+        if (student.getGradeLevel() != null && section.getGradeLevel() != null
+                && !student.getGradeLevel().equals(section.getGradeLevel())) {
+            return "Student grade level (" + student.getGradeLevel() +
+                    ") does not match section grade level (" + section.getGradeLevel() + ").";
+        }
+        if (student.getStrand() != null && section.getStrand() != null
+                && !student.getStrand().trim().equalsIgnoreCase(section.getStrand().trim())) {
+            return "Student strand (" + student.getStrand() +
+                    ") does not match section strand (" + section.getStrand() + ").";
+        }
+        if (Boolean.FALSE.equals(section.getIsActive())) {
+            return "Section " + section.getName() + " is not active.";
+        }
+        return null;
+    }
+
+    /**
+     * Whether another student, active or archived, has this name (ignoring case and surrounding spaces).
+     *
+     * @param excludeId the student being edited, or null for a new one
+     */
+    public String findNameConflict(String name, Long excludeId) {
+        Long id = excludeId != null ? excludeId : -1L;
+        String trimmed = name.trim();
+        if (studentRepository.existsByNameIgnoreCaseExcludingId(trimmed, id)) {
+            return nameTaken(trimmed);
+        }
+        if (archivedStudentRepository.existsByNameIgnoreCaseExcludingId(trimmed, id)) {
+            return nameArchived(trimmed);
+        }
+        return null;
+    }
+
+    /**
+     * Whether another student, active or archived, has this LRN.
+     *
+     * @param excludeId the student being edited, or null for a new one
+     */
+    public String findLrnConflict(String lrn, Long excludeId) {
+        Long id = excludeId != null ? excludeId : -1L;
+        String trimmed = lrn.trim();
+        if (studentRepository.existsByLrnExcludingId(trimmed, id)) {
+            return lrnTaken(trimmed);
+        }
+        if (archivedStudentRepository.existsByLrnExcludingId(trimmed, id)) {
+            return lrnArchived(trimmed);
+        }
+        return null;
+    }
+
+    /**
+     * Bulk form of findNameConflict for new students: one query per table.
+     *
+     * @param names trimmed names
+     * @return the taken names, in lower case, with the message for each
+     */
+    public Map<String, String> findNameConflicts(Collection<String> names) {
+        Map<String, String> conflicts = new HashMap<>();
+        if (names.isEmpty()) {
+            return conflicts;
+        }
+        Map<String, String> byLowerCase = new HashMap<>();
+        for (String name : names) {
+            byLowerCase.putIfAbsent(name.toLowerCase(), name);
+        }
+        for (String name : archivedStudentRepository.findExistingLowerCaseNames(byLowerCase.keySet())) {
+            conflicts.put(name, nameArchived(byLowerCase.get(name)));
+        }
+        // Active students win: restoring is not the answer for them
+        for (String name : studentRepository.findExistingLowerCaseNames(byLowerCase.keySet())) {
+            conflicts.put(name, nameTaken(byLowerCase.get(name)));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Bulk form of findLrnConflict for new students: one query per table.
+     *
+     * @return the taken LRNs with the message for each
+     */
+    public Map<String, String> findLrnConflicts(Collection<String> lrns) {
+        Map<String, String> conflicts = new HashMap<>();
+        if (lrns.isEmpty()) {
+            return conflicts;
+        }
+        for (String lrn : archivedStudentRepository.findExistingLrns(lrns)) {
+            conflicts.put(lrn, lrnArchived(lrn));
+        }
+        for (String lrn : studentRepository.findExistingLrns(lrns)) {
+            conflicts.put(lrn, lrnTaken(lrn));
+        }
+        return conflicts;
+    }
+
+    private static String nameTaken(String name) {
+        return "A student with the name \"" + name + "\" already exists. Student names must be unique.";
+    }
+
+    private static String nameArchived(String name) {
+        return "A student with the name \"" + name + "\" is archived. Restore or re-enroll that student instead.";
+    }
+
+    private static String lrnTaken(String lrn) {
+        return "LRN " + lrn + " already exists for another student.";
+    }
+
+    private static String lrnArchived(String lrn) {
+        return "LRN " + lrn + " belongs to an archived student. Restore or re-enroll that student instead.";
+    }
+
+    private static void addIfPresent(List<String> errors, String error) {
+        if (error != null) {
+            errors.add(error);
+        }
+    }
+}
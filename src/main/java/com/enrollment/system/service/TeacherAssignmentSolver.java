@@ -0,0 +1,562 @@
+package com.enrollment.system.service;
+
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import com.enrollment.system.model.Section;
+import com.enrollment.system.model.Semester;
+import com.enrollment.system.model.Subject;
+import com.enrollment.system.model.User;
+import com.enrollment.system.repository.SectionRepository;
+import com.enrollment.system.repository.SemesterRepository;
+import com.enrollment.system.repository.SubjectRepository;
+import com.enrollment.system.repository.TeacherAssignmentRepository;
+import com.enrollment.system.repository.TeacherAssignmentRepositoryCustom.SubjectSection;
+import com.enrollment.system.repository.UserRepository;
+import com.enrollment.system.util.TeacherAssignmentIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Assigns teachers to every subject-section pair that needs one.
+ *
+ * The pairs are all active subjects × active sections of the same grade level whose strand matches
+ * (subjects with strand "ALL STRAND" or none fit every section), limited to the semester's grade
+ * level when a semester is given. A teacher who has preferred subjects (users.subjects) only gets
+ * those subjects; a teacher without preferences can take any subject but is used after the
+ * specialists. Nobody exceeds MAX_ASSIGNMENTS.
+ *
+ * A greedy pass places the most constrained pairs first. Local search then moves displaced pairs
+ * into full teachers by relocating one of their assignments (to cover more pairs), and tries
+ * relocations and swaps that even out loads and reduce the number of different subjects per
+ * teacher. The search is bounded by enrollment.teacher-assignment.solver-time-ms.
+ */
+@Service
+@Timed("enrollment.service")
+public class TeacherAssignmentSolver {
+
+    public static final int MAX_ASSIGNMENTS = 8;
+
+    private static final String ALL_STRANDS = "ALL STRAND";
+
+    // Cost weights next to the load² balance term; covering a pair always comes first
+    private static final long SUBJECT_COST = 3L;
+    private static final long GENERALIST_COST = 2L;
+
+    private static final long RANDOM_SEED = 42L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private TeacherAssignmentRepository teacherAssignmentRepository;
+
+    @Autowired
+    private TeacherAssignmentIndex teacherAssignmentIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${enrollment.teacher-assignment.solver-time-ms:2000}")
+    private long solverTimeMs;
+
+    /**
+     * Compute an assignment without saving it.
+     *
+     * @param semesterId limit to the semester's grade level, or null for all grade levels
+     * @param keepExisting keep current assignments and only fill the pairs nobody teaches;
+     *                     false plans every pair of the grade level from scratch, while other grade
+     *                     levels' assignments stay and count towards teacher loads
+     */
+    @Transactional(readOnly = true)
+    public SolverResult preview(Long semesterId, boolean keepExisting) {
+        return solve(semesterId, keepExisting);
+    }
+
+    /**
+     * Compute an assignment and write it in one batch. With keepExisting false only the assignments
+     * in scope are replaced: those of the semester's grade level, or all of them without a semester.
+     *
+     * Only the teachers whose assignments change get a new assignment version. The solve reads
+     * before anything is written, so if another connection commits in between, SQLite refuses the
+     * writes (SQLITE_BUSY_SNAPSHOT) and the run fails instead of overwriting that change.
+     */
+    @Transactional
+    public SolverResult solveAndApply(Long semesterId, boolean keepExisting) {
+        SolverResult result = solve(semesterId, keepExisting);
+
+        Set<Long> touchedTeachers = new HashSet<>();
+        Map<Long, List<SubjectSection>> removed = new LinkedHashMap<>();
+        if (!keepExisting) {
+            removed = teacherAssignmentRepository.deleteAssignmentsForGradeLevel(result.getGradeLevel());
+            removed.forEach(teacherAssignmentIndex::removeAssignments);
+            touchedTeachers.addAll(removed.keySet());
+        }
+        Map<Long, List<SubjectSection>> pairsByTeacher = new LinkedHashMap<>();
+        for (PlannedAssignment assignment : result.getAssignments()) {
+            pairsByTeacher.computeIfAbsent(assignment.getTeacherId(), k -> new ArrayList<>())
+                    .add(new SubjectSection(assignment.getSubjectId(), assignment.getSectionId()));
+        }
+        int inserted = teacherAssignmentRepository.insertAssignments(pairsByTeacher);
+        pairsByTeacher.forEach(teacherAssignmentIndex::addAssignments);
+        touchedTeachers.addAll(pairsByTeacher.keySet());
+
+        if (!touchedTeachers.isEmpty()) {
+            // Open editors of these teachers reload before their next save
+            userRepository.incrementAssignmentVersions(touchedTeachers);
+            eventPublisher.publishEvent(new AssignmentsChangedEvent(touchedTeachers, pairsByTeacher, removed));
+        }
+
+        result.setApplied(true);
+        System.out.println("✓ Teacher assignment solver saved " + inserted + " assignment(s), " +
+                result.getUnassigned().size() + " pair(s) left without a teacher");
+        return result;
+    }
+
+    private SolverResult solve(Long semesterId, boolean keepExisting) {
+        long startTime = System.currentTimeMillis();
+
+        Integer gradeLevel = null;
+        if (semesterId != null) {
+            Semester semester = semesterRepository.findById(semesterId)
+                    .orElseThrow(() -> new RuntimeException("Semester not found with id: " + semesterId));
+            gradeLevel = semester.getGradeLevel();
+        }
+
+        // Teachers and their remaining capacity
+        List<TeacherSlot> teachers = new ArrayList<>();
+        Map<Long, TeacherSlot> teachersById = new HashMap<>();
+        for (User user : userRepository.findActiveByRoleWithSubjects(User.UserRole.TEACHER)) {
+            TeacherSlot teacher = new TeacherSlot(user);
+            teachers.add(teacher);
+            teachersById.put(user.getId(), teacher);
+        }
+
+        // Assignments that stay: all of them, or with keepExisting false those outside the grade level
+        // being planned (without a semester every assignment is replaced)
+        Set<SubjectSection> taken = new HashSet<>();
+        if (keepExisting || gradeLevel != null) {
+            Map<Long, Integer> gradeBySection = new HashMap<>();
+            for (Section section : sectionRepository.findAll()) {
+                gradeBySection.put(section.getId(), section.getGradeLevel());
+            }
+            for (Object[] row : teacherAssignmentRepository.findAllAssignmentIds()) {
+                SubjectSection pair = new SubjectSection((Long) row[1], (Long) row[2]);
+                if (!keepExisting && gradeLevel.equals(gradeBySection.get(pair.getSectionId()))) {
+                    continue;
+                }
+                taken.add(pair);
+                TeacherSlot teacher = teachersById.get((Long) row[0]);
+                if (teacher != null) {
+                    teacher.fixedLoad++;
+                    teacher.subjectCounts.merge(pair.getSubjectId(), 1, Integer::sum);
+                }
+            }
+        }
+
+        // Pairs that need a teacher
+        List<Subject> subjects = subjectRepository.findByIsActiveTrue();
+        List<Section> sections = sectionRepository.findByIsActiveTrue();
+        List<Demand> demands = new ArrayList<>();
+        for (Subject subject : subjects) {
+            if (subject.getGradeLevel() == null || (gradeLevel != null && !gradeLevel.equals(subject.getGradeLevel()))) {
+                continue;
+            }
+            for (Section section : sections) {
+                if (!subject.getGradeLevel().equals(section.getGradeLevel()) || !strandMatches(subject, section)) {
+                    continue;
+                }
+                if (taken.contains(new SubjectSection(subject.getId(), section.getId()))) {
+                    continue;
+                }
+                Demand demand = new Demand(subject, section);
+                for (TeacherSlot teacher : teachers) {
+                    if (teacher.canTeach(subject.getId())) {
+                        demand.eligible.add(teacher);
+                    }
+                }
+                demands.add(demand);
+            }
+        }
+
+        Solver solver = new Solver(demands, startTime + Math.max(0L, solverTimeMs));
+        solver.greedy();
+        solver.improve();
+
+        SolverResult result = new SolverResult();
+        result.setGradeLevel(gradeLevel);
+        result.setDemandCount(demands.size());
+        for (Demand demand : demands) {
+            if (demand.teacher != null) {
+                result.getAssignments().add(new PlannedAssignment(demand, demand.teacher));
+            } else {
+                result.getUnassigned().add(new PlannedAssignment(demand, null));
+            }
+        }
+        for (TeacherSlot teacher : teachers) {
+            result.getLoads().put(teacher.id, teacher.load());
+        }
+        result.setElapsedMs(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private static boolean strandMatches(Subject subject, Section section) {
+        String strand = subject.getStrand();
+        if (strand == null || strand.isBlank() || ALL_STRANDS.equalsIgnoreCase(strand.trim())) {
+            return true;
+        }
+        return section.getStrand() != null && strand.trim().equalsIgnoreCase(section.getStrand().trim());
+    }
+
+    /**
+     * Greedy construction plus local search over the demands. Only the pairs created by this run move;
+     * existing assignments count towards loads and subject variety but stay where they are.
+     */
+    private static class Solver {
+        private final List<Demand> demands;
+        private final long deadline;
+        private final Random random = new Random(RANDOM_SEED);
+
+        Solver(List<Demand> demands, long deadline) {
+            this.demands = demands;
+            this.deadline = deadline;
+        }
+
+        void greedy() {
+            // Most constrained pairs first; ties in a fixed order so the result is repeatable
+            List<Demand> order = new ArrayList<>(demands);
+            order.sort(Comparator.comparingInt((Demand d) -> d.eligible.size())
+                    .thenComparing(d -> d.subjectId)
+                    .thenComparing(d -> d.sectionId));
+            for (Demand demand : order) {
+                TeacherSlot best = null;
+                long bestCost = Long.MAX_VALUE;
+                for (TeacherSlot teacher : demand.eligible) {
+                    if (teacher.isFull()) {
+                        continue;
+                    }
+                    long cost = teacher.addCost(demand.subjectId);
+                    if (cost < bestCost) {
+                        best = teacher;
+                        bestCost = cost;
+                    }
+                }
+                if (best != null) {
+                    assign(demand, best);
+                }
+            }
+        }
+
+        void improve() {
+            boolean covered = true;
+            while (covered && System.currentTimeMillis() < deadline) {
+                covered = coverUnassigned();
+            }
+
+            List<Demand> assigned = new ArrayList<>();
+            for (Demand demand : demands) {
+                if (demand.teacher != null && demand.eligible.size() > 1) {
+                    assigned.add(demand);
+                }
+            }
+            if (assigned.isEmpty()) {
+                return;
+            }
+
+            // Random relocations and swaps, accepting only improvements; stop after a long run without one
+            int idle = 0;
+            int maxIdle = Math.max(10_000, assigned.size() * 50);
+            while (idle < maxIdle && System.currentTimeMillis() < deadline) {
+                Demand demand = assigned.get(random.nextInt(assigned.size()));
+                boolean improved = random.nextBoolean()
+                        ? tryRelocate(demand)
+                        : trySwap(demand, assigned.get(random.nextInt(assigned.size())));
+                idle = improved ? 0 : idle + 1;
+            }
+        }
+
+        /**
+         * For each pair without a teacher, free a slot at an eligible teacher by moving one of their
+         * pairs to another eligible teacher with room.
+         */
+        private boolean coverUnassigned() {
+            boolean changed = false;
+            for (Demand demand : demands) {
+                if (demand.teacher != null) {
+                    continue;
+                }
+                placing:
+                for (TeacherSlot full : demand.eligible) {
+                    if (!full.isFull()) {
+                        assign(demand, full);
+                        changed = true;
+                        break;
+                    }
+                    for (Demand held : new ArrayList<>(full.planned)) {
+                        for (TeacherSlot other : held.eligible) {
+                            if (other != full && !other.isFull()) {
+                                unassign(held);
+                                assign(held, other);
+                                assign(demand, full);
+                                changed = true;
+                                break placing;
+                            }
+                        }
+                    }
+                }
+            }
+            return changed;
+        }
+
+        private boolean tryRelocate(Demand demand) {
+            TeacherSlot from = demand.teacher;
+            TeacherSlot to = demand.eligible.get(random.nextInt(demand.eligible.size()));
+            if (to == from || to.isFull()) {
+                return false;
+            }
+            long delta = from.removeCost(demand.subjectId) + to.addCost(demand.subjectId);
+            if (delta >= 0) {
+                return false;
+            }
+            unassign(demand);
+            assign(demand, to);
+            return true;
+        }
+
+        private boolean trySwap(Demand first, Demand second) {
+            TeacherSlot a = first.teacher;
+            TeacherSlot b = second.teacher;
+            if (a == b || first.subjectId.equals(second.subjectId)
+                    || !first.eligible.contains(b) || !second.eligible.contains(a)) {
+                return false;
+            }
+            // Loads stay the same; only the number of different subjects per teacher changes
+            long delta = a.subjectSwapCost(first.subjectId, second.subjectId)
+                    + b.subjectSwapCost(second.subjectId, first.subjectId);
+            if (delta >= 0) {
+                return false;
+            }
+            unassign(first);
+            unassign(second);
+            assign(first, b);
+            assign(second, a);
+            return true;
+        }
+
+        private void assign(Demand demand, TeacherSlot teacher) {
+            demand.teacher = teacher;
+            teacher.planned.add(demand);
+            teacher.subjectCounts.merge(demand.subjectId, 1, Integer::sum);
+        }
+
+        private void unassign(Demand demand) {
+            TeacherSlot teacher = demand.teacher;
+            teacher.planned.remove(demand);
+            teacher.subjectCounts.merge(demand.subjectId, -1, Integer::sum);
+            if (teacher.subjectCounts.get(demand.subjectId) <= 0) {
+                teacher.subjectCounts.remove(demand.subjectId);
+            }
+            demand.teacher = null;
+        }
+    }
+
+    private static class TeacherSlot {
+        final Long id;
+        final String name;
+        final Set<Long> preferredSubjectIds = new HashSet<>();
+        final boolean generalist;
+        final List<Demand> planned = new ArrayList<>();
+        final Map<Long, Integer> subjectCounts = new HashMap<>();
+        int fixedLoad;
+
+        TeacherSlot(User user) {
+            this.id = user.getId();
+            this.name = user.getFullName();
+            for (Subject subject : user.getSubjects()) {
+                preferredSubjectIds.add(subject.getId());
+            }
+            this.generalist = preferredSubjectIds.isEmpty();
+        }
+
+        boolean canTeach(Long subjectId) {
+            return generalist || preferredSubjectIds.contains(subjectId);
+        }
+
+        int load() {
+            return fixedLoad + planned.size();
+        }
+
+        boolean isFull() {
+            return load() >= MAX_ASSIGNMENTS;
+        }
+
+        // Cost change of one more pair: load² grows by 2L+1
+        long addCost(Long subjectId) {
+            return 2L * load() + 1 + (subjectCounts.containsKey(subjectId) ? 0 : SUBJECT_COST)
+                    + (generalist ? GENERALIST_COST : 0);
+        }
+
+        long removeCost(Long subjectId) {
+            return -(2L * load() - 1) - (subjectCounts.getOrDefault(subjectId, 0) == 1 ? SUBJECT_COST : 0)
+                    - (generalist ? GENERALIST_COST : 0);
+        }
+
+        long subjectSwapCost(Long givenUp, Long received) {
+            return (subjectCounts.getOrDefault(givenUp, 0) == 1 ? -SUBJECT_COST : 0)
+                    + (subjectCounts.containsKey(received) ? 0 : SUBJECT_COST);
+        }
+    }
+
+    private static class Demand {
+        final Long subjectId;
+        final String subjectName;
+        final Long sectionId;
+        final String sectionName;
+        final List<TeacherSlot> eligible = new ArrayList<>();
+        TeacherSlot teacher;
+
+        Demand(Subject subject, Section section) {
+            this.subjectId = subject.getId();
+            this.subjectName = subject.getName();
+            this.sectionId = section.getId();
+            this.sectionName = section.getName();
+        }
+    }
+
+    /**
+     * Outcome of a solver run
+     */
+    public static class SolverResult {
+        // Grade level planned, null for all
+        private Integer gradeLevel;
+        private int demandCount;
+        private List<PlannedAssignment> assignments = new ArrayList<>();
+        private List<PlannedAssignment> unassigned = new ArrayList<>();
+        // Teacher id → total assignments after the run
+        private Map<Long, Integer> loads = new LinkedHashMap<>();
+        private long elapsedMs;
+        private boolean applied;
+
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+
+        public void setGradeLevel(Integer gradeLevel) {
+            this.gradeLevel = gradeLevel;
+        }
+
+        public int getDemandCount() {
+            return demandCount;
+        }
+
+        public void setDemandCount(int demandCount) {
+            this.demandCount = demandCount;
+        }
+
+        public List<PlannedAssignment> getAssignments() {
+            return assignments;
+        }
+
+        public void setAssignments(List<PlannedAssignment> assignments) {
+            this.assignments = assignments;
+        }
+
+        public List<PlannedAssignment> getUnassigned() {
+            return unassigned;
+        }
+
+        public void setUnassigned(List<PlannedAssignment> unassigned) {
+            this.unassigned = unassigned;
+        }
+
+        public Map<Long, Integer> getLoads() {
+            return loads;
+        }
+
+        public void setLoads(Map<Long, Integer> loads) {
+            this.loads = loads;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public void setElapsedMs(long elapsedMs) {
+            this.elapsedMs = elapsedMs;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+
+        public void setApplied(boolean applied) {
+            this.applied = applied;
+        }
+    }
+
+    /**
+     * One subject-section pair and the teacher chosen for it (null when no teacher could take it)
+     */
+    public static class PlannedAssignment {
+        private final Long teacherId;
+        private final String teacherName;
+        private final Long subjectId;
+        private final String subjectName;
+        private final Long sectionId;
+        private final String sectionName;
+
+        PlannedAssignment(Demand demand, TeacherSlot teacher) {
+            this.teacherId = teacher != null ? teacher.id : null;
+            this.teacherName = teacher != null ? teacher.name : null;
+            this.subjectId = demand.subjectId;
+            this.subjectName = demand.subjectName;
+            this.sectionId = demand.sectionId;
+            this.sectionName = demand.sectionName;
+        }
+
+        public Long getTeacherId() {
+            return teacherId;
+        }
+
+        public String getTeacherName() {
+            return teacherName;
+        }
+
+        public Long getSubjectId() {
+            return subjectId;
+        }
+
+        public String getSubjectName() {
+            return subjectName;
+        }
+
+        public Long getSectionId() {
+            return sectionId;
+        }
+
+        public String getSectionName() {
+            return sectionName;
+        }
+    }
+}
@@ -9,10 +9,16 @@ import com.enrollment.system.repository.UserRepository;
 import com.enrollment.system.repository.SubjectRepository;
 import com.enrollment.system.repository.SectionRepository;
 import com.enrollment.system.repository.TeacherAssignmentRepository;
+import com.enrollment.system.util.TeacherAssignmentIndex;
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,11 +30,15 @@ import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("enrollment.service")
 public class TeacherService {
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ProfilePictureService profilePictureService;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -41,6 +51,12 @@ public class TeacherService {
     @Autowired
     private TeacherAssignmentRepository teacherAssignmentRepository;
     
+    @Autowired
+    private TeacherAssignmentIndex teacherAssignmentIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional(readOnly = true)
     public List<UserDto> getAllTeachers() {
         return userRepository.findAll().stream()
@@ -159,9 +175,18 @@ public class TeacherService {
             teacher.setFullName(fullName.trim());
         }
         
-        // Update profile picture if provided
+        // Update profile picture if provided; the replaced file is removed once the change is committed
         if (profilePicture != null) {
+            String previousPicture = teacher.getProfilePicture();
             teacher.setProfilePicture(profilePicture);
+            if (previousPicture != null && !previousPicture.equals(profilePicture)) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        profilePictureService.deletePicture(previousPicture);
+                    }
+                });
+            }
         }
         
         teacher.setUpdatedAt(LocalDateTime.now());
@@ -267,14 +292,19 @@ public class TeacherService {
         return sections;
     }
     
-    @Transactional(readOnly = true)
     public long getUniqueSubjectCount(Long teacherId) {
-        return teacherAssignmentRepository.countDistinctSubjectsByTeacherId(teacherId);
+        return teacherAssignmentIndex.countDistinctSubjects(teacherId);
     }
     
-    @Transactional(readOnly = true)
     public long getTotalAssignmentCount(Long teacherId) {
-        return teacherAssignmentRepository.countTotalAssignmentsByTeacherId(teacherId);
+        return teacherAssignmentIndex.countAssignments(teacherId);
+    }
+    
+    /**
+     * Whether the teacher already holds the subject-section pair (answered from TeacherAssignmentIndex).
+     */
+    public boolean isAssigned(Long teacherId, Long subjectId, Long sectionId) {
+        return teacherAssignmentIndex.isAssigned(teacherId, subjectId, sectionId);
     }
     
     @Transactional(readOnly = true)
@@ -297,163 +327,101 @@ public class TeacherService {
         return subjectSectionMap;
     }
     
-    @Transactional
-    public void saveTeacherAssignments(Long teacherId, List<com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord> assignments) {
-        // Validate teacher exists
-        User teacher = userRepository.findById(teacherId)
-                .filter(user -> user.getRole() == User.UserRole.TEACHER)
+    /**
+     * Current version of a teacher's assignments. Pass it back to saveTeacherAssignments so a save
+     * based on an outdated list is rejected instead of overwriting someone else's changes.
+     */
+    @Transactional(readOnly = true)
+    public long getAssignmentVersion(Long teacherId) {
+        return userRepository.findAssignmentVersion(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
-        
+    }
+    
+    /**
+     * Replace a teacher's assignments with the given subject-section pairs. Only the difference is
+     * written: rows no longer wanted are deleted and new pairs inserted, each as one statement batch.
+     *
+     * @param expectedVersion version the caller's list is based on, or null to skip the check
+     * @return the new assignment version
+     * @throws StaleAssignmentsException if the assignments were changed since expectedVersion
+     */
+    @Transactional
+    public long saveTeacherAssignments(Long teacherId, List<com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord> assignments,
+                                       Long expectedVersion) {
         // Normalize input assignments - remove duplicates and invalid entries
-        Set<String> seenCombinations = new HashSet<>();
-        List<com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord> uniqueAssignments = new ArrayList<>();
-        
+        Set<TeacherAssignmentRepository.SubjectSection> pairs = new java.util.LinkedHashSet<>();
         if (assignments != null) {
             for (com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord assignmentRecord : assignments) {
                 if (assignmentRecord.getSubject() == null || assignmentRecord.getSubject().getId() == null ||
                     assignmentRecord.getSection() == null || assignmentRecord.getSection().getId() == null) {
                     continue; // Skip invalid assignments
                 }
-                
-                String combination = assignmentRecord.getSubject().getId() + "_" + assignmentRecord.getSection().getId();
-                if (!seenCombinations.contains(combination)) {
-                    seenCombinations.add(combination);
-                    uniqueAssignments.add(assignmentRecord);
-                }
+                pairs.add(new TeacherAssignmentRepository.SubjectSection(
+                        assignmentRecord.getSubject().getId(), assignmentRecord.getSection().getId()));
             }
         }
         
         // Validate maximum 8 total assignments (subject-section pairs)
-        if (uniqueAssignments.size() > 8) {
-            throw new RuntimeException("A teacher can have a maximum of 8 total assignments (subject-section pairs). Found: " + uniqueAssignments.size());
-        }
-        
-        // Get current assignments from database (more efficient than delete-all)
-        List<TeacherAssignment> existingAssignments = teacherAssignmentRepository.findByTeacherId(teacherId);
-        
-        // Create sets for comparison
-        Set<String> newCombinations = new HashSet<>();
-        Map<String, TeacherAssignment> existingMap = new HashMap<>();
-        
-        for (com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord assignmentRecord : uniqueAssignments) {
-            Long subjectId = assignmentRecord.getSubject().getId();
-            Long sectionId = assignmentRecord.getSection().getId();
-            String combination = subjectId + "_" + sectionId;
-            newCombinations.add(combination);
+        if (pairs.size() > 8) {
+            throw new RuntimeException("A teacher can have a maximum of 8 total assignments (subject-section pairs). Found: " + pairs.size());
         }
         
-        for (TeacherAssignment existing : existingAssignments) {
-            if (existing.getSubject() != null && existing.getSection() != null) {
-                String combination = existing.getSubject().getId() + "_" + existing.getSection().getId();
-                existingMap.put(combination, existing);
-            }
-        }
-        
-        // Determine what to delete (exists in DB but not in new list)
-        List<TeacherAssignment> toDelete = new ArrayList<>();
-        for (Map.Entry<String, TeacherAssignment> entry : existingMap.entrySet()) {
-            if (!newCombinations.contains(entry.getKey())) {
-                toDelete.add(entry.getValue());
-            }
+        // Bump the version first: the write takes SQLite's write lock up front (waiting on busy_timeout),
+        // so the reads below cannot turn this into a failing read-to-write upgrade under WAL
+        int updated = expectedVersion != null
+                ? userRepository.incrementAssignmentVersion(teacherId, expectedVersion)
+                : userRepository.incrementAssignmentVersion(teacherId);
+        User teacher = userRepository.findById(teacherId)
+                .filter(user -> user.getRole() == User.UserRole.TEACHER)
+                .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + teacherId));
+        if (updated == 0) {
+            throw new StaleAssignmentsException("The assignments of " + teacher.getFullName() +
+                    " were changed by someone else. The latest assignments have been loaded; please review them and try again.");
         }
         
-        // Determine what to add (exists in new list but not in DB)
-        List<com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord> toAdd = new ArrayList<>();
-        for (com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord assignmentRecord : uniqueAssignments) {
-            Long subjectId = assignmentRecord.getSubject().getId();
-            Long sectionId = assignmentRecord.getSection().getId();
-            String combination = subjectId + "_" + sectionId;
-            if (!existingMap.containsKey(combination)) {
-                toAdd.add(assignmentRecord);
-            }
+        // In-memory check first; it may reload the index, which is safe now the write lock is held.
+        // The SQL check below stays authoritative
+        Long conflictingTeacherId = teacherAssignmentIndex.findConflictingTeacher(teacherId, pairs);
+        if (conflictingTeacherId != null) {
+            String conflictingTeacherName = userRepository.findById(conflictingTeacherId)
+                    .map(User::getFullName)
+                    .orElse("Unknown Teacher");
+            throw new RuntimeException("Subject-section combination is already assigned to teacher: " + conflictingTeacherName + 
+                                     ". A subject-section combination can only be assigned to one teacher at a time.");
         }
         
-        // Delete only what needs to be removed (incremental update)
-        if (!toDelete.isEmpty()) {
-            teacherAssignmentRepository.deleteAll(toDelete);
+        List<TeacherAssignmentRepository.SubjectSection> desired = new ArrayList<>(pairs);
+        if (teacherAssignmentRepository.countPairsWithMissingReferences(desired) > 0) {
+            throw new RuntimeException("One or more subjects or sections not found in database");
         }
         
-        // Add only what needs to be added (incremental update)
-        if (!toAdd.isEmpty()) {
-            // Extract IDs for validation
-            List<Long> subjectIds = toAdd.stream()
-                    .map(a -> a.getSubject().getId())
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            List<Long> sectionIds = toAdd.stream()
-                    .map(a -> a.getSection().getId())
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            // Fetch all subjects and sections fresh from database
-            List<Subject> subjects = subjectRepository.findAllById(subjectIds);
-            if (subjects.size() != subjectIds.size()) {
-                throw new RuntimeException("One or more subjects not found in database");
-            }
-            
-            List<Section> sections = sectionRepository.findAllById(sectionIds);
-            if (sections.size() != sectionIds.size()) {
-                throw new RuntimeException("One or more sections not found in database");
-            }
-            
-            // Create maps for quick lookup
-            Map<Long, Subject> subjectMap = subjects.stream()
-                    .collect(Collectors.toMap(Subject::getId, s -> s));
-            Map<Long, Section> sectionMap = sections.stream()
-                    .collect(Collectors.toMap(Section::getId, s -> s));
-            
-            // Validate conflicts and create new assignments
-            List<TeacherAssignment> assignmentsToSave = new ArrayList<>();
-            for (com.enrollment.system.controller.AssignTeacherSubjectsSectionsController.AssignmentRecord assignmentRecord : toAdd) {
-                Long subjectId = assignmentRecord.getSubject().getId();
-                Long sectionId = assignmentRecord.getSection().getId();
-                
-                // Check if this subject-section combination is already assigned to a different teacher
-                java.util.Optional<TeacherAssignment> conflictingAssignment = 
-                    teacherAssignmentRepository.findBySubjectIdAndSectionIdExcludingTeacher(subjectId, sectionId, teacherId);
-                
-                if (conflictingAssignment.isPresent()) {
-                    TeacherAssignment conflict = conflictingAssignment.get();
-                    String conflictingTeacherName = conflict.getTeacher() != null ? conflict.getTeacher().getFullName() : "Unknown Teacher";
-                    throw new RuntimeException("Subject-section combination is already assigned to teacher: " + conflictingTeacherName + 
-                                             ". A subject-section combination can only be assigned to one teacher at a time.");
-                }
-                
-                // Get fresh entities from database
-                Subject subject = subjectMap.get(subjectId);
-                Section section = sectionMap.get(sectionId);
-                
-                if (subject == null) {
-                    throw new RuntimeException("Subject not found with id: " + subjectId);
-                }
-                if (section == null) {
-                    throw new RuntimeException("Section not found with id: " + sectionId);
-                }
-                
-                // Create new assignment with fresh managed entities
-                TeacherAssignment assignment = new TeacherAssignment(teacher, subject, section);
-                assignmentsToSave.add(assignment);
-            }
-            
-            // Save new assignments
-            if (!assignmentsToSave.isEmpty()) {
-                teacherAssignmentRepository.saveAll(assignmentsToSave);
-            }
+        // A subject-section combination can only be assigned to one teacher
+        String conflictingTeacherName = teacherAssignmentRepository.findConflictingTeacherName(teacherId, desired);
+        if (conflictingTeacherName != null) {
+            throw new RuntimeException("Subject-section combination is already assigned to teacher: " + conflictingTeacherName + 
+                                     ". A subject-section combination can only be assigned to one teacher at a time.");
         }
         
-        // Single flush at the end (more efficient)
-        teacherAssignmentRepository.flush();
+        TeacherAssignmentRepository.AssignmentDelta delta = teacherAssignmentRepository.replaceAssignments(teacherId, desired);
+        teacherAssignmentIndex.replaceTeacher(teacherId, desired);
+        eventPublisher.publishEvent(AssignmentsChangedEvent.forTeacher(teacherId, delta));
+        return getAssignmentVersion(teacherId);
     }
     
     @Transactional
     public void clearAllTeacherAssignments() {
         teacherAssignmentRepository.deleteAll();
+        teacherAssignmentIndex.clear();
+        userRepository.incrementAllAssignmentVersions();
+        eventPublisher.publishEvent(AssignmentsChangedEvent.forAllTeachers());
     }
     
     @Transactional
     public void clearTeacherAssignments(Long teacherId) {
         teacherAssignmentRepository.deleteByTeacherId(teacherId);
+        teacherAssignmentIndex.removeTeacher(teacherId);
+        userRepository.incrementAssignmentVersion(teacherId);
+        eventPublisher.publishEvent(AssignmentsChangedEvent.forTeacher(teacherId));
     }
     
     @Transactional(readOnly = true)
@@ -476,7 +444,19 @@ public class TeacherService {
      */
     @Transactional(readOnly = true)
     public java.util.Optional<TeacherAssignment> findConflictingAssignment(Long subjectId, Long sectionId, Long excludeTeacherId) {
+        // The index answers the common no-conflict case; the row is only loaded to report who holds it
+        if (teacherAssignmentIndex.findConflictingTeacher(subjectId, sectionId, excludeTeacherId) == null) {
+            return java.util.Optional.empty();
+        }
         return teacherAssignmentRepository.findBySubjectIdAndSectionIdExcludingTeacher(subjectId, sectionId, excludeTeacherId);
     }
+    
+    /**
+     * Thrown when saving assignments that were based on an outdated version.
+     */
+    public static class StaleAssignmentsException extends RuntimeException {
+        public StaleAssignmentsException(String message) {
+            super(message);
+        }
+    }
 }
-
@@ -0,0 +1,160 @@
+package com.enrollment.system.util;
+
+import com.enrollment.system.model.AuditEntry;
+import com.enrollment.system.model.StudentTombstone;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Hibernate listener that hands every committed insert, update and delete to AuditLog. Hibernate
+ * calls it after the transaction commits, so rolled-back changes are never recorded. Inserts and
+ * deletes record all field values, updates the old and new value of each changed field. Related
+ * entities are recorded by id, collections are left out, passwords are masked and updatedAt is
+ * not reported as a change on its own.
+ */
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final int MAX_VALUE_LENGTH = 500;
+    private static final Set<String> MASKED = Set.of("password");
+    private static final Set<String> IGNORED_CHANGES = Set.of("updatedAt");
+    private static final Set<Class<?>> NOT_AUDITED = Set.of(AuditEntry.class, StudentTombstone.class);
+
+    private final AuditLog auditLog;
+
+    public AuditEventListener(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return auditLog.isEnabled() && !NOT_AUDITED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        auditLog.record("INSERT", entityType(event.getPersister()), entityId(event.getId()),
+                snapshot(event.getPersister(), event.getState(), event.getSession()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int i : changedProperties(event)) {
+            if (types[i].isCollectionType() || IGNORED_CHANGES.contains(names[i])) {
+                continue;
+            }
+            Object after = describe(names[i], state[i], types[i], event.getSession());
+            if (oldState == null) {
+                changes.put(names[i], after);
+                continue;
+            }
+            Object before = describe(names[i], oldState[i], types[i], event.getSession());
+            boolean changed = MASKED.contains(names[i])
+                    ? !Objects.equals(oldState[i], state[i])
+                    : !Objects.equals(before, after);
+            if (changed) {
+                changes.put(names[i], Arrays.asList(before, after));
+            }
+        }
+        if (!changes.isEmpty()) {
+            auditLog.record("UPDATE", entityType(persister), entityId(event.getId()), changes);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        auditLog.record("DELETE", entityType(event.getPersister()), entityId(event.getId()),
+                snapshot(event.getPersister(), event.getDeletedState(), event.getSession()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was stored, nothing to record
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static int[] changedProperties(PostUpdateEvent event) {
+        if (event.getDirtyProperties() != null) {
+            return event.getDirtyProperties();
+        }
+        // No dirty check was done (e.g. a detached entity was updated): look at every field
+        int[] all = new int[event.getState().length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private static Map<String, Object> snapshot(EntityPersister persister, Object[] state,
+                                                SharedSessionContractImplementor session) {
+        if (state == null) {
+            return null;
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (!types[i].isCollectionType() && state[i] != null) {
+                values.put(names[i], describe(names[i], state[i], types[i], session));
+            }
+        }
+        return values;
+    }
+
+    private static Object describe(String name, Object value, Type type, SharedSessionContractImplementor session) {
+        if (value == null) {
+            return null;
+        }
+        if (MASKED.contains(name)) {
+            return "***";
+        }
+        if (type.isEntityType()) {
+            // Record the related entity by id, without loading it
+            if (value instanceof HibernateProxy proxy) {
+                return proxy.getHibernateLazyInitializer().getIdentifier();
+            }
+            return session.getEntityPersister(null, value).getIdentifier(value, session);
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        String text = value.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "…" : text;
+    }
+
+    private static String entityType(EntityPersister persister) {
+        return persister.getMappedClass().getSimpleName();
+    }
+
+    private static Long entityId(Object id) {
+        return id instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,352 @@
+package com.enrollment.system.util;
+
+import com.enrollment.system.dto.UserDto;
+import com.enrollment.system.event.AssignmentsChangedEvent;
+import com.enrollment.system.event.StudentArchivedEvent;
+import com.enrollment.system.event.StudentRestoredEvent;
+import com.enrollment.system.event.StudentsChangedEvent;
+import com.enrollment.system.repository.TeacherAssignmentRepositoryCustom.SubjectSection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only audit trail of changes, stored in audit_log.
+ *
+ * Entity changes arrive from AuditEventListener once their transaction has committed. Changes made
+ * with SQL that bypass Hibernate come from the domain events instead: archiving and restoring a
+ * student as ARCHIVE and RESTORE entries, a teacher's assignments saved or solved as one ASSIGN
+ * entry per teacher with the added and removed pairs, and other set-based operations (imports,
+ * cohort archives with their batch id, balancing, database restores) as one BULK entry each,
+ * which has the count but not the individual students. The assignment_version bumps are not
+ * recorded.
+ *
+ * Recording only appends to an in-memory queue, so it adds no database work to the change itself.
+ * The "audit-writer" thread empties the queue every flush-interval-ms, batch-size rows per
+ * transaction. While any other connection is checked out of the pool, even for a long read, it
+ * waits, because under WAL a commit here makes their open read snapshots unable to write
+ * (SQLITE_BUSY_SNAPSHOT). With max-defer-ms above 0 it writes anyway once it has waited that
+ * long, which can still fail such a transaction; the default 0 waits for an idle pool. A batch
+ * that fails to write is retried before anything queued after it, so ids stay in the order the
+ * changes happened. When the queue holds queue-capacity entries, further changes are counted and
+ * reported instead of recorded, so a stuck database cannot exhaust memory. Entries still queued at
+ * shutdown are written before the application exits.
+ *
+ * The user is the authenticated REST user, else the user signed in to the desktop application,
+ * else "system".
+ */
+@Component
+public class AuditLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (id, occurred_at, username, action, entity_type, entity_id, changes) " +
+            "VALUES ((SELECT COALESCE(MAX(id), 0) + 1 FROM audit_log), ?, ?, ?, ?, ?, ?)";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${enrollment.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrollment.audit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${enrollment.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${enrollment.audit.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${enrollment.audit.max-defer-ms:0}")
+    private long maxDeferMs;
+
+    private final Queue<Record> queue = new ConcurrentLinkedQueue<>();
+    // Entries of a failed write, oldest first; written before the queue (guarded by flush's lock)
+    private final Deque<Record> retry = new ArrayDeque<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile String desktopUser;
+    private long deferredSince;
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("enrollment.audit.queue.size", queued, AtomicInteger::get)
+                .description("Audit entries waiting to be written").register(meterRegistry);
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::writeWhenIdle, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The user signed in to the desktop application, or null after logout.
+     */
+    public void setDesktopUser(String username) {
+        this.desktopUser = username;
+    }
+
+    /**
+     * Queue one change for writing. Never blocks.
+     *
+     * @param changes field values, written as JSON; null for none
+     */
+    public void record(String action, String entityType, Long entityId, Map<String, Object> changes) {
+        if (!enabled) {
+            return;
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        String json = null;
+        if (changes != null) {
+            try {
+                json = JSON.writeValueAsString(changes);
+            } catch (JsonProcessingException e) {
+                json = String.valueOf(changes);
+            }
+        }
+        queue.add(new Record(LocalDateTime.now(), currentUsername(), action, entityType, entityId, json));
+    }
+
+    // Archiving and restoring move rows with SQL, so Hibernate does not see them
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentArchived(StudentArchivedEvent event) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("name", event.getBefore() != null ? event.getBefore().getName() : null);
+        changes.put("archiveReason", event.getArchiveReason());
+        record("ARCHIVE", "Student", event.getStudentId(), changes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentRestored(StudentRestoredEvent event) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("name", event.getAfter().getName());
+        record("RESTORE", "Student", event.getStudentId(), changes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("reason", event.getReason());
+        changes.put("count", event.getCount());
+        if (event.getBatchId() != null) {
+            changes.put("batchId", event.getBatchId());
+        }
+        record("BULK", "Student", null, changes);
+    }
+
+    // Saving and solving assignments write them with SQL; events without pairs were changed through
+    // Hibernate and are recorded by AuditEventListener
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentsChanged(AssignmentsChangedEvent event) {
+        Set<Long> teacherIds = new LinkedHashSet<>(event.getAdded().keySet());
+        teacherIds.addAll(event.getRemoved().keySet());
+        for (Long teacherId : teacherIds) {
+            List<SubjectSection> added = event.getAdded().getOrDefault(teacherId, List.of());
+            List<SubjectSection> removed = event.getRemoved().getOrDefault(teacherId, List.of());
+            if (added.isEmpty() && removed.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> changes = new LinkedHashMap<>();
+            changes.put("added", describe(added));
+            changes.put("removed", describe(removed));
+            record("ASSIGN", "Teacher", teacherId, changes);
+        }
+    }
+
+    private static List<Map<String, Long>> describe(List<SubjectSection> pairs) {
+        List<Map<String, Long>> described = new ArrayList<>(pairs.size());
+        for (SubjectSection pair : pairs) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("subjectId", pair.getSubjectId());
+            values.put("sectionId", pair.getSectionId());
+            described.add(values);
+        }
+        return described;
+    }
+
+    /**
+     * Write everything queued so far.
+     *
+     * @return the number of entries written
+     */
+    public synchronized int flush() throws SQLException {
+        int written = 0;
+        List<Record> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            Record record;
+            while (batch.size() < batchSize && (record = nextRecord()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                insert(batch);
+            } catch (SQLException e) {
+                // Keep them for the next run, ahead of everything queued since
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    retry.addFirst(batch.get(i));
+                }
+                throw e;
+            }
+            queued.addAndGet(-batch.size());
+            written += batch.size();
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            System.err.println("⚠ Audit queue was full: " + lost + " change(s) were not recorded");
+        }
+        return written;
+    }
+
+    private Record nextRecord() {
+        Record record = retry.pollFirst();
+        return record != null ? record : queue.poll();
+    }
+
+    private void insert(List<Record> batch) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                for (Record record : batch) {
+                    ps.setTimestamp(1, Timestamp.valueOf(record.occurredAt));
+                    ps.setString(2, record.username);
+                    ps.setString(3, record.action);
+                    ps.setString(4, record.entityType);
+                    if (record.entityId != null) {
+                        ps.setLong(5, record.entityId);
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setString(6, record.changes);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void writeWhenIdle() {
+        if (queued.get() > 0 && poolBusy()) {
+            long now = System.currentTimeMillis();
+            if (deferredSince == 0) {
+                deferredSince = now;
+            }
+            if (maxDeferMs <= 0 || now - deferredSince < maxDeferMs) {
+                return;
+            }
+        }
+        deferredSince = 0;
+        flushQuietly();
+    }
+
+    private boolean poolBusy() {
+        try {
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return pool != null && pool.getActiveConnections() > 0;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("⚠ Could not write audit entries (" + queued.get() + " queued): " + e.getMessage());
+        }
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDto user) {
+            return user.getUsername();
+        }
+        String username = desktopUser;
+        return username != null ? username : "system";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        if (enabled) {
+            flushQuietly();
+        }
+    }
+
+    private static class Record {
+        private final LocalDateTime occurredAt;
+        private final String username;
+        private final String action;
+        private final String entityType;
+        private final Long entityId;
+        private final String changes;
+
+        Record(LocalDateTime occurredAt, String username, String action, String entityType, Long entityId, String changes) {
+            this.occurredAt = occurredAt;
+            this.username = username;
+            this.action = action;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.changes = changes;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.enrollment.system.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routine upkeep of the SQLite database in WAL mode.
+ *
+ * Every interval the database is sampled (page count, freelist pages, WAL file size, published as
+ * enrollment.db.* gauges) and the WAL is checkpointed: with TRUNCATE when the application is idle
+ * (no pooled connection in use and the WAL has not grown since the last sample), so the -wal file
+ * shrinks back to zero, and with PASSIVE when it is busy but the WAL has grown past
+ * passive-checkpoint-bytes. A PASSIVE checkpoint never waits for readers or writers.
+ *
+ * Bulk operations report the rows they changed through recordBulkChange; once enough have
+ * accumulated, ANALYZE refreshes the query planner statistics at the next idle sample. It also
+ * runs nightly. When the database uses auto_vacuum=INCREMENTAL, free pages are returned
+ * to the file system while idle. integrityCheck runs on demand from the dbmaintenance endpoint.
+ */
+@Component
+public class DatabaseMaintenance {
+
+    // Pages released per incremental_vacuum run, so one run stays short
+    private static final int INCREMENTAL_VACUUM_PAGES = 1000;
+    // Rows ANALYZE samples per index, which keeps it fast on large tables
+    private static final int ANALYSIS_LIMIT = 1000;
+    private static final int MAX_INTEGRITY_PROBLEMS = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${enrollment.maintenance.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrollment.maintenance.passive-checkpoint-bytes:4194304}")
+    private long passiveCheckpointBytes;
+
+    @Value("${enrollment.maintenance.optimize-after-changes:500}")
+    private long optimizeAfterChanges;
+
+    private final AtomicLong pageCount = new AtomicLong();
+    private final AtomicLong pageSize = new AtomicLong();
+    private final AtomicLong freelistCount = new AtomicLong();
+    private final AtomicLong walBytes = new AtomicLong();
+    private final AtomicLong changesSinceOptimize = new AtomicLong();
+
+    private volatile File walFile;
+    private volatile long previousWalBytes = -1;
+    private volatile String lastCheckpoint;
+    private volatile LocalDateTime lastCheckpointAt;
+    private volatile LocalDateTime lastOptimizeAt;
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("enrollment.db.page.count", pageCount, AtomicLong::get)
+                .description("Pages in the main database file").register(meterRegistry);
+        Gauge.builder("enrollment.db.freelist.count", freelistCount, AtomicLong::get)
+                .description("Unused pages in the main database file").register(meterRegistry);
+        Gauge.builder("enrollment.db.size", this, maintenance -> maintenance.pageCount.get() * maintenance.pageSize.get())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("enrollment.db.wal.size", walBytes, AtomicLong::get)
+                .baseUnit("bytes").description("Size of the -wal file").register(meterRegistry);
+        Gauge.builder("enrollment.db.changes.pending.optimize", changesSinceOptimize, AtomicLong::get)
+                .description("Rows changed by bulk operations since the last ANALYZE").register(meterRegistry);
+    }
+
+    /**
+     * Called by bulk operations (imports, cohort archives, section balancing) with the number of
+     * rows they changed, so planner statistics get refreshed afterwards.
+     */
+    public void recordBulkChange(long rows) {
+        if (rows > 0) {
+            changesSinceOptimize.addAndGet(rows);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${enrollment.maintenance.interval-ms:60000}",
+               fixedDelayString = "${enrollment.maintenance.interval-ms:60000}")
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sample();
+            long wal = walBytes.get();
+            boolean idle = isIdle(wal);
+            previousWalBytes = wal;
+
+            if (wal > 0 && (idle || wal >= passiveCheckpointBytes)) {
+                checkpoint(idle ? "TRUNCATE" : "PASSIVE");
+            }
+            if (idle && changesSinceOptimize.get() >= optimizeAfterChanges) {
+                optimize();
+            }
+            if (idle && freelistCount.get() > 0) {
+                incrementalVacuum();
+            }
+        } catch (Exception e) {
+            System.err.println("⚠ Database maintenance failed: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${enrollment.maintenance.optimize-cron:0 30 2 * * *}")
+    public void nightlyOptimize() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            optimize();
+        } catch (Exception e) {
+            System.err.println("⚠ Nightly ANALYZE failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoint the WAL now.
+     *
+     * @param mode PASSIVE, FULL, RESTART or TRUNCATE
+     * @return "busy/log/checkpointed" as reported by PRAGMA wal_checkpoint
+     */
+    public String checkpoint(String mode) throws SQLException {
+        String checkpointMode = mode.toUpperCase();
+        if (!List.of("PASSIVE", "FULL", "RESTART", "TRUNCATE").contains(checkpointMode)) {
+            throw new IllegalArgumentException("Unknown checkpoint mode: " + mode);
+        }
+        String result = withAutoCommitConnection(statement -> {
+            try (ResultSet row = statement.executeQuery("PRAGMA wal_checkpoint(" + checkpointMode + ")")) {
+                row.next();
+                return row.getInt(1) + "/" + row.getInt(2) + "/" + row.getInt(3);
+            }
+        });
+        lastCheckpoint = checkpointMode + " " + result;
+        lastCheckpointAt = LocalDateTime.now();
+        meterRegistry.counter("enrollment.db.checkpoints", "mode", checkpointMode).increment();
+        sample();
+        return result;
+    }
+
+    /**
+     * Refresh the query planner statistics (sqlite_stat1) of every table.
+     */
+    public void optimize() throws SQLException {
+        long pending = changesSinceOptimize.get();
+        long started = System.currentTimeMillis();
+        withAutoCommitConnection(statement -> {
+            // Not PRAGMA optimize: before SQLite 3.46 it only reanalyzes tables the same connection
+            // has queried, which a maintenance connection from the pool has not
+            statement.execute("PRAGMA analysis_limit=" + ANALYSIS_LIMIT);
+            statement.execute("ANALYZE");
+            return null;
+        });
+        changesSinceOptimize.addAndGet(-pending);
+        lastOptimizeAt = LocalDateTime.now();
+        meterRegistry.counter("enrollment.db.optimize").increment();
+        if (pending > 0) {
+            System.out.println("✓ ANALYZE after " + pending + " bulk change(s) took " +
+                    (System.currentTimeMillis() - started) + " ms");
+        }
+    }
+
+    /**
+     * PRAGMA integrity_check on the live database; a single "ok" when there are no problems.
+     * Reads the whole file, so it can take a while on a large database.
+     */
+    public List<String> integrityCheck() throws SQLException {
+        return withAutoCommitConnection(statement -> {
+            List<String> problems = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("PRAGMA integrity_check(" + MAX_INTEGRITY_PROBLEMS + ")")) {
+                while (rows.next()) {
+                    problems.add(rows.getString(1));
+                }
+            }
+            return problems;
+        });
+    }
+
+    public MaintenanceStatus getStatus() throws SQLException {
+        sample();
+        MaintenanceStatus status = new MaintenanceStatus();
+        status.setPageCount(pageCount.get());
+        status.setPageSize(pageSize.get());
+        status.setFreelistCount(freelistCount.get());
+        status.setWalBytes(walBytes.get());
+        status.setChangesSinceOptimize(changesSinceOptimize.get());
+        status.setLastCheckpoint(lastCheckpoint);
+        status.setLastCheckpointAt(lastCheckpointAt);
+        status.setLastOptimizeAt(lastOptimizeAt);
+        return status;
+    }
+
+    private void sample() throws SQLException {
+        withAutoCommitConnection(statement -> {
+            pageCount.set(pragmaLong(statement, "page_count"));
+            pageSize.set(pragmaLong(statement, "page_size"));
+            freelistCount.set(pragmaLong(statement, "freelist_count"));
+            if (walFile == null) {
+                try (ResultSet rows = statement.executeQuery("PRAGMA database_list")) {
+                    while (rows.next()) {
+                        String file = rows.getString("file");
+                        if ("main".equals(rows.getString("name")) && file != null && !file.isEmpty()) {
+                            walFile = new File(file + "-wal");
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        File wal = walFile;
+        walBytes.set(wal != null && wal.isFile() ? wal.length() : 0);
+    }
+
+    // Nothing is using the pool and nothing was written since the previous sample
+    private boolean isIdle(long wal) throws SQLException {
+        if (wal != previousWalBytes) {
+            return false;
+        }
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            return hikari.getHikariPoolMXBean() == null || hikari.getHikariPoolMXBean().getActiveConnections() == 0;
+        }
+        return true;
+    }
+
+    private void incrementalVacuum() throws SQLException {
+        withAutoCommitConnection(statement -> {
+            // 2 = INCREMENTAL; switching an existing database to it needs a full VACUUM, which is left to the administrator
+            if (pragmaLong(statement, "auto_vacuum") == 2) {
+                statement.execute("PRAGMA incremental_vacuum(" + INCREMENTAL_VACUUM_PAGES + ")");
+            }
+            return null;
+        });
+    }
+
+    private static long pragmaLong(Statement statement, String pragma) throws SQLException {
+        try (ResultSet row = statement.executeQuery("PRAGMA " + pragma)) {
+            return row.next() ? row.getLong(1) : 0;
+        }
+    }
+
+    // Checkpoints and ANALYZE cannot run inside the transaction the pool keeps open on its connections
+    private <T> T withAutoCommitConnection(SqlWork<T> work) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                return work.run(statement);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private interface SqlWork<T> {
+        T run(Statement statement) throws SQLException;
+    }
+
+    public static class MaintenanceStatus {
+        private long pageCount;
+        private long pageSize;
+        private long freelistCount;
+        private long walBytes;
+        private long changesSinceOptimize;
+        private String lastCheckpoint;
+        private LocalDateTime lastCheckpointAt;
+        private LocalDateTime lastOptimizeAt;
+
+        public long getPageCount() {
+            return pageCount;
+        }
+
+        public void setPageCount(long pageCount) {
+            this.pageCount = pageCount;
+        }
+
+        public long getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(long pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public long getFreelistCount() {
+            return freelistCount;
+        }
+
+        public void setFreelistCount(long freelistCount) {
+            this.freelistCount = freelistCount;
+        }
+
+        public long getWalBytes() {
+            return walBytes;
+        }
+
+        public void setWalBytes(long walBytes) {
+            this.walBytes = walBytes;
+        }
+
+        public long getChangesSinceOptimize() {
+            return changesSinceOptimize;
+        }
+
+        public void setChangesSinceOptimize(long changesSinceOptimize) {
+            this.changesSinceOptimize = changesSinceOptimize;
+        }
+
+        public String getLastCheckpoint() {
+            return lastCheckpoint;
+        }
+
+        public void setLastCheckpoint(String lastCheckpoint) {
+            this.lastCheckpoint = lastCheckpoint;
+        }
+
+        public LocalDateTime getLastCheckpointAt() {
+            return lastCheckpointAt;
+        }
+
+        public void setLastCheckpointAt(LocalDateTime lastCheckpointAt) {
+            this.lastCheckpointAt = lastCheckpointAt;
+        }
+
+        public LocalDateTime getLastOptimizeAt() {
+            return lastOptimizeAt;
+        }
+
+        public void setLastOptimizeAt(LocalDateTime lastOptimizeAt) {
+            this.lastOptimizeAt = lastOptimizeAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.enrollment.system.util;
 
+import com.enrollment.system.service.ChangeDetectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -257,6 +258,164 @@ public class DatabaseSchemaUpdater {
         }
     }
     
+    /**
+     * Ensures teacher_assignments has a unique index on (teacher_id, subject_id, section_id).
+     * Tables created by Hibernate on SQLite lack it, and TeacherService relies on it for INSERT OR IGNORE.
+     */
+    public void ensureTeacherAssignmentsUniqueIndex() {
+        if (dataSource == null) {
+            return;
+        }
+        
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!conn.getMetaData().getURL().contains("sqlite")) {
+                return;
+            }
+            stmt.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS ux_teacher_assignments_teacher_subject_section " +
+                               "ON teacher_assignments(teacher_id, subject_id, section_id)");
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            System.out.println("✓ teacher_assignments unique index present");
+        } catch (Exception e) {
+            // Duplicate rows from older versions prevent the index; saving still works, just without the guard
+            System.err.println("⚠ Could not create unique index on teacher_assignments: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Ensures the FTS5 full-text indexes exist: students_fts next to the students table and
+     * students_archive_fts next to students_archive, each with triggers keeping it in step with every
+     * insert, update and delete. An index only stores tokens; the text itself is read from its table
+     * (external content), so it costs little extra space. A newly created index is filled from the
+     * existing rows.
+     */
+    public void ensureStudentSearchIndex() {
+        if (dataSource == null) {
+            return;
+        }
+        
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!conn.getMetaData().getURL().contains("sqlite")) {
+                return;
+            }
+            ensureSearchIndex(stmt, "students", "students_fts");
+            ensureSearchIndex(stmt, "students_archive", "students_archive_fts");
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+        } catch (Exception e) {
+            // StudentSearchService falls back to LIKE queries without the indexes
+            System.err.println("⚠ Could not create student search index: " + e.getMessage());
+        }
+    }
+    
+    private void ensureSearchIndex(Statement stmt, String table, String ftsTable) throws Exception {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + ftsTable + "'")) {
+            exists = rs.next();
+        }
+        
+        String columns = "name, lrn, address, parent_guardian_name, previous_school";
+        String newValues = "new.id, new.name, new.lrn, new.address, new.parent_guardian_name, new.previous_school";
+        String oldValues = "old.id, old.name, old.lrn, old.address, old.parent_guardian_name, old.previous_school";
+        stmt.executeUpdate("CREATE VIRTUAL TABLE IF NOT EXISTS " + ftsTable + " USING fts5(" + columns + ", " +
+                           "content='" + table + "', content_rowid='id', " +
+                           "tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_ai AFTER INSERT ON " + table + " BEGIN " +
+                           "INSERT INTO " + ftsTable + "(rowid, " + columns + ") VALUES (" + newValues + "); " +
+                           "END");
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_ad AFTER DELETE ON " + table + " BEGIN " +
+                           "INSERT INTO " + ftsTable + "(" + ftsTable + ", rowid, " + columns + ") VALUES ('delete', " + oldValues + "); " +
+                           "END");
+        stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + ftsTable + "_au " +
+                           "AFTER UPDATE OF " + columns + " ON " + table + " BEGIN " +
+                           "INSERT INTO " + ftsTable + "(" + ftsTable + ", rowid, " + columns + ") VALUES ('delete', " + oldValues + "); " +
+                           "INSERT INTO " + ftsTable + "(rowid, " + columns + ") VALUES (" + newValues + "); " +
+                           "END");
+        if (!exists) {
+            stmt.executeUpdate("INSERT INTO " + ftsTable + "(" + ftsTable + ") VALUES ('rebuild')");
+        }
+        System.out.println(exists ? "✓ " + ftsTable + " search index present" : "✓ " + ftsTable + " search index created");
+    }
+    
+    /**
+     * Ensures the indexes behind the delete guards and DependencyCheckService that JPA annotations
+     * cannot declare: an expression index on the normalized strand of students, and section_id on
+     * teacher_assignments, whose table may have been created by ensureTeacherAssignmentsTableExists.
+     */
+    public void ensureDependencyIndexes() {
+        if (dataSource == null) {
+            return;
+        }
+        
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!conn.getMetaData().getURL().contains("sqlite")) {
+                return;
+            }
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_students_strand_upper " +
+                               "ON students(UPPER(TRIM(strand)), enrollment_status)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_teacher_assignments_section " +
+                               "ON teacher_assignments(section_id)");
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            System.out.println("✓ Dependency check indexes present");
+        } catch (Exception e) {
+            // The guards still work, just by scanning
+            System.err.println("⚠ Could not create dependency check indexes: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Ensures the table_versions counters used by ChangeDetectionService: one row per tracked table,
+     * bumped by triggers on every insert, update and delete, in the same transaction as the change.
+     * Triggers are recreated on every start, so a table that was dropped and rebuilt is tracked again.
+     */
+    public void ensureTableChangeCounters() {
+        if (dataSource == null) {
+            return;
+        }
+        
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!conn.getMetaData().getURL().contains("sqlite")) {
+                return;
+            }
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS table_versions (" +
+                               "table_name TEXT PRIMARY KEY, version INTEGER NOT NULL DEFAULT 0)");
+            int tracked = 0;
+            for (String table : ChangeDetectionService.TRACKED_TABLES) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+                    if (!rs.next()) {
+                        continue;
+                    }
+                }
+                stmt.executeUpdate("INSERT OR IGNORE INTO table_versions(table_name, version) VALUES ('" + table + "', 0)");
+                String bump = "UPDATE table_versions SET version = version + 1 WHERE table_name = '" + table + "'; ";
+                stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + table + "_version_ai AFTER INSERT ON " + table +
+                                   " BEGIN " + bump + "END");
+                stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + table + "_version_au AFTER UPDATE ON " + table +
+                                   " BEGIN " + bump + "END");
+                stmt.executeUpdate("CREATE TRIGGER IF NOT EXISTS " + table + "_version_ad AFTER DELETE ON " + table +
+                                   " BEGIN " + bump + "END");
+                tracked++;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
+            System.out.println("✓ Change counters present for " + tracked + " tables");
+        } catch (Exception e) {
+            // Views fall back to reloading on every refresh without the counters
+            System.err.println("⚠ Could not create table change counters: " + e.getMessage());
+        }
+    }
+    
     /**
      * Force fix - drops and recreates the table regardless of current state
      * Use this as a last resort when schema is corrupted
@@ -0,0 +1,66 @@
+package com.enrollment.system.util;
+
+import com.enrollment.system.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects last-login timestamps in memory and writes them in one transaction on a schedule,
+ * so a burst of logins costs one short write instead of a full entity save per login.
+ * Several logins by the same user between flushes collapse into a single update.
+ */
+@Component
+public class LastLoginRecorder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    public void record(Long userId, LocalDateTime loginTime) {
+        if (userId != null && loginTime != null) {
+            pendingLogins.merge(userId, loginTime, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.auth.last-login-flush-ms:30000}")
+    public synchronized void flush() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long userId : pendingLogins.keySet()) {
+            LocalDateTime loginTime = pendingLogins.remove(userId);
+            if (loginTime != null) {
+                batch.put(userId, loginTime);
+            }
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    batch.forEach(userRepository::updateLastLogin));
+        } catch (Exception e) {
+            // Put the timestamps back (unless a newer login arrived meanwhile) and retry next time
+            batch.forEach(this::record);
+            System.err.println("⚠ Warning: Could not write last login times: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,184 @@
+package com.enrollment.system.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies login passwords against their BCrypt hashes on a small, bounded thread pool.
+ *
+ * BCrypt is deliberately expensive, so when many users log in at once the number of concurrent
+ * checks is capped at the pool size and only a limited number may wait; further attempts are
+ * rejected immediately with ServerBusyException instead of piling up on request threads.
+ *
+ * Successful checks are remembered for a short time so that repeated logins with the same
+ * credentials (e.g. a client re-authenticating) skip BCrypt. Cache keys are an HMAC of the
+ * username and password under a random per-process key, and an entry only matches while the
+ * stored hash is unchanged, so a password change invalidates it.
+ */
+@Component
+public class PasswordVerifier {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+    private final SecretKeySpec cacheKey;
+    private final Map<String, VerifiedCredential> verifiedCredentials = new ConcurrentHashMap<>();
+
+    public PasswordVerifier(@Value("${enrollment.auth.verify-threads:0}") int threads,
+                            @Value("${enrollment.auth.verify-queue-capacity:32}") int queueCapacity,
+                            @Value("${enrollment.auth.verify-timeout-ms:10000}") long timeoutMs,
+                            @Value("${enrollment.auth.credential-cache-ttl-seconds:300}") long cacheTtlSeconds,
+                            @Value("${enrollment.auth.credential-cache-max-entries:1000}") int cacheMaxEntries) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.cacheTtlNanos = TimeUnit.SECONDS.toNanos(cacheTtlSeconds);
+        this.cacheMaxEntries = cacheMaxEntries;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.cacheKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Check a raw password against the stored BCrypt hash.
+     *
+     * @throws ServerBusyException if the verification queue is full or the check timed out
+     */
+    public boolean matches(String username, String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+
+        String key = cacheKey(username, rawPassword);
+        long now = System.nanoTime();
+        VerifiedCredential cached = verifiedCredentials.get(key);
+        if (cached != null) {
+            if (now - cached.verifiedAt < cacheTtlNanos && cached.storedHash.equals(storedHash)) {
+                return true;
+            }
+            verifiedCredentials.remove(key, cached);
+        }
+
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, storedHash));
+        } catch (RejectedExecutionException e) {
+            throw new ServerBusyException("Too many login attempts are being processed. Please try again in a moment.");
+        }
+
+        boolean matches;
+        try {
+            matches = result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new ServerBusyException("Login verification timed out. Please try again in a moment.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerBusyException("Login verification was interrupted.");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password verification failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        if (matches) {
+            remember(key, storedHash, System.nanoTime());
+        }
+        return matches;
+    }
+
+    /**
+     * Forget every cached credential for the given stored hash, e.g. after a password change.
+     */
+    public void evict(String storedHash) {
+        verifiedCredentials.values().removeIf(credential -> credential.storedHash.equals(storedHash));
+    }
+
+    public int getQueuedVerifications() {
+        return executor.getQueue().size();
+    }
+
+    private void remember(String key, String storedHash, long now) {
+        if (verifiedCredentials.size() >= cacheMaxEntries) {
+            // Drop expired entries first; if the cache is still full, make room arbitrarily
+            verifiedCredentials.values().removeIf(credential -> now - credential.verifiedAt >= cacheTtlNanos);
+            Iterator<String> keys = verifiedCredentials.keySet().iterator();
+            while (verifiedCredentials.size() >= cacheMaxEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        verifiedCredentials.put(key, new VerifiedCredential(storedHash, now));
+    }
+
+    private String cacheKey(String username, String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(cacheKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        verifiedCredentials.clear();
+    }
+
+    private static class VerifiedCredential {
+        private final String storedHash;
+        private final long verifiedAt; // System.nanoTime()
+
+        VerifiedCredential(String storedHash, long verifiedAt) {
+            this.storedHash = storedHash;
+            this.verifiedAt = verifiedAt;
+        }
+    }
+
+    /**
+     * Thrown when a password cannot be verified right now because the verification pool is saturated.
+     */
+    public static class ServerBusyException extends RuntimeException {
+        public ServerBusyException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.enrollment.system.util;
+
+import javafx.scene.image.Image;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Small LRU cache of decoded JavaFX images for profile pictures.
+ *
+ * Entries are keyed by file path, last-modified time and requested size, so a replaced file is
+ * decoded again while revisiting a page reuses the image already in memory.
+ */
+@Component
+public class ProfileImageCache {
+
+    private static final int MAX_ENTRIES = 32;
+
+    private final Map<Key, Image> images = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Image> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Image for the given file scaled to fit size x size, or null if the file does not exist or cannot be decoded.
+     */
+    public Image get(String path, double size) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        File file = new File(path);
+        long lastModified = file.lastModified();
+        if (lastModified == 0L) {
+            return null;
+        }
+
+        Key key = new Key(file.getAbsolutePath(), lastModified, size);
+        synchronized (images) {
+            Image cached = images.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Thumbnails are small, so decode synchronously; the result is complete when cached
+        Image image = new Image(file.toURI().toString(), size, size, true, true, false);
+        if (image.isError()) {
+            return null;
+        }
+        synchronized (images) {
+            images.put(key, image);
+        }
+        return image;
+    }
+
+    public void clear() {
+        synchronized (images) {
+            images.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long lastModified;
+        private final double size;
+
+        Key(String path, long lastModified, double size) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return lastModified == other.lastModified && Double.compare(size, other.size) == 0 && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, size);
+        }
+    }
+}
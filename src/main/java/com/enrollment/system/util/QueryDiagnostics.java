@@ -0,0 +1,243 @@
+package com.enrollment.system.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Collects per-transaction statement statistics from Hibernate sessions.
+ *
+ * QueryDiagnosticsInspector sees every SQL statement before it is prepared and
+ * QueryDiagnosticsListener (one per Hibernate session) times its execution. At the end of
+ * each transaction the listener reports here: how many statements ran, which statements
+ * exceeded the slow-query threshold, and which SELECTs were repeated often enough to look
+ * like an N+1 pattern (lazy associations loaded one row at a time inside a loop).
+ *
+ * The aggregated result is available through getReport() and the querydiagnostics actuator endpoint.
+ */
+@Component
+public class QueryDiagnostics {
+
+    private static volatile QueryDiagnostics instance;
+
+    /** Listener of the Hibernate session currently open on this thread. */
+    static final ThreadLocal<QueryDiagnosticsListener> ACTIVE_LISTENER = new ThreadLocal<>();
+
+    private static final int MAX_SLOW_QUERIES = 100;
+    private static final int MAX_REPEATED_SELECTS = 100;
+    private static final int MAX_CALL_SITE_FRAMES = 3;
+    private static final String APPLICATION_PACKAGE = "com.enrollment.system.";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+\\b");
+
+    @Value("${enrollment.diagnostics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrollment.diagnostics.slow-query-ms:200}")
+    private long slowQueryThresholdMs;
+
+    @Value("${enrollment.diagnostics.repeated-select-threshold:10}")
+    private int repeatedSelectThreshold;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong transactionsObserved = new AtomicLong();
+    private final AtomicLong statementsObserved = new AtomicLong();
+    private final AtomicInteger maxStatementsPerTransaction = new AtomicInteger();
+    private final AtomicLong slowQueryCount = new AtomicLong();
+    private final Deque<SlowQuery> recentSlowQueries = new ArrayDeque<>();
+    private final Map<String, RepeatedSelect> repeatedSelects = new ConcurrentHashMap<>();
+
+    public QueryDiagnostics() {
+        instance = this;
+    }
+
+    /**
+     * The diagnostics collector of the running application, or null before the Spring context starts.
+     * Hibernate instantiates the session listener itself, so it cannot be injected.
+     */
+    public static QueryDiagnostics current() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    public int getRepeatedSelectThreshold() {
+        return repeatedSelectThreshold;
+    }
+
+    void recordTransaction(int statementCount) {
+        transactionsObserved.incrementAndGet();
+        statementsObserved.addAndGet(statementCount);
+        maxStatementsPerTransaction.accumulateAndGet(statementCount, Math::max);
+        DistributionSummary.builder("enrollment.db.statements.per.transaction")
+                .description("SQL statements issued by one Hibernate transaction")
+                .register(meterRegistry)
+                .record(statementCount);
+    }
+
+    void recordSlowQuery(String sql, long durationMs, String callSite) {
+        slowQueryCount.incrementAndGet();
+        meterRegistry.counter("enrollment.db.slow.queries").increment();
+        synchronized (recentSlowQueries) {
+            if (recentSlowQueries.size() == MAX_SLOW_QUERIES) {
+                recentSlowQueries.removeFirst();
+            }
+            recentSlowQueries.addLast(new SlowQuery(sql, durationMs, callSite, LocalDateTime.now()));
+        }
+        System.err.println("⚠ Slow query (" + durationMs + " ms) at " + callSite + ": " + sql);
+    }
+
+    void recordRepeatedSelect(String sqlPattern, int repetitions, String callSite) {
+        meterRegistry.counter("enrollment.db.repeated.selects").increment();
+        String key = sqlPattern + "@" + callSite;
+        RepeatedSelect existing = repeatedSelects.get(key);
+        if (existing == null && repeatedSelects.size() >= MAX_REPEATED_SELECTS) {
+            return;
+        }
+        RepeatedSelect entry = repeatedSelects.computeIfAbsent(key, k -> new RepeatedSelect(sqlPattern, callSite));
+        boolean firstTime = entry.record(repetitions);
+        if (firstTime) {
+            System.err.println("⚠ Possible N+1: the same SELECT ran " + repetitions +
+                    " times in one transaction at " + callSite + ": " + sqlPattern);
+        }
+    }
+
+    public DiagnosticsReport getReport() {
+        DiagnosticsReport report = new DiagnosticsReport();
+        report.enabled = enabled;
+        report.slowQueryThresholdMs = slowQueryThresholdMs;
+        report.repeatedSelectThreshold = repeatedSelectThreshold;
+        report.transactionsObserved = transactionsObserved.get();
+        report.statementsObserved = statementsObserved.get();
+        report.averageStatementsPerTransaction = report.transactionsObserved == 0 ? 0.0 :
+                (double) report.statementsObserved / report.transactionsObserved;
+        report.maxStatementsPerTransaction = maxStatementsPerTransaction.get();
+        report.slowQueryCount = slowQueryCount.get();
+        synchronized (recentSlowQueries) {
+            report.recentSlowQueries = new ArrayList<>(recentSlowQueries);
+        }
+        report.repeatedSelects = repeatedSelects.values().stream()
+                .sorted(Comparator.comparingInt((RepeatedSelect r) -> r.maxRepetitions).reversed())
+                .collect(Collectors.toList());
+        return report;
+    }
+
+    public void reset() {
+        transactionsObserved.set(0);
+        statementsObserved.set(0);
+        maxStatementsPerTransaction.set(0);
+        slowQueryCount.set(0);
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+        repeatedSelects.clear();
+    }
+
+    /**
+     * Reduce a statement to its shape so that the same query with different parameters,
+     * IN-list lengths or formatting is counted as one.
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?...)");
+        return NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+    }
+
+    static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6) || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    /**
+     * The innermost application frames on the current stack, e.g.
+     * "ReportService.getTeacherAssignments:91 <- ReportController.teacherAssignments:40".
+     * Only called when something is about to be reported, never per statement.
+     */
+    static String callSite() {
+        List<String> frames = StackWalker.getInstance().walk(stack -> stack
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(APPLICATION_PACKAGE + "util.QueryDiagnostics"))
+                .filter(frame -> !frame.getClassName().contains("$$") && !frame.getClassName().contains("$HibernateProxy"))
+                .limit(MAX_CALL_SITE_FRAMES)
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .collect(Collectors.toList()));
+        return frames.isEmpty() ? "unknown" : String.join(" <- ", frames);
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // Report classes
+    public static class DiagnosticsReport {
+        public boolean enabled;
+        public long slowQueryThresholdMs;
+        public int repeatedSelectThreshold;
+        public long transactionsObserved;
+        public long statementsObserved;
+        public double averageStatementsPerTransaction;
+        public int maxStatementsPerTransaction;
+        public long slowQueryCount;
+        public List<SlowQuery> recentSlowQueries;
+        public List<RepeatedSelect> repeatedSelects;
+    }
+
+    public static class SlowQuery {
+        public final String sql;
+        public final long durationMs;
+        public final String callSite;
+        public final LocalDateTime executedAt;
+
+        SlowQuery(String sql, long durationMs, String callSite, LocalDateTime executedAt) {
+            this.sql = sql;
+            this.durationMs = durationMs;
+            this.callSite = callSite;
+            this.executedAt = executedAt;
+        }
+    }
+
+    public static class RepeatedSelect {
+        public final String sqlPattern;
+        public final String callSite;
+        public int transactions;
+        public int maxRepetitions;
+        public LocalDateTime lastSeen;
+
+        RepeatedSelect(String sqlPattern, String callSite) {
+            this.sqlPattern = sqlPattern;
+            this.callSite = callSite;
+        }
+
+        synchronized boolean record(int repetitions) {
+            transactions++;
+            maxRepetitions = Math.max(maxRepetitions, repetitions);
+            lastSeen = LocalDateTime.now();
+            return transactions == 1;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.enrollment.system.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every SQL statement Hibernate prepares to the listener of the session open on this thread.
+ * The statement itself is returned unchanged.
+ */
+public class QueryDiagnosticsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryDiagnosticsListener listener = QueryDiagnostics.ACTIVE_LISTENER.get();
+        if (listener != null) {
+            listener.statementInspected(sql);
+        }
+        return sql;
+    }
+}
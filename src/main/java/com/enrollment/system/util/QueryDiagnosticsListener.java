@@ -0,0 +1,96 @@
+package com.enrollment.system.util;
+
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-session Hibernate listener that counts and times the statements of the current transaction.
+ * Registered through hibernate.session.events.auto, so Hibernate creates one instance per session
+ * on the thread that opens it; QueryDiagnosticsInspector finds it through a thread-local.
+ */
+public class QueryDiagnosticsListener extends BaseSessionEventListener {
+
+    private final QueryDiagnostics diagnostics;
+    private final QueryDiagnosticsListener previous;
+
+    private final Map<String, Integer> selectCounts = new HashMap<>();
+    private final Map<String, String> repeatedSelectCallSites = new HashMap<>();
+    private int statementCount;
+    private String lastSql;
+    private long executeStartNanos;
+
+    public QueryDiagnosticsListener() {
+        QueryDiagnostics current = QueryDiagnostics.current();
+        this.diagnostics = current != null && current.isEnabled() ? current : null;
+        this.previous = QueryDiagnostics.ACTIVE_LISTENER.get();
+        if (diagnostics != null) {
+            QueryDiagnostics.ACTIVE_LISTENER.set(this);
+        }
+    }
+
+    void statementInspected(String sql) {
+        if (diagnostics == null) {
+            return;
+        }
+        statementCount++;
+        lastSql = sql;
+        if (!QueryDiagnostics.isSelect(sql)) {
+            return;
+        }
+        String pattern = QueryDiagnostics.normalize(sql);
+        int count = selectCounts.merge(pattern, 1, Integer::sum);
+        if (count == diagnostics.getRepeatedSelectThreshold()) {
+            // Capture the call site once, when the pattern first crosses the threshold
+            repeatedSelectCallSites.put(pattern, QueryDiagnostics.callSite());
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (diagnostics == null || lastSql == null) {
+            return;
+        }
+        long durationMs = (System.nanoTime() - executeStartNanos) / 1_000_000;
+        if (durationMs >= diagnostics.getSlowQueryThresholdMs()) {
+            diagnostics.recordSlowQuery(lastSql, durationMs, QueryDiagnostics.callSite());
+        }
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        completeTransaction();
+    }
+
+    @Override
+    public void end() {
+        completeTransaction();
+        if (QueryDiagnostics.ACTIVE_LISTENER.get() == this) {
+            if (previous != null) {
+                QueryDiagnostics.ACTIVE_LISTENER.set(previous);
+            } else {
+                QueryDiagnostics.ACTIVE_LISTENER.remove();
+            }
+        }
+    }
+
+    private void completeTransaction() {
+        if (diagnostics == null || statementCount == 0) {
+            return;
+        }
+        diagnostics.recordTransaction(statementCount);
+        for (Map.Entry<String, String> entry : repeatedSelectCallSites.entrySet()) {
+            diagnostics.recordRepeatedSelect(entry.getKey(), selectCounts.get(entry.getKey()), entry.getValue());
+        }
+        statementCount = 0;
+        lastSql = null;
+        selectCounts.clear();
+        repeatedSelectCallSites.clear();
+    }
+}
@@ -1,11 +1,14 @@
 package com.enrollment.system.util;
 
 import com.enrollment.system.dto.UserDto;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.time.LocalDateTime;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class SessionManager {
@@ -13,6 +16,13 @@ public class SessionManager {
     private static SessionManager instance;
     private final Map<String, Session> activeSessions = new ConcurrentHashMap<>();
     private static final int SESSION_TIMEOUT_MINUTES = 120; // 2 hours
+    private static final long SESSION_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(SESSION_TIMEOUT_MINUTES);
+    
+    // Expiry queue ordered by deadline, so the reaper only ever looks at the head. A session that
+    // was used after its entry was queued is re-queued with its new deadline instead of being
+    // removed; that deadline can be earlier than ones already queued, hence the ordering.
+    private final Queue<ExpiryEntry> expiryQueue = new PriorityBlockingQueue<>(16,
+            (a, b) -> Long.signum(a.deadline - b.deadline));
     
     public SessionManager() {
         instance = this;
@@ -27,15 +37,17 @@ public class SessionManager {
     
     public String createSession(UserDto user) {
         String sessionToken = UUID.randomUUID().toString();
-        Session session = new Session(user, LocalDateTime.now());
+        Session session = new Session(user, System.nanoTime());
         activeSessions.put(sessionToken, session);
+        expiryQueue.add(new ExpiryEntry(sessionToken, session, session.getLastActivity() + SESSION_TIMEOUT_NANOS));
         return sessionToken;
     }
     
     public UserDto getUser(String sessionToken) {
         Session session = activeSessions.get(sessionToken);
-        if (session != null && isSessionValid(session)) {
-            session.updateLastActivity();
+        long now = System.nanoTime();
+        if (session != null && isSessionValid(session, now)) {
+            session.updateLastActivity(now);
             return session.getUser();
         }
         return null;
@@ -43,28 +55,59 @@ public class SessionManager {
     
     public boolean isValidSession(String sessionToken) {
         Session session = activeSessions.get(sessionToken);
-        return session != null && isSessionValid(session);
+        return session != null && isSessionValid(session, System.nanoTime());
     }
     
-    private boolean isSessionValid(Session session) {
-        LocalDateTime timeout = session.getLastActivity().plusMinutes(SESSION_TIMEOUT_MINUTES);
-        return LocalDateTime.now().isBefore(timeout);
+    private boolean isSessionValid(Session session, long now) {
+        // Compare elapsed time rather than absolute values - nanoTime may be negative or wrap
+        return now - session.getLastActivity() < SESSION_TIMEOUT_NANOS;
     }
     
     public void invalidateSession(String sessionToken) {
+        // The queue entry is dropped by the reaper once it reaches the head
         activeSessions.remove(sessionToken);
     }
     
-    public void cleanupExpiredSessions() {
-        activeSessions.entrySet().removeIf(entry -> !isSessionValid(entry.getValue()));
+    /**
+     * Remove expired sessions. Runs on a schedule (every minute by default); only the entries whose
+     * queued deadline has passed are examined, so a pass over an idle queue costs a single peek.
+     */
+    @Scheduled(fixedDelayString = "${enrollment.session.reaper-interval-ms:60000}")
+    public synchronized void cleanupExpiredSessions() {
+        long now = System.nanoTime();
+        int expired = 0;
+        
+        ExpiryEntry entry;
+        while ((entry = expiryQueue.peek()) != null && now - entry.deadline >= 0) {
+            expiryQueue.poll();
+            if (activeSessions.get(entry.token) != entry.session) {
+                // Already invalidated (logout)
+                continue;
+            }
+            if (isSessionValid(entry.session, now)) {
+                // Used since it was queued - queue again with its current deadline
+                expiryQueue.add(new ExpiryEntry(entry.token, entry.session,
+                        entry.session.getLastActivity() + SESSION_TIMEOUT_NANOS));
+            } else if (activeSessions.remove(entry.token, entry.session)) {
+                expired++;
+            }
+        }
+        
+        if (expired > 0) {
+            System.out.println("✓ Removed " + expired + " expired session(s), " + activeSessions.size() + " active");
+        }
+    }
+    
+    public int getActiveSessionCount() {
+        return activeSessions.size();
     }
     
     // Inner class for session data
     private static class Session {
         private final UserDto user;
-        private LocalDateTime lastActivity;
+        private volatile long lastActivity; // System.nanoTime()
         
-        public Session(UserDto user, LocalDateTime lastActivity) {
+        public Session(UserDto user, long lastActivity) {
             this.user = user;
             this.lastActivity = lastActivity;
         }
@@ -73,12 +116,24 @@ public class SessionManager {
             return user;
         }
         
-        public LocalDateTime getLastActivity() {
+        public long getLastActivity() {
             return lastActivity;
         }
         
-        public void updateLastActivity() {
-            this.lastActivity = LocalDateTime.now();
+        public void updateLastActivity(long now) {
+            this.lastActivity = now;
+        }
+    }
+    
+    private static class ExpiryEntry {
+        private final String token;
+        private final Session session;
+        private final long deadline; // System.nanoTime()
+        
+        ExpiryEntry(String token, Session session, long deadline) {
+            this.token = token;
+            this.session = session;
+            this.deadline = deadline;
         }
     }
 }
\ No newline at end of file
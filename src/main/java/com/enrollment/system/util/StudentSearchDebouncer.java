@@ -0,0 +1,84 @@
+package com.enrollment.system.util;
+
+import com.enrollment.system.service.StudentSearchService;
+import com.enrollment.system.service.StudentSearchService.MatchingIds;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs StudentSearchService.findMatchingIds for a search box without blocking the JavaFX thread.
+ * Every keystroke restarts a short pause; once typing stops the query runs on a background thread
+ * and its result is handed back on the JavaFX thread, unless a newer search has started meanwhile.
+ *
+ * Create and call it on the JavaFX thread.
+ */
+public class StudentSearchDebouncer {
+
+    private static final Duration DELAY = Duration.millis(250);
+
+    private final StudentSearchService studentSearchService;
+    private final Boolean archived;
+    private final BiConsumer<String, MatchingIds> onResult;
+    private final PauseTransition delay = new PauseTransition(DELAY);
+    private final AtomicLong generation = new AtomicLong();
+    private String pendingText = "";
+
+    /**
+     * @param archived passed to findMatchingIds: true archived only, false active only, null both
+     * @param onResult receives the searched text (trimmed, lower case) and the matching ids
+     */
+    public StudentSearchDebouncer(StudentSearchService studentSearchService, Boolean archived,
+                                  BiConsumer<String, MatchingIds> onResult) {
+        this.studentSearchService = studentSearchService;
+        this.archived = archived;
+        this.onResult = onResult;
+        delay.setOnFinished(event -> run(pendingText));
+    }
+
+    /**
+     * Search for text once typing pauses. Empty text is passed on at once.
+     */
+    public void search(String text) {
+        pendingText = normalize(text);
+        if (pendingText.isEmpty()) {
+            delay.stop();
+            run(pendingText);
+            return;
+        }
+        delay.playFromStart();
+    }
+
+    private void run(String text) {
+        long current = generation.incrementAndGet();
+        if (text.isEmpty()) {
+            onResult.accept(text, MatchingIds.NONE);
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            MatchingIds ids;
+            try {
+                ids = studentSearchService.findMatchingIds(text, archived);
+            } catch (Exception e) {
+                // The screens still match name and LRN on the loaded rows
+                System.err.println("⚠ Student search failed: " + e.getMessage());
+                ids = MatchingIds.NONE;
+            }
+            MatchingIds result = ids;
+            Platform.runLater(() -> {
+                if (generation.get() == current) {
+                    onResult.accept(text, result);
+                }
+            });
+        }, "student-search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static String normalize(String text) {
+        return text != null ? text.trim().toLowerCase() : "";
+    }
+}
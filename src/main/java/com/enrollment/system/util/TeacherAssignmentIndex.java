@@ -0,0 +1,272 @@
+package com.enrollment.system.util;
+
+import com.enrollment.system.repository.TeacherAssignmentRepository;
+import com.enrollment.system.repository.TeacherAssignmentRepositoryCustom.SubjectSection;
+import com.enrollment.system.service.ChangeDetectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory copy of the teacher_assignments table, kept as two maps:
+ * (subjectId, sectionId) → teacherId and teacherId → its (subjectId, sectionId) pairs.
+ *
+ * It is loaded once at startup (or on first use) and then updated by the services that write
+ * assignments, after their transaction commits, so conflict checks and the 8-assignment cap are
+ * answered without a database round-trip. Writes that bypass those services should call invalidate().
+ *
+ * Other PCs sharing the database file write without telling this JVM, so every lookup first asks
+ * ChangeDetectionService whether teacher_assignments changed since the load, and reloads if it did
+ * (a single PRAGMA when nothing changed). Without change tracking only this JVM's writes are seen.
+ *
+ * This JVM's own writes bump the counter too. Just before such a transaction commits, while it
+ * still holds SQLite's write lock, the index catches up with other PCs and notes the counter the
+ * commit will leave behind; after the commit it applies the change and takes that counter as its
+ * own, so the next lookup does not reload.
+ */
+@Component
+public class TeacherAssignmentIndex {
+
+    @Autowired
+    private TeacherAssignmentRepository teacherAssignmentRepository;
+
+    @Autowired
+    private ChangeDetectionService changeDetectionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<SubjectSection, Long> teacherByPair = new HashMap<>();
+    private final Map<Long, Set<SubjectSection>> pairsByTeacher = new HashMap<>();
+    private boolean loaded;
+    // Table counters when the maps were loaded; null when change tracking is unavailable
+    private Map<String, Long> loadedVersions;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            synchronized (this) {
+                loaded = false;
+                ensureLoaded();
+            }
+            System.out.println("✓ Teacher assignment index loaded (" + size() + " assignments)");
+        } catch (Exception e) {
+            // Loaded again on first use
+            System.err.println("⚠ Warning: Could not load teacher assignment index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Teacher other than excludeTeacherId holding the subject-section pair, or null.
+     */
+    public synchronized Long findConflictingTeacher(Long subjectId, Long sectionId, Long excludeTeacherId) {
+        ensureLoaded();
+        Long teacherId = teacherByPair.get(new SubjectSection(subjectId, sectionId));
+        return teacherId != null && !teacherId.equals(excludeTeacherId) ? teacherId : null;
+    }
+
+    /**
+     * First teacher other than teacherId who holds one of the pairs, or null.
+     */
+    public synchronized Long findConflictingTeacher(Long teacherId, Collection<SubjectSection> pairs) {
+        ensureLoaded();
+        for (SubjectSection pair : pairs) {
+            Long owner = teacherByPair.get(pair);
+            if (owner != null && !owner.equals(teacherId)) {
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean isAssigned(Long teacherId, Long subjectId, Long sectionId) {
+        ensureLoaded();
+        return teacherId.equals(teacherByPair.get(new SubjectSection(subjectId, sectionId)));
+    }
+
+    public synchronized int countAssignments(Long teacherId) {
+        ensureLoaded();
+        Set<SubjectSection> pairs = pairsByTeacher.get(teacherId);
+        return pairs != null ? pairs.size() : 0;
+    }
+
+    public synchronized long countDistinctSubjects(Long teacherId) {
+        ensureLoaded();
+        Set<SubjectSection> pairs = pairsByTeacher.get(teacherId);
+        return pairs != null ? pairs.stream().map(SubjectSection::getSubjectId).distinct().count() : 0;
+    }
+
+    public synchronized Set<SubjectSection> getAssignments(Long teacherId) {
+        ensureLoaded();
+        Set<SubjectSection> pairs = pairsByTeacher.get(teacherId);
+        return pairs != null ? Collections.unmodifiableSet(new LinkedHashSet<>(pairs)) : Collections.emptySet();
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return teacherByPair.size();
+    }
+
+    /**
+     * Set a teacher's assignments to exactly the given pairs once the current transaction commits.
+     */
+    public void replaceTeacher(Long teacherId, Collection<SubjectSection> pairs) {
+        List<SubjectSection> copy = List.copyOf(pairs);
+        afterCommit(() -> {
+            removeTeacherNow(teacherId);
+            copy.forEach(pair -> addNow(teacherId, pair));
+        });
+    }
+
+    /**
+     * Add pairs to a teacher's assignments once the current transaction commits.
+     */
+    public void addAssignments(Long teacherId, Collection<SubjectSection> pairs) {
+        List<SubjectSection> copy = List.copyOf(pairs);
+        afterCommit(() -> copy.forEach(pair -> addNow(teacherId, pair)));
+    }
+
+    /**
+     * Remove pairs from a teacher's assignments once the current transaction commits.
+     */
+    public void removeAssignments(Long teacherId, Collection<SubjectSection> pairs) {
+        List<SubjectSection> copy = List.copyOf(pairs);
+        afterCommit(() -> copy.forEach(pair -> removeNow(teacherId, pair)));
+    }
+
+    public void removeTeacher(Long teacherId) {
+        afterCommit(() -> removeTeacherNow(teacherId));
+    }
+
+    public void clear() {
+        afterCommit(() -> {
+            teacherByPair.clear();
+            pairsByTeacher.clear();
+        });
+    }
+
+    /**
+     * Drop the index; it is reloaded from the database on next use.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markUnloaded();
+                }
+            });
+        } else {
+            markUnloaded();
+        }
+    }
+
+    private synchronized void markUnloaded() {
+        loaded = false;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                // Nothing to patch before the first load - it will read the committed rows
+                if (loaded) {
+                    update.run();
+                }
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Counter this transaction commits, or null if unknown (the next lookup then reloads)
+            private Long committedVersion;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                synchronized (TeacherAssignmentIndex.this) {
+                    if (!loaded || loadedVersions == null) {
+                        return;
+                    }
+                    try {
+                        // The transaction has written and holds the write lock, so no other PC can
+                        // commit until it does: catch up with theirs now, then read ours
+                        ensureLoaded();
+                        committedVersion = jdbcTemplate.queryForObject(
+                                "SELECT version FROM table_versions WHERE table_name = 'teacher_assignments'", Long.class);
+                    } catch (RuntimeException e) {
+                        committedVersion = null;
+                    }
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                synchronized (TeacherAssignmentIndex.this) {
+                    if (!loaded) {
+                        return;
+                    }
+                    update.run();
+                    if (committedVersion != null && loadedVersions != null) {
+                        Map<String, Long> versions = new HashMap<>(loadedVersions);
+                        versions.put("teacher_assignments", committedVersion);
+                        loadedVersions = versions;
+                    }
+                }
+            }
+        });
+    }
+
+    private void addNow(Long teacherId, SubjectSection pair) {
+        teacherByPair.put(pair, teacherId);
+        pairsByTeacher.computeIfAbsent(teacherId, k -> new LinkedHashSet<>()).add(pair);
+    }
+
+    private void removeNow(Long teacherId, SubjectSection pair) {
+        teacherByPair.remove(pair, teacherId);
+        Set<SubjectSection> pairs = pairsByTeacher.get(teacherId);
+        if (pairs != null) {
+            pairs.remove(pair);
+            if (pairs.isEmpty()) {
+                pairsByTeacher.remove(teacherId);
+            }
+        }
+    }
+
+    private void removeTeacherNow(Long teacherId) {
+        Set<SubjectSection> pairs = pairsByTeacher.remove(teacherId);
+        if (pairs != null) {
+            for (SubjectSection pair : pairs) {
+                teacherByPair.remove(pair, teacherId);
+            }
+        }
+    }
+
+    // Callers hold the lock
+    private void ensureLoaded() {
+        if (loaded && (loadedVersions == null
+                || !changeDetectionService.hasChanged(loadedVersions, "teacher_assignments"))) {
+            return;
+        }
+        // Read the counters first, so a write landing during the load is picked up next time
+        Map<String, Long> versions = changeDetectionService.getTableVersions();
+        teacherByPair.clear();
+        pairsByTeacher.clear();
+        for (Object[] row : teacherAssignmentRepository.findAllAssignmentIds()) {
+            if (row[0] != null && row[1] != null && row[2] != null) {
+                addNow((Long) row[0], new SubjectSection((Long) row[1], (Long) row[2]));
+            }
+        }
+        loadedVersions = versions;
+        loaded = true;
+    }
+}
@@ -34,6 +34,9 @@ public class TeacherSubjectAssigner {
     @Autowired
     private TeacherAssignmentRepository teacherAssignmentRepository;
     
+    @Autowired
+    private TeacherAssignmentIndex teacherAssignmentIndex;
+    
     /**
      * Assigns 8 complete subject-section assignments to teachers named "Hazel" and "Arnel"
      * Each assignment includes subject, section, grade, and strand information.
@@ -197,6 +200,10 @@ public class TeacherSubjectAssigner {
         if (!assignmentsToCreate.isEmpty()) {
             teacherAssignmentRepository.saveAll(assignmentsToCreate);
             teacherAssignmentRepository.flush();
+            teacherAssignmentIndex.addAssignments(teacher.getId(), assignmentsToCreate.stream()
+                    .map(assignment -> new TeacherAssignmentRepository.SubjectSection(
+                            assignment.getSubject().getId(), assignment.getSection().getId()))
+                    .collect(Collectors.toList()));
             
             System.out.println("✓ Assigned " + assignmentsToCreate.size() + " complete assignments to " + 
                     teacher.getFullName() + " (Total: " + (currentAssignmentCount + assignmentsToCreate.size()) + " assignments)");
@@ -0,0 +1,42 @@
+package com.enrollment.system.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Times the data load that each JavaFX screen performs on its background thread.
+ * Recorded as the enrollment.ui.load timer, tagged with the screen name and outcome.
+ */
+@Component
+public class UiLoadMetrics {
+
+    public static final String METRIC_NAME = "enrollment.ui.load";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Run the given load and record how long it took under the given view name.
+     * Exceptions are recorded with outcome=error and rethrown unchanged.
+     */
+    public <T> T time(String view, Supplier<T> load) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return load.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Background data load of a JavaFX screen")
+                    .tag("view", view)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}